@@ -0,0 +1,121 @@
+package sootup.analysis.interprocedural.icfg;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.core.frontend.ResolveException;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.typehierarchy.MethodDispatchResolver;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+
+/**
+ * Resolves the possible targets of a single call site. It is used by {@link
+ * OnDemandInterproceduralCFG} to resolve calls when they are reached instead of computing a whole
+ * call graph upfront.
+ */
+@FunctionalInterface
+public interface CallTargetResolver {
+
+  /**
+   * @param caller the method that contains the call
+   * @param callStmt a Stmt that contains an invoke expression
+   * @return the signatures of the methods that can be called
+   */
+  @Nonnull
+  Collection<MethodSignature> resolveCallTargets(
+      @Nonnull SootMethod caller, @Nonnull Stmt callStmt);
+
+  /**
+   * Resolves a call to the invoked method signature only, i.e. the same as {@link
+   * JimpleBasedInterproceduralCFG} does.
+   */
+  @Nonnull
+  static CallTargetResolver declaredTarget() {
+    return (caller, callStmt) ->
+        Collections.singleton(callStmt.getInvokeExpr().getMethodSignature());
+  }
+
+  /** Resolves a call to all implementations in the class hierarchy like the CHA algorithm. */
+  @Nonnull
+  static CallTargetResolver classHierarchy(@Nonnull View<? extends SootClass<?>> view) {
+    final ClassHierarchyAnalysisAlgorithm cha = new ClassHierarchyAnalysisAlgorithm(view);
+    return (caller, callStmt) ->
+        cha.resolveCall(caller, callStmt.getInvokeExpr()).collect(Collectors.toSet());
+  }
+
+  /**
+   * Resolves a call using a precomputed CallGraph (e.g. created by RTA): the targets are the
+   * callees of the caller in the CallGraph that have the name and parameters of the invoked method
+   * and that can be reached via the declared receiver type, i.e. they are declared in that type, in
+   * one of its subtypes or are inherited by it. So two calls of a method with the same name and
+   * parameters on unrelated types do not get the targets of each other.
+   */
+  @Nonnull
+  static CallTargetResolver callGraph(
+      @Nonnull View<? extends SootClass<?>> view, @Nonnull CallGraph callGraph) {
+    final TypeHierarchy hierarchy = view.getTypeHierarchy();
+    return (caller, callStmt) -> {
+      if (!callGraph.containsMethod(caller.getSignature())) {
+        return Collections.emptySet();
+      }
+      final MethodSignature invokedMethod = callStmt.getInvokeExpr().getMethodSignature();
+      final ClassType declaredType = invokedMethod.getDeclClassType();
+      final Set<MethodSignature> targets = new HashSet<>();
+      final Set<MethodSignature> supertypeCallees = new HashSet<>();
+      for (MethodSignature callee : callGraph.callsFrom(caller.getSignature())) {
+        if (!callee.getSubSignature().equals(invokedMethod.getSubSignature())) {
+          continue;
+        }
+        final ClassType calleeType = callee.getDeclClassType();
+        if (calleeType.equals(declaredType) || hierarchy.isSubtype(declaredType, calleeType)) {
+          targets.add(callee);
+        } else if (hierarchy.isSubtype(calleeType, declaredType)) {
+          supertypeCallees.add(callee);
+        }
+      }
+      if (!supertypeCallees.isEmpty()) {
+        // the implementation of a supertype is a target only if the declared type inherits it
+        try {
+          MethodDispatchResolver.resolveConcreteDispatch(view, invokedMethod)
+              .filter(supertypeCallees::contains)
+              .ifPresent(targets::add);
+        } catch (ResolveException e) {
+          // the declared type does not inherit a concrete implementation
+        }
+      }
+      return targets;
+    };
+  }
+}
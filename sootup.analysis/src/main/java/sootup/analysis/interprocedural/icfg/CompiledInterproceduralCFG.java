@@ -0,0 +1,517 @@
+package sootup.analysis.interprocedural.icfg;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import heros.ThreadSafe;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.util.ExecutorUtils;
+import sootup.core.views.View;
+
+/**
+ * An interprocedural control flow graph that is computed completely at construction time. Every
+ * Stmt of the methods of the CallGraph gets a dense int id; the owner method, successors,
+ * predecessors and the call/exit/start/return-site flags are stored in primitive arrays indexed by
+ * that id. The per method tables are created in parallel.
+ *
+ * <p>In contrast to {@link JimpleBasedInterproceduralCFG} no lookups in the view or in caches are
+ * necessary while solving, so queries of a solver are cheap and need no synchronization. Callees of
+ * a call are resolved the same way as in {@link JimpleBasedInterproceduralCFG}: the invoked method
+ * signature is resolved in the view and kept if it has a body.
+ */
+@ThreadSafe
+public class CompiledInterproceduralCFG implements BiDiInterproceduralCFG<Stmt, SootMethod> {
+
+  private static final byte CALL = 1;
+  private static final byte EXIT = 1 << 1;
+  private static final byte START = 1 << 2;
+  private static final byte RETURN_SITE = 1 << 3;
+
+  @Nonnull private final SootMethod[] methods;
+  @Nonnull private final Map<MethodSignature, Integer> methodIds;
+  /** stmts of method i have the ids methodOffsets[i] until methodOffsets[i+1] (exclusive) */
+  @Nonnull private final int[] methodOffsets;
+
+  @Nonnull private final Stmt[] stmts;
+  @Nonnull private final int[] stmtIdTable;
+  @Nonnull private final int[] owner;
+  @Nonnull private final byte[] flags;
+  @Nonnull private final int[] successorOffsets;
+  @Nonnull private final int[] successors;
+  @Nonnull private final int[] predecessorOffsets;
+  @Nonnull private final int[] predecessors;
+  /** callees per stmt id; null if the stmt is not a call */
+  @Nonnull private final SootMethod[][] callees;
+
+  @Nonnull private final Map<MethodSignature, int[]> callers;
+  @Nonnull private final MethodTable[] methodTables;
+
+  @Nullable private volatile Set<Stmt> nonCallStartNodes;
+  @Nullable private volatile Set<Stmt> nonCallEndNodes;
+
+  /**
+   * Creates the ICFG of the methods that are reachable from the given entry method in a
+   * ClassHierarchyAnalysis CallGraph.
+   */
+  public CompiledInterproceduralCFG(
+      @Nonnull View<? extends SootClass<?>> view,
+      @Nonnull MethodSignature entryMethodSignature,
+      int parallelism) {
+    this(
+        view,
+        new ClassHierarchyAnalysisAlgorithm(view)
+            .initialize(Collections.singletonList(entryMethodSignature)),
+        parallelism);
+  }
+
+  /**
+   * Creates the ICFG of all methods of the given CallGraph that have a body.
+   *
+   * @param parallelism the number of threads that create the per method tables
+   */
+  public CompiledInterproceduralCFG(
+      @Nonnull View<? extends SootClass<?>> view, @Nonnull CallGraph cg, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be at least 1 but is " + parallelism);
+    }
+
+    // sorted to get the same ids on every run
+    final List<SootMethod> methodList = new ArrayList<>();
+    cg.getMethodSignatures().stream()
+        .sorted(Comparator.comparing(MethodSignature::toString))
+        .forEach(
+            sig ->
+                view.getMethod(sig)
+                    .filter(SootMethod::hasBody)
+                    .ifPresent(m -> methodList.add((SootMethod) m)));
+    methods = methodList.toArray(new SootMethod[0]);
+    methodIds = new HashMap<>(methods.length * 2);
+    for (int i = 0; i < methods.length; i++) {
+      methodIds.put(methods[i].getSignature(), i);
+    }
+
+    methodTables = compileMethods(view, parallelism);
+
+    // link the per method tables
+    methodOffsets = new int[methods.length + 1];
+    int succCount = 0;
+    int predCount = 0;
+    for (int i = 0; i < methods.length; i++) {
+      final MethodTable table = methodTables[i];
+      methodOffsets[i + 1] = methodOffsets[i] + table.stmts.length;
+      succCount += table.successors.length;
+      predCount += table.predecessors.length;
+    }
+    final int stmtCount = methodOffsets[methods.length];
+    stmts = new Stmt[stmtCount];
+    owner = new int[stmtCount];
+    flags = new byte[stmtCount];
+    callees = new SootMethod[stmtCount][];
+    successorOffsets = new int[stmtCount + 1];
+    successors = new int[succCount];
+    predecessorOffsets = new int[stmtCount + 1];
+    predecessors = new int[predCount];
+
+    final Map<MethodSignature, List<Integer>> callerLists = new HashMap<>();
+    int succIdx = 0;
+    int predIdx = 0;
+    for (int i = 0; i < methods.length; i++) {
+      final MethodTable table = methodTables[i];
+      final int offset = methodOffsets[i];
+      System.arraycopy(table.stmts, 0, stmts, offset, table.stmts.length);
+      System.arraycopy(table.flags, 0, flags, offset, table.flags.length);
+      System.arraycopy(table.callees, 0, callees, offset, table.callees.length);
+      Arrays.fill(owner, offset, offset + table.stmts.length, i);
+      for (int local = 0; local < table.stmts.length; local++) {
+        final int id = offset + local;
+        for (int k = table.successorOffsets[local]; k < table.successorOffsets[local + 1]; k++) {
+          successors[succIdx++] = offset + table.successors[k];
+        }
+        successorOffsets[id + 1] = succIdx;
+        for (int k = table.predecessorOffsets[local];
+            k < table.predecessorOffsets[local + 1];
+            k++) {
+          predecessors[predIdx++] = offset + table.predecessors[k];
+        }
+        predecessorOffsets[id + 1] = predIdx;
+
+        final SootMethod[] targets = table.callees[local];
+        if (targets != null) {
+          for (SootMethod target : targets) {
+            callerLists.computeIfAbsent(target.getSignature(), k -> new ArrayList<>()).add(id);
+          }
+        }
+      }
+    }
+    callers = new HashMap<>(callerLists.size() * 2);
+    callerLists.forEach(
+        (sig, ids) -> callers.put(sig, ids.stream().mapToInt(Integer::intValue).toArray()));
+
+    int tableSize = Integer.highestOneBit(Math.max(stmtCount, 1) * 2) << 1;
+    stmtIdTable = new int[tableSize];
+    for (int id = 0; id < stmtCount; id++) {
+      int slot = slotOf(stmts[id]);
+      while (stmtIdTable[slot] != 0) {
+        slot = (slot + 1) & (tableSize - 1);
+      }
+      stmtIdTable[slot] = id + 1;
+    }
+  }
+
+  @Nonnull
+  private MethodTable[] compileMethods(@Nonnull View<?> view, int parallelism) {
+    final MethodTable[] tables = new MethodTable[methods.length];
+    final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    ExecutorUtils.forEach(
+        IntStream.range(0, methods.length).boxed().collect(Collectors.toList()),
+        parallelism,
+        idx -> {
+          try {
+            tables[idx] = new MethodTable(view, methods[idx]);
+          } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+          }
+        });
+    if (failure.get() != null) {
+      throw failure.get();
+    }
+    return tables;
+  }
+
+  private int slotOf(@Nonnull Stmt stmt) {
+    final int h = System.identityHashCode(stmt) * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & (stmtIdTable.length - 1);
+  }
+
+  /** @return the id of the given Stmt or -1 if it is not part of this ICFG */
+  public int getStmtId(@Nonnull Stmt stmt) {
+    int slot = slotOf(stmt);
+    int entry;
+    while ((entry = stmtIdTable[slot]) != 0) {
+      if (stmts[entry - 1] == stmt) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & (stmtIdTable.length - 1);
+    }
+    return -1;
+  }
+
+  private int idOf(@Nonnull Stmt stmt) {
+    final int id = getStmtId(stmt);
+    if (id < 0) {
+      throw new IllegalArgumentException("Stmt " + stmt + " is not part of the ICFG.");
+    }
+    return id;
+  }
+
+  @Nonnull
+  public Stmt getStmt(int id) {
+    return stmts[id];
+  }
+
+  /** @return the number of Stmts i.e. the upper bound (exclusive) of the Stmt ids */
+  public int getStmtCount() {
+    return stmts.length;
+  }
+
+  /** @return the methods of this ICFG; the index in the List is the method id */
+  @Nonnull
+  public List<SootMethod> getMethods() {
+    return Collections.unmodifiableList(Arrays.asList(methods));
+  }
+
+  @Nullable
+  private MethodTable tableOf(@Nonnull SootMethod method) {
+    final Integer id = methodIds.get(method.getSignature());
+    return id == null ? null : methodTables[id];
+  }
+
+  @Override
+  public SootMethod getMethodOf(Stmt stmt) {
+    final int id = getStmtId(stmt);
+    return id < 0 ? null : methods[owner[id]];
+  }
+
+  @Override
+  public List<Stmt> getPredsOf(Stmt stmt) {
+    final int id = idOf(stmt);
+    return new StmtIdList(predecessors, predecessorOffsets[id], predecessorOffsets[id + 1]);
+  }
+
+  @Override
+  public List<Stmt> getSuccsOf(Stmt stmt) {
+    final int id = getStmtId(stmt);
+    if (id < 0) {
+      return Collections.emptyList();
+    }
+    return new StmtIdList(successors, successorOffsets[id], successorOffsets[id + 1]);
+  }
+
+  @Override
+  public Collection<SootMethod> getCalleesOfCallAt(Stmt stmt) {
+    final SootMethod[] targets = callees[idOf(stmt)];
+    return targets == null
+        ? Collections.emptyList()
+        : Collections.unmodifiableList(Arrays.asList(targets));
+  }
+
+  @Override
+  public Collection<Stmt> getCallersOf(SootMethod method) {
+    final int[] ids = callers.get(method.getSignature());
+    return ids == null ? Collections.emptyList() : new StmtIdList(ids, 0, ids.length);
+  }
+
+  @Override
+  public Set<Stmt> getCallsFromWithin(SootMethod method) {
+    final MethodTable table = tableOf(method);
+    return table == null ? Collections.emptySet() : table.callsFromWithin;
+  }
+
+  @Override
+  public Collection<Stmt> getStartPointsOf(SootMethod method) {
+    final MethodTable table = tableOf(method);
+    if (table != null) {
+      return table.startPoints;
+    }
+    return method.hasBody()
+        ? method.getBody().getStmtGraph().getEntrypoints()
+        : Collections.emptySet();
+  }
+
+  @Override
+  public Collection<Stmt> getEndPointsOf(SootMethod method) {
+    final MethodTable table = tableOf(method);
+    if (table != null) {
+      return table.endPoints;
+    }
+    return method.hasBody() ? method.getBody().getStmtGraph().getTails() : Collections.emptySet();
+  }
+
+  @Override
+  public Collection<Stmt> getReturnSitesOfCallAt(Stmt stmt) {
+    return getSuccsOf(stmt);
+  }
+
+  @Override
+  public List<Stmt> getPredsOfCallAt(Stmt stmt) {
+    return getPredsOf(stmt);
+  }
+
+  @Override
+  public boolean isCallStmt(Stmt stmt) {
+    return stmt.containsInvokeExpr();
+  }
+
+  @Override
+  public boolean isExitStmt(Stmt stmt) {
+    return (flags[idOf(stmt)] & EXIT) != 0;
+  }
+
+  @Override
+  public boolean isStartPoint(Stmt stmt) {
+    return (flags[idOf(stmt)] & START) != 0;
+  }
+
+  @Override
+  public boolean isReturnSite(Stmt stmt) {
+    return (flags[idOf(stmt)] & RETURN_SITE) != 0;
+  }
+
+  @Override
+  public boolean isReachable(Stmt stmt) {
+    return getStmtId(stmt) >= 0;
+  }
+
+  @Override
+  public boolean isFallThroughSuccessor(Stmt stmt, Stmt successorCandidate) {
+    if (!stmt.fallsThrough()) {
+      return false;
+    }
+    final int id = idOf(stmt);
+    return successorOffsets[id] < successorOffsets[id + 1]
+        && stmts[successors[successorOffsets[id]]] == successorCandidate;
+  }
+
+  @Override
+  public boolean isBranchTarget(Stmt stmt, Stmt successor) {
+    return stmt.branches();
+  }
+
+  @Override
+  public Set<Stmt> allNonCallStartNodes() {
+    Set<Stmt> nodes = nonCallStartNodes;
+    if (nodes == null) {
+      nodes = collectStmtsWithout((byte) (START | CALL));
+      nonCallStartNodes = nodes;
+    }
+    return nodes;
+  }
+
+  @Override
+  public Set<Stmt> allNonCallEndNodes() {
+    Set<Stmt> nodes = nonCallEndNodes;
+    if (nodes == null) {
+      nodes = collectStmtsWithout((byte) (EXIT | CALL));
+      nonCallEndNodes = nodes;
+    }
+    return nodes;
+  }
+
+  @Nonnull
+  private Set<Stmt> collectStmtsWithout(byte mask) {
+    final Set<Stmt> nodes = new LinkedHashSet<>();
+    for (int id = 0; id < stmts.length; id++) {
+      if ((flags[id] & mask) == 0) {
+        nodes.add(stmts[id]);
+      }
+    }
+    return Collections.unmodifiableSet(nodes);
+  }
+
+  @Override
+  public StmtGraph<?> getOrCreateStmtGraph(SootMethod method) {
+    final MethodTable table = tableOf(method);
+    return table == null ? method.getBody().getStmtGraph() : table.body.getStmtGraph();
+  }
+
+  @Override
+  public List<Value> getParameterRefs(SootMethod method) {
+    final MethodTable table = tableOf(method);
+    return table == null
+        ? new ArrayList<>(method.getBody().getParameterLocals())
+        : table.parameterRefs;
+  }
+
+  /** An unmodifiable List view of a range of Stmt ids. */
+  private class StmtIdList extends AbstractList<Stmt> implements RandomAccess {
+    @Nonnull private final int[] ids;
+    private final int from;
+    private final int to;
+
+    StmtIdList(@Nonnull int[] ids, int from, int to) {
+      this.ids = ids;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    public Stmt get(int index) {
+      if (index < 0 || index >= to - from) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + (to - from));
+      }
+      return stmts[ids[from + index]];
+    }
+
+    @Override
+    public int size() {
+      return to - from;
+    }
+  }
+
+  /** The tables of a single method; the Stmts are indexed locally i.e. starting from zero. */
+  private static class MethodTable {
+    @Nonnull final Body body;
+    @Nonnull final Stmt[] stmts;
+    @Nonnull final byte[] flags;
+    @Nonnull final SootMethod[][] callees;
+    @Nonnull final int[] successorOffsets;
+    @Nonnull final int[] successors;
+    @Nonnull final int[] predecessorOffsets;
+    @Nonnull final int[] predecessors;
+    @Nonnull final List<Stmt> startPoints;
+    @Nonnull final List<Stmt> endPoints;
+    @Nonnull final Set<Stmt> callsFromWithin;
+    @Nonnull final List<Value> parameterRefs;
+
+    MethodTable(@Nonnull View<?> view, @Nonnull SootMethod method) {
+      body = method.getBody();
+      final StmtGraph<?> graph = body.getStmtGraph();
+      stmts = body.getStmts().toArray(new Stmt[0]);
+      final int n = stmts.length;
+      final Map<Stmt, Integer> localIds = new IdentityHashMap<>(n * 2);
+      for (int i = 0; i < n; i++) {
+        localIds.put(stmts[i], i);
+      }
+
+      flags = new byte[n];
+      callees = new SootMethod[n][];
+      successorOffsets = new int[n + 1];
+      predecessorOffsets = new int[n + 1];
+      final List<Integer> succs = new ArrayList<>(n);
+      final List<Integer> preds = new ArrayList<>(n);
+      final Set<Stmt> calls = new LinkedHashSet<>();
+      for (int i = 0; i < n; i++) {
+        final Stmt stmt = stmts[i];
+        for (Stmt succ : graph.successors(stmt)) {
+          succs.add(localIds.get(succ));
+        }
+        successorOffsets[i + 1] = succs.size();
+        for (Stmt pred : graph.predecessors(stmt)) {
+          final Integer predId = localIds.get(pred);
+          preds.add(predId);
+          if (stmts[predId].containsInvokeExpr()) {
+            flags[i] |= RETURN_SITE;
+          }
+        }
+        predecessorOffsets[i + 1] = preds.size();
+
+        if (stmt.containsInvokeExpr()) {
+          flags[i] |= CALL;
+          calls.add(stmt);
+          callees[i] =
+              view.getMethod(stmt.getInvokeExpr().getMethodSignature())
+                  .filter(SootMethod::hasBody)
+                  .map(m -> new SootMethod[] {m})
+                  .orElse(new SootMethod[0]);
+        }
+      }
+      successors = succs.stream().mapToInt(Integer::intValue).toArray();
+      predecessors = preds.stream().mapToInt(Integer::intValue).toArray();
+
+      startPoints = Collections.unmodifiableList(new ArrayList<>(graph.getEntrypoints()));
+      for (Stmt stmt : startPoints) {
+        flags[localIds.get(stmt)] |= START;
+      }
+      endPoints = Collections.unmodifiableList(new ArrayList<>(graph.getTails()));
+      for (Stmt stmt : endPoints) {
+        flags[localIds.get(stmt)] |= EXIT;
+      }
+      callsFromWithin =
+          calls.isEmpty() ? Collections.emptySet() : Collections.unmodifiableSet(calls);
+      parameterRefs = Collections.unmodifiableList(new ArrayList<>(body.getParameterLocals()));
+    }
+  }
+}
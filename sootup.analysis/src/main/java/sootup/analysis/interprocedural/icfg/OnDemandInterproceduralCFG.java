@@ -0,0 +1,146 @@
+package sootup.analysis.interprocedural.icfg;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import heros.SynchronizedBy;
+import heros.ThreadSafe;
+import heros.solver.IDESolver;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.views.View;
+
+/**
+ * An interprocedural control flow graph that is expanded while it is used. In contrast to {@link
+ * JimpleBasedInterproceduralCFG} no call graph is computed upfront: only the entry methods are
+ * known at construction time. The callees of a call site are resolved by the given {@link
+ * CallTargetResolver} when they are requested for the first time, i.e. when a solver reaches the
+ * call, and the Stmts of a method are registered when the method is reached.
+ *
+ * <p>Therefore the queries that consider the whole program ({@link #getCallersOf(SootMethod)},
+ * {@link #allNonCallStartNodes()}, {@link #allNonCallEndNodes()} and {@link #isReachable(Stmt)})
+ * only know the part of the program that was reached so far. This fits forward analyses that start
+ * at the entry methods.
+ */
+@ThreadSafe
+public class OnDemandInterproceduralCFG extends AbstractJimpleBasedICFG {
+
+  @Nonnull private final CallTargetResolver resolver;
+  @Nonnull private final Set<MethodSignature> reachedMethods = ConcurrentHashMap.newKeySet();
+  @Nonnull private final Map<MethodSignature, Set<Stmt>> callers = new ConcurrentHashMap<>();
+
+  @SynchronizedBy("by use of synchronized LoadingCache class")
+  protected final LoadingCache<Stmt, Collection<SootMethod>> stmtToCallees =
+      IDESolver.DEFAULT_CACHE_BUILDER.build(
+          new CacheLoader<Stmt, Collection<SootMethod>>() {
+            @Override
+            public Collection<SootMethod> load(@Nonnull Stmt stmt) {
+              return resolveCallees(stmt);
+            }
+          });
+
+  public OnDemandInterproceduralCFG(
+      @Nonnull View<? extends SootClass<?>> view,
+      @Nonnull MethodSignature entryMethodSignature,
+      @Nonnull CallTargetResolver resolver) {
+    this(view, Collections.singletonList(entryMethodSignature), resolver, true);
+  }
+
+  public OnDemandInterproceduralCFG(
+      @Nonnull View<? extends SootClass<?>> view,
+      @Nonnull Collection<MethodSignature> entryMethodSignatures,
+      @Nonnull CallTargetResolver resolver,
+      boolean enableExceptions) {
+    super(enableExceptions);
+    this.view = view;
+    this.resolver = resolver;
+    for (MethodSignature entryMethodSignature : entryMethodSignatures) {
+      view.getMethod(entryMethodSignature).ifPresent(this::reachMethod);
+    }
+  }
+
+  @Override
+  protected Map<Stmt, Body> createStmtToOwnerMap() {
+    // filled by the threads of the solver
+    return new ConcurrentHashMap<>();
+  }
+
+  /** registers the Stmts of the method when it is reached for the first time */
+  private void reachMethod(@Nonnull SootMethod method) {
+    if (method.hasBody() && reachedMethods.add(method.getSignature())) {
+      initializeStmtToOwner(method);
+    }
+  }
+
+  @Nonnull
+  private Collection<SootMethod> resolveCallees(@Nonnull Stmt callStmt) {
+    final SootMethod caller = getMethodOf(callStmt);
+    if (caller == null) {
+      return Collections.emptyList();
+    }
+    final ArrayList<SootMethod> callees = new ArrayList<>();
+    for (MethodSignature target : resolver.resolveCallTargets(caller, callStmt)) {
+      final Optional<? extends SootMethod> calleeOpt = view.getMethod(target);
+      if (calleeOpt.isPresent() && calleeOpt.get().hasBody()) {
+        final SootMethod callee = calleeOpt.get();
+        reachMethod(callee);
+        callers.computeIfAbsent(target, k -> ConcurrentHashMap.newKeySet()).add(callStmt);
+        callees.add(callee);
+      }
+    }
+    callees.trimToSize();
+    return callees;
+  }
+
+  @Override
+  public Collection<SootMethod> getCalleesOfCallAt(@Nonnull Stmt stmt) {
+    return stmtToCallees.getUnchecked(stmt);
+  }
+
+  /** @return the call sites of the method that were resolved so far */
+  @Override
+  public Collection<Stmt> getCallersOf(@Nonnull SootMethod method) {
+    final Set<Stmt> callSites = callers.get(method.getSignature());
+    return callSites == null
+        ? Collections.emptySet()
+        : Collections.unmodifiableSet(new LinkedHashSet<>(callSites));
+  }
+
+  @Override
+  public Collection<Stmt> getStartPointsOf(SootMethod method) {
+    reachMethod(method);
+    return super.getStartPointsOf(method);
+  }
+
+  /** @return the number of methods that were reached so far */
+  public int getReachedMethodCount() {
+    return reachedMethods.size();
+  }
+}
@@ -0,0 +1,87 @@
+package sootup.analysis.interprocedural.ifds;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+
+/**
+ * Assigns dense int ids to objects (by equals) and maps them back. Lookups of known objects and of
+ * ids are lock-free; assigning a new id is synchronized.
+ */
+class IdIndex<T> {
+
+  private static final int CHUNK_BITS = 12;
+  private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+
+  @Nonnull private final Map<T, Integer> ids = new ConcurrentHashMap<>();
+  @Nonnull private volatile Object[][] chunks = new Object[16][];
+  private int size;
+
+  /** @return the id of the object; a new id is assigned if the object is unknown */
+  int idOf(@Nonnull T obj) {
+    final Integer id = ids.get(obj);
+    return id != null ? id : assignId(obj);
+  }
+
+  /** @return the id of the object or -1 if it is unknown */
+  int find(@Nonnull T obj) {
+    final Integer id = ids.get(obj);
+    return id == null ? -1 : id;
+  }
+
+  private synchronized int assignId(@Nonnull T obj) {
+    final Integer knownId = ids.get(obj);
+    if (knownId != null) {
+      return knownId;
+    }
+    final int id = size++;
+    final int chunk = id >>> CHUNK_BITS;
+    Object[][] currentChunks = chunks;
+    if (chunk >= currentChunks.length) {
+      final Object[][] newChunks = new Object[currentChunks.length * 2][];
+      System.arraycopy(currentChunks, 0, newChunks, 0, currentChunks.length);
+      currentChunks = newChunks;
+    }
+    if (currentChunks[chunk] == null) {
+      currentChunks[chunk] = new Object[CHUNK_SIZE];
+    }
+    currentChunks[chunk][id & (CHUNK_SIZE - 1)] = obj;
+    chunks = currentChunks;
+    // publishes the id after the object is stored
+    ids.put(obj, id);
+    return id;
+  }
+
+  /** @return the object with the given id; the id must have been returned by idOf before */
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  T get(int id) {
+    return (T) chunks[id >>> CHUNK_BITS][id & (CHUNK_SIZE - 1)];
+  }
+
+  int size() {
+    return ids.size();
+  }
+}
@@ -0,0 +1,433 @@
+package sootup.analysis.interprocedural.ifds;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import heros.FlowFunction;
+import heros.FlowFunctions;
+import heros.IFDSTabulationProblem;
+import heros.InterproceduralCFG;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+
+/**
+ * An IFDS solver implementing the tabulation algorithm of Reps, Horwitz and Sagiv that can be used
+ * instead of {@link JimpleIFDSSolver} for the same {@link IFDSTabulationProblem}s.
+ *
+ * <p>Stmts and facts are mapped to dense int ids, so a path edge &lt;d1, n, d2&gt; is stored as a
+ * single unboxed long (d1, d2) in the set of n. Facts get ids per method: an equal fact in another
+ * method gets another id, so flow functions always get the fact objects that were created for their
+ * own method (like in heros, where the facts are stored per Stmt). The path edges, end summaries
+ * and incoming edges are kept in lock-striped tables, which lets the edges be processed by several
+ * threads without a global lock. The results are the same as the ones of {@link
+ * heros.solver.IFDSSolver#ifdsResultsAt(Object)}.
+ *
+ * <pre>
+ * <code>
+ * ParallelIFDSSolver&lt;Value, ?&gt; solver = new ParallelIFDSSolver&lt;&gt;(problem, 8);
+ * solver.solve();
+ * Set&lt;Value&gt; facts = solver.ifdsResultsAt(stmt);
+ * </code>
+ * </pre>
+ */
+public class ParallelIFDSSolver<D, I extends InterproceduralCFG<Stmt, SootMethod>> {
+
+  private static final Logger logger = LoggerFactory.getLogger(ParallelIFDSSolver.class);
+
+  @Nonnull private final IFDSTabulationProblem<Stmt, D, SootMethod, I> problem;
+  @Nonnull private final I icfg;
+  @Nonnull private final FlowFunctions<Stmt, D, SootMethod> flowFunctions;
+  private final int parallelism;
+  private final boolean autoAddZero;
+  private final boolean followReturnsPastSeeds;
+
+  @Nonnull private final IdIndex<Stmt> stmts = new IdIndex<>();
+  @Nonnull private final IdIndex<SootMethod> methods = new IdIndex<>();
+  @Nonnull private final IdIndex<ScopedFact<D>> facts = new IdIndex<>();
+  @Nonnull private final D zeroValue;
+
+  /** stmt n -> (d1, d2) */
+  @Nonnull private final StripedLongSetMultimap pathEdges;
+  /** (start point, d1) -> (exit stmt, d2) */
+  @Nonnull private final StripedLongSetMultimap endSummaries;
+  /** (start point, d3) -> (call site, d2) */
+  @Nonnull private final StripedLongSetMultimap incoming;
+  /** (call site, d2) -> d1 of the path edges reaching the call */
+  @Nonnull private final StripedLongSetMultimap callSiteSources;
+
+  @Nonnull private final AtomicLong pendingEdges = new AtomicLong();
+  @Nonnull private final AtomicLong processedEdges = new AtomicLong();
+  @Nonnull private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private ThreadPoolExecutor executor;
+  private CountDownLatch done;
+
+  /** Creates a solver that uses {@link IFDSTabulationProblem#numThreads()} threads. */
+  public ParallelIFDSSolver(@Nonnull IFDSTabulationProblem<Stmt, D, SootMethod, I> problem) {
+    this(problem, problem.numThreads());
+  }
+
+  public ParallelIFDSSolver(
+      @Nonnull IFDSTabulationProblem<Stmt, D, SootMethod, I> problem, int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be at least 1 but is " + parallelism);
+    }
+    this.problem = problem;
+    this.icfg = problem.interproceduralCFG();
+    this.flowFunctions = problem.flowFunctions();
+    this.parallelism = parallelism;
+    this.autoAddZero = problem.autoAddZero();
+    this.followReturnsPastSeeds = problem.followReturnsPastSeeds();
+    this.zeroValue = problem.zeroValue();
+    this.pathEdges = new StripedLongSetMultimap(parallelism);
+    this.endSummaries = new StripedLongSetMultimap(parallelism);
+    this.incoming = new StripedLongSetMultimap(parallelism);
+    this.callSiteSources = new StripedLongSetMultimap(parallelism);
+  }
+
+  private static long pack(int high, int low) {
+    return ((long) high << 32) | (low & 0xFFFFFFFFL);
+  }
+
+  private static int high(long packed) {
+    return (int) (packed >>> 32);
+  }
+
+  private static int low(long packed) {
+    return (int) packed;
+  }
+
+  /** Runs the analysis; returns when all path edges are computed. */
+  public void solve() {
+    if (executor != null) {
+      throw new IllegalStateException("The solver was already run.");
+    }
+    final long start = System.nanoTime();
+    executor =
+        new ThreadPoolExecutor(
+            parallelism,
+            parallelism,
+            30,
+            TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(),
+            r -> {
+              final Thread thread = new Thread(r, "ParallelIFDSSolver");
+              thread.setDaemon(true);
+              return thread;
+            });
+    done = new CountDownLatch(1);
+
+    // the guard keeps the counter from reaching zero while the seeds are scheduled
+    pendingEdges.incrementAndGet();
+    for (Map.Entry<Stmt, Set<D>> seed : problem.initialSeeds().entrySet()) {
+      final int startPoint = stmts.idOf(seed.getKey());
+      final int scope = methods.idOf(icfg.getMethodOf(seed.getKey()));
+      for (D fact : seed.getValue()) {
+        propagate(zeroIdOf(scope), startPoint, factIdOf(scope, fact));
+      }
+    }
+    finishEdge();
+
+    try {
+      done.await();
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while solving the IFDS problem.", e);
+    } finally {
+      executor.shutdown();
+    }
+
+    final Throwable error = failure.get();
+    if (error != null) {
+      if (error instanceof RuntimeException) {
+        throw (RuntimeException) error;
+      }
+      if (error instanceof Error) {
+        throw (Error) error;
+      }
+      throw new IllegalStateException(error);
+    }
+    logger.debug(
+        "Processed {} path edges with {} threads in {} ms.",
+        processedEdges.get(),
+        parallelism,
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  private void finishEdge() {
+    if (pendingEdges.decrementAndGet() == 0) {
+      done.countDown();
+    }
+  }
+
+  private void fail(@Nonnull Throwable t) {
+    if (failure.compareAndSet(null, t)) {
+      executor.shutdownNow();
+      done.countDown();
+    }
+  }
+
+  /** adds the path edge &lt;d1, n, d2&gt; and schedules it if it is new */
+  private void propagate(int d1, int n, int d2) {
+    if (!pathEdges.put(n, pack(d1, d2)) || failure.get() != null) {
+      return;
+    }
+    pendingEdges.incrementAndGet();
+    try {
+      executor.execute(
+          () -> {
+            try {
+              processEdge(d1, n, d2);
+            } catch (Throwable t) {
+              fail(t);
+            } finally {
+              finishEdge();
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      // the executor is only shut down after a failure
+      finishEdge();
+    }
+  }
+
+  private void processEdge(int d1, int n, int d2) {
+    processedEdges.incrementAndGet();
+    final Stmt stmt = stmts.get(n);
+    if (icfg.isCallStmt(stmt)) {
+      processCall(d1, n, stmt, d2);
+    } else {
+      if (icfg.isExitStmt(stmt)) {
+        processExit(d1, n, stmt, d2);
+      }
+      final List<Stmt> successors = icfg.getSuccsOf(stmt);
+      if (!successors.isEmpty()) {
+        processNormalFlow(d1, stmt, d2, successors);
+      }
+    }
+  }
+
+  private void processNormalFlow(int d1, @Nonnull Stmt n, int d2, @Nonnull List<Stmt> successors) {
+    final int scope = scopeOf(d2);
+    for (Stmt m : successors) {
+      final int mId = stmts.idOf(m);
+      for (int d3 : computeTargets(flowFunctions.getNormalFlowFunction(n, m), d2, scope)) {
+        propagate(d1, mId, d3);
+      }
+    }
+  }
+
+  private void processCall(int d1, int n, @Nonnull Stmt callSite, int d2) {
+    final Collection<Stmt> returnSites = icfg.getReturnSitesOfCallAt(callSite);
+    final int scope = scopeOf(d2);
+    final long callEdge = pack(n, d2);
+    // must happen before the incoming edges are added, see processExit
+    callSiteSources.put(callEdge, d1);
+
+    for (SootMethod callee : icfg.getCalleesOfCallAt(callSite)) {
+      final int[] calleeFacts =
+          computeTargets(
+              flowFunctions.getCallFlowFunction(callSite, callee), d2, methods.idOf(callee));
+      for (Stmt startPoint : icfg.getStartPointsOf(callee)) {
+        final int sp = stmts.idOf(startPoint);
+        for (int d3 : calleeFacts) {
+          propagate(d3, sp, d3);
+          incoming.put(pack(sp, d3), callEdge);
+
+          // apply the summaries that are already computed for the callee
+          for (long summary : endSummaries.get(pack(sp, d3))) {
+            final Stmt exitStmt = stmts.get(high(summary));
+            final int d4 = low(summary);
+            for (Stmt returnSite : returnSites) {
+              final int rs = stmts.idOf(returnSite);
+              for (int d5 :
+                  computeTargets(
+                      flowFunctions.getReturnFlowFunction(callSite, callee, exitStmt, returnSite),
+                      d4,
+                      scope)) {
+                propagate(d1, rs, d5);
+              }
+            }
+          }
+        }
+      }
+    }
+
+    for (Stmt returnSite : returnSites) {
+      final int rs = stmts.idOf(returnSite);
+      for (int d3 :
+          computeTargets(
+              flowFunctions.getCallToReturnFlowFunction(callSite, returnSite), d2, scope)) {
+        propagate(d1, rs, d3);
+      }
+    }
+  }
+
+  private void processExit(int d1, int n, @Nonnull Stmt exitStmt, int d2) {
+    final SootMethod method = icfg.getMethodOf(exitStmt);
+    boolean hasIncoming = false;
+    for (Stmt startPoint : icfg.getStartPointsOf(method)) {
+      final long key = pack(stmts.idOf(startPoint), d1);
+      // the summary is added before the incoming edges are read and processCall does it the
+      // other way around, so every pair of call and summary is seen by at least one of them
+      endSummaries.put(key, pack(n, d2));
+      for (long callEdge : incoming.get(key)) {
+        hasIncoming = true;
+        final Stmt callSite = stmts.get(high(callEdge));
+        final int callerScope = scopeOf(low(callEdge));
+        final long[] callerFacts = callSiteSources.get(callEdge);
+        for (Stmt returnSite : icfg.getReturnSitesOfCallAt(callSite)) {
+          final int rs = stmts.idOf(returnSite);
+          for (int d5 :
+              computeTargets(
+                  flowFunctions.getReturnFlowFunction(callSite, method, exitStmt, returnSite),
+                  d2,
+                  callerScope)) {
+            for (long callerFact : callerFacts) {
+              propagate((int) callerFact, rs, d5);
+            }
+          }
+        }
+      }
+    }
+
+    // unbalanced return: the method was not called in the analyzed context i.e. it is a seed
+    if (followReturnsPastSeeds && isZero(d1) && !hasIncoming) {
+      for (Stmt callSite : icfg.getCallersOf(method)) {
+        final int callerScope = methods.idOf(icfg.getMethodOf(callSite));
+        for (Stmt returnSite : icfg.getReturnSitesOfCallAt(callSite)) {
+          final int rs = stmts.idOf(returnSite);
+          for (int d5 :
+              computeTargets(
+                  flowFunctions.getReturnFlowFunction(callSite, method, exitStmt, returnSite),
+                  d2,
+                  callerScope)) {
+            propagate(zeroIdOf(callerScope), rs, d5);
+          }
+        }
+      }
+    }
+  }
+
+  private int factIdOf(int scope, @Nonnull D fact) {
+    return facts.idOf(new ScopedFact<>(scope, fact, fact.equals(zeroValue)));
+  }
+
+  private int zeroIdOf(int scope) {
+    return facts.idOf(new ScopedFact<>(scope, zeroValue, true));
+  }
+
+  private boolean isZero(int factId) {
+    return facts.get(factId).zero;
+  }
+
+  /** @return the id of the method the fact belongs to */
+  private int scopeOf(int factId) {
+    return facts.get(factId).scope;
+  }
+
+  /** @param targetScope the method the targets belong to */
+  @Nonnull
+  private int[] computeTargets(@Nonnull FlowFunction<D> flowFunction, int source, int targetScope) {
+    final Set<D> targets = flowFunction.computeTargets(facts.get(source).fact);
+    final boolean addZero = autoAddZero && isZero(source);
+    final int[] ids = new int[targets.size() + (addZero ? 1 : 0)];
+    int i = 0;
+    for (D target : targets) {
+      ids[i++] = factIdOf(targetScope, target);
+    }
+    if (addZero) {
+      ids[i] = zeroIdOf(targetScope);
+    }
+    return ids;
+  }
+
+  /** @return the facts that hold at the given Stmt without the zero value */
+  @Nonnull
+  public Set<D> ifdsResultsAt(@Nonnull Stmt stmt) {
+    final Set<D> results = new HashSet<>();
+    final int n = stmts.find(stmt);
+    if (n >= 0) {
+      pathEdges.forEachValue(
+          n,
+          edge -> {
+            final ScopedFact<D> fact = facts.get(low(edge));
+            if (!fact.zero) {
+              results.add(fact.fact);
+            }
+          });
+    }
+    return results;
+  }
+
+  /** @return the number of distinct path edges */
+  public long getPathEdgeCount() {
+    return pathEdges.size();
+  }
+
+  /** @return the number of distinct facts per method including the zero values */
+  public int getFactCount() {
+    return facts.size();
+  }
+
+  /** a fact in the context of a method */
+  private static final class ScopedFact<D> {
+    private final int scope;
+    @Nonnull private final D fact;
+    private final boolean zero;
+    private final int hashCode;
+
+    ScopedFact(int scope, @Nonnull D fact, boolean zero) {
+      this.scope = scope;
+      this.fact = fact;
+      this.zero = zero;
+      this.hashCode = 31 * scope + fact.hashCode();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof ScopedFact)) {
+        return false;
+      }
+      final ScopedFact<?> that = (ScopedFact<?>) o;
+      return scope == that.scope && hashCode == that.hashCode && fact.equals(that.fact);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
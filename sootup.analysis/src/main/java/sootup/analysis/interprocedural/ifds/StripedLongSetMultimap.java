@@ -0,0 +1,217 @@
+package sootup.analysis.interprocedural.ifds;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A thread-safe multimap from long keys to sets of non-negative long values. The keys are spread
+ * over lock-striped segments so threads that work on different keys rarely contend. The values of a
+ * key are stored unboxed in an open addressing hash set, as are the keys of a segment.
+ */
+class StripedLongSetMultimap {
+
+  private static final long[] EMPTY = new long[0];
+
+  @Nonnull private final Segment[] segments;
+
+  /** @param concurrency the expected number of concurrently writing threads */
+  StripedLongSetMultimap(int concurrency) {
+    final int segmentCount = Integer.highestOneBit(Math.max(1, concurrency) * 16 - 1) << 1;
+    segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      segments[i] = new Segment();
+    }
+  }
+
+  @Nonnull
+  private Segment segmentOf(long key) {
+    long h = key * 0x9E3779B97F4A7C15L;
+    return segments[(int) (h ^ (h >>> 32)) & (segments.length - 1)];
+  }
+
+  /** @return true if the value was not associated with the key before */
+  boolean put(long key, long value) {
+    final Segment segment = segmentOf(key);
+    synchronized (segment) {
+      return segment.getOrCreate(key).add(value);
+    }
+  }
+
+  /** @return a copy of the values of the key; modifications after the call are not reflected */
+  @Nonnull
+  long[] get(long key) {
+    final Segment segment = segmentOf(key);
+    synchronized (segment) {
+      final LongHashSet values = segment.get(key);
+      return values == null ? EMPTY : values.toArray();
+    }
+  }
+
+  void forEachValue(long key, @Nonnull LongConsumer consumer) {
+    for (long value : get(key)) {
+      consumer.accept(value);
+    }
+  }
+
+  /** @return the number of key-value pairs */
+  long size() {
+    long size = 0;
+    for (Segment segment : segments) {
+      synchronized (segment) {
+        for (LongHashSet values : segment.values) {
+          if (values != null) {
+            size += values.size;
+          }
+        }
+      }
+    }
+    return size;
+  }
+
+  /**
+   * An open addressing map from long keys to their {@link LongHashSet}s; a slot without values is
+   * free. Like the sets, it stores its keys unboxed.
+   */
+  private static class Segment {
+    private long[] keys = new long[4];
+    private LongHashSet[] values = new LongHashSet[4];
+    private int size;
+
+    private static int slotOf(long key, int mask) {
+      long h = key * 0x9E3779B97F4A7C15L;
+      return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    @Nullable
+    LongHashSet get(long key) {
+      final int mask = keys.length - 1;
+      int slot = slotOf(key, mask);
+      LongHashSet entry;
+      while ((entry = values[slot]) != null) {
+        if (keys[slot] == key) {
+          return entry;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return null;
+    }
+
+    @Nonnull
+    LongHashSet getOrCreate(long key) {
+      if ((size + 1) * 3 >= keys.length * 2) {
+        grow();
+      }
+      final int mask = keys.length - 1;
+      int slot = slotOf(key, mask);
+      LongHashSet entry;
+      while ((entry = values[slot]) != null) {
+        if (keys[slot] == key) {
+          return entry;
+        }
+        slot = (slot + 1) & mask;
+      }
+      entry = new LongHashSet();
+      keys[slot] = key;
+      values[slot] = entry;
+      size++;
+      return entry;
+    }
+
+    private void grow() {
+      final long[] oldKeys = keys;
+      final LongHashSet[] oldValues = values;
+      keys = new long[oldKeys.length * 2];
+      values = new LongHashSet[oldKeys.length * 2];
+      final int mask = keys.length - 1;
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldValues[i] != null) {
+          int slot = slotOf(oldKeys[i], mask);
+          while (values[slot] != null) {
+            slot = (slot + 1) & mask;
+          }
+          keys[slot] = oldKeys[i];
+          values[slot] = oldValues[i];
+        }
+      }
+    }
+  }
+
+  /** An open addressing set of non-negative longs; -1 marks a free slot. */
+  private static class LongHashSet {
+    private long[] table = newTable(4);
+    private int size;
+
+    private static long[] newTable(int capacity) {
+      final long[] table = new long[capacity];
+      Arrays.fill(table, -1L);
+      return table;
+    }
+
+    boolean add(long value) {
+      assert value >= 0;
+      if ((size + 1) * 3 >= table.length * 2) {
+        grow();
+      }
+      final int mask = table.length - 1;
+      long h = value * 0x9E3779B97F4A7C15L;
+      int slot = (int) (h ^ (h >>> 32)) & mask;
+      long entry;
+      while ((entry = table[slot]) != -1L) {
+        if (entry == value) {
+          return false;
+        }
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = value;
+      size++;
+      return true;
+    }
+
+    private void grow() {
+      final long[] oldTable = table;
+      table = newTable(oldTable.length * 2);
+      size = 0;
+      for (long value : oldTable) {
+        if (value != -1L) {
+          add(value);
+        }
+      }
+    }
+
+    @Nonnull
+    long[] toArray() {
+      final long[] values = new long[size];
+      int i = 0;
+      for (long value : table) {
+        if (value != -1L) {
+          values[i++] = value;
+        }
+      }
+      return values;
+    }
+  }
+}
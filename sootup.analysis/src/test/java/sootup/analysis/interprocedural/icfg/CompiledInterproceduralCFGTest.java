@@ -0,0 +1,102 @@
+package sootup.analysis.interprocedural.icfg;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import heros.InterproceduralCFG;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.analysis.interprocedural.ifds.IFDSTaintAnalysisProblem;
+import sootup.analysis.interprocedural.ifds.IFDSTaintTestSetUp;
+import sootup.analysis.interprocedural.ifds.JimpleIFDSSolver;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.stmt.JNopStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+
+@Category(Java8Test.class)
+public class CompiledInterproceduralCFGTest extends IFDSTaintTestSetUp {
+
+  @Test
+  public void sameAsJimpleBasedICFG() {
+    setupSoot("FunctionTaintPropagated");
+    JimpleBasedInterproceduralCFG expected =
+        new JimpleBasedInterproceduralCFG(view, entryMethodSignature, false, false);
+    CompiledInterproceduralCFG icfg = new CompiledInterproceduralCFG(view, entryMethodSignature, 4);
+
+    assertTrue(icfg.getStmtCount() > 0);
+    assertEquals(
+        new HashSet<>(expected.allNonCallStartNodes()), new HashSet<>(icfg.allNonCallStartNodes()));
+    assertEquals(
+        new HashSet<>(expected.allNonCallEndNodes()), new HashSet<>(icfg.allNonCallEndNodes()));
+
+    for (int id = 0; id < icfg.getStmtCount(); id++) {
+      Stmt stmt = icfg.getStmt(id);
+      assertEquals(id, icfg.getStmtId(stmt));
+      assertTrue(expected.isReachable(stmt));
+      assertEquals(expected.getMethodOf(stmt), icfg.getMethodOf(stmt));
+      assertEquals(expected.getSuccsOf(stmt), icfg.getSuccsOf(stmt));
+      assertEquals(expected.getPredsOf(stmt), icfg.getPredsOf(stmt));
+      assertEquals(expected.isExitStmt(stmt), icfg.isExitStmt(stmt));
+      assertEquals(expected.isStartPoint(stmt), icfg.isStartPoint(stmt));
+      assertEquals(expected.isReturnSite(stmt), icfg.isReturnSite(stmt));
+      assertEquals(expected.isCallStmt(stmt), icfg.isCallStmt(stmt));
+      for (Stmt succ : icfg.getSuccsOf(stmt)) {
+        assertEquals(
+            expected.isFallThroughSuccessor(stmt, succ), icfg.isFallThroughSuccessor(stmt, succ));
+      }
+      if (icfg.isCallStmt(stmt)) {
+        assertEquals(
+            new HashSet<>(expected.getCalleesOfCallAt(stmt)),
+            new HashSet<>(icfg.getCalleesOfCallAt(stmt)));
+        for (SootMethod callee : icfg.getCalleesOfCallAt(stmt)) {
+          assertTrue(icfg.getCallersOf(callee).contains(stmt));
+        }
+      }
+    }
+
+    for (SootMethod method : icfg.getMethods()) {
+      assertEquals(expected.getCallsFromWithin(method), icfg.getCallsFromWithin(method));
+      assertEquals(
+          new HashSet<>(expected.getStartPointsOf(method)),
+          new HashSet<>(icfg.getStartPointsOf(method)));
+      assertEquals(
+          new HashSet<>(expected.getEndPointsOf(method)),
+          new HashSet<>(icfg.getEndPointsOf(method)));
+      assertEquals(expected.getParameterRefs(method), icfg.getParameterRefs(method));
+    }
+
+    Stmt unknown = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    assertEquals(-1, icfg.getStmtId(unknown));
+    assertFalse(icfg.isReachable(unknown));
+    assertNull(icfg.getMethodOf(unknown));
+  }
+
+  @Test
+  public void solveTaintProblem() {
+    setupSoot("FunctionTaintPropagated");
+    List<Stmt> stmts = entryMethod.getBody().getStmts();
+    Stmt lastStmt = stmts.get(stmts.size() - 1);
+
+    Set<?> expected =
+        solve(new JimpleBasedInterproceduralCFG(view, entryMethodSignature, false, false))
+            .ifdsResultsAt(lastStmt);
+    Set<?> results =
+        solve(new CompiledInterproceduralCFG(view, entryMethodSignature, 2))
+            .ifdsResultsAt(lastStmt);
+    assertFalse(results.isEmpty());
+    assertEquals(expected, results);
+  }
+
+  private JimpleIFDSSolver<?, InterproceduralCFG<Stmt, SootMethod>> solve(
+      InterproceduralCFG<Stmt, SootMethod> icfg) {
+    IFDSTaintAnalysisProblem problem = new IFDSTaintAnalysisProblem(icfg, entryMethod);
+    JimpleIFDSSolver<?, InterproceduralCFG<Stmt, SootMethod>> solver =
+        new JimpleIFDSSolver<>(problem);
+    solver.solve(entryMethod.getDeclaringClassType().getClassName());
+    return solver;
+  }
+}
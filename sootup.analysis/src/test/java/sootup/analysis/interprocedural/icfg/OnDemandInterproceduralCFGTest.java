@@ -0,0 +1,123 @@
+package sootup.analysis.interprocedural.icfg;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import heros.InterproceduralCFG;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.analysis.interprocedural.ifds.IFDSTaintAnalysisProblem;
+import sootup.analysis.interprocedural.ifds.IFDSTaintTestSetUp;
+import sootup.analysis.interprocedural.ifds.JimpleIFDSSolver;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+
+@Category(Java8Test.class)
+public class OnDemandInterproceduralCFGTest extends IFDSTaintTestSetUp {
+
+  private Set<?> solveAtLastStmt(InterproceduralCFG<Stmt, SootMethod> icfg) {
+    JimpleIFDSSolver<?, InterproceduralCFG<Stmt, SootMethod>> solver =
+        new JimpleIFDSSolver<>(new IFDSTaintAnalysisProblem(icfg, entryMethod));
+    solver.solve(entryMethod.getDeclaringClassType().getClassName());
+    List<Stmt> stmts = entryMethod.getBody().getStmts();
+    return solver.ifdsResultsAt(stmts.get(stmts.size() - 1));
+  }
+
+  @Test
+  public void sameResultsAsJimpleBasedICFG() {
+    setupSoot("FunctionTaintPropagated");
+    Set<?> expected =
+        solveAtLastStmt(
+            new JimpleBasedInterproceduralCFG(view, entryMethodSignature, false, false));
+
+    OnDemandInterproceduralCFG icfg =
+        new OnDemandInterproceduralCFG(
+            view, entryMethodSignature, CallTargetResolver.declaredTarget());
+    assertEquals(1, icfg.getReachedMethodCount());
+    assertTrue(icfg.isReachable(entryMethod.getBody().getStmtGraph().getStartingStmt()));
+
+    assertEquals(expected, solveAtLastStmt(icfg));
+    assertTrue(icfg.getReachedMethodCount() > 1);
+
+    // the callers are known after the calls are resolved
+    for (Stmt call : icfg.getCallsFromWithin(entryMethod)) {
+      for (SootMethod callee : icfg.getCalleesOfCallAt(call)) {
+        assertTrue(icfg.getCallersOf(callee).contains(call));
+        assertTrue(icfg.isReachable(callee.getBody().getStmtGraph().getStartingStmt()));
+      }
+    }
+  }
+
+  @Test
+  public void resolvers() {
+    setupSoot("FunctionTaint");
+    Set<?> expected =
+        solveAtLastStmt(
+            new JimpleBasedInterproceduralCFG(view, entryMethodSignature, false, false));
+
+    assertEquals(
+        expected,
+        solveAtLastStmt(
+            new OnDemandInterproceduralCFG(
+                view, entryMethodSignature, CallTargetResolver.classHierarchy(view))));
+    assertEquals(
+        expected,
+        solveAtLastStmt(
+            new OnDemandInterproceduralCFG(
+                view,
+                entryMethodSignature,
+                CallTargetResolver.callGraph(
+                    view,
+                    new ClassHierarchyAnalysisAlgorithm(view)
+                        .initialize(Collections.singletonList(entryMethodSignature))))));
+  }
+
+  @Test
+  public void callGraphResolverChecksReceiverTypes() {
+    setupSoot("UnrelatedReceivers");
+    CallTargetResolver classHierarchy = CallTargetResolver.classHierarchy(view);
+    CallTargetResolver callGraph =
+        CallTargetResolver.callGraph(
+            view,
+            new ClassHierarchyAnalysisAlgorithm(view)
+                .initialize(Collections.singletonList(entryMethodSignature)));
+
+    // task.run(), job.run() and lazyJob.run() have the same subsignature
+    List<Stmt> runCalls =
+        entryMethod.getBody().getStmts().stream()
+            .filter(Stmt::containsInvokeExpr)
+            .filter(stmt -> stmt.getInvokeExpr().getMethodSignature().getName().equals("run"))
+            .collect(Collectors.toList());
+    assertEquals(3, runCalls.size());
+    for (Stmt call : runCalls) {
+      assertEquals(
+          classHierarchy.resolveCallTargets(entryMethod, call),
+          callGraph.resolveCallTargets(entryMethod, call));
+    }
+    assertEquals(
+        Collections.singleton("UnrelatedReceivers$Task"),
+        declaringClassesOf(callGraph.resolveCallTargets(entryMethod, runCalls.get(0))));
+    assertEquals(
+        new HashSet<>(Arrays.asList("UnrelatedReceivers$Job", "UnrelatedReceivers$UrgentJob")),
+        declaringClassesOf(callGraph.resolveCallTargets(entryMethod, runCalls.get(1))));
+    // LazyJob inherits the implementation of Job
+    assertEquals(
+        Collections.singleton("UnrelatedReceivers$Job"),
+        declaringClassesOf(callGraph.resolveCallTargets(entryMethod, runCalls.get(2))));
+  }
+
+  private Set<String> declaringClassesOf(Collection<MethodSignature> methods) {
+    return methods.stream()
+        .map(method -> method.getDeclClassType().getFullyQualifiedName())
+        .collect(Collectors.toSet());
+  }
+}
@@ -70,7 +70,7 @@ public class IFDSTaintTestSetUp {
    * This method provides the options to soot to analyse the respective
    * classes.
    */
-  private void setupSoot(String targetTestClassName) {
+  protected void setupSoot(String targetTestClassName) {
     JavaProject javaProject =
         JavaProject.builder(new JavaLanguage(8))
             .addInputLocation(
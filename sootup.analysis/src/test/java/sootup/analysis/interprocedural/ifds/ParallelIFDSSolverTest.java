@@ -0,0 +1,78 @@
+package sootup.analysis.interprocedural.ifds;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import heros.InterproceduralCFG;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.analysis.interprocedural.icfg.CompiledInterproceduralCFG;
+import sootup.analysis.interprocedural.icfg.JimpleBasedInterproceduralCFG;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootMethod;
+
+@Category(Java8Test.class)
+public class ParallelIFDSSolverTest extends IFDSTaintTestSetUp {
+
+  private void assertSameResults(String targetTestClassName, int parallelism) {
+    setupSoot(targetTestClassName);
+    InterproceduralCFG<Stmt, SootMethod> icfg =
+        new JimpleBasedInterproceduralCFG(view, entryMethodSignature, false, false);
+
+    JimpleIFDSSolver<Value, InterproceduralCFG<Stmt, SootMethod>> expected =
+        new JimpleIFDSSolver<>(new IFDSTaintAnalysisProblem(icfg, entryMethod));
+    expected.solve(targetTestClassName);
+
+    ParallelIFDSSolver<Value, InterproceduralCFG<Stmt, SootMethod>> solver =
+        new ParallelIFDSSolver<>(new IFDSTaintAnalysisProblem(icfg, entryMethod), parallelism);
+    solver.solve();
+    assertTrue(solver.getPathEdgeCount() > 0);
+
+    Set<SootMethod> callees =
+        icfg.getCallsFromWithin(entryMethod).stream()
+            .flatMap(call -> icfg.getCalleesOfCallAt(call).stream())
+            .collect(Collectors.toSet());
+    for (SootMethod method : callees) {
+      for (Stmt stmt : method.getBody().getStmts()) {
+        assertEquals(expected.ifdsResultsAt(stmt), solver.ifdsResultsAt(stmt));
+      }
+    }
+    List<Stmt> stmts = entryMethod.getBody().getStmts();
+    for (Stmt stmt : stmts) {
+      assertEquals(stmt.toString(), expected.ifdsResultsAt(stmt), solver.ifdsResultsAt(stmt));
+    }
+  }
+
+  @Test
+  public void simpleTaint() {
+    assertSameResults("SimpleTaint", 1);
+    assertSameResults("SimpleTaintSanitized", 4);
+  }
+
+  @Test
+  public void functionTaint() {
+    assertSameResults("FunctionTaint", 4);
+    assertSameResults("FunctionTaintPropagated", 4);
+    assertSameResults("FunctionTaintSanitized", 2);
+  }
+
+  @Test
+  public void compiledICFG() {
+    setupSoot("FunctionTaintPropagated");
+    ParallelIFDSSolver<Value, InterproceduralCFG<Stmt, SootMethod>> solver =
+        new ParallelIFDSSolver<>(
+            new IFDSTaintAnalysisProblem(
+                new CompiledInterproceduralCFG(view, entryMethodSignature, 2), entryMethod),
+            4);
+    solver.solve();
+
+    List<Stmt> stmts = entryMethod.getBody().getStmts();
+    Set<Value> results = solver.ifdsResultsAt(stmts.get(stmts.size() - 1));
+    assertTrue(results.stream().anyMatch(v -> v.toString().equals("l1")));
+    assertTrue(results.stream().anyMatch(v -> v.toString().equals("l2")));
+  }
+}
@@ -0,0 +1,35 @@
+package sootup.analysis.interprocedural.ifds;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.Arrays;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Java8Test.class)
+public class StripedLongSetMultimapTest {
+
+  @Test
+  public void putAndGet() {
+    StripedLongSetMultimap multimap = new StripedLongSetMultimap(1);
+    assertEquals(0, multimap.get(42L).length);
+
+    // enough keys to grow the segments, including negative ones
+    final int keyCount = 10_000;
+    for (int i = 0; i < keyCount; i++) {
+      long key = ((long) i << 32) - i;
+      assertTrue(multimap.put(key, i));
+      assertTrue(multimap.put(key, i + 1));
+      assertFalse(multimap.put(key, i));
+    }
+    assertEquals(2L * keyCount, multimap.size());
+
+    for (int i = 0; i < keyCount; i++) {
+      long[] values = multimap.get(((long) i << 32) - i);
+      Arrays.sort(values);
+      assertArrayEquals(new long[] {i, i + 1}, values);
+    }
+    assertEquals(0, multimap.get(-1L).length);
+  }
+}
@@ -0,0 +1,25 @@
+public class UnrelatedReceivers {
+
+    static class Task {
+        void run() {}
+    }
+
+    static class Job {
+        void run() {}
+    }
+
+    static class UrgentJob extends Job {
+        void run() {}
+    }
+
+    static class LazyJob extends Job {}
+
+    public void entryPoint() {
+        Task task = new Task();
+        Job job = new UrgentJob();
+        LazyJob lazyJob = new LazyJob();
+        task.run();
+        job.run();
+        lazyJob.run();
+    }
+}
@@ -0,0 +1,92 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import javax.annotation.Nonnull;
+import sootup.core.inputlocation.ClassLoadingOptions;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptor;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaProject;
+import sootup.java.core.language.JavaLanguage;
+import sootup.java.core.views.JavaView;
+
+/**
+ * The inputs of the benchmarks: the jars of the shared-test-resources. The location of the
+ * resources can be changed via the system property <code>sootup.benchmarks.resources</code>.
+ */
+public final class BenchmarkInputs {
+
+  /** small application with a main method; used for the whole program analyses */
+  public static final String MINI_APP = "java-miniapps/MiniApp.jar";
+
+  /** a real world android library with ~90 classes */
+  public static final String JPUSH = "soot-1580/jpush-android_v3.0.5.jar";
+
+  private BenchmarkInputs() {}
+
+  @Nonnull
+  public static Path resolve(@Nonnull String jar) {
+    return Paths.get(System.getProperty("sootup.benchmarks.resources", "../shared-test-resources"))
+        .resolve(jar);
+  }
+
+  @Nonnull
+  public static JavaView createView(@Nonnull String jar) {
+    return createView(jar, Collections.emptyList(), false);
+  }
+
+  /**
+   * @param jar the jar relative to the resources directory
+   * @param bodyInterceptors the interceptors that are applied to each resolved body
+   * @param withRuntime adds the rt.jar of the running JVM if it has one (i.e. Java 8)
+   */
+  @Nonnull
+  public static JavaView createView(
+      @Nonnull String jar, @Nonnull List<BodyInterceptor> bodyInterceptors, boolean withRuntime) {
+    JavaProject.JavaProjectBuilder builder =
+        JavaProject.builder(new JavaLanguage(8))
+            .addInputLocation(new PathBasedAnalysisInputLocation(resolve(jar), null));
+    final Path runtimeJar = Paths.get(System.getProperty("java.home"), "lib", "rt.jar");
+    if (withRuntime && Files.exists(runtimeJar)) {
+      builder.addInputLocation(new JavaClassPathAnalysisInputLocation(runtimeJar.toString()));
+    }
+    final ClassLoadingOptions classLoadingOptions = () -> bodyInterceptors;
+    return builder.build().createView(analysisInputLocation -> classLoadingOptions);
+  }
+
+  /** @return the signature of <code>public static void main(String[])</code> of the given class */
+  @Nonnull
+  public static MethodSignature mainMethodOf(@Nonnull String className) {
+    return JavaIdentifierFactory.getInstance()
+        .getMethodSignature(
+            "main", className, "void", Collections.singletonList("java.lang.String[]"));
+  }
+}
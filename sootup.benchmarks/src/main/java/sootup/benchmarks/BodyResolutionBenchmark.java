@@ -0,0 +1,150 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sootup.core.model.SootMethod;
+import sootup.core.transform.BodyInterceptor;
+import sootup.java.bytecode.interceptors.BytecodeBodyInterceptors;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Lifting of all method bodies of a jar without any body interceptor, with a single interceptor and
+ * with a whole pipeline of interceptors. The bodies are resolved directly from their BodySource, so
+ * that the memoized body of the SootMethod is bypassed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BodyResolutionBenchmark {
+
+  /**
+   * the simple class name of an interceptor, "none" or "pipeline" for {@link #PIPELINE}. The
+   * LocalSplitter is left out as it currently does not terminate on some bodies of the jar, the
+   * WebBasedLocalSplitter is measured instead. The TypeAssigner is left out as its TypeResolver
+   * currently runs out of memory on some bodies of the jar.
+   */
+  @Param({
+    "none",
+    "pipeline",
+    "CastAndReturnInliner",
+    "UnreachableCodeEliminator",
+    "Aggregator",
+    "LocalNameStandardizer",
+    "CopyPropagator",
+    "DeadAssignmentEliminator",
+    "ConditionalBranchFolder",
+    "EmptySwitchEliminator",
+    "NopEliminator",
+    "UnusedLocalEliminator",
+    "WebBasedLocalSplitter",
+    "LocalPacker",
+    "IndexedLocalPacker",
+    "PrunedStaticSingleAssignmentFormer"
+  })
+  public String interceptor;
+
+  /**
+   * the interceptors of {@link BytecodeBodyInterceptors#Default} which are commented out there (as
+   * long as that set is empty, it would measure the same as "none") without the TypeAssigner
+   */
+  private static final List<String> PIPELINE =
+      Arrays.asList(
+          "CastAndReturnInliner",
+          "UnreachableCodeEliminator",
+          "CopyPropagator",
+          "DeadAssignmentEliminator",
+          "ConditionalBranchFolder",
+          "EmptySwitchEliminator",
+          "NopEliminator",
+          "UnusedLocalEliminator");
+
+  private List<SootMethod> methods;
+
+  @Setup
+  public void setup() throws ReflectiveOperationException {
+    final JavaView view =
+        BenchmarkInputs.createView(BenchmarkInputs.JPUSH, createInterceptors(interceptor), true);
+    // the classes of the jar itself, resolved from the view which contains the runtime as well
+    methods =
+        BenchmarkInputs.createView(BenchmarkInputs.JPUSH).getClasses().stream()
+            .map(clazz -> view.getClass(clazz.getType()).get())
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .collect(Collectors.toList());
+  }
+
+  private static List<BodyInterceptor> createInterceptors(String name)
+      throws ReflectiveOperationException {
+    switch (name) {
+      case "none":
+        return Collections.emptyList();
+      case "pipeline":
+        List<BodyInterceptor> interceptors = new ArrayList<>();
+        for (String interceptorName : PIPELINE) {
+          interceptors.add(createInterceptor(interceptorName));
+        }
+        return interceptors;
+      default:
+        return Collections.singletonList(createInterceptor(name));
+    }
+  }
+
+  private static BodyInterceptor createInterceptor(String name)
+      throws ReflectiveOperationException {
+    return (BodyInterceptor)
+        Class.forName("sootup.java.bytecode.interceptors." + name).getConstructor().newInstance();
+  }
+
+  @Benchmark
+  public void resolveBodies(Blackhole blackhole) {
+    for (SootMethod method : methods) {
+      try {
+        blackhole.consume(method.getBodySource().resolveBody(method.getModifiers()));
+      } catch (Exception e) {
+        // a failing interceptor must not stop the measurement of the others
+        blackhole.consume(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.callgraph.CallGraph;
+import sootup.callgraph.CallGraphAlgorithm;
+import sootup.callgraph.ClassHierarchyAnalysisAlgorithm;
+import sootup.callgraph.RapidTypeAnalysisAlgorithm;
+import sootup.core.signatures.MethodSignature;
+import sootup.java.core.views.JavaView;
+
+/**
+ * Call graph construction from the main method of the MiniApp. The view is shared between the
+ * invocations, so after the warmup all classes and bodies are cached and only the algorithm is
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallGraphBenchmark {
+
+  @Param({"CHA", "RTA"})
+  public String algorithm;
+
+  /**
+   * whether the rt.jar of the running Java 8 JVM is part of the view; off by default as the
+   * construction then takes minutes per operation. Enable it with <code>-p withRuntime=true</code>.
+   */
+  @Param({"false"})
+  public boolean withRuntime;
+
+  private JavaView view;
+  private MethodSignature mainMethod;
+
+  @Setup
+  public void setup() {
+    view =
+        BenchmarkInputs.createView(BenchmarkInputs.MINI_APP, Collections.emptyList(), withRuntime);
+    mainMethod = BenchmarkInputs.mainMethodOf("MiniApp");
+  }
+
+  @Benchmark
+  public CallGraph construct() {
+    final CallGraphAlgorithm callGraphAlgorithm =
+        algorithm.equals("CHA")
+            ? new ClassHierarchyAnalysisAlgorithm(view)
+            : new RapidTypeAnalysisAlgorithm(view);
+    return callGraphAlgorithm.initialize(Collections.singletonList(mainMethod));
+  }
+}
@@ -0,0 +1,78 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.util.printer.JimplePrinter;
+import sootup.java.core.JavaSootClass;
+
+/** Printing all classes of a jar as Jimple; the bodies are lifted during the setup. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JimplePrinterBenchmark {
+
+  @Param({BenchmarkInputs.MINI_APP, BenchmarkInputs.JPUSH})
+  public String jar;
+
+  private Collection<JavaSootClass> classes;
+
+  @Setup
+  public void setup() {
+    classes = BenchmarkInputs.createView(jar).getClasses();
+    classes.forEach(
+        clazz ->
+            clazz.getMethods().stream().filter(SootMethod::hasBody).forEach(SootMethod::getBody));
+  }
+
+  @Benchmark
+  public int print() {
+    final StringWriter output = new StringWriter();
+    final PrintWriter writer = new PrintWriter(output);
+    final JimplePrinter printer = new JimplePrinter();
+    for (SootClass<?> clazz : classes) {
+      printer.printTo(clazz, writer);
+    }
+    writer.flush();
+    return output.getBuffer().length();
+  }
+}
@@ -0,0 +1,92 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.typehierarchy.MethodDispatchResolver;
+import sootup.java.core.views.JavaView;
+
+/** Resolution of the dispatch targets of every method declared in a jar. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MethodDispatchBenchmark {
+
+  @Param({BenchmarkInputs.MINI_APP, BenchmarkInputs.JPUSH})
+  public String jar;
+
+  private JavaView view;
+  private List<MethodSignature> methods;
+  private List<MethodSignature> concreteMethods;
+
+  @Setup
+  public void setup() {
+    view = BenchmarkInputs.createView(jar);
+    methods =
+        view.getClasses().stream()
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .map(SootMethod::getSignature)
+            .collect(Collectors.toList());
+    concreteMethods =
+        view.getClasses().stream()
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(method -> !method.isAbstract())
+            .map(SootMethod::getSignature)
+            .collect(Collectors.toList());
+    // warm up the lazily built type hierarchy of the view
+    view.getTypeHierarchy();
+  }
+
+  @Benchmark
+  public void resolveAllDispatches(Blackhole blackhole) {
+    for (MethodSignature method : methods) {
+      blackhole.consume(MethodDispatchResolver.resolveAllDispatches(view, method));
+    }
+  }
+
+  @Benchmark
+  public void resolveConcreteDispatch(Blackhole blackhole) {
+    for (MethodSignature method : concreteMethods) {
+      blackhole.consume(MethodDispatchResolver.resolveConcreteDispatch(view, method));
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package sootup.benchmarks;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import sootup.core.model.SootClass;
+import sootup.core.typehierarchy.ViewTypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.java.core.views.JavaView;
+
+/** Building a {@link ViewTypeHierarchy} and querying it for each class of a jar. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TypeHierarchyBenchmark {
+
+  @Param({BenchmarkInputs.MINI_APP, BenchmarkInputs.JPUSH})
+  public String jar;
+
+  private JavaView view;
+  private List<ClassType> classTypes;
+  private ViewTypeHierarchy hierarchy;
+
+  @Setup
+  public void setup() {
+    view = BenchmarkInputs.createView(jar);
+    classTypes = view.getClasses().stream().map(SootClass::getType).collect(Collectors.toList());
+    hierarchy = new ViewTypeHierarchy(view);
+  }
+
+  @Benchmark
+  public ViewTypeHierarchy build() {
+    final ViewTypeHierarchy hierarchy = new ViewTypeHierarchy(view);
+    // the hierarchy is built lazily on the first query
+    hierarchy.subtypesOf(classTypes.get(0));
+    return hierarchy;
+  }
+
+  @Benchmark
+  public void subtypesOf(Blackhole blackhole) {
+    for (ClassType classType : classTypes) {
+      blackhole.consume(hierarchy.subtypesOf(classType));
+    }
+  }
+
+  @Benchmark
+  public void superClassesOf(Blackhole blackhole) {
+    for (ClassType classType : classTypes) {
+      // the jar does not contain java.lang.Object, so the chain ends at the first missing class
+      blackhole.consume(hierarchy.incompleteSuperClassesOf(classType));
+    }
+  }
+
+  @Benchmark
+  public void implementedInterfacesOf(Blackhole blackhole) {
+    for (ClassType classType : classTypes) {
+      blackhole.consume(hierarchy.implementedInterfacesOf(classType));
+    }
+  }
+}
@@ -326,19 +326,22 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
   @Override
   public CallGraph addClass(@Nonnull CallGraph oldCallGraph, @Nonnull JavaClassType classType) {
     MutableCallGraph updated = oldCallGraph.copy();
+    addClassInPlace(updated, classType);
+    return updated;
+  }
 
+  @Override
+  public void addClassInPlace(@Nonnull MutableCallGraph updated, @Nonnull JavaClassType classType) {
     SootClass<?> clazz = view.getClassOrThrow(classType);
     Set<MethodSignature> newMethodSignatures =
         clazz.getMethods().stream().map(Method::getSignature).collect(Collectors.toSet());
 
-    if (newMethodSignatures.stream().anyMatch(oldCallGraph::containsMethod)) {
+    if (newMethodSignatures.stream().anyMatch(updated::containsMethod)) {
       throw new IllegalArgumentException("CallGraph already contains methods from " + classType);
     }
 
     // Step 1: Add edges from the new methods to other methods
-    Deque<MethodSignature> workList = new ArrayDeque<>(newMethodSignatures);
-    Set<MethodSignature> processed = new HashSet<>(oldCallGraph.getMethodSignatures());
-    processWorkList(view, workList, processed, updated);
+    processIncrementally(updated, newMethodSignatures);
 
     // Step 2: Add edges from old methods to methods overridden in the new class
     List<ClassType> superClasses = view.getTypeHierarchy().superClassesOf(classType);
@@ -364,12 +367,157 @@ public abstract class AbstractCallGraphAlgorithm implements CallGraphAlgorithm {
               MethodSignature overridingMethodSig =
                   clazz.getMethod(overriddenMethodSig.getSubSignature()).get().getSignature();
 
+              if (!updated.containsMethod(overriddenMethodSig)) {
+                return;
+              }
               for (MethodSignature callingMethodSig : updated.callsTo(overriddenMethodSig)) {
                 updated.addCall(callingMethodSig, overridingMethodSig);
               }
             });
+  }
 
-    return updated;
+  @Override
+  public void removeClassInPlace(@Nonnull MutableCallGraph cg, @Nonnull ClassType classType) {
+    for (MethodSignature method : cg.getMethodSignaturesOf(classType)) {
+      cg.removeMethod(method);
+    }
+  }
+
+  @Override
+  public void updateMethodInPlace(@Nonnull MutableCallGraph cg, @Nonnull MethodSignature method) {
+    if (!cg.containsMethod(method)) {
+      throw new IllegalArgumentException("CallGraph does not contain " + method);
+    }
+    for (MethodSignature target : cg.callsFrom(method)) {
+      cg.removeCall(method, target);
+    }
+    processIncrementally(cg, Collections.singleton(method));
+  }
+
+  /**
+   * Processes the given methods and the methods that are newly discovered from them. Methods that
+   * were contained in the call graph before are not processed again, so the costs depend on the
+   * size of the change and not on the size of the call graph.
+   *
+   * @param cg the call graph that is modified.
+   * @param methods the methods whose calls are (re-)computed.
+   */
+  private void processIncrementally(
+      @Nonnull MutableCallGraph cg, @Nonnull Collection<MethodSignature> methods) {
+    Set<MethodSignature> toProcess = new HashSet<>(methods);
+    Set<MethodSignature> processedNow = new HashSet<>();
+    // a method is processed if it was in the call graph before or it was processed now
+    Set<MethodSignature> processed =
+        new AbstractSet<MethodSignature>() {
+          @Override
+          public boolean contains(Object o) {
+            return processedNow.contains(o)
+                || (!toProcess.contains(o) && cg.containsMethod((MethodSignature) o));
+          }
+
+          @Override
+          public boolean add(MethodSignature methodSignature) {
+            return processedNow.add(methodSignature);
+          }
+
+          @Override
+          public Iterator<MethodSignature> iterator() {
+            return processedNow.iterator();
+          }
+
+          @Override
+          public int size() {
+            return processedNow.size();
+          }
+        };
+    processWorkList(
+        view, new ArrayDeque<>(methods), processed, new RecordingCallGraph(cg, toProcess));
+  }
+
+  /** Delegates to a call graph and records the methods that are added to it. */
+  private static final class RecordingCallGraph implements MutableCallGraph {
+    @Nonnull private final MutableCallGraph cg;
+    @Nonnull private final Set<MethodSignature> addedMethods;
+
+    private RecordingCallGraph(
+        @Nonnull MutableCallGraph cg, @Nonnull Set<MethodSignature> addedMethods) {
+      this.cg = cg;
+      this.addedMethods = addedMethods;
+    }
+
+    @Override
+    public void addMethod(@Nonnull MethodSignature calledMethod) {
+      addedMethods.add(calledMethod);
+      cg.addMethod(calledMethod);
+    }
+
+    @Override
+    public void addCall(
+        @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+      cg.addCall(sourceMethod, targetMethod);
+    }
+
+    @Override
+    public void removeMethod(@Nonnull MethodSignature method) {
+      cg.removeMethod(method);
+    }
+
+    @Override
+    public void removeCall(
+        @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+      cg.removeCall(sourceMethod, targetMethod);
+    }
+
+    @Nonnull
+    @Override
+    public Set<MethodSignature> getMethodSignatures() {
+      return cg.getMethodSignatures();
+    }
+
+    @Nonnull
+    @Override
+    public Set<MethodSignature> getMethodSignaturesOf(@Nonnull ClassType classType) {
+      return cg.getMethodSignaturesOf(classType);
+    }
+
+    @Nonnull
+    @Override
+    public Set<MethodSignature> callsFrom(@Nonnull MethodSignature sourceMethod) {
+      return cg.callsFrom(sourceMethod);
+    }
+
+    @Nonnull
+    @Override
+    public Set<MethodSignature> callsTo(@Nonnull MethodSignature targetMethod) {
+      return cg.callsTo(targetMethod);
+    }
+
+    @Override
+    public boolean containsMethod(@Nonnull MethodSignature method) {
+      return cg.containsMethod(method);
+    }
+
+    @Override
+    public boolean containsCall(
+        @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+      return cg.containsCall(sourceMethod, targetMethod);
+    }
+
+    @Override
+    public int callCount() {
+      return cg.callCount();
+    }
+
+    @Override
+    public String exportAsDot() {
+      return cg.exportAsDot();
+    }
+
+    @Nonnull
+    @Override
+    public MutableCallGraph copy() {
+      return cg.copy();
+    }
   }
 
   /**
@@ -0,0 +1,508 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+import sootup.java.core.JavaIdentifierFactory;
+
+/**
+ * A read-only call graph that is stored in a compact binary file and memory-mapped for reading. The
+ * file contains a sorted string table of the class names, method names and types, the methods as
+ * int-coded string references and the calls as CSR arrays, i.e. for every method the range of its
+ * callees (and callers) in one int array. Queries decode only the methods they return, so a loaded
+ * call graph needs hardly any heap.
+ *
+ * <pre>
+ * <code>
+ * BinaryCallGraph.write(cg, Paths.get("cg.bin"));
+ * CallGraph loaded = BinaryCallGraph.load(Paths.get("cg.bin"));
+ * </code>
+ * </pre>
+ *
+ * The file must not be larger than 2 GB.
+ */
+public final class BinaryCallGraph implements CallGraph {
+
+  private static final int MAGIC = 0x53554347; // "SUCG"
+  private static final int VERSION = 1;
+  private static final int HEADER_INTS = 7;
+
+  @Nonnull private final ByteBuffer strings;
+  @Nonnull private final IntBuffer stringOffsets;
+  @Nonnull private final IntBuffer methodDataOffsets;
+  @Nonnull private final IntBuffer methodData;
+  @Nonnull private final IntBuffer signatureHashes;
+  @Nonnull private final IntBuffer hashOrder;
+  @Nonnull private final IntBuffer outOffsets;
+  @Nonnull private final IntBuffer outTargets;
+  @Nonnull private final IntBuffer inOffsets;
+  @Nonnull private final IntBuffer inSources;
+  private final int stringCount;
+  private final int methodCount;
+  private final int edgeCount;
+
+  private BinaryCallGraph(@Nonnull ByteBuffer buffer) {
+    if (buffer.getInt(0) != MAGIC) {
+      throw new IllegalArgumentException("The file does not contain a binary call graph.");
+    }
+    if (buffer.getInt(4) != VERSION) {
+      throw new IllegalArgumentException(
+          "Unsupported version " + buffer.getInt(4) + " of the binary call graph.");
+    }
+    stringCount = buffer.getInt(8);
+    methodCount = buffer.getInt(12);
+    edgeCount = buffer.getInt(16);
+    final int methodDataLength = buffer.getInt(20);
+    final int stringBlobLength = buffer.getInt(24);
+
+    int pos = HEADER_INTS * 4;
+    stringOffsets = intSection(buffer, pos, stringCount + 1);
+    pos += (stringCount + 1) * 4;
+    methodDataOffsets = intSection(buffer, pos, methodCount + 1);
+    pos += (methodCount + 1) * 4;
+    methodData = intSection(buffer, pos, methodDataLength);
+    pos += methodDataLength * 4;
+    signatureHashes = intSection(buffer, pos, methodCount);
+    pos += methodCount * 4;
+    hashOrder = intSection(buffer, pos, methodCount);
+    pos += methodCount * 4;
+    outOffsets = intSection(buffer, pos, methodCount + 1);
+    pos += (methodCount + 1) * 4;
+    outTargets = intSection(buffer, pos, edgeCount);
+    pos += edgeCount * 4;
+    inOffsets = intSection(buffer, pos, methodCount + 1);
+    pos += (methodCount + 1) * 4;
+    inSources = intSection(buffer, pos, edgeCount);
+    pos += edgeCount * 4;
+    strings = section(buffer, pos, stringBlobLength);
+  }
+
+  @Nonnull
+  private static ByteBuffer section(@Nonnull ByteBuffer buffer, int pos, int length) {
+    final ByteBuffer duplicate = buffer.duplicate();
+    duplicate.position(pos);
+    duplicate.limit(pos + length);
+    return duplicate.slice();
+  }
+
+  @Nonnull
+  private static IntBuffer intSection(@Nonnull ByteBuffer buffer, int pos, int length) {
+    return section(buffer, pos, length * 4).asIntBuffer();
+  }
+
+  /** Memory-maps the call graph stored in the given file. */
+  @Nonnull
+  public static BinaryCallGraph load(@Nonnull Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      return new BinaryCallGraph(buffer);
+    }
+  }
+
+  /** Creates a call graph from a buffer that contains the binary format e.g. read from a stream. */
+  @Nonnull
+  public static BinaryCallGraph of(@Nonnull ByteBuffer buffer) {
+    return new BinaryCallGraph(buffer);
+  }
+
+  /** Writes the call graph in the binary format to the given file. */
+  public static void write(@Nonnull CallGraph callGraph, @Nonnull Path file) throws IOException {
+    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16)) {
+      write(callGraph, out);
+    }
+  }
+
+  /** Writes the call graph in the binary format to the given stream. */
+  public static void write(@Nonnull CallGraph callGraph, @Nonnull OutputStream outputStream)
+      throws IOException {
+    final Set<MethodSignature> signatures = callGraph.getMethodSignatures();
+
+    // the string table is sorted, so the strings can be found by a binary search
+    final TreeSet<String> stringSet = new TreeSet<>();
+    for (MethodSignature signature : signatures) {
+      stringSet.add(signature.getDeclClassType().getFullyQualifiedName());
+      stringSet.add(signature.getName());
+      stringSet.add(signature.getType().toString());
+      for (Type parameterType : signature.getParameterTypes()) {
+        stringSet.add(parameterType.toString());
+      }
+    }
+    final Map<String, Integer> stringIds = new HashMap<>(stringSet.size() * 2);
+    final ByteArrayOutputStream stringBlob = new ByteArrayOutputStream();
+    final int[] stringOffsets = new int[stringSet.size() + 1];
+    for (String str : stringSet) {
+      final int id = stringIds.size();
+      stringIds.put(str, id);
+      final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+      stringBlob.write(bytes, 0, bytes.length);
+      stringOffsets[id + 1] = stringBlob.size();
+    }
+
+    // the methods of a class are stored consecutively
+    final MethodSignature[] methods =
+        signatures.stream()
+            .sorted(
+                Comparator.comparing(
+                        (MethodSignature sig) -> sig.getDeclClassType().getFullyQualifiedName())
+                    .thenComparing(MethodSignature::toString))
+            .toArray(MethodSignature[]::new);
+    final Map<MethodSignature, Integer> methodIds = new HashMap<>(methods.length * 2);
+    final int[] methodDataOffsets = new int[methods.length + 1];
+    int methodDataLength = 0;
+    for (int i = 0; i < methods.length; i++) {
+      methodIds.put(methods[i], i);
+      methodDataLength += 3 + methods[i].getParameterTypes().size();
+      methodDataOffsets[i + 1] = methodDataLength;
+    }
+    final Integer[] order = new Integer[methods.length];
+    final int[] hashes = new int[methods.length];
+    for (int i = 0; i < methods.length; i++) {
+      order[i] = i;
+      hashes[i] = methods[i].toString().hashCode();
+    }
+    Arrays.sort(order, Comparator.comparingInt((Integer i) -> hashes[i]));
+
+    final int[][] callees = new int[methods.length][];
+    int edgeCount = 0;
+    final int[] inDegree = new int[methods.length];
+    for (int i = 0; i < methods.length; i++) {
+      callees[i] =
+          callGraph.callsFrom(methods[i]).stream().mapToInt(methodIds::get).sorted().toArray();
+      edgeCount += callees[i].length;
+      for (int target : callees[i]) {
+        inDegree[target]++;
+      }
+    }
+
+    final DataOutputStream out = new DataOutputStream(outputStream);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(stringSet.size());
+    out.writeInt(methods.length);
+    out.writeInt(edgeCount);
+    out.writeInt(methodDataLength);
+    out.writeInt(stringBlob.size());
+
+    for (int offset : stringOffsets) {
+      out.writeInt(offset);
+    }
+    for (int offset : methodDataOffsets) {
+      out.writeInt(offset);
+    }
+    for (MethodSignature method : methods) {
+      out.writeInt(stringIds.get(method.getDeclClassType().getFullyQualifiedName()));
+      out.writeInt(stringIds.get(method.getName()));
+      out.writeInt(stringIds.get(method.getType().toString()));
+      for (Type parameterType : method.getParameterTypes()) {
+        out.writeInt(stringIds.get(parameterType.toString()));
+      }
+    }
+    for (Integer i : order) {
+      out.writeInt(hashes[i]);
+    }
+    for (Integer i : order) {
+      out.writeInt(i);
+    }
+
+    // outgoing calls
+    out.writeInt(0);
+    int offset = 0;
+    for (int[] targets : callees) {
+      offset += targets.length;
+      out.writeInt(offset);
+    }
+    for (int[] targets : callees) {
+      for (int target : targets) {
+        out.writeInt(target);
+      }
+    }
+
+    // incoming calls; the sources are sorted as the callers are iterated in order
+    final int[] inOffsets = new int[methods.length + 1];
+    for (int i = 0; i < methods.length; i++) {
+      inOffsets[i + 1] = inOffsets[i] + inDegree[i];
+    }
+    final int[] inSources = new int[edgeCount];
+    final int[] fill = Arrays.copyOf(inOffsets, methods.length);
+    for (int source = 0; source < methods.length; source++) {
+      for (int target : callees[source]) {
+        inSources[fill[target]++] = source;
+      }
+    }
+    for (int inOffset : inOffsets) {
+      out.writeInt(inOffset);
+    }
+    for (int source : inSources) {
+      out.writeInt(source);
+    }
+
+    stringBlob.writeTo(out);
+    out.flush();
+  }
+
+  @Nonnull
+  private String stringOf(int id) {
+    final int from = stringOffsets.get(id);
+    final byte[] bytes = new byte[stringOffsets.get(id + 1) - from];
+    final ByteBuffer buffer = strings.duplicate();
+    buffer.position(from);
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** @return the id of the string or -1 if it is not in the string table */
+  private int findString(@Nonnull String str) {
+    int low = 0;
+    int high = stringCount - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int cmp = stringOf(mid).compareTo(str);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  @Nonnull
+  private MethodSignature methodOf(int id) {
+    final int from = methodDataOffsets.get(id);
+    final int to = methodDataOffsets.get(id + 1);
+    final List<String> parameters = new ArrayList<>(to - from - 3);
+    for (int i = from + 3; i < to; i++) {
+      parameters.add(stringOf(methodData.get(i)));
+    }
+    return JavaIdentifierFactory.getInstance()
+        .getMethodSignature(
+            stringOf(methodData.get(from + 1)),
+            stringOf(methodData.get(from)),
+            stringOf(methodData.get(from + 2)),
+            parameters);
+  }
+
+  /** @return the id of the method or -1 if it is not in the call graph */
+  private int findMethod(@Nonnull MethodSignature method) {
+    final int hash = method.toString().hashCode();
+    int low = 0;
+    int high = methodCount - 1;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (signatureHashes.get(mid) < hash) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    for (int i = low; i < methodCount && signatureHashes.get(i) == hash; i++) {
+      final int id = hashOrder.get(i);
+      if (methodOf(id).equals(method)) {
+        return id;
+      }
+    }
+    return -1;
+  }
+
+  private int methodIdOf(@Nonnull MethodSignature method) {
+    final int id = findMethod(method);
+    if (id < 0) {
+      throw new IllegalArgumentException("Node for " + method + " is not contained.");
+    }
+    return id;
+  }
+
+  @Nonnull
+  private Set<MethodSignature> methodsOf(@Nonnull IntBuffer ids, int from, int to) {
+    final Set<MethodSignature> methods = new HashSet<>((to - from) * 2);
+    for (int i = from; i < to; i++) {
+      methods.add(methodOf(ids.get(i)));
+    }
+    return methods;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignatures() {
+    final Set<MethodSignature> methods = new HashSet<>(methodCount * 2);
+    for (int id = 0; id < methodCount; id++) {
+      methods.add(methodOf(id));
+    }
+    return methods;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignaturesOf(@Nonnull ClassType classType) {
+    final int classId = findString(classType.getFullyQualifiedName());
+    if (classId < 0) {
+      return Collections.emptySet();
+    }
+    // the methods are sorted by their class
+    int low = 0;
+    int high = methodCount;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (methodData.get(methodDataOffsets.get(mid)) < classId) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    final Set<MethodSignature> methods = new HashSet<>();
+    for (int id = low;
+        id < methodCount && methodData.get(methodDataOffsets.get(id)) == classId;
+        id++) {
+      methods.add(methodOf(id));
+    }
+    return methods;
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callsFrom(@Nonnull MethodSignature sourceMethod) {
+    final int id = methodIdOf(sourceMethod);
+    return methodsOf(outTargets, outOffsets.get(id), outOffsets.get(id + 1));
+  }
+
+  @Nonnull
+  @Override
+  public Set<MethodSignature> callsTo(@Nonnull MethodSignature targetMethod) {
+    final int id = methodIdOf(targetMethod);
+    return methodsOf(inSources, inOffsets.get(id), inOffsets.get(id + 1));
+  }
+
+  @Override
+  public boolean containsMethod(@Nonnull MethodSignature method) {
+    return findMethod(method) >= 0;
+  }
+
+  @Override
+  public boolean containsCall(
+      @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+    final int source = findMethod(sourceMethod);
+    final int target = source < 0 ? -1 : findMethod(targetMethod);
+    if (target < 0) {
+      return false;
+    }
+    // the targets of a method are sorted
+    int low = outOffsets.get(source);
+    int high = outOffsets.get(source + 1) - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int value = outTargets.get(mid);
+      if (value < target) {
+        low = mid + 1;
+      } else if (value > target) {
+        high = mid - 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public int callCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Passes every call of the call graph as pair of (source, target) method signature strings to the
+   * consumer without creating the MethodSignature objects.
+   */
+  public void forEachCall(@Nonnull BiConsumer<String, String> consumer) {
+    final String[] signatureStrings = new String[methodCount];
+    for (int source = 0; source < methodCount; source++) {
+      final int from = outOffsets.get(source);
+      final int to = outOffsets.get(source + 1);
+      if (from == to) {
+        continue;
+      }
+      final String sourceString = signatureString(source, signatureStrings);
+      for (int i = from; i < to; i++) {
+        consumer.accept(sourceString, signatureString(outTargets.get(i), signatureStrings));
+      }
+    }
+  }
+
+  @Nonnull
+  private String signatureString(int id, @Nonnull String[] cache) {
+    String str = cache[id];
+    if (str == null) {
+      str = methodOf(id).toString();
+      cache[id] = str;
+    }
+    return str;
+  }
+
+  @Override
+  public String exportAsDot() {
+    final StringWriter writer = new StringWriter();
+    try {
+      CallGraphExporter.writeDot(this, writer);
+    } catch (IOException e) {
+      // a StringWriter does not throw
+      throw new UncheckedIOException(e);
+    }
+    return writer.toString();
+  }
+
+  @Nonnull
+  @Override
+  public MutableCallGraph copy() {
+    final GraphBasedCallGraph copy = new GraphBasedCallGraph();
+    final MethodSignature[] methods = new MethodSignature[methodCount];
+    for (int id = 0; id < methodCount; id++) {
+      methods[id] = methodOf(id);
+      copy.addMethod(methods[id]);
+    }
+    for (int source = 0; source < methodCount; source++) {
+      for (int i = outOffsets.get(source); i < outOffsets.get(source + 1); i++) {
+        copy.addCall(methods[source], methods[outTargets.get(i)]);
+      }
+    }
+    return copy;
+  }
+
+  @Override
+  public String toString() {
+    return "BinaryCallGraph(" + methodCount + " methods, " + edgeCount + " calls)";
+  }
+}
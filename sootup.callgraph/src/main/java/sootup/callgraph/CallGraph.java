@@ -25,6 +25,7 @@ package sootup.callgraph;
 import java.util.Set;
 import javax.annotation.Nonnull;
 import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
 
 /** The interface of all implemented call graph data structures */
 public interface CallGraph {
@@ -38,6 +39,16 @@ public interface CallGraph {
   @Nonnull
   Set<MethodSignature> getMethodSignatures();
 
+  /**
+   * This method returns the method signatures in the call graph that are declared in the given
+   * class.
+   *
+   * @param classType the declaring class of the methods
+   * @return a set containing the method signatures of the class in the call graph.
+   */
+  @Nonnull
+  Set<MethodSignature> getMethodSignaturesOf(@Nonnull ClassType classType);
+
   /**
    * This method returns all method signatures that are called by a given method signature. It
    * returns the targets of outgoing edges of the given node (method signature) in the call graph
@@ -25,6 +25,7 @@ package sootup.callgraph;
 import java.util.List;
 import javax.annotation.Nonnull;
 import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
 import sootup.java.core.types.JavaClassType;
 
 /** The interface of a implemented call graph algorithms */
@@ -60,4 +61,33 @@ public interface CallGraphAlgorithm {
    */
   @Nonnull
   CallGraph addClass(@Nonnull CallGraph oldCallGraph, @Nonnull JavaClassType classType);
+
+  /**
+   * Adds a class to the given call graph like {@link #addClass(CallGraph, JavaClassType)} but
+   * modifies the call graph instead of a copy of it. Only the methods of the class, the methods
+   * that become reachable from them and the callers of methods they override are processed.
+   *
+   * @param callGraph the call graph which will be modified.
+   * @param classType the type of the added class. It has to be contained in the view.
+   */
+  void addClassInPlace(@Nonnull MutableCallGraph callGraph, @Nonnull JavaClassType classType);
+
+  /**
+   * Removes all methods of a class and the calls from and to them from the given call graph.
+   * Methods that were only reachable via the removed methods stay in the call graph.
+   *
+   * @param callGraph the call graph which will be modified.
+   * @param classType the type of the removed class.
+   */
+  void removeClassInPlace(@Nonnull MutableCallGraph callGraph, @Nonnull ClassType classType);
+
+  /**
+   * Recomputes the calls of a method whose body has changed. The outgoing calls of the method are
+   * replaced by the calls that are resolved in the current body, and newly reachable methods are
+   * processed. Methods that are not called anymore stay in the call graph.
+   *
+   * @param callGraph the call graph which will be modified.
+   * @param method the changed method. It has to be contained in the call graph.
+   */
+  void updateMethodInPlace(@Nonnull MutableCallGraph callGraph, @Nonnull MethodSignature method);
 }
@@ -0,0 +1,111 @@
+package sootup.callgraph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.function.BiConsumer;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Writes call graphs in text formats. In contrast to {@link CallGraph#exportAsDot()} the calls are
+ * written one by one to the Writer and are not sorted, so even very large call graphs can be
+ * exported with constant memory overhead.
+ */
+public final class CallGraphExporter {
+
+  private CallGraphExporter() {}
+
+  /**
+   * Writes the call graph in the dot format that is also used by {@link CallGraph#exportAsDot()}.
+   */
+  public static void writeDot(@Nonnull CallGraph callGraph, @Nonnull Writer writer)
+      throws IOException {
+    writer.write("strict digraph ObjectGraph {\n");
+    forEachCall(
+        callGraph,
+        (source, target) -> {
+          try {
+            writer.write("\t\"");
+            writer.write(source);
+            writer.write("\" -> \"");
+            writer.write(target);
+            writer.write("\";\n");
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+    writer.write("}");
+    writer.flush();
+  }
+
+  /**
+   * Writes the call graph as comma separated values with the header <code>source,target</code> and
+   * one line per call. The signatures are quoted as they contain commas.
+   */
+  public static void writeCsv(@Nonnull CallGraph callGraph, @Nonnull Writer writer)
+      throws IOException {
+    writer.write("source,target\n");
+    forEachCall(
+        callGraph,
+        (source, target) -> {
+          try {
+            writeCsvField(writer, source);
+            writer.write(',');
+            writeCsvField(writer, target);
+            writer.write('\n');
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        });
+    writer.flush();
+  }
+
+  private static void writeCsvField(@Nonnull Writer writer, @Nonnull String field)
+      throws IOException {
+    writer.write('"');
+    writer.write(field.replace("\"", "\"\""));
+    writer.write('"');
+  }
+
+  private static void forEachCall(
+      @Nonnull CallGraph callGraph, @Nonnull BiConsumer<String, String> consumer)
+      throws IOException {
+    try {
+      if (callGraph instanceof BinaryCallGraph) {
+        ((BinaryCallGraph) callGraph).forEachCall(consumer);
+        return;
+      }
+      for (MethodSignature source : callGraph.getMethodSignatures()) {
+        final String sourceString = source.toString();
+        for (MethodSignature target : callGraph.callsFrom(source)) {
+          consumer.accept(sourceString, target.toString());
+        }
+      }
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+}
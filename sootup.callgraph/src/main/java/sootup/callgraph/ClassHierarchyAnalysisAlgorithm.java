@@ -66,7 +66,8 @@ public class ClassHierarchyAnalysisAlgorithm extends AbstractCallGraphAlgorithm
   /**
    * In the CHA algorithm, every virtual call is resolved by only using the hierarchy. Every
    * subclass of the class is considered as target if it contains an implementation of the methods
-   * called in the invoke expression.
+   * called in the invoke expression. As the resolution depends on nothing but the hierarchy, it can
+   * also be used to resolve single calls on demand without computing the whole call graph.
    *
    * @param method the method object that contains the given invoke expression in the body.
    * @param invokeExpr it contains the call which is resolved.
@@ -75,7 +76,7 @@ public class ClassHierarchyAnalysisAlgorithm extends AbstractCallGraphAlgorithm
    */
   @Override
   @Nonnull
-  protected Stream<MethodSignature> resolveCall(SootMethod method, AbstractInvokeExpr invokeExpr) {
+  public Stream<MethodSignature> resolveCall(SootMethod method, AbstractInvokeExpr invokeExpr) {
     MethodSignature targetMethodSignature = invokeExpr.getMethodSignature();
     if ((invokeExpr instanceof JDynamicInvokeExpr)) {
       return Stream.empty();
@@ -23,8 +23,10 @@ package sootup.callgraph;
  */
 
 import com.google.common.base.Preconditions;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -32,7 +34,7 @@ import javax.annotation.Nonnull;
 import org.jgrapht.graph.DefaultDirectedGraph;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.signatures.SootClassMemberSignature;
-import sootup.java.core.types.JavaClassType;
+import sootup.core.types.ClassType;
 
 /** This class implements a mutable call graph as a graph. */
 public final class GraphBasedCallGraph implements MutableCallGraph {
@@ -54,8 +56,7 @@ public final class GraphBasedCallGraph implements MutableCallGraph {
 
   @Nonnull private final DefaultDirectedGraph<Vertex, Edge> graph;
   @Nonnull private final Map<MethodSignature, Vertex> signatureToVertex;
-  // TODO: [ms] typeToVertices is not used in a useful way, yet?
-  @Nonnull private final Map<JavaClassType, Set<Vertex>> typeToVertices;
+  @Nonnull private final Map<ClassType, Set<Vertex>> typeToVertices;
 
   /** The constructor of the graph based call graph. it initializes the call graph object. */
   GraphBasedCallGraph() {
@@ -67,7 +68,7 @@ public final class GraphBasedCallGraph implements MutableCallGraph {
   private GraphBasedCallGraph(
       @Nonnull DefaultDirectedGraph<Vertex, Edge> graph,
       @Nonnull Map<MethodSignature, Vertex> signatureToVertex,
-      @Nonnull Map<JavaClassType, Set<Vertex>> typeToVertices) {
+      @Nonnull Map<ClassType, Set<Vertex>> typeToVertices) {
     this.graph = graph;
     this.signatureToVertex = signatureToVertex;
     this.typeToVertices = typeToVertices;
@@ -78,6 +79,27 @@ public final class GraphBasedCallGraph implements MutableCallGraph {
     Vertex v = new Vertex(calledMethod);
     graph.addVertex(v);
     signatureToVertex.put(calledMethod, v);
+    typeToVertices.computeIfAbsent(calledMethod.getDeclClassType(), k -> new HashSet<>()).add(v);
+  }
+
+  @Override
+  public void removeMethod(@Nonnull MethodSignature method) {
+    Vertex v = signatureToVertex.remove(method);
+    if (v == null) {
+      return;
+    }
+    graph.removeVertex(v);
+    Set<Vertex> vertices = typeToVertices.get(method.getDeclClassType());
+    vertices.remove(v);
+    if (vertices.isEmpty()) {
+      typeToVertices.remove(method.getDeclClassType());
+    }
+  }
+
+  @Override
+  public void removeCall(
+      @Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod) {
+    graph.removeEdge(vertexOf(sourceMethod), vertexOf(targetMethod));
   }
 
   @Override
@@ -92,6 +114,16 @@ public final class GraphBasedCallGraph implements MutableCallGraph {
     return signatureToVertex.keySet();
   }
 
+  @Nonnull
+  @Override
+  public Set<MethodSignature> getMethodSignaturesOf(@Nonnull ClassType classType) {
+    Set<Vertex> vertices = typeToVertices.get(classType);
+    if (vertices == null) {
+      return Collections.emptySet();
+    }
+    return vertices.stream().map(vertex -> vertex.methodSignature).collect(Collectors.toSet());
+  }
+
   @Nonnull
   @Override
   public Set<MethodSignature> callsFrom(@Nonnull MethodSignature sourceMethod) {
@@ -186,10 +218,13 @@ public final class GraphBasedCallGraph implements MutableCallGraph {
   @Nonnull
   @Override
   public MutableCallGraph copy() {
+    Map<ClassType, Set<Vertex>> copiedTypeToVertices = new HashMap<>();
+    typeToVertices.forEach(
+        (type, vertices) -> copiedTypeToVertices.put(type, new HashSet<>(vertices)));
     return new GraphBasedCallGraph(
         (DefaultDirectedGraph<Vertex, Edge>) graph.clone(),
         new HashMap<>(signatureToVertex),
-        new HashMap<>(typeToVertices));
+        copiedTypeToVertices);
   }
 
   /**
@@ -45,4 +45,19 @@ public interface MutableCallGraph extends CallGraph {
    * @param targetMethod this paramter defines the target node of the edge in the call graph.
    */
   void addCall(@Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod);
+
+  /**
+   * This method enables to remove a method and all calls from and to it from the call graph.
+   *
+   * @param method the method that will be removed from the call graph.
+   */
+  void removeMethod(@Nonnull MethodSignature method);
+
+  /**
+   * This method enables to remove a call i.e. an edge from the call graph.
+   *
+   * @param sourceMethod this parameter defines the source node of the edge in the call graph.
+   * @param targetMethod this paramter defines the target node of the edge in the call graph.
+   */
+  void removeCall(@Nonnull MethodSignature sourceMethod, @Nonnull MethodSignature targetMethod);
 }
@@ -64,8 +64,14 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
     }
   }
 
-  @Nonnull private Set<ClassType> instantiatedClasses = Collections.emptySet();
-  @Nonnull private Map<ClassType, List<Call>> ignoredCalls = Collections.emptyMap();
+  /**
+   * The instantiated classes and the ignored calls are kept after the call graph is constructed, so
+   * that the in-place updates resolve virtual calls against them and replay ignored calls once
+   * their class is instantiated by an update.
+   */
+  @Nonnull private final Set<ClassType> instantiatedClasses = new HashSet<>();
+
+  @Nonnull private final Map<ClassType, List<Call>> ignoredCalls = new HashMap<>();
 
   /**
    * The constructor of the RTA algorithm.
@@ -86,12 +92,9 @@ public class RapidTypeAnalysisAlgorithm extends AbstractCallGraphAlgorithm {
   @Nonnull
   @Override
   public CallGraph initialize(@Nonnull List<MethodSignature> entryPoints) {
-    instantiatedClasses = new HashSet<>();
-    ignoredCalls = new HashMap<>();
-    CallGraph cg = constructCompleteCallGraph(view, entryPoints);
-    instantiatedClasses = Collections.emptySet();
-    ignoredCalls = Collections.emptyMap();
-    return cg;
+    instantiatedClasses.clear();
+    ignoredCalls.clear();
+    return constructCompleteCallGraph(view, entryPoints);
   }
 
   /**
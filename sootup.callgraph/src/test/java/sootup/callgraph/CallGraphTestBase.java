@@ -2,6 +2,10 @@ package sootup.callgraph;
 
 import static junit.framework.TestCase.*;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import junit.framework.TestCase;
 import org.junit.Test;
@@ -19,6 +23,7 @@ import sootup.java.sourcecode.inputlocation.JavaSourcePathAnalysisInputLocation;
 public abstract class CallGraphTestBase<T extends AbstractCallGraphAlgorithm> {
 
   private T algorithm;
+  protected JavaView view;
   protected JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
   protected JavaClassType mainClassSignature;
   protected MethodSignature mainMethodSignature;
@@ -63,7 +68,7 @@ public abstract class CallGraphTestBase<T extends AbstractCallGraphAlgorithm> {
             + (useSourceCodeFrontend ? "source" : "binary");
 
     // JavaView view = viewToClassPath.computeIfAbsent(classPath, this::createViewForClassPath);
-    JavaView view = createViewForClassPath(classPath, useSourceCodeFrontend);
+    view = createViewForClassPath(classPath, useSourceCodeFrontend);
 
     mainClassSignature = identifierFactory.getClassType(className);
     mainMethodSignature =
@@ -114,6 +119,101 @@ public abstract class CallGraphTestBase<T extends AbstractCallGraphAlgorithm> {
     TestCase.assertEquals(3, newCallGraph.callsTo(methodSignature).size());
   }
 
+  @Test
+  public void testIncrementalUpdates() {
+    CallGraph cg = loadCallGraph("Misc", "update.operation.cg.Class");
+    MutableCallGraph updated = cg.copy();
+
+    MethodSignature methodSignature =
+        identifierFactory.getMethodSignature(
+            identifierFactory.getClassType("update.operation.cg.Class"),
+            "method",
+            "void",
+            Collections.emptyList());
+    JavaClassType newClass =
+        new JavaClassType("AdderA", identifierFactory.getPackageName("update.operation.cg"));
+
+    // adding in place results in the same call graph as adding to a copy
+    algorithm.addClassInPlace(updated, newClass);
+    CallGraph expected = algorithm.addClass(cg, newClass);
+    assertEquals(expected.getMethodSignatures(), updated.getMethodSignatures());
+    assertEquals(expected.callCount(), updated.callCount());
+    assertEquals(1, updated.callsTo(mainMethodSignature).size());
+    assertEquals(3, updated.callsTo(methodSignature).size());
+    assertFalse(updated.getMethodSignaturesOf(newClass).isEmpty());
+
+    // recomputing an unchanged method does not change the call graph
+    int callCount = updated.callCount();
+    algorithm.updateMethodInPlace(updated, mainMethodSignature);
+    assertEquals(callCount, updated.callCount());
+    assertEquals(expected.callsFrom(mainMethodSignature), updated.callsFrom(mainMethodSignature));
+
+    // removing the class again restores the calls of the original call graph
+    algorithm.removeClassInPlace(updated, newClass);
+    assertTrue(updated.getMethodSignaturesOf(newClass).isEmpty());
+    assertEquals(0, updated.callsTo(mainMethodSignature).size());
+    assertEquals(1, updated.callsTo(methodSignature).size());
+    // methods that were only reachable from the removed class (e.g. Object.<init>) stay
+    assertTrue(updated.getMethodSignatures().containsAll(cg.getMethodSignatures()));
+  }
+
+  @Test
+  public void testIncrementalUpdateWithVirtualCall() {
+    CallGraph cg = loadCallGraph("Misc", "example1.Example");
+
+    // recomputing a method with instantiations and virtual calls after the construction
+    MutableCallGraph updated = cg.copy();
+    algorithm.updateMethodInPlace(updated, mainMethodSignature);
+    assertEquals(cg.callsFrom(mainMethodSignature), updated.callsFrom(mainMethodSignature));
+    assertEquals(cg.callCount(), updated.callCount());
+
+    // building the call graph incrementally from the entry method results in the same call graph
+    MutableCallGraph incremental = new GraphBasedCallGraph();
+    incremental.addMethod(mainMethodSignature);
+    createAlgorithm(view).updateMethodInPlace(incremental, mainMethodSignature);
+    assertEquals(cg.getMethodSignatures(), incremental.getMethodSignatures());
+    assertEquals(cg.callCount(), incremental.callCount());
+  }
+
+  @Test
+  public void testBinaryFormat() throws IOException {
+    CallGraph cg = loadCallGraph("Misc", "update.operation.cg.Class");
+    Path file = Files.createTempFile("callgraph", ".bin");
+    try {
+      BinaryCallGraph.write(cg, file);
+      BinaryCallGraph loaded = BinaryCallGraph.load(file);
+
+      assertEquals(cg.getMethodSignatures(), loaded.getMethodSignatures());
+      assertEquals(cg.callCount(), loaded.callCount());
+      for (MethodSignature method : cg.getMethodSignatures()) {
+        assertTrue(loaded.containsMethod(method));
+        assertEquals(cg.callsFrom(method), loaded.callsFrom(method));
+        assertEquals(cg.callsTo(method), loaded.callsTo(method));
+        for (MethodSignature target : cg.callsFrom(method)) {
+          assertTrue(loaded.containsCall(method, target));
+        }
+      }
+      assertEquals(
+          cg.getMethodSignaturesOf(mainClassSignature),
+          loaded.getMethodSignaturesOf(mainClassSignature));
+      assertFalse(
+          loaded.containsMethod(
+              identifierFactory.getMethodSignature(
+                  mainClassSignature, "unknown", "void", Collections.emptyList())));
+      assertEquals(cg.exportAsDot(), loaded.copy().exportAsDot());
+
+      StringWriter dot = new StringWriter();
+      CallGraphExporter.writeDot(loaded, dot);
+      assertEquals(cg.callCount() + 2, dot.toString().split("\n").length);
+      StringWriter csv = new StringWriter();
+      CallGraphExporter.writeCsv(cg, csv);
+      assertEquals(cg.callCount() + 1, csv.toString().split("\n").length);
+      assertTrue(csv.toString().startsWith("source,target\n\"<"));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
   @Test
   public void testRecursiveCall() {
     CallGraph cg = loadCallGraph("Misc", "recur.Class");
@@ -341,4 +341,23 @@ public class RapidTypeAnalysisAlgorithmTest extends CallGraphTestBase<RapidTypeA
             Collections.emptyList());
     assertTrue(cg.containsCall(mainMethodSignature, instantiatedClassMethod));
   }
+
+  @Test
+  public void testIncrementalUpdateOfLaterInstantiatedClass() {
+    CallGraph cg = loadCallGraph("RTA", false, "lic.Class");
+    MethodSignature instantiatedClassMethod =
+        identifierFactory.getMethodSignature(
+            identifierFactory.getClassType("lic.InstantiatedClass"),
+            "method",
+            "void",
+            Collections.emptyList());
+
+    // the ignored call is replayed when the update instantiates its class
+    MutableCallGraph incremental = new GraphBasedCallGraph();
+    incremental.addMethod(mainMethodSignature);
+    createAlgorithm(view).updateMethodInPlace(incremental, mainMethodSignature);
+    assertTrue(incremental.containsCall(mainMethodSignature, instantiatedClassMethod));
+    assertEquals(cg.getMethodSignatures(), incremental.getMethodSignatures());
+    assertEquals(cg.callCount(), incremental.callCount());
+  }
 }
@@ -0,0 +1,20 @@
+package sootup.core.cache;
+
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+
+/**
+ * Interface for caches of resolved method bodies that outlive a View e.g. by storing them on disk.
+ * A frontend consults the cache before it creates a body and passes every body it creates to the
+ * cache. The key identifies the input the body was created from, e.g. a hash of the class file and
+ * of the applied BodyInterceptors, so that a changed input never returns an outdated body.
+ */
+public interface BodyCache {
+
+  @Nonnull
+  Optional<Body> getBody(@Nonnull String key, @Nonnull MethodSignature methodSignature);
+
+  void putBody(@Nonnull String key, @Nonnull Body body);
+}
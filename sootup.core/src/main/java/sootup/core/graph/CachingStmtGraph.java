@@ -0,0 +1,100 @@
+package sootup.core.graph;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.basic.Trap;
+import sootup.core.jimple.common.stmt.Stmt;
+
+/**
+ * Encapsulates a StmtGraph which is not modified anymore (e.g. the StmtGraph of a built Body) and
+ * memoizes the derived views that are otherwise recomputed on every call i.e. the linearized Stmts,
+ * the Traps, the tails and the entrypoints.
+ *
+ * <p>The backing graph must not be modified after it is encapsulated, otherwise the memoized views
+ * are stale.
+ */
+public class CachingStmtGraph<V extends BasicBlock<V>> extends ForwardingStmtGraph<V> {
+
+  // hint: the views are computed lazily; concurrent initialization computes equal values, so the
+  // race is benign.
+  private volatile List<Stmt> stmts;
+  private volatile List<Trap> traps;
+  private volatile List<Stmt> tails;
+  private volatile List<Stmt> entrypoints;
+
+  public CachingStmtGraph(@Nonnull StmtGraph<V> backingGraph) {
+    super(backingGraph);
+  }
+
+  /** @return an unmodifiable List of the Stmts in linearized order. */
+  @Override
+  public List<Stmt> getStmts() {
+    List<Stmt> cached = stmts;
+    if (cached == null) {
+      cached = Collections.unmodifiableList(backingGraph.getStmts());
+      stmts = cached;
+    }
+    return cached;
+  }
+
+  @Nonnull
+  @Override
+  public Iterator<Stmt> iterator() {
+    return getStmts().iterator();
+  }
+
+  @Nonnull
+  @Override
+  public List<Trap> getTraps() {
+    List<Trap> cached = traps;
+    if (cached == null) {
+      cached = Collections.unmodifiableList(new ArrayList<>(backingGraph.getTraps()));
+      traps = cached;
+    }
+    return cached;
+  }
+
+  @Nonnull
+  @Override
+  public List<Stmt> getTails() {
+    List<Stmt> cached = tails;
+    if (cached == null) {
+      cached = Collections.unmodifiableList(backingGraph.getTails());
+      tails = cached;
+    }
+    return cached;
+  }
+
+  @Nonnull
+  @Override
+  public Collection<Stmt> getEntrypoints() {
+    List<Stmt> cached = entrypoints;
+    if (cached == null) {
+      cached = Collections.unmodifiableList(new ArrayList<>(super.getEntrypoints()));
+      entrypoints = cached;
+    }
+    return cached;
+  }
+}
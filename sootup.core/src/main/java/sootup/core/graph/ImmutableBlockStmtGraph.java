@@ -1,215 +1,463 @@
 package sootup.core.graph;
 
-import com.google.common.collect.Lists;
+import com.google.common.collect.Iterators;
 import java.util.*;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import sootup.core.jimple.basic.Trap;
+import sootup.core.jimple.common.ref.JCaughtExceptionRef;
+import sootup.core.jimple.common.stmt.JIdentityStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.types.ClassType;
 
-// FIXME: implement!
+/**
+ * A compact, frozen StmtGraph. The Stmts are stored in a single array in their linearized (i.e.
+ * Jimple output) order and all the Blocks are just ranges of that array. The flows between Blocks
+ * are stored as int arrays in a compressed sparse row layout (an offset array per Block and an
+ * array of target Block indices) so a frozen Body does not need to keep one Object per Block edge,
+ * per Block and per Stmt-to-Block mapping alive.
+ *
+ * <p>The graph reflects the state of the given StmtGraph at construction time and can not be
+ * modified afterwards. Use {@link MutableBlockStmtGraph#MutableBlockStmtGraph(StmtGraph)} to get a
+ * modifiable copy.
+ */
 public class ImmutableBlockStmtGraph
     extends StmtGraph<ImmutableBlockStmtGraph.ImmutableBasicBlock> {
 
-  private final List<ImmutableBasicBlock> blocks;
-  private final Map<Stmt, ImmutableBasicBlock> stmtToBlock = new HashMap<>();
+  /** all Stmts in linearized order; a Block covers [blockOffsets[b], blockOffsets[b+1]) */
+  @Nonnull private final Stmt[] stmts;
 
-  public ImmutableBlockStmtGraph(@Nonnull MutableStmtGraph graph) {
+  @Nonnull private final List<Stmt> stmtList;
 
-    final List<? extends BasicBlock<?>> mblocks = graph.getBlocksSorted();
-    blocks = Lists.newArrayListWithExpectedSize(mblocks.size());
-    for (BasicBlock<?> block : mblocks) {
-      /* TODO: link predecessors/successors as well..
-      // final ImmutableBasicBlock ib = new ImmutableBasicBlock();
-      block.getStmts().forEach(stmt -> stmtToBlock.put(stmt, ib));
+  /** index of the Block that contains the Stmt at the same position in stmts */
+  @Nonnull private final int[] stmtToBlock;
 
-      blocks.add(ib);*/
+  /** open addressing (identity) hash table from a Stmt to its (index + 1) in stmts */
+  @Nonnull private final int[] stmtIndexTable;
+
+  @Nonnull private final int[] blockOffsets;
+
+  @Nonnull private final int[] successorOffsets;
+  @Nonnull private final int[] successorBlocks;
+
+  @Nonnull private final int[] predecessorOffsets;
+  @Nonnull private final int[] predecessorBlocks;
+
+  @Nonnull private final int[] exceptionalOffsets;
+  @Nonnull private final ClassType[] exceptionTypes;
+  @Nonnull private final int[] exceptionalBlocks;
+
+  @Nonnull private final List<ImmutableBasicBlock> blocks;
+  @Nonnull private final List<Trap> traps;
+
+  // lazily computed, see getTails() and getEntrypoints()
+  private volatile List<Stmt> tails;
+  private volatile List<Stmt> entrypoints;
+
+  public ImmutableBlockStmtGraph(@Nonnull StmtGraph<?> graph) {
+    final List<BasicBlock<?>> sourceBlocks = new ArrayList<>();
+    if (graph.getStartingStmt() != null) {
+      graph.getBlockIterator().forEachRemaining(sourceBlocks::add);
+    }
+    final int blockCount = sourceBlocks.size();
+
+    int stmtCount = 0;
+    for (BasicBlock<?> block : sourceBlocks) {
+      stmtCount += block.getStmtCount();
+    }
+
+    stmts = new Stmt[stmtCount];
+    stmtToBlock = new int[stmtCount];
+    blockOffsets = new int[blockCount + 1];
+    final Map<Stmt, Integer> headToBlock = new IdentityHashMap<>(blockCount);
+    int stmtIdx = 0;
+    for (int b = 0; b < blockCount; b++) {
+      final BasicBlock<?> block = sourceBlocks.get(b);
+      blockOffsets[b] = stmtIdx;
+      headToBlock.put(block.getHead(), b);
+      for (Stmt stmt : block.getStmts()) {
+        stmtToBlock[stmtIdx] = b;
+        stmts[stmtIdx++] = stmt;
+      }
+    }
+    blockOffsets[blockCount] = stmtIdx;
+    stmtList = Collections.unmodifiableList(Arrays.asList(stmts));
+
+    int tableSize = Integer.highestOneBit(Math.max(stmtCount, 1) * 2 + 1) << 1;
+    stmtIndexTable = new int[tableSize];
+    for (int i = 0; i < stmtCount; i++) {
+      int slot = slotOf(stmts[i]);
+      while (stmtIndexTable[slot] != 0) {
+        slot = (slot + 1) & (tableSize - 1);
+      }
+      stmtIndexTable[slot] = i + 1;
     }
+
+    successorOffsets = new int[blockCount + 1];
+    predecessorOffsets = new int[blockCount + 1];
+    exceptionalOffsets = new int[blockCount + 1];
+    for (int b = 0; b < blockCount; b++) {
+      final BasicBlock<?> block = sourceBlocks.get(b);
+      successorOffsets[b + 1] = successorOffsets[b] + block.getSuccessors().size();
+      predecessorOffsets[b + 1] = predecessorOffsets[b] + block.getPredecessors().size();
+      exceptionalOffsets[b + 1] = exceptionalOffsets[b] + block.getExceptionalSuccessors().size();
+    }
+
+    successorBlocks = new int[successorOffsets[blockCount]];
+    predecessorBlocks = new int[predecessorOffsets[blockCount]];
+    exceptionTypes = new ClassType[exceptionalOffsets[blockCount]];
+    exceptionalBlocks = new int[exceptionalOffsets[blockCount]];
+    for (int b = 0; b < blockCount; b++) {
+      final BasicBlock<?> block = sourceBlocks.get(b);
+      int i = successorOffsets[b];
+      for (BasicBlock<?> succ : block.getSuccessors()) {
+        successorBlocks[i++] = headToBlock.get(succ.getHead());
+      }
+      i = predecessorOffsets[b];
+      for (BasicBlock<?> pred : block.getPredecessors()) {
+        predecessorBlocks[i++] = headToBlock.get(pred.getHead());
+      }
+      i = exceptionalOffsets[b];
+      for (Map.Entry<? extends ClassType, ? extends BasicBlock<?>> entry :
+          block.getExceptionalSuccessors().entrySet()) {
+        exceptionTypes[i] = entry.getKey();
+        exceptionalBlocks[i++] = headToBlock.get(entry.getValue().getHead());
+      }
+    }
+
+    final ImmutableBasicBlock[] blockArr = new ImmutableBasicBlock[blockCount];
+    for (int b = 0; b < blockCount; b++) {
+      blockArr[b] = new ImmutableBasicBlock(b);
+    }
+    blocks = Collections.unmodifiableList(Arrays.asList(blockArr));
+    traps =
+        blockCount == 0
+            ? Collections.emptyList()
+            : Collections.unmodifiableList(new ArrayList<>(graph.getTraps()));
+  }
+
+  private int slotOf(@Nonnull Stmt stmt) {
+    // spread the identity hash, as the lower bits are used to address the table
+    final int h = System.identityHashCode(stmt) * 0x9E3779B9;
+    return (h ^ (h >>> 16)) & (stmtIndexTable.length - 1);
+  }
+
+  /** @return the index of the stmt in the linearized order or -1 if it is not in this graph. */
+  public int indexOf(@Nonnull Stmt stmt) {
+    int slot = slotOf(stmt);
+    int entry;
+    while ((entry = stmtIndexTable[slot]) != 0) {
+      if (stmts[entry - 1] == stmt) {
+        return entry - 1;
+      }
+      slot = (slot + 1) & (stmtIndexTable.length - 1);
+    }
+    return -1;
+  }
+
+  private int indexOfOrThrow(@Nonnull Stmt stmt) {
+    final int idx = indexOf(stmt);
+    if (idx < 0) {
+      throw new IllegalArgumentException(
+          "Stmt '" + stmt + "' is not contained in the BlockStmtGraph");
+    }
+    return idx;
+  }
+
+  private Stmt headOf(int blockIdx) {
+    return stmts[blockOffsets[blockIdx]];
+  }
+
+  private Stmt tailOf(int blockIdx) {
+    return stmts[blockOffsets[blockIdx + 1] - 1];
   }
 
   @Nullable
   @Override
   public Stmt getStartingStmt() {
-    return blocks.isEmpty() ? null : blocks.get(0).getHead();
+    return stmts.length == 0 ? null : stmts[0];
   }
 
+  @Nullable
   @Override
-  public BasicBlock<?> getStartingStmtBlock() {
-    throw new UnsupportedOperationException("Not implemented yet!");
+  public ImmutableBasicBlock getStartingStmtBlock() {
+    return blocks.isEmpty() ? null : blocks.get(0);
   }
 
+  @Nonnull
   @Override
-  public BasicBlock<ImmutableBasicBlock> getBlockOf(@Nonnull Stmt stmt) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+  public ImmutableBasicBlock getBlockOf(@Nonnull Stmt stmt) {
+    return blocks.get(stmtToBlock[indexOfOrThrow(stmt)]);
   }
 
   @Nonnull
   @Override
   public List<Stmt> getNodes() {
-    int size = 0;
-    for (ImmutableBasicBlock block : blocks) {
-      size += block.getStmtCount();
-    }
-    final ArrayList<Stmt> stmts = new ArrayList<>(size);
-    for (ImmutableBasicBlock block : blocks) {
-      stmts.addAll(block.getStmts());
-    }
-    return stmts;
+    return stmtList;
+  }
+
+  /** @return an unmodifiable List of the Stmts in linearized order. */
+  @Override
+  public List<Stmt> getStmts() {
+    return stmtList;
   }
 
   @Nonnull
   @Override
-  public Collection<ImmutableBasicBlock> getBlocks() {
+  public List<ImmutableBasicBlock> getBlocks() {
     return blocks;
   }
 
   @Nonnull
   @Override
-  public List<? extends BasicBlock<?>> getBlocksSorted() {
+  public List<ImmutableBasicBlock> getBlocksSorted() {
     return blocks;
   }
 
   @Override
   public boolean containsNode(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    return indexOf(node) >= 0;
   }
 
   @Nonnull
   @Override
   public List<Stmt> predecessors(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfOrThrow(node);
+    final int b = stmtToBlock[idx];
+    if (idx != blockOffsets[b]) {
+      return Collections.singletonList(stmts[idx - 1]);
+    }
+    final int from = predecessorOffsets[b];
+    final int to = predecessorOffsets[b + 1];
+    final List<Stmt> preds = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      preds.add(tailOf(predecessorBlocks[i]));
+    }
+    return preds;
   }
 
   @Nonnull
   @Override
   public List<Stmt> exceptionalPredecessors(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("not implemented");
+    final int idx = indexOfOrThrow(node);
+    final int b = stmtToBlock[idx];
+    if (idx != blockOffsets[b]
+        || !(node instanceof JIdentityStmt
+            && ((JIdentityStmt<?>) node).getRightOp() instanceof JCaughtExceptionRef)) {
+      // only the head of an exception handler block can have exceptional predecessors
+      return Collections.emptyList();
+    }
+
+    final List<Stmt> exceptionalPreds = new ArrayList<>();
+    final BitSet visitedBlocks = new BitSet(blocks.size());
+    for (int i = predecessorOffsets[b]; i < predecessorOffsets[b + 1]; i++) {
+      final int pred = predecessorBlocks[i];
+      if (!visitedBlocks.get(pred) && hasExceptionalEdge(pred, b)) {
+        visitedBlocks.set(pred);
+        exceptionalPreds.addAll(stmtList.subList(blockOffsets[pred], blockOffsets[pred + 1]));
+      }
+    }
+    return exceptionalPreds;
+  }
+
+  private boolean hasExceptionalEdge(int fromBlock, int toBlock) {
+    for (int i = exceptionalOffsets[fromBlock]; i < exceptionalOffsets[fromBlock + 1]; i++) {
+      if (exceptionalBlocks[i] == toBlock) {
+        return true;
+      }
+    }
+    return false;
   }
 
   @Nonnull
   @Override
   public List<Stmt> successors(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfOrThrow(node);
+    final int b = stmtToBlock[idx];
+    if (idx != blockOffsets[b + 1] - 1) {
+      return Collections.singletonList(stmts[idx + 1]);
+    }
+    final int from = successorOffsets[b];
+    final int to = successorOffsets[b + 1];
+    final List<Stmt> succs = new ArrayList<>(to - from);
+    for (int i = from; i < to; i++) {
+      succs.add(headOf(successorBlocks[i]));
+    }
+    return succs;
   }
 
   @Nonnull
   @Override
   public Map<ClassType, Stmt> exceptionalSuccessors(@Nonnull Stmt node) {
-    // FIXME! implement
-    throw new RuntimeException("not implemented");
+    final int b = stmtToBlock[indexOfOrThrow(node)];
+    final Map<ClassType, Stmt> map = new HashMap<>();
+    for (int i = exceptionalOffsets[b]; i < exceptionalOffsets[b + 1]; i++) {
+      map.put(exceptionTypes[i], headOf(exceptionalBlocks[i]));
+    }
+    return map;
   }
 
   @Override
   public int inDegree(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfOrThrow(node);
+    final int b = stmtToBlock[idx];
+    if (idx != blockOffsets[b]) {
+      return 1;
+    }
+    return predecessorOffsets[b + 1] - predecessorOffsets[b];
   }
 
   @Override
   public int outDegree(@Nonnull Stmt node) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfOrThrow(node);
+    final int b = stmtToBlock[idx];
+    if (idx != blockOffsets[b + 1] - 1) {
+      return 1;
+    }
+    return successorOffsets[b + 1] - successorOffsets[b];
   }
 
   @Override
   public boolean hasEdgeConnecting(@Nonnull Stmt source, @Nonnull Stmt target) {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    final int idx = indexOfOrThrow(source);
+    final int b = stmtToBlock[idx];
+    if (idx != blockOffsets[b + 1] - 1) {
+      return stmts[idx + 1] == target;
+    }
+    for (int i = successorOffsets[b]; i < successorOffsets[b + 1]; i++) {
+      if (headOf(successorBlocks[i]) == target) {
+        return true;
+      }
+    }
+    return false;
   }
 
+  /** the Traps are computed once when this graph is created. */
   @Nonnull
   @Override
   public List<Trap> getTraps() {
-    throw new UnsupportedOperationException("Not implemented yet!");
+    return traps;
   }
 
   @Nonnull
   @Override
-  public Iterator<Stmt> iterator() {
-    return new Iterator<Stmt>() {
-      final Iterator<ImmutableBasicBlock> blockIt = blocks.iterator();
-      Iterator<Stmt> stmtIt = blockIt.next().getStmts().iterator();
-
-      @Override
-      public boolean hasNext() {
-        // hint: there are no empty blocks!
-        return stmtIt.hasNext() || blockIt.hasNext();
-      }
-
-      @Override
-      public Stmt next() {
-        if (stmtIt.hasNext()) {
-          return stmtIt.next();
+  public List<Stmt> getTails() {
+    List<Stmt> cached = tails;
+    if (cached == null) {
+      final List<Stmt> tailStmts = new ArrayList<>();
+      for (Stmt stmt : stmts) {
+        if (stmt.getExpectedSuccessorCount() == 0) {
+          tailStmts.add(stmt);
         }
-        stmtIt = blockIt.next().getStmts().iterator();
-        return stmtIt.next();
       }
-    };
+      cached = Collections.unmodifiableList(tailStmts);
+      tails = cached;
+    }
+    return cached;
   }
 
+  @Nonnull
+  @Override
+  public Collection<Stmt> getEntrypoints() {
+    List<Stmt> cached = entrypoints;
+    if (cached == null) {
+      cached = Collections.unmodifiableList(new ArrayList<>(super.getEntrypoints()));
+      entrypoints = cached;
+    }
+    return cached;
+  }
+
+  /** iterates the Stmts in linearized order i.e. the order of the backing array. */
+  @Nonnull
+  @Override
+  public Iterator<Stmt> iterator() {
+    return Iterators.forArray(stmts);
+  }
+
+  /** A lightweight view on a range of the Stmt array of the enclosing graph. */
   public class ImmutableBasicBlock implements BasicBlock<ImmutableBasicBlock> {
-    private final MutableBasicBlock graph;
-    private final int startIdx;
-    private final int endIdx;
-    private final List<ImmutableBasicBlock> successors;
-    private final List<ImmutableBasicBlock> predecessors;
-
-    private ImmutableBasicBlock(
-        MutableBasicBlock graph,
-        int startIdx,
-        int endIdx,
-        List<ImmutableBasicBlock> successors,
-        List<ImmutableBasicBlock> predecessors) {
-      this.graph = graph;
-      this.startIdx = startIdx;
-      this.endIdx = endIdx;
-      this.successors = successors;
-      this.predecessors = predecessors;
+    private final int idx;
+
+    private ImmutableBasicBlock(int idx) {
+      this.idx = idx;
     }
 
     @Nonnull
     @Override
     public List<ImmutableBasicBlock> getPredecessors() {
-      return predecessors;
+      return toBlocks(predecessorBlocks, predecessorOffsets[idx], predecessorOffsets[idx + 1]);
     }
 
     @Nonnull
     @Override
     public List<ImmutableBasicBlock> getSuccessors() {
-      return successors;
+      return toBlocks(successorBlocks, successorOffsets[idx], successorOffsets[idx + 1]);
+    }
+
+    private List<ImmutableBasicBlock> toBlocks(int[] blockIndices, int from, int to) {
+      final List<ImmutableBasicBlock> list = new ArrayList<>(to - from);
+      for (int i = from; i < to; i++) {
+        list.add(blocks.get(blockIndices[i]));
+      }
+      return list;
     }
 
     @Override
     @Nonnull
     public Map<ClassType, ImmutableBasicBlock> getExceptionalPredecessors() {
-      throw new UnsupportedOperationException("not implemented yet");
+      final Map<ClassType, ImmutableBasicBlock> excPreds = new HashMap<>();
+      for (int i = predecessorOffsets[idx]; i < predecessorOffsets[idx + 1]; i++) {
+        final int pred = predecessorBlocks[i];
+        for (int j = exceptionalOffsets[pred]; j < exceptionalOffsets[pred + 1]; j++) {
+          if (exceptionalBlocks[j] == idx) {
+            excPreds.put(exceptionTypes[j], blocks.get(pred));
+          }
+        }
+      }
+      return excPreds;
     }
 
     @Nonnull
     @Override
-    public Map<? extends ClassType, ImmutableBasicBlock> getExceptionalSuccessors() {
-      throw new UnsupportedOperationException("not implemented yet");
+    public Map<ClassType, ImmutableBasicBlock> getExceptionalSuccessors() {
+      final int from = exceptionalOffsets[idx];
+      final int to = exceptionalOffsets[idx + 1];
+      if (from == to) {
+        return Collections.emptyMap();
+      }
+      final Map<ClassType, ImmutableBasicBlock> map = new HashMap<>();
+      for (int i = from; i < to; i++) {
+        map.put(exceptionTypes[i], blocks.get(exceptionalBlocks[i]));
+      }
+      return map;
     }
 
     @Nonnull
     @Override
     public List<Stmt> getStmts() {
-      throw new UnsupportedOperationException();
+      return stmtList.subList(blockOffsets[idx], blockOffsets[idx + 1]);
     }
 
     @Override
     public int getStmtCount() {
-      return endIdx - startIdx + 1;
+      return blockOffsets[idx + 1] - blockOffsets[idx];
     }
 
     @Nonnull
     @Override
     public Stmt getHead() {
-      throw new UnsupportedOperationException();
+      return headOf(idx);
     }
 
     @Nonnull
     @Override
     public Stmt getTail() {
-      throw new UnsupportedOperationException();
+      return tailOf(idx);
+    }
+
+    @Override
+    public String toString() {
+      return "Block" + getStmts();
     }
   }
 }
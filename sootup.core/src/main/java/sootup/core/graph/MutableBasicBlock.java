@@ -66,6 +66,13 @@ public class MutableBasicBlock implements BasicBlock<MutableBasicBlock> {
     stmts.remove(stmt);
   }
 
+  /**
+   * Replaces each Stmt that is a key of replacements by its value in a single pass over this block.
+   */
+  public void replaceStmts(@Nonnull Map<Stmt, Stmt> replacements) {
+    stmts.replaceAll(stmt -> replacements.getOrDefault(stmt, stmt));
+  }
+
   public void replaceStmt(Stmt oldStmt, Stmt newStmt) {
     final int idx = stmts.indexOf(oldStmt);
     if (idx < 0) {
@@ -90,6 +97,13 @@ public class MutableBasicBlock implements BasicBlock<MutableBasicBlock> {
     successorBlocks.remove(b);
   }
 
+  /** Replaces each (exceptional) flow to oldBlock by a flow to newBlock, keeping its position. */
+  public void replaceSuccessorBlock(
+      @Nonnull MutableBasicBlock oldBlock, @Nonnull MutableBasicBlock newBlock) {
+    successorBlocks.replaceAll(b -> b == oldBlock ? newBlock : b);
+    exceptionalSuccessorBlocks.replaceAll((type, b) -> b == oldBlock ? newBlock : b);
+  }
+
   public void addExceptionalSuccessorBlock(@Nonnull ClassType exception, MutableBasicBlock b) {
     exceptionalSuccessorBlocks.put(exception, b);
     b.addPredecessorBlock(this);
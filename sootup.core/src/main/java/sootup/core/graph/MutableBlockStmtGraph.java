@@ -6,6 +6,7 @@ import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import sootup.core.graph.throwanalysis.ThrowAnalysis;
 import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.LocalGenerator;
@@ -23,6 +24,7 @@ import sootup.core.types.Type;
  * Implementation of a Control Flow Graph which stores Stmts, each Trap- and Branching Information directly in its Blocks.
  *
  * This implementation builds the blocks directly after a manipulation operation is assigned - which may be not always necessary and could be delayed when needed e.g. in cases of multiple changes this could create more overhead than necessary.
+ * For bulk modifications use startBatch(): the block structure is rebuilt once when the batch is committed.
  *
  * @author Markus Schmidt
  * */
@@ -94,6 +96,19 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
       @Nonnull List<Stmt> stmts,
       @Nonnull Map<BranchingStmt, List<Stmt>> branchingMap,
       @Nonnull List<Trap> traps) {
+    initializeWith(stmts, branchingMap, traps, null);
+  }
+
+  /**
+   * Creates a Graph representation from the 'legacy' representation i.e. a List of Stmts and Traps.
+   * If a ThrowAnalysis is given, a Stmt in the range of a Trap gets an exceptional flow to its
+   * handler only if the Stmt might throw an exception that is caught by the Trap.
+   */
+  public void initializeWith(
+      @Nonnull List<Stmt> stmts,
+      @Nonnull Map<BranchingStmt, List<Stmt>> branchingMap,
+      @Nonnull List<Trap> traps,
+      @Nullable ThrowAnalysis throwAnalysis) {
 
     if (stmts.isEmpty()) {
       return;
@@ -212,7 +227,11 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
         */
       }
 
-      addNode(stmt, exceptionToHandlerMap);
+      if (throwAnalysis == null || exceptionToHandlerMap.isEmpty()) {
+        addNode(stmt, exceptionToHandlerMap);
+      } else {
+        addNode(stmt, filterCatchingHandlers(stmt, exceptionToHandlerMap, throwAnalysis));
+      }
 
       if (stmt.fallsThrough()) {
         // hint: possible bad performance if stmts is not instanceof RandomAccess
@@ -250,6 +269,24 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     }
   }
 
+  /** keeps the handlers which might catch an exception thrown by stmt */
+  @Nonnull
+  private static Map<ClassType, Stmt> filterCatchingHandlers(
+      @Nonnull Stmt stmt,
+      @Nonnull Map<ClassType, Stmt> exceptionToHandlerMap,
+      @Nonnull ThrowAnalysis throwAnalysis) {
+    Map<ClassType, Stmt> filteredMap = null;
+    for (ClassType exceptionType : exceptionToHandlerMap.keySet()) {
+      if (!throwAnalysis.mightThrow(stmt, exceptionType)) {
+        if (filteredMap == null) {
+          filteredMap = new HashMap<>(exceptionToHandlerMap);
+        }
+        filteredMap.remove(exceptionType);
+      }
+    }
+    return filteredMap == null ? exceptionToHandlerMap : filteredMap;
+  }
+
   private static void duplicateCatchAllTrapRemover(
       @Nonnull List<Trap> traps, Map<Stmt, Integer> trapstmtToIdx) {
     /*
@@ -361,6 +398,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
       // edge already exists
       return;
     }
+    markModified(stmt);
 
     MutableBasicBlock seperatedBlock = excludeStmtFromBlock(stmt, block);
     seperatedBlock.addExceptionalSuccessorBlock(exceptionType, getOrCreateBlock(traphandlerStmt));
@@ -373,8 +411,15 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     if (block == null) {
       throw new IllegalArgumentException("Stmt is not in the StmtGraph!");
     }
-    block.removeExceptionalSuccessorBlock(exceptionType);
-    tryMergeIntoSurroundingBlocks(block);
+    if (!block.getExceptionalSuccessors().containsKey(exceptionType)) {
+      throw new IllegalArgumentException(
+          "there is no handler for the given ClassType: " + exceptionType);
+    }
+    markModified(node);
+    // the other Stmts of the block keep their exceptional flow
+    final MutableBasicBlock separatedBlock = excludeStmtFromBlock(node, block);
+    separatedBlock.removeExceptionalSuccessorBlock(exceptionType);
+    tryMergeIntoSurroundingBlocks(separatedBlock);
   }
 
   @Override
@@ -383,8 +428,11 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     if (block == null) {
       throw new IllegalArgumentException("Stmt is not in the StmtGraph!");
     }
-    block.clearExceptionalSuccessorBlocks();
-    tryMergeIntoSurroundingBlocks(block);
+    markModified(node);
+    // the other Stmts of the block keep their exceptional flow
+    final MutableBasicBlock separatedBlock = excludeStmtFromBlock(node, block);
+    separatedBlock.clearExceptionalSuccessorBlocks();
+    tryMergeIntoSurroundingBlocks(separatedBlock);
   }
 
   @Override
@@ -410,6 +458,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     if (stmts.isEmpty()) {
       return;
     }
+    stmts.forEach(this::markModified);
     addBlockInternal(stmts, trapMap);
   }
 
@@ -474,6 +523,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public void addNode(@Nonnull Stmt stmt, @Nonnull Map<ClassType, Stmt> exceptions) {
+    markModified(stmt);
     MutableBasicBlock block = stmtToBlock.get(stmt);
     if (block == null) {
       // Stmt does not exist in the graph -> create
@@ -565,8 +615,10 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
         block.clearSuccessorBlocks();
 
         // link third/leftover block with previous stmts from the separated block
+        if (excludedFromOrigBlock != block) {
+          linkBlocks(block, excludedFromOrigBlock);
+        }
         linkBlocks(excludedFromOrigBlock, restOfOrigBlock);
-        block.clearSuccessorBlocks();
 
         // add blocks exceptional flows
         block
@@ -593,7 +645,8 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
       }
 
       // cleanup original block -> "beforeBlock" -> remove now copied Stmts
-      for (int i = blockStmts.size() - 1; i >= stmtIdx; i--) {
+      final int firstCopiedIdx = excludedFromOrigBlock == block ? stmtIdx + 1 : stmtIdx;
+      for (int i = blockStmts.size() - 1; i >= firstCopiedIdx; i--) {
         block.removeStmt(blockStmts.get(i));
       }
 
@@ -684,6 +737,8 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
       // done in clearPredecessorBlock      firstBlock.removeSuccessorBlock(followingBlock);
       followingBlock.getSuccessors().forEach(succ -> linkBlocks(firstBlock, succ));
       followingBlock.clearSuccessorBlocks();
+      // the traps are the same, so the handlers must not keep the merged block as predecessor
+      followingBlock.clearExceptionalSuccessorBlocks();
 
       blocks.remove(followingBlock);
 
@@ -723,6 +778,12 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
   }
 
   public void removeNode(@Nonnull Stmt stmt, boolean keepFlow) {
+    if (isChangeTrackingEnabled() && containsNode(stmt)) {
+      // the flows of the neighbours change as well
+      predecessors(stmt).forEach(this::markModified);
+      successors(stmt).forEach(this::markModified);
+    }
+    markModified(stmt);
 
     MutableBasicBlock blockOfRemovedStmt = stmtToBlock.remove(stmt);
     if (blockOfRemovedStmt == null) {
@@ -778,6 +839,446 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     }
   }
 
+  /**
+   * Applies the batch with a single rebuild of the affected blocks: the flows of the Stmts in the
+   * blocks which contain a modified Stmt are collected, the recorded modifications are applied to
+   * them and these blocks are built again. Flows from other blocks into the rebuilt blocks are
+   * redirected afterwards. Replacements which keep the number of successors do not change the block
+   * structure and are applied in place. The cost is linear in the size of the affected blocks.
+   */
+  @Override
+  protected void commit(@Nonnull Batch batch) {
+    if (batch.isEmpty()) {
+      return;
+    }
+
+    // the blocks which are rebuilt
+    final Set<MutableBasicBlock> region = Collections.newSetFromMap(new IdentityHashMap<>());
+    batch
+        .getReplacements()
+        .forEach(
+            (oldStmt, newStmt) -> {
+              if (oldStmt.getExpectedSuccessorCount() != newStmt.getExpectedSuccessorCount()) {
+                region.add(stmtToBlock.get(oldStmt));
+              }
+            });
+    batch.getRemovals().forEach(stmt -> region.add(stmtToBlock.get(stmt)));
+    batch.getInsertions().keySet().forEach(stmt -> region.add(stmtToBlock.get(stmt)));
+    if (!batch.getEdges().isEmpty()) {
+      // the Stmt of the graph which the replacing or inserted Stmt takes the place of
+      final Map<Stmt, Stmt> origins = new HashMap<>();
+      batch.getReplacements().forEach((oldStmt, newStmt) -> origins.put(newStmt, oldStmt));
+      batch
+          .getInsertions()
+          .forEach((beforeStmt, stmts) -> stmts.forEach(stmt -> origins.put(stmt, beforeStmt)));
+      batch
+          .getEdges()
+          .forEach(
+              (from, targets) -> {
+                final Stmt origin = origins.getOrDefault(from, from);
+                if (!stmtToBlock.containsKey(origin)
+                    || (origin == from
+                        && (batch.getReplacements().containsKey(from)
+                            || batch.getRemovals().contains(from)))) {
+                  throw new IllegalArgumentException(
+                      "Can't set the flows of '"
+                          + from
+                          + "' as it is not in the StmtGraph after the batch.");
+                }
+                region.add(stmtToBlock.get(origin));
+                targets.forEach(target -> addBlockOfInnerTarget(region, target));
+              });
+    }
+    batch
+        .getInsertedExceptions()
+        .values()
+        .forEach(
+            exceptionMap ->
+                exceptionMap.values().forEach(handler -> addBlockOfInnerTarget(region, handler)));
+
+    // replacements outside of the region keep the block structure: apply them in place
+    final Set<MutableBasicBlock> replacedInPlace =
+        Collections.newSetFromMap(new IdentityHashMap<>());
+    batch
+        .getReplacements()
+        .forEach(
+            (oldStmt, newStmt) -> {
+              final MutableBasicBlock block = stmtToBlock.get(oldStmt);
+              if (!region.contains(block)) {
+                replacedInPlace.add(block);
+                stmtToBlock.remove(oldStmt);
+                stmtToBlock.put(newStmt, block);
+                markModified(oldStmt);
+                markModified(newStmt);
+              }
+            });
+    replacedInPlace.forEach(block -> block.replaceStmts(batch.getReplacements()));
+
+    // the flows of the Stmts in the region before the batch
+    final Map<Stmt, List<Stmt>> oldSuccessors = new HashMap<>();
+    for (MutableBasicBlock block : region) {
+      final List<Stmt> stmts = block.getStmts();
+      for (int i = 0; i < stmts.size() - 1; i++) {
+        oldSuccessors.put(stmts.get(i), Collections.singletonList(stmts.get(i + 1)));
+      }
+      final List<Stmt> successors = new ArrayList<>(block.getSuccessors().size());
+      block.getSuccessors().forEach(succ -> successors.add(succ.getHead()));
+      oldSuccessors.put(block.getTail(), successors);
+    }
+    final BatchResolver resolver = new BatchResolver(batch, oldSuccessors);
+
+    // apply the modifications to the flows of each Stmt in the region
+    final List<Stmt> newStmts = new ArrayList<>(oldSuccessors.size());
+    final Map<Stmt, List<Stmt>> newSuccessors = new HashMap<>();
+    final Map<Stmt, Map<ClassType, Stmt>> newExceptions = new HashMap<>();
+    for (MutableBasicBlock block : region) {
+      // shared by all Stmts of the block
+      final Map<ClassType, Stmt> exceptions = new HashMap<>();
+      block
+          .getExceptionalSuccessors()
+          .forEach(
+              (type, handlerBlock) -> {
+                final Stmt handler = resolver.resolve(handlerBlock.getHead());
+                if (handler != null) {
+                  exceptions.put(type, handler);
+                }
+              });
+
+      for (Stmt stmt : block.getStmts()) {
+        final List<Stmt> inserted = batch.getInsertions().get(stmt);
+        if (inserted != null) {
+          final Stmt self = resolver.resolveSelf(stmt);
+          markModified(stmt);
+          for (int i = 0; i < inserted.size(); i++) {
+            final Stmt insertedStmt = inserted.get(i);
+            final Stmt next = i + 1 < inserted.size() ? inserted.get(i + 1) : self;
+            newStmts.add(insertedStmt);
+            newSuccessors.put(
+                insertedStmt,
+                next == null ? Collections.emptyList() : Collections.singletonList(next));
+            final Map<ClassType, Stmt> insertedExceptions = new HashMap<>();
+            batch
+                .getInsertedExceptions()
+                .get(insertedStmt)
+                .forEach(
+                    (type, handler) -> {
+                      final Stmt resolvedHandler = resolver.resolve(handler);
+                      if (resolvedHandler != null) {
+                        insertedExceptions.put(type, resolvedHandler);
+                      }
+                    });
+            newExceptions.put(insertedStmt, insertedExceptions);
+            markModified(insertedStmt);
+          }
+        }
+
+        if (batch.getRemovals().contains(stmt)) {
+          markModified(stmt);
+          continue;
+        }
+        Stmt newStmt = batch.getReplacements().get(stmt);
+        if (newStmt == null) {
+          newStmt = stmt;
+        } else {
+          markModified(stmt);
+          markModified(newStmt);
+        }
+        final List<Stmt> successors = new ArrayList<>(oldSuccessors.get(stmt).size());
+        for (Stmt successor : oldSuccessors.get(stmt)) {
+          final Stmt resolvedSuccessor = resolver.resolve(successor);
+          if (resolvedSuccessor != successor) {
+            markModified(newStmt);
+            if (resolvedSuccessor != null) {
+              markModified(resolvedSuccessor);
+            }
+          }
+          if (resolvedSuccessor != null) {
+            successors.add(resolvedSuccessor);
+          }
+        }
+        newStmts.add(newStmt);
+        newSuccessors.put(newStmt, successors);
+        newExceptions.put(newStmt, exceptions);
+      }
+    }
+
+    batch
+        .getEdges()
+        .forEach(
+            (from, targets) -> {
+              final List<Stmt> successors = new ArrayList<>(targets.size());
+              for (Stmt target : targets) {
+                final Stmt resolvedTarget = resolver.resolve(target);
+                if (resolvedTarget != null) {
+                  successors.add(resolvedTarget);
+                  markModified(resolvedTarget);
+                }
+              }
+              newSuccessors.put(from, successors);
+              markModified(from);
+            });
+
+    // the blocks outside of the region which flow into it, the Stmts they reach start a block
+    final Set<MutableBasicBlock> outsidePredecessors =
+        Collections.newSetFromMap(new IdentityHashMap<>());
+    final Set<Stmt> outsideTargets = new HashSet<>();
+    for (MutableBasicBlock block : region) {
+      for (MutableBasicBlock predecessor : block.getPredecessors()) {
+        if (!region.contains(predecessor) && outsidePredecessors.add(predecessor)) {
+          predecessor.getSuccessors().stream()
+              .filter(region::contains)
+              .forEach(successor -> outsideTargets.add(resolver.resolve(successor.getHead())));
+          predecessor.getExceptionalSuccessors().values().stream()
+              .filter(region::contains)
+              .forEach(handler -> outsideTargets.add(resolver.resolve(handler.getHead())));
+        }
+      }
+    }
+    outsideTargets.remove(null);
+
+    final Stmt newStartingStmt = startingStmt == null ? null : resolver.resolve(startingStmt);
+
+    // remove the old blocks of the region
+    for (MutableBasicBlock block : region) {
+      for (MutableBasicBlock successor : block.getSuccessors()) {
+        if (!region.contains(successor)) {
+          successor.removePredecessorBlock(block);
+        }
+      }
+      for (MutableBasicBlock handler : block.getExceptionalSuccessors().values()) {
+        if (!region.contains(handler)) {
+          handler.removePredecessorBlock(block);
+        }
+      }
+      blocks.remove(block);
+      block.getStmts().forEach(stmtToBlock::remove);
+    }
+
+    final List<MutableBasicBlock> newBlocks =
+        buildBlocks(newStmts, newSuccessors, newExceptions, outsideTargets);
+
+    // redirect the flows from the outside
+    for (MutableBasicBlock predecessor : outsidePredecessors) {
+      final Set<MutableBasicBlock> oldTargets = Collections.newSetFromMap(new IdentityHashMap<>());
+      predecessor.getSuccessors().stream().filter(region::contains).forEach(oldTargets::add);
+      predecessor.getExceptionalSuccessors().values().stream()
+          .filter(region::contains)
+          .forEach(oldTargets::add);
+      for (MutableBasicBlock oldTarget : oldTargets) {
+        final Stmt target = resolver.resolve(oldTarget.getHead());
+        if (target == null) {
+          while (predecessor.getSuccessors().contains(oldTarget)) {
+            predecessor.removeSuccessorBlock(oldTarget);
+          }
+          predecessor
+              .collectExceptionalSuccessorBlocks(oldTarget)
+              .forEach(predecessor::removeExceptionalSuccessorBlock);
+          continue;
+        }
+        final MutableBasicBlock targetBlock = stmtToBlock.get(target);
+        int flowCount = predecessor.collectExceptionalSuccessorBlocks(oldTarget).size();
+        for (MutableBasicBlock successor : predecessor.getSuccessors()) {
+          if (successor == oldTarget) {
+            flowCount++;
+          }
+        }
+        predecessor.replaceSuccessorBlock(oldTarget, targetBlock);
+        for (int i = 0; i < flowCount; i++) {
+          targetBlock.addPredecessorBlock(predecessor);
+        }
+        if (target != oldTarget.getHead()) {
+          markModified(predecessor.getTail());
+          markModified(target);
+        }
+      }
+    }
+
+    startingStmt = newStartingStmt;
+    for (MutableBasicBlock block : newBlocks) {
+      if (blocks.contains(block)) {
+        tryMergeWithSuccessorBlock(tryMergeWithPredecessorBlock(block));
+      }
+    }
+  }
+
+  /**
+   * adds the block of "target" to the region if the target of a new flow is not the head of its
+   * block, i.e. the block has to be split
+   */
+  private void addBlockOfInnerTarget(@Nonnull Set<MutableBasicBlock> region, @Nonnull Stmt target) {
+    final MutableBasicBlock block = stmtToBlock.get(target);
+    if (block != null && block.getHead() != target) {
+      region.add(block);
+    }
+  }
+
+  /** Resolves where the flows to a Stmt end up after the modifications of a batch. */
+  private static class BatchResolver {
+    @Nonnull private final Batch batch;
+    @Nonnull private final Map<Stmt, List<Stmt>> oldSuccessors;
+    /** the resolved targets of removed Stmts, null if the flow is removed */
+    @Nonnull private final Map<Stmt, Stmt> removedTargets = new HashMap<>();
+
+    BatchResolver(@Nonnull Batch batch, @Nonnull Map<Stmt, List<Stmt>> oldSuccessors) {
+      this.batch = batch;
+      this.oldSuccessors = oldSuccessors;
+    }
+
+    /** @return the Stmt which a flow to "stmt" reaches or null if the flow is removed */
+    @Nullable
+    Stmt resolve(@Nonnull Stmt stmt) {
+      final List<Stmt> inserted = batch.getInsertions().get(stmt);
+      if (inserted != null) {
+        return inserted.get(0);
+      }
+      return resolveSelf(stmt);
+    }
+
+    /**
+     * @return the Stmt which a flow to "stmt" reaches after the Stmts inserted before "stmt" or
+     *     null if the flow is removed
+     */
+    @Nullable
+    Stmt resolveSelf(@Nonnull Stmt stmt) {
+      final Stmt replacement = batch.getReplacements().get(stmt);
+      if (replacement != null) {
+        return replacement;
+      }
+      if (!batch.getRemovals().contains(stmt)) {
+        // unmodified or not in the graph before the batch (e.g. an inserted Stmt)
+        return stmt;
+      }
+      if (removedTargets.containsKey(stmt)) {
+        return removedTargets.get(stmt);
+      }
+
+      // follow the chain of removed Stmts
+      final List<Stmt> removedChain = new ArrayList<>();
+      final Set<Stmt> visited = new HashSet<>();
+      Stmt current = stmt;
+      Stmt target = null;
+      while (visited.add(current)) {
+        removedChain.add(current);
+        final List<Stmt> successors = oldSuccessors.get(current);
+        if (successors.isEmpty()) {
+          break;
+        }
+        final Stmt successor = successors.get(0);
+        if (batch.getInsertions().containsKey(successor)
+            || !batch.getRemovals().contains(successor)) {
+          target = resolve(successor);
+          break;
+        }
+        if (removedTargets.containsKey(successor)) {
+          target = removedTargets.get(successor);
+          break;
+        }
+        current = successor;
+      }
+      // hint: the loop ends without a target for a cycle of removed Stmts
+      for (Stmt removedStmt : removedChain) {
+        removedTargets.put(removedStmt, target);
+      }
+      return target;
+    }
+  }
+
+  /**
+   * Builds the blocks of "stmts" from the given flows, the targets of flows that leave "stmts" have
+   * to be heads of blocks in the graph. A Stmt starts a new block if it is reached from another
+   * block ("outsideTargets") or unless it is the only successor of its only predecessor, which does
+   * not branch and has the same exceptional flows.
+   *
+   * @return the new blocks
+   */
+  @Nonnull
+  private List<MutableBasicBlock> buildBlocks(
+      @Nonnull List<Stmt> stmts,
+      @Nonnull Map<Stmt, List<Stmt>> successors,
+      @Nonnull Map<Stmt, Map<ClassType, Stmt>> exceptions,
+      @Nonnull Set<Stmt> outsideTargets) {
+    final Map<Stmt, Integer> inDegrees = new HashMap<>();
+    final Map<Stmt, Stmt> predecessors = new HashMap<>();
+    final Set<Stmt> heads = new HashSet<>(outsideTargets);
+    for (Stmt stmt : stmts) {
+      for (Stmt successor : successors.get(stmt)) {
+        checkTarget(stmt, successor, successors);
+        inDegrees.merge(successor, 1, Integer::sum);
+        predecessors.put(successor, stmt);
+      }
+      for (Stmt handler : exceptions.get(stmt).values()) {
+        checkTarget(stmt, handler, successors);
+        heads.add(handler);
+      }
+    }
+    for (Stmt stmt : stmts) {
+      if (heads.contains(stmt) || inDegrees.getOrDefault(stmt, 0) != 1) {
+        heads.add(stmt);
+        continue;
+      }
+      final Stmt predecessor = predecessors.get(stmt);
+      if (predecessor.branches()
+          || successors.get(predecessor).size() != 1
+          || !exceptions.get(predecessor).equals(exceptions.get(stmt))) {
+        heads.add(stmt);
+      }
+    }
+
+    final List<MutableBasicBlock> newBlocks = new ArrayList<>();
+    for (Stmt stmt : stmts) {
+      if (heads.contains(stmt)) {
+        newBlocks.add(buildBlock(stmt, successors, heads));
+      }
+    }
+    for (Stmt stmt : stmts) {
+      if (!stmtToBlock.containsKey(stmt)) {
+        // all Stmts of an unreachable cycle are no heads
+        newBlocks.add(buildBlock(stmt, successors, heads));
+      }
+    }
+
+    for (MutableBasicBlock block : newBlocks) {
+      for (Stmt successor : successors.get(block.getTail())) {
+        linkBlocks(block, stmtToBlock.get(successor));
+      }
+      exceptions
+          .get(block.getHead())
+          .forEach(
+              (type, handler) ->
+                  block.addExceptionalSuccessorBlock(type, stmtToBlock.get(handler)));
+    }
+    return newBlocks;
+  }
+
+  private void checkTarget(
+      @Nonnull Stmt from, @Nonnull Stmt target, @Nonnull Map<Stmt, List<Stmt>> successors) {
+    if (successors.containsKey(target)) {
+      return;
+    }
+    final MutableBasicBlock block = stmtToBlock.get(target);
+    if (block == null || block.getHead() != target) {
+      throw new IllegalArgumentException(
+          "The flow from '" + from + "' targets '" + target + "' which is not in the StmtGraph.");
+    }
+  }
+
+  /** adds a block starting with "head" which contains the following Stmts up to the next head */
+  @Nonnull
+  private MutableBasicBlock buildBlock(
+      @Nonnull Stmt head, @Nonnull Map<Stmt, List<Stmt>> successors, @Nonnull Set<Stmt> heads) {
+    final MutableBasicBlock block = createStmtsBlock(head);
+    Stmt current = head;
+    while (!current.branches() && successors.get(current).size() == 1) {
+      final Stmt next = successors.get(current).get(0);
+      if (heads.contains(next) || stmtToBlock.containsKey(next)) {
+        break;
+      }
+      addNodeToBlock(block, next);
+      current = next;
+    }
+    return block;
+  }
+
   @Override
   public void replaceNode(@Nonnull Stmt oldStmt, @Nonnull Stmt newStmt) {
 
@@ -785,6 +1286,8 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
     if (blockOfOldStmt == null) {
       throw new IllegalArgumentException("oldStmt does not exist in the StmtGraph!");
     }
+    markModified(oldStmt);
+    markModified(newStmt);
 
     // is oldStmt the startingStmt? replace startingStmt with newStmt
     if (oldStmt == startingStmt) {
@@ -831,21 +1334,30 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
       throw new IllegalArgumentException(
           "beforeStmt '" + beforeStmt + "' does not exists in this StmtGraph.");
     }
+    if (isChangeTrackingEnabled()) {
+      predecessors(beforeStmt).forEach(this::markModified);
+    }
+    markModified(beforeStmt);
+    stmts.forEach(this::markModified);
     if (block.getHead() == beforeStmt) {
       // insert before a Stmt that is at the beginning of a Block? -> new block, reconnect, try to
       // merge blocks - performance hint: if exceptionMap equals the current blocks exception and
       // the stmts have only fallsthrough Stmts there could be some allocation/deallocation be saved
       final MutableBasicBlock predecessorBlock = addBlockInternal(stmts, exceptionMap);
-      for (MutableBasicBlock predecessor : block.getPredecessors()) {
+      for (MutableBasicBlock predecessor : new ArrayList<>(block.getPredecessors())) {
         // cleanup old
         predecessor.removeSuccessorBlock(block);
         block.removePredecessorBlock(predecessor);
         // add new link
         linkBlocks(predecessor, predecessorBlock);
       }
+      linkBlocks(predecessorBlock, block);
       tryMergeBlocks(predecessorBlock, block);
     } else {
       final MutableBasicBlock successorBlock = block.splitBlockLinked(beforeStmt, true);
+      successorBlock.copyExceptionalFlowFrom(block);
+      blocks.add(successorBlock);
+      successorBlock.getStmts().forEach(stmt -> stmtToBlock.put(stmt, successorBlock));
       exceptionMap.forEach(
           (type, handler) ->
               successorBlock.addExceptionalSuccessorBlock(type, getOrCreateBlock(handler)));
@@ -860,6 +1372,8 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
 
   @Override
   public void putEdge(@Nonnull Stmt stmtA, @Nonnull Stmt stmtB) {
+    markModified(stmtA);
+    markModified(stmtB);
     MutableBasicBlock blockA = stmtToBlock.get(stmtA);
     MutableBasicBlock blockB = stmtToBlock.get(stmtB);
 
@@ -960,6 +1474,8 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
   public void removeEdge(@Nonnull Stmt from, @Nonnull Stmt to) {
     // FIXME: how to handle "partial" removals of targets of flows starting from a Branching Stmt..
     // e.g. because one of the targets are removed.. that changes the whole logic there..
+    markModified(from);
+    markModified(to);
 
     MutableBasicBlock blockOfFrom = stmtToBlock.get(from);
     MutableBasicBlock blockOfTo = stmtToBlock.get(to);
@@ -1048,6 +1564,10 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
       throw new IllegalArgumentException(
           "Size of Targets is not the amount of from's expected successors.");
     }
+    if (isChangeTrackingEnabled() && containsNode(fromStmt)) {
+      successors(fromStmt).forEach(this::markModified);
+    }
+    markModified(fromStmt);
     MutableBasicBlock fromBlock = getOrCreateBlock(fromStmt);
     if (fromBlock.getTail() == fromStmt) {
       // cleanup existing edges
@@ -1089,6 +1609,7 @@ public class MutableBlockStmtGraph extends MutableStmtGraph {
   }
 
   public void setStartingStmt(@Nonnull Stmt startingStmt) {
+    markModified(startingStmt);
     if (stmtToBlock.get(startingStmt) == null) {
       MutableBasicBlock block = stmtToBlock.get(startingStmt);
       if (block == null) {
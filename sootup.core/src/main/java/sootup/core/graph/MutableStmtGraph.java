@@ -23,6 +23,7 @@ package sootup.core.graph;
 
 import java.util.*;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.types.ClassType;
 
@@ -33,6 +34,118 @@ import sootup.core.types.ClassType;
  *     MutableBasicBlock
  */
 public abstract class MutableStmtGraph extends StmtGraph<MutableBasicBlock> {
+
+  /** incremented for each Stmt that is touched by a modification of the graph */
+  private long modificationCount = 0;
+
+  /**
+   * the touched Stmts in order of the modifications; only recorded if change tracking is enabled
+   */
+  @Nullable private List<Stmt> changeLog = null;
+
+  /** the modificationCount when change tracking was enabled */
+  private long changeLogOffset = 0;
+
+  /**
+   * @return a counter which increases with every modification of the graph, so that the caller can
+   *     cheaply check whether the graph changed in the meantime.
+   */
+  public long getModificationCount() {
+    return modificationCount;
+  }
+
+  /**
+   * Starts recording which Stmts are touched by modifications of the graph. The recorded Stmts can
+   * be retrieved via {@link #getModifiedStmtsSince(long)}.
+   */
+  public void enableChangeTracking() {
+    if (changeLog == null) {
+      changeLog = new ArrayList<>();
+      changeLogOffset = modificationCount;
+    }
+  }
+
+  /** Stops recording the touched Stmts and discards the recorded ones. */
+  public void disableChangeTracking() {
+    changeLog = null;
+  }
+
+  public boolean isChangeTrackingEnabled() {
+    return changeLog != null;
+  }
+
+  /**
+   * Records that "stmt" was added, removed or replaced or that its flows changed. Implementations
+   * have to call this for every Stmt that is touched by a modification.
+   */
+  protected void markModified(@Nonnull Stmt stmt) {
+    modificationCount++;
+    if (changeLog != null) {
+      changeLog.add(stmt);
+    }
+  }
+
+  /**
+   * @param modificationCount a value of {@link #getModificationCount()} taken after change tracking
+   *     was enabled
+   * @return the Stmts that are still in the graph and were touched by a modification since the
+   *     given modificationCount
+   */
+  @Nonnull
+  public Set<Stmt> getModifiedStmtsSince(long modificationCount) {
+    if (changeLog == null) {
+      throw new IllegalStateException("Change tracking is not enabled.");
+    }
+    if (modificationCount < changeLogOffset || modificationCount > this.modificationCount) {
+      throw new IllegalArgumentException(
+          "The modification count "
+              + modificationCount
+              + " is not in the tracked range ["
+              + changeLogOffset
+              + ", "
+              + this.modificationCount
+              + "].");
+    }
+    final Set<Stmt> modifiedStmts = new LinkedHashSet<>();
+    for (int i = (int) (modificationCount - changeLogOffset); i < changeLog.size(); i++) {
+      final Stmt stmt = changeLog.get(i);
+      if (containsNode(stmt)) {
+        modifiedStmts.add(stmt);
+      }
+    }
+    return modifiedStmts;
+  }
+
+  /**
+   * @return the Blocks that contain a Stmt which was touched by a modification since the given
+   *     modificationCount
+   * @see #getModifiedStmtsSince(long)
+   */
+  @Nonnull
+  public Collection<BasicBlock<?>> getModifiedBlocksSince(long modificationCount) {
+    // keyed by the head as the returned Blocks are views which do not share their identity
+    final Map<Stmt, BasicBlock<?>> modifiedBlocks = new LinkedHashMap<>();
+    for (Stmt stmt : getModifiedStmtsSince(modificationCount)) {
+      final BasicBlock<?> block = getBlockOf(stmt);
+      modifiedBlocks.putIfAbsent(block.getHead(), block);
+    }
+    return modifiedBlocks.values();
+  }
+
+  /**
+   * Starts recording a batch of modifications which are applied at once by {@link Batch#commit()}.
+   * Use it for bulk rewrites: instead of splitting and merging blocks for every single
+   * modification, the block structure is rebuilt once when the batch is committed. The graph should
+   * not be modified otherwise until the batch is committed.
+   */
+  @Nonnull
+  public Batch startBatch() {
+    return new Batch(this);
+  }
+
+  /** applies all modifications recorded in "batch" with a single rebuild of the block structure */
+  protected abstract void commit(@Nonnull Batch batch);
+
   @Nonnull
   public abstract StmtGraph<?> unmodifiableStmtGraph();
 
@@ -111,4 +224,146 @@ public abstract class MutableStmtGraph extends StmtGraph<MutableBasicBlock> {
 
   /** removes an exceptional flow of the type "exception" flow from "stmt" */
   public abstract void removeExceptionalEdge(@Nonnull Stmt stmt, @Nonnull ClassType exception);
+
+  /**
+   * Records replacements, removals and insertions of Stmts and changes of flows, which are applied
+   * together by {@link #commit()}. The modifications are not visible in the graph before the
+   * commit. When the batch is committed
+   *
+   * <ul>
+   *   <li>flows to a replaced Stmt reach its replacement, which keeps the flows of the replaced
+   *       Stmt,
+   *   <li>flows to a Stmt with inserted Stmts before it reach the first inserted Stmt,
+   *   <li>flows to a removed Stmt reach its (first) successor; they are removed if the removed Stmt
+   *       has no successor.
+   * </ul>
+   *
+   * This applies to the targets given to {@link #setEdges(Stmt, List)} as well.
+   */
+  public static class Batch {
+    @Nonnull private final MutableStmtGraph graph;
+    @Nonnull private final Map<Stmt, Stmt> replacements = new HashMap<>();
+    @Nonnull private final Set<Stmt> removals = new LinkedHashSet<>();
+    @Nonnull private final Map<Stmt, List<Stmt>> insertions = new HashMap<>();
+    @Nonnull private final Map<Stmt, Map<ClassType, Stmt>> insertedExceptions = new HashMap<>();
+    @Nonnull private final Map<Stmt, List<Stmt>> edges = new HashMap<>();
+    private boolean committed = false;
+
+    private Batch(@Nonnull MutableStmtGraph graph) {
+      this.graph = graph;
+    }
+
+    /**
+     * replaces "oldStmt" by "newStmt" while keeping the flows (see {@link
+     * MutableStmtGraph#replaceNode(Stmt, Stmt)})
+     */
+    public void replaceNode(@Nonnull Stmt oldStmt, @Nonnull Stmt newStmt) {
+      checkUnmodified(oldStmt);
+      replacements.put(oldStmt, newStmt);
+    }
+
+    /**
+     * removes "stmt" while keeping the flows through it (see {@link
+     * MutableStmtGraph#removeNode(Stmt)})
+     */
+    public void removeNode(@Nonnull Stmt stmt) {
+      checkUnmodified(stmt);
+      removals.add(stmt);
+    }
+
+    /**
+     * inserts "stmts" before "beforeStmt", the inserted Stmts get the exceptional flows of
+     * "exceptionMap". Stmts which are inserted before the same Stmt are kept in the order of the
+     * calls.
+     */
+    public void insertBefore(
+        @Nonnull Stmt beforeStmt,
+        @Nonnull List<Stmt> stmts,
+        @Nonnull Map<ClassType, Stmt> exceptionMap) {
+      checkOpen();
+      if (!graph.containsNode(beforeStmt)) {
+        throw new IllegalArgumentException(
+            "beforeStmt '" + beforeStmt + "' does not exist in the StmtGraph.");
+      }
+      for (Stmt stmt : stmts) {
+        if (graph.containsNode(stmt) || insertedExceptions.containsKey(stmt)) {
+          throw new IllegalArgumentException("Stmt '" + stmt + "' is already in the StmtGraph.");
+        }
+        insertedExceptions.put(stmt, exceptionMap);
+      }
+      insertions.computeIfAbsent(beforeStmt, k -> new ArrayList<>()).addAll(stmts);
+    }
+
+    /** inserts "newStmt" before "beforeStmt" */
+    public void insertBefore(@Nonnull Stmt beforeStmt, @Nonnull Stmt newStmt) {
+      insertBefore(beforeStmt, Collections.singletonList(newStmt), Collections.emptyMap());
+    }
+
+    /**
+     * replaces the outgoing flows of "from", which is a Stmt of the graph after the commit (i.e. it
+     * can be a replacing or an inserted Stmt), by flows to "targets"
+     */
+    public void setEdges(@Nonnull Stmt from, @Nonnull List<Stmt> targets) {
+      checkOpen();
+      edges.put(from, targets);
+    }
+
+    /** applies the recorded modifications to the graph; a Batch can only be committed once */
+    public void commit() {
+      checkOpen();
+      committed = true;
+      graph.commit(this);
+    }
+
+    @Nonnull
+    public Map<Stmt, Stmt> getReplacements() {
+      return Collections.unmodifiableMap(replacements);
+    }
+
+    @Nonnull
+    public Set<Stmt> getRemovals() {
+      return Collections.unmodifiableSet(removals);
+    }
+
+    /** @return the inserted Stmts keyed by the Stmt they are inserted before */
+    @Nonnull
+    public Map<Stmt, List<Stmt>> getInsertions() {
+      return Collections.unmodifiableMap(insertions);
+    }
+
+    /** @return the exceptional flows of each inserted Stmt */
+    @Nonnull
+    public Map<Stmt, Map<ClassType, Stmt>> getInsertedExceptions() {
+      return Collections.unmodifiableMap(insertedExceptions);
+    }
+
+    @Nonnull
+    public Map<Stmt, List<Stmt>> getEdges() {
+      return Collections.unmodifiableMap(edges);
+    }
+
+    public boolean isEmpty() {
+      return replacements.isEmpty()
+          && removals.isEmpty()
+          && insertions.isEmpty()
+          && edges.isEmpty();
+    }
+
+    private void checkUnmodified(@Nonnull Stmt stmt) {
+      checkOpen();
+      if (!graph.containsNode(stmt)) {
+        throw new IllegalArgumentException("Stmt '" + stmt + "' is not in the StmtGraph!");
+      }
+      if (replacements.containsKey(stmt) || removals.contains(stmt)) {
+        throw new IllegalArgumentException(
+            "Stmt '" + stmt + "' is already replaced or removed in this batch.");
+      }
+    }
+
+    private void checkOpen() {
+      if (committed) {
+        throw new IllegalStateException("The batch is already committed.");
+      }
+    }
+  }
 }
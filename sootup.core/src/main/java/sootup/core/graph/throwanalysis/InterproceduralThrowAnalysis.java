@@ -0,0 +1,164 @@
+package sootup.core.graph.throwanalysis;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+
+/**
+ * A {@link ThrowAnalysis} which refines the exceptions of an invocation by looking at the invoked
+ * method: if it can not be overridden (static, private, final or a constructor) and has a body, the
+ * exceptions are inferred from the Stmts of that body which are not caught inside of it. Otherwise
+ * the declared exceptions of the method plus any unchecked exception are assumed. If the method can
+ * not be resolved in the View the invocation might throw anything.
+ *
+ * <p>The inference looks at the invoked method only, invocations inside of its body are
+ * approximated by their declared exceptions. The results are cached per invoked method.
+ */
+public class InterproceduralThrowAnalysis extends UnitThrowAnalysis {
+
+  @Nonnull
+  private final Map<MethodSignature, ThrowableSet> thrownByMethod = new ConcurrentHashMap<>();
+
+  /** approximates invocations inside of an invoked method by the declared exceptions */
+  @Nonnull private final UnitThrowAnalysis declaredThrowsAnalysis;
+
+  public InterproceduralThrowAnalysis(@Nonnull View<?> view) {
+    super(view);
+    declaredThrowsAnalysis =
+        new UnitThrowAnalysis(view) {
+          @Nonnull
+          @Override
+          protected ThrowableSet mightThrow(@Nonnull AbstractInvokeExpr invokeExpr) {
+            final SootMethod method = resolveMethod(invokeExpr.getMethodSignature());
+            if (method == null) {
+              return super.mightThrow(invokeExpr);
+            }
+            return invocationErrors(invokeExpr).union(declaredThrows(method));
+          }
+        };
+  }
+
+  @Nonnull
+  @Override
+  protected ThrowableSet mightThrow(@Nonnull AbstractInvokeExpr invokeExpr) {
+    if (invokeExpr instanceof JDynamicInvokeExpr) {
+      return super.mightThrow(invokeExpr);
+    }
+    final SootMethod method = resolveMethod(invokeExpr.getMethodSignature());
+    if (method == null) {
+      return super.mightThrow(invokeExpr);
+    }
+    final boolean isOverridable =
+        !(invokeExpr instanceof JStaticInvokeExpr)
+            && !(invokeExpr instanceof JSpecialInvokeExpr)
+            && !method.isPrivate()
+            && !method.isFinal();
+    if (isOverridable || !method.hasBody()) {
+      return invocationErrors(invokeExpr).union(declaredThrows(method));
+    }
+    // hint: no computeIfAbsent as building the body might use this analysis again
+    ThrowableSet thrown = thrownByMethod.get(method.getSignature());
+    if (thrown == null) {
+      thrown = inferThrows(method);
+      thrownByMethod.put(method.getSignature(), thrown);
+    }
+    return invocationErrors(invokeExpr).union(thrown);
+  }
+
+  /** Returns the exceptions of resolving, initializing and dispatching the invoked method. */
+  @Nonnull
+  private ThrowableSet invocationErrors(@Nonnull AbstractInvokeExpr invokeExpr) {
+    if (invokeExpr instanceof JStaticInvokeExpr) {
+      return initializationErrors;
+    }
+    if (invokeExpr instanceof AbstractInstanceInvokeExpr) {
+      return resolutionErrors.add(nullPointerException);
+    }
+    return resolutionErrors;
+  }
+
+  /** Returns the declared exceptions of the method plus any unchecked exception. */
+  @Nonnull
+  private ThrowableSet declaredThrows(@Nonnull SootMethod method) {
+    ThrowableSet result =
+        ThrowableSet.empty().addWithSubtypes(runtimeException).addWithSubtypes(error);
+    for (ClassType exceptionType : method.getExceptionSignatures()) {
+      result = result.addWithSubtypes(exceptionType);
+    }
+    return result;
+  }
+
+  /** Collects the exceptions of the Stmts of the method's body which are not caught inside. */
+  @Nonnull
+  private ThrowableSet inferThrows(@Nonnull SootMethod method) {
+    final StmtGraph<?> graph;
+    try {
+      graph = method.getBody().getStmtGraph();
+    } catch (RuntimeException e) {
+      return declaredThrows(method);
+    }
+    final TypeHierarchy hierarchy = getTypeHierarchy();
+    ThrowableSet result = ThrowableSet.empty();
+    for (Stmt stmt : graph.getNodes()) {
+      ThrowableSet thrown = declaredThrowsAnalysis.mightThrow(stmt);
+      for (ClassType catchType : graph.exceptionalSuccessors(stmt).keySet()) {
+        thrown = thrown.whichEscape(catchType, hierarchy);
+      }
+      result = result.union(thrown);
+    }
+    return result;
+  }
+
+  /** Finds the implementation of the method in its declaring class or one of its superclasses. */
+  @Nullable
+  protected SootMethod resolveMethod(@Nonnull MethodSignature signature) {
+    final View<?> view = getView();
+    assert view != null;
+    ClassType type = signature.getDeclClassType();
+    while (type != null) {
+      final SootClass<?> clazz = view.getClass(type).orElse(null);
+      if (clazz == null) {
+        return null;
+      }
+      final Optional<? extends SootMethod> method = clazz.getMethod(signature.getSubSignature());
+      if (method.isPresent()) {
+        return method.get();
+      }
+      type = clazz.getSuperclass().orElse(null);
+    }
+    return null;
+  }
+}
@@ -0,0 +1,47 @@
+package sootup.core.graph.throwanalysis;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.types.ClassType;
+
+/**
+ * Determines which exceptions a {@link Stmt} might throw. It is used to prune exceptional flows
+ * from Stmts to trap handlers which can not catch anything the Stmt throws, e.g. a trap for
+ * java.io.IOException around an array access.
+ *
+ * @see UnitThrowAnalysis
+ * @see InterproceduralThrowAnalysis
+ */
+public interface ThrowAnalysis {
+
+  /** Returns the exceptions the given Stmt might throw. */
+  @Nonnull
+  ThrowableSet mightThrow(@Nonnull Stmt stmt);
+
+  /** Checks whether the given Stmt might throw an exception that is caught by catchType. */
+  default boolean mightThrow(@Nonnull Stmt stmt, @Nonnull ClassType catchType) {
+    return mightThrow(stmt).catchableAs(catchType, null);
+  }
+}
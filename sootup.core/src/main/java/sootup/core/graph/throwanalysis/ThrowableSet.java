@@ -0,0 +1,311 @@
+package sootup.core.graph.throwanalysis;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.types.ClassType;
+
+/**
+ * An immutable set of exception types that a {@link sootup.core.jimple.common.stmt.Stmt} might
+ * throw. A type is either contained exactly, i.e. the thrown object has exactly that runtime type
+ * (e.g. a NullPointerException created by the JVM), or including all of its subtypes (e.g. the
+ * declared type of the operand of a throw Stmt).
+ *
+ * <p>Subtype relations are decided via a table of the well-known exception types of java.lang and
+ * java.io first, so that the common cases do not need to resolve any class. Other types are checked
+ * with a {@link TypeHierarchy} if one is given. If a relation can not be decided it is assumed to
+ * hold, i.e. the answers of {@link #catchableAs(ClassType, TypeHierarchy)} are conservative.
+ */
+public final class ThrowableSet {
+
+  private static final ThrowableSet EMPTY =
+      new ThrowableSet(Collections.emptySet(), Collections.emptySet());
+
+  /** maps the well-known Throwable types to their superclass */
+  private static final Map<String, String> KNOWN_SUPERCLASSES = new HashMap<>();
+
+  static {
+    KNOWN_SUPERCLASSES.put("java.lang.Throwable", null);
+    addKnownSubclasses("java.lang.Throwable", "java.lang.Exception", "java.lang.Error");
+    addKnownSubclasses(
+        "java.lang.Exception",
+        "java.lang.RuntimeException",
+        "java.lang.InterruptedException",
+        "java.lang.CloneNotSupportedException",
+        "java.lang.ReflectiveOperationException",
+        "java.io.IOException");
+    addKnownSubclasses(
+        "java.lang.RuntimeException",
+        "java.lang.ArithmeticException",
+        "java.lang.ArrayStoreException",
+        "java.lang.ClassCastException",
+        "java.lang.IllegalArgumentException",
+        "java.lang.IllegalMonitorStateException",
+        "java.lang.IllegalStateException",
+        "java.lang.IndexOutOfBoundsException",
+        "java.lang.NegativeArraySizeException",
+        "java.lang.NullPointerException",
+        "java.lang.SecurityException",
+        "java.lang.UnsupportedOperationException");
+    addKnownSubclasses(
+        "java.lang.IndexOutOfBoundsException",
+        "java.lang.ArrayIndexOutOfBoundsException",
+        "java.lang.StringIndexOutOfBoundsException");
+    addKnownSubclasses("java.lang.IllegalArgumentException", "java.lang.NumberFormatException");
+    addKnownSubclasses(
+        "java.lang.ReflectiveOperationException",
+        "java.lang.ClassNotFoundException",
+        "java.lang.IllegalAccessException",
+        "java.lang.InstantiationException",
+        "java.lang.NoSuchFieldException",
+        "java.lang.NoSuchMethodException");
+    addKnownSubclasses(
+        "java.io.IOException", "java.io.FileNotFoundException", "java.io.EOFException");
+    addKnownSubclasses(
+        "java.lang.Error",
+        "java.lang.LinkageError",
+        "java.lang.VirtualMachineError",
+        "java.lang.ThreadDeath",
+        "java.lang.AssertionError");
+    addKnownSubclasses(
+        "java.lang.VirtualMachineError",
+        "java.lang.InternalError",
+        "java.lang.OutOfMemoryError",
+        "java.lang.StackOverflowError",
+        "java.lang.UnknownError");
+    addKnownSubclasses(
+        "java.lang.LinkageError",
+        "java.lang.ClassCircularityError",
+        "java.lang.ClassFormatError",
+        "java.lang.ExceptionInInitializerError",
+        "java.lang.IncompatibleClassChangeError",
+        "java.lang.NoClassDefFoundError",
+        "java.lang.UnsatisfiedLinkError",
+        "java.lang.VerifyError");
+    addKnownSubclasses(
+        "java.lang.IncompatibleClassChangeError",
+        "java.lang.AbstractMethodError",
+        "java.lang.IllegalAccessError",
+        "java.lang.InstantiationError",
+        "java.lang.NoSuchFieldError",
+        "java.lang.NoSuchMethodError");
+  }
+
+  private static void addKnownSubclasses(String superclass, String... subclasses) {
+    for (String subclass : subclasses) {
+      KNOWN_SUPERCLASSES.put(subclass, superclass);
+    }
+  }
+
+  /** the result of a subclass check that could not be decided */
+  private enum Relation {
+    YES,
+    NO,
+    UNKNOWN
+  }
+
+  @Nonnull private final Set<ClassType> exactTypes;
+  @Nonnull private final Set<ClassType> typesWithSubtypes;
+
+  private ThrowableSet(
+      @Nonnull Set<ClassType> exactTypes, @Nonnull Set<ClassType> typesWithSubtypes) {
+    this.exactTypes = exactTypes;
+    this.typesWithSubtypes = typesWithSubtypes;
+  }
+
+  @Nonnull
+  public static ThrowableSet empty() {
+    return EMPTY;
+  }
+
+  /** Returns the types which are thrown with exactly that runtime type. */
+  @Nonnull
+  public Set<ClassType> getExactTypes() {
+    return Collections.unmodifiableSet(exactTypes);
+  }
+
+  /** Returns the types which are thrown with that runtime type or one of its subtypes. */
+  @Nonnull
+  public Set<ClassType> getTypesWithSubtypes() {
+    return Collections.unmodifiableSet(typesWithSubtypes);
+  }
+
+  public boolean isEmpty() {
+    return exactTypes.isEmpty() && typesWithSubtypes.isEmpty();
+  }
+
+  /** Returns a ThrowableSet which additionally contains exactly the given type. */
+  @Nonnull
+  public ThrowableSet add(@Nonnull ClassType type) {
+    if (exactTypes.contains(type)) {
+      return this;
+    }
+    final Set<ClassType> types = new HashSet<>(exactTypes);
+    types.add(type);
+    return new ThrowableSet(types, typesWithSubtypes);
+  }
+
+  /** Returns a ThrowableSet which additionally contains the given type including its subtypes. */
+  @Nonnull
+  public ThrowableSet addWithSubtypes(@Nonnull ClassType type) {
+    if (typesWithSubtypes.contains(type)) {
+      return this;
+    }
+    final Set<ClassType> types = new HashSet<>(typesWithSubtypes);
+    types.add(type);
+    return new ThrowableSet(exactTypes, types);
+  }
+
+  /** Returns a ThrowableSet which contains the types of this and the other ThrowableSet. */
+  @Nonnull
+  public ThrowableSet union(@Nonnull ThrowableSet other) {
+    if (other.isEmpty() || other == this) {
+      return this;
+    }
+    if (isEmpty()) {
+      return other;
+    }
+    final Set<ClassType> exact = new HashSet<>(exactTypes);
+    final Set<ClassType> withSubtypes = new HashSet<>(typesWithSubtypes);
+    if (!exact.addAll(other.exactTypes) & !withSubtypes.addAll(other.typesWithSubtypes)) {
+      return this;
+    }
+    return new ThrowableSet(exact, withSubtypes);
+  }
+
+  /**
+   * Checks whether an exception of this set might be caught by a handler for catchType.
+   *
+   * @param hierarchy is used to decide subtype relations of types that are not well-known; if it is
+   *     null such relations are assumed to hold
+   */
+  public boolean catchableAs(@Nonnull ClassType catchType, @Nullable TypeHierarchy hierarchy) {
+    for (ClassType type : exactTypes) {
+      if (isSubclass(type, catchType, hierarchy) != Relation.NO) {
+        return true;
+      }
+    }
+    for (ClassType type : typesWithSubtypes) {
+      if (isSubclass(type, catchType, hierarchy) != Relation.NO
+          || isSubclass(catchType, type, hierarchy) != Relation.NO) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the exceptions of this set which are not caught for sure by a handler for catchType.
+   *
+   * @param hierarchy is used to decide subtype relations of types that are not well-known; if it is
+   *     null such types are assumed to escape the handler
+   */
+  @Nonnull
+  public ThrowableSet whichEscape(@Nonnull ClassType catchType, @Nullable TypeHierarchy hierarchy) {
+    Set<ClassType> exact = null;
+    for (ClassType type : exactTypes) {
+      if (isSubclass(type, catchType, hierarchy) == Relation.YES) {
+        if (exact == null) {
+          exact = new HashSet<>(exactTypes);
+        }
+        exact.remove(type);
+      }
+    }
+    Set<ClassType> withSubtypes = null;
+    for (ClassType type : typesWithSubtypes) {
+      if (isSubclass(type, catchType, hierarchy) == Relation.YES) {
+        if (withSubtypes == null) {
+          withSubtypes = new HashSet<>(typesWithSubtypes);
+        }
+        withSubtypes.remove(type);
+      }
+    }
+    if (exact == null && withSubtypes == null) {
+      return this;
+    }
+    return new ThrowableSet(
+        exact == null ? exactTypes : exact,
+        withSubtypes == null ? typesWithSubtypes : withSubtypes);
+  }
+
+  /** checks whether type is superclass or one of its subclasses */
+  @Nonnull
+  private static Relation isSubclass(
+      @Nonnull ClassType type, @Nonnull ClassType superclass, @Nullable TypeHierarchy hierarchy) {
+    final String superclassName = superclass.getFullyQualifiedName();
+    if (superclassName.equals("java.lang.Throwable") || superclassName.equals("java.lang.Object")) {
+      return Relation.YES;
+    }
+    String name = type.getFullyQualifiedName();
+    if (!KNOWN_SUPERCLASSES.containsKey(name)) {
+      if (name.equals(superclassName)) {
+        return Relation.YES;
+      }
+      if (hierarchy == null) {
+        return Relation.UNKNOWN;
+      }
+      try {
+        return hierarchy.isSubtype(superclass, type) ? Relation.YES : Relation.NO;
+      } catch (RuntimeException e) {
+        // the hierarchy is incomplete e.g. the library classes are not part of the View
+        return Relation.UNKNOWN;
+      }
+    }
+    // the table is closed under its superclass relation
+    while (name != null) {
+      if (name.equals(superclassName)) {
+        return Relation.YES;
+      }
+      name = KNOWN_SUPERCLASSES.get(name);
+    }
+    return Relation.NO;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof ThrowableSet)) {
+      return false;
+    }
+    ThrowableSet that = (ThrowableSet) o;
+    return exactTypes.equals(that.exactTypes) && typesWithSubtypes.equals(that.typesWithSubtypes);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(exactTypes, typesWithSubtypes);
+  }
+
+  @Override
+  public String toString() {
+    final StringJoiner joiner = new StringJoiner(", ", "{", "}");
+    exactTypes.stream().map(ClassType::toString).sorted().forEach(joiner::add);
+    typesWithSubtypes.stream().map(t -> t + "+").sorted().forEach(joiner::add);
+    return joiner.toString();
+  }
+}
@@ -0,0 +1,245 @@
+package sootup.core.graph.throwanalysis;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.IdentifierFactory;
+import sootup.core.jimple.basic.Immediate;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.constant.*;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.JArrayRef;
+import sootup.core.jimple.common.ref.JInstanceFieldRef;
+import sootup.core.jimple.common.ref.JStaticFieldRef;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.jimple.javabytecode.stmt.JEnterMonitorStmt;
+import sootup.core.jimple.javabytecode.stmt.JExitMonitorStmt;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.core.types.PrimitiveType;
+import sootup.core.types.ReferenceType;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * A {@link ThrowAnalysis} which considers each {@link Stmt} on its own and follows the exceptions
+ * the JVM specification lists for the corresponding bytecode instructions. Every Stmt might throw
+ * the asynchronous VirtualMachineErrors and ThreadDeath. An invocation might throw anything, see
+ * {@link InterproceduralThrowAnalysis} for a more precise treatment.
+ */
+public class UnitThrowAnalysis implements ThrowAnalysis {
+
+  @Nullable private final View<?> view;
+
+  @Nonnull protected final ClassType nullPointerException;
+  @Nonnull protected final ClassType illegalMonitorStateException;
+  @Nonnull protected final ClassType runtimeException;
+  @Nonnull protected final ClassType error;
+  @Nonnull protected final ClassType throwable;
+
+  /** the errors the JVM might throw at any time */
+  @Nonnull protected final ThrowableSet vmErrors;
+  /** the errors of resolving a class, field or method */
+  @Nonnull protected final ThrowableSet resolutionErrors;
+  /** the errors of the initialization of a class i.e. any Error thrown by its static initializer */
+  @Nonnull protected final ThrowableSet initializationErrors;
+
+  @Nonnull private final ThrowableSet arrayAccessExceptions;
+  @Nonnull private final ThrowableSet arithmeticException;
+  @Nonnull private final ThrowableSet arrayStoreException;
+  @Nonnull private final ThrowableSet classCastException;
+  @Nonnull private final ThrowableSet negativeArraySizeException;
+
+  /** Creates a UnitThrowAnalysis which decides subtype relations of the well-known types only. */
+  public UnitThrowAnalysis(@Nonnull IdentifierFactory identifierFactory) {
+    this(identifierFactory, null);
+  }
+
+  /** Creates a UnitThrowAnalysis which uses the TypeHierarchy of the given View. */
+  public UnitThrowAnalysis(@Nonnull View<?> view) {
+    this(view.getIdentifierFactory(), view);
+  }
+
+  private UnitThrowAnalysis(@Nonnull IdentifierFactory factory, @Nullable View<?> view) {
+    this.view = view;
+    nullPointerException = factory.getClassType("java.lang.NullPointerException");
+    illegalMonitorStateException = factory.getClassType("java.lang.IllegalMonitorStateException");
+    runtimeException = factory.getClassType("java.lang.RuntimeException");
+    error = factory.getClassType("java.lang.Error");
+    throwable = factory.getClassType("java.lang.Throwable");
+
+    vmErrors =
+        ThrowableSet.empty()
+            .add(factory.getClassType("java.lang.InternalError"))
+            .add(factory.getClassType("java.lang.OutOfMemoryError"))
+            .add(factory.getClassType("java.lang.StackOverflowError"))
+            .add(factory.getClassType("java.lang.UnknownError"))
+            .add(factory.getClassType("java.lang.ThreadDeath"));
+    resolutionErrors =
+        ThrowableSet.empty().addWithSubtypes(factory.getClassType("java.lang.LinkageError"));
+    initializationErrors = ThrowableSet.empty().addWithSubtypes(error);
+
+    arrayAccessExceptions =
+        ThrowableSet.empty()
+            .add(nullPointerException)
+            .add(factory.getClassType("java.lang.ArrayIndexOutOfBoundsException"));
+    arithmeticException =
+        ThrowableSet.empty().add(factory.getClassType("java.lang.ArithmeticException"));
+    arrayStoreException =
+        ThrowableSet.empty().add(factory.getClassType("java.lang.ArrayStoreException"));
+    classCastException =
+        ThrowableSet.empty().add(factory.getClassType("java.lang.ClassCastException"));
+    negativeArraySizeException =
+        ThrowableSet.empty().add(factory.getClassType("java.lang.NegativeArraySizeException"));
+  }
+
+  @Nullable
+  protected View<?> getView() {
+    return view;
+  }
+
+  @Nullable
+  protected TypeHierarchy getTypeHierarchy() {
+    return view == null ? null : view.getTypeHierarchy();
+  }
+
+  @Override
+  public boolean mightThrow(@Nonnull Stmt stmt, @Nonnull ClassType catchType) {
+    return mightThrow(stmt).catchableAs(catchType, getTypeHierarchy());
+  }
+
+  @Nonnull
+  @Override
+  public ThrowableSet mightThrow(@Nonnull Stmt stmt) {
+    if (stmt instanceof JAssignStmt) {
+      final JAssignStmt<?, ?> assignStmt = (JAssignStmt<?, ?>) stmt;
+      final Value leftOp = assignStmt.getLeftOp();
+      final Value rightOp = assignStmt.getRightOp();
+      ThrowableSet result = vmErrors.union(mightThrow(rightOp));
+      if (leftOp instanceof JArrayRef) {
+        result = result.union(arrayAccessExceptions);
+        if (!(leftOp.getType() instanceof PrimitiveType) && !(rightOp instanceof NullConstant)) {
+          result = result.union(arrayStoreException);
+        }
+      } else {
+        result = result.union(mightThrow(leftOp));
+      }
+      return result;
+    }
+    if (stmt instanceof JInvokeStmt) {
+      return vmErrors.union(mightThrow(stmt.getInvokeExpr()));
+    }
+    if (stmt instanceof JThrowStmt) {
+      final Immediate op = ((JThrowStmt) stmt).getOp();
+      ThrowableSet result = vmErrors.add(nullPointerException).add(illegalMonitorStateException);
+      if (op instanceof NullConstant) {
+        return result;
+      }
+      final Type type = op.getType();
+      return result.addWithSubtypes(type instanceof ClassType ? (ClassType) type : throwable);
+    }
+    if (stmt instanceof JReturnStmt || stmt instanceof JReturnVoidStmt) {
+      return vmErrors.add(illegalMonitorStateException);
+    }
+    if (stmt instanceof JEnterMonitorStmt) {
+      return vmErrors.add(nullPointerException);
+    }
+    if (stmt instanceof JExitMonitorStmt) {
+      return vmErrors.add(nullPointerException).add(illegalMonitorStateException);
+    }
+    // identity, goto, if, switch, nop, ... do not throw on their own
+    return vmErrors;
+  }
+
+  /** Returns the exceptions the evaluation of the given Value might throw. */
+  @Nonnull
+  protected ThrowableSet mightThrow(@Nonnull Value value) {
+    if (value instanceof AbstractInvokeExpr) {
+      return mightThrow((AbstractInvokeExpr) value);
+    }
+    if (value instanceof JArrayRef) {
+      return arrayAccessExceptions;
+    }
+    if (value instanceof JInstanceFieldRef) {
+      return resolutionErrors.add(nullPointerException);
+    }
+    if (value instanceof JStaticFieldRef || value instanceof JNewExpr) {
+      // resolution errors are LinkageErrors i.e. contained in the initialization errors
+      return initializationErrors;
+    }
+    if (value instanceof JLengthExpr) {
+      return ThrowableSet.empty().add(nullPointerException);
+    }
+    if (value instanceof JCastExpr) {
+      final JCastExpr castExpr = (JCastExpr) value;
+      if (castExpr.getType() instanceof PrimitiveType || castExpr.getOp() instanceof NullConstant) {
+        return ThrowableSet.empty();
+      }
+      return resolutionErrors.union(classCastException);
+    }
+    if (value instanceof JInstanceOfExpr
+        || value instanceof ClassConstant
+        || value instanceof MethodHandle
+        || value instanceof MethodType) {
+      return resolutionErrors;
+    }
+    if (value instanceof JNewArrayExpr) {
+      final JNewArrayExpr newArrayExpr = (JNewArrayExpr) value;
+      ThrowableSet result = ThrowableSet.empty();
+      if (newArrayExpr.getBaseType() instanceof ReferenceType) {
+        result = resolutionErrors;
+      }
+      final Immediate size = newArrayExpr.getSize();
+      if (!(size instanceof IntConstant) || ((IntConstant) size).getValue() < 0) {
+        result = result.union(negativeArraySizeException);
+      }
+      return result;
+    }
+    if (value instanceof JNewMultiArrayExpr) {
+      return resolutionErrors.union(negativeArraySizeException);
+    }
+    if (value instanceof JDivExpr || value instanceof JRemExpr) {
+      final Immediate divisor = ((AbstractBinopExpr) value).getOp2();
+      final Type type = divisor.getType();
+      if (type instanceof PrimitiveType.FloatType || type instanceof PrimitiveType.DoubleType) {
+        return ThrowableSet.empty();
+      }
+      if ((divisor instanceof IntConstant && ((IntConstant) divisor).getValue() != 0)
+          || (divisor instanceof LongConstant && ((LongConstant) divisor).getValue() != 0)) {
+        return ThrowableSet.empty();
+      }
+      return arithmeticException;
+    }
+    return ThrowableSet.empty();
+  }
+
+  /**
+   * Returns the exceptions an invocation might throw. Without looking at the invoked method this
+   * can be any Throwable.
+   */
+  @Nonnull
+  protected ThrowableSet mightThrow(@Nonnull AbstractInvokeExpr invokeExpr) {
+    return ThrowableSet.empty().addWithSubtypes(throwable);
+  }
+}
@@ -76,4 +76,15 @@ public interface AnalysisInputLocation<T extends AbstractClass> {
   default SourceType getSourceType() {
     return null;
   }
+
+  /**
+   * Returns a value that changes whenever the classes provided by this input location change, e.g.
+   * derived from the modification times of the underlying files. It is used to detect outdated
+   * snapshots of a view. The default implementation returns an empty Optional, i.e. the input
+   * location can not tell whether it changed.
+   */
+  @Nonnull
+  default Optional<String> getFingerprint() {
+    return Optional.empty();
+  }
 }
@@ -21,7 +21,9 @@ package sootup.core.inputlocation;
  * #L%
  */
 import java.util.List;
+import java.util.Optional;
 import javax.annotation.Nonnull;
+import sootup.core.cache.BodyCache;
 import sootup.core.transform.BodyInterceptor;
 
 /**
@@ -42,4 +44,13 @@ public interface ClassLoadingOptions {
    */
   @Nonnull
   List<BodyInterceptor> getBodyInterceptors();
+
+  /**
+   * The cache is consulted before a method body is created and receives the created bodies. By
+   * default no cache is used.
+   */
+  @Nonnull
+  default Optional<BodyCache> getBodyCache() {
+    return Optional.empty();
+  }
 }
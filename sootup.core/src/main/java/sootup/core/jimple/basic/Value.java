@@ -23,6 +23,7 @@ package sootup.core.jimple.basic;
  */
 
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import sootup.core.jimple.common.constant.Constant;
 import sootup.core.jimple.common.expr.Expr;
@@ -48,6 +49,14 @@ public interface Value extends EquivTo {
   @Nonnull
   List<Value> getUses();
 
+  /**
+   * Passes each Value which is used by (ie contained within) this Value to the given consumer. The
+   * order is the same as in {@link #getUses()} but no intermediate List is allocated.
+   */
+  default void forEachUse(@Nonnull Consumer<Value> consumer) {
+    getUses().forEach(consumer);
+  }
+
   /** Returns the Soot type of this Value. */
   @Nonnull
   Type getType();
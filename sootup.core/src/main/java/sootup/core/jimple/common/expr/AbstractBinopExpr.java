@@ -24,6 +24,7 @@ package sootup.core.jimple.common.expr;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import sootup.core.jimple.basic.Immediate;
 import sootup.core.jimple.basic.JimpleComparator;
@@ -63,6 +64,14 @@ public abstract class AbstractBinopExpr implements Expr {
     return list;
   }
 
+  @Override
+  public final void forEachUse(@Nonnull Consumer<Value> consumer) {
+    op1.forEachUse(consumer);
+    consumer.accept(op1);
+    op2.forEachUse(consumer);
+    consumer.accept(op2);
+  }
+
   @Override
   public boolean equivTo(@Nonnull Object o, @Nonnull JimpleComparator comparator) {
     return comparator.caseAbstractBinopExpr(this, o);
@@ -24,6 +24,7 @@ package sootup.core.jimple.common.expr;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import sootup.core.jimple.basic.Immediate;
 import sootup.core.jimple.basic.Local;
@@ -62,6 +63,13 @@ public abstract class AbstractInstanceInvokeExpr extends AbstractInvokeExpr {
     return list;
   }
 
+  @Override
+  public void forEachUse(@Nonnull Consumer<Value> consumer) {
+    super.forEachUse(consumer);
+    base.forEachUse(consumer);
+    consumer.accept(base);
+  }
+
   /** Returns a hash code for this object, consistent with structural equality. */
   @Override
   public int equivHashCode() {
@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import sootup.core.jimple.basic.Immediate;
 import sootup.core.jimple.basic.Value;
@@ -83,6 +84,16 @@ public abstract class AbstractInvokeExpr implements Expr {
     return list;
   }
 
+  @Override
+  public void forEachUse(@Nonnull Consumer<Value> consumer) {
+    for (Value arg : args) {
+      consumer.accept(arg);
+    }
+    for (Value arg : args) {
+      arg.forEachUse(consumer);
+    }
+  }
+
   protected void argsToString(@Nonnull StringBuilder builder) {
     final int len = getArgCount();
     if (0 < len) {
@@ -24,6 +24,7 @@ package sootup.core.jimple.common.expr;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import sootup.core.IdentifierFactory;
 import sootup.core.jimple.Jimple;
@@ -114,6 +115,12 @@ public final class JNewArrayExpr implements Expr, Copyable {
     return uses;
   }
 
+  @Override
+  public final void forEachUse(@Nonnull Consumer<Value> consumer) {
+    size.forEachUse(consumer);
+    consumer.accept(size);
+  }
+
   /** Returns an instance of ArrayType(). */
   @Nonnull
   @Override
@@ -24,6 +24,7 @@ package sootup.core.jimple.common.ref;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import sootup.core.jimple.basic.Immediate;
 import sootup.core.jimple.basic.JimpleComparator;
@@ -88,6 +89,14 @@ public final class JArrayRef implements ConcreteRef, Copyable {
     return list;
   }
 
+  @Override
+  public void forEachUse(@Nonnull Consumer<Value> consumer) {
+    base.forEachUse(consumer);
+    consumer.accept(base);
+    index.forEachUse(consumer);
+    consumer.accept(index);
+  }
+
   @Override
   @Nonnull
   public Type getType() {
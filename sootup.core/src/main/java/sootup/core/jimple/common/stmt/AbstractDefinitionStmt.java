@@ -24,6 +24,7 @@ package sootup.core.jimple.common.stmt;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.StmtPositionInfo;
@@ -77,6 +78,18 @@ public abstract class AbstractDefinitionStmt<L extends Value, R extends Value> e
     return list;
   }
 
+  @Override
+  public final void forEachUse(@Nonnull Consumer<Value> consumer) {
+    leftOp.forEachUse(consumer);
+    consumer.accept(rightOp);
+    rightOp.forEachUse(consumer);
+  }
+
+  @Override
+  public final void forEachDef(@Nonnull Consumer<Value> consumer) {
+    consumer.accept(leftOp);
+  }
+
   @Override
   public boolean fallsThrough() {
     return true;
@@ -24,6 +24,7 @@ package sootup.core.jimple.common.stmt;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.JimpleComparator;
@@ -91,6 +92,13 @@ public final class JIfStmt extends BranchingStmt implements Copyable {
     return list;
   }
 
+  @Override
+  public void forEachUse(@Nonnull Consumer<Value> consumer) {
+    final AbstractConditionExpr condition = getCondition();
+    condition.forEachUse(consumer);
+    consumer.accept(condition);
+  }
+
   @Override
   public void accept(@Nonnull StmtVisitor sw) {
     sw.caseIfStmt(this);
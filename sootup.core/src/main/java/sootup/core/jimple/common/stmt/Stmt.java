@@ -25,9 +25,11 @@ package sootup.core.jimple.common.stmt;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import sootup.core.jimple.basic.EquivTo;
+import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.StmtPositionInfo;
 import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.expr.AbstractInvokeExpr;
@@ -65,6 +67,32 @@ public abstract class Stmt implements EquivTo, Acceptor<StmtVisitor>, Copyable {
     return Collections.emptyList();
   }
 
+  /**
+   * Passes each Value used in this Stmt to the given consumer. The order is the same as in {@link
+   * #getUses()} but no intermediate List is allocated.
+   */
+  public void forEachUse(@Nonnull Consumer<Value> consumer) {
+    getUses().forEach(consumer);
+  }
+
+  /** Passes each Local used in this Stmt to the given consumer (see {@link #forEachUse}). */
+  public void forEachLocalUse(@Nonnull Consumer<Local> consumer) {
+    forEachUse(
+        value -> {
+          if (value instanceof Local) {
+            consumer.accept((Local) value);
+          }
+        });
+  }
+
+  /**
+   * Passes each Value defined in this Stmt to the given consumer. The order is the same as in
+   * {@link #getDefs()} but no intermediate List is allocated.
+   */
+  public void forEachDef(@Nonnull Consumer<Value> consumer) {
+    getDefs().forEach(consumer);
+  }
+
   /** Returns a list of Values, either used or defined or both in this Stmt. */
   @Nonnull
   public List<Value> getUsesAndDefs() {
@@ -24,6 +24,7 @@ package sootup.core.jimple.javabytecode.stmt;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.*;
@@ -74,6 +75,11 @@ public final class JRetStmt extends Stmt implements Copyable {
     return list;
   }
 
+  @Override
+  public void forEachUse(@Nonnull Consumer<Value> consumer) {
+    consumer.accept(stmtAddress);
+  }
+
   @Override
   public void accept(@Nonnull StmtVisitor sw) {
     sw.caseRetStmt(this);
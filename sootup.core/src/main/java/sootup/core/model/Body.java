@@ -84,8 +84,10 @@ public class Body implements Copyable {
       @Nonnull Position position) {
     this.methodSignature = methodSignature;
     this.locals = Collections.unmodifiableSet(locals);
-    this.graph = /* FIXME: [ms] make immutable when availabe */
-        new MutableBlockStmtGraph(stmtGraph).unmodifiableStmtGraph();
+    this.graph =
+        stmtGraph instanceof ImmutableBlockStmtGraph
+            ? stmtGraph
+            : new CachingStmtGraph<>(new MutableBlockStmtGraph(stmtGraph));
     this.position = position;
     // FIXME: [JMP] Virtual method call in constructor
     checkInit();
@@ -236,15 +238,11 @@ public class Body implements Copyable {
   /**
    * returns the control flow graph that represents this body into a linear List of statements.
    *
-   * @return the statements in this Body
+   * @return an unmodifiable List of the statements in this Body
    */
   @Nonnull
   public List<Stmt> getStmts() {
-    final ArrayList<Stmt> stmts = new ArrayList<>(graph.getNodes().size());
-    for (Stmt stmt : graph) {
-      stmts.add(stmt);
-    }
-    return stmts;
+    return graph.getStmts();
   }
 
   @Nonnull
@@ -308,7 +306,7 @@ public class Body implements Copyable {
     ArrayList<Value> useList = new ArrayList<>();
 
     for (Stmt stmt : graph.getNodes()) {
-      useList.addAll(stmt.getUses());
+      stmt.forEachUse(useList::add);
     }
     return useList;
   }
@@ -373,6 +371,12 @@ public class Body implements Copyable {
     @Nullable private MethodSignature methodSig = null;
 
     @Nullable private List<Stmt> cachedLinearizedStmts = null;
+    private long cachedLinearizedStmtsModificationCount = -1;
+
+    /** incremented whenever the set of locals changes */
+    private long localsModificationCount = 0;
+
+    private boolean compactStmtGraph = false;
 
     BodyBuilder() {
       graph = new MutableBlockStmtGraph();
@@ -387,6 +391,7 @@ public class Body implements Copyable {
       setMethodSignature(body.getMethodSignature());
       setLocals(new LinkedHashSet<>(body.getLocals()));
       setPosition(body.getPosition());
+      setCompactStmtGraph(body.getStmtGraph() instanceof ImmutableBlockStmtGraph);
       graph = new MutableBlockStmtGraph(body.getStmtGraph());
     }
 
@@ -398,8 +403,14 @@ public class Body implements Copyable {
     /* Gets an ordered copy of the Stmts in the StmtGraph */
     @Nonnull
     public List<Stmt> getStmts() {
-      cachedLinearizedStmts = graph.getStmts();
-      return cachedLinearizedStmts;
+      // the linearization is only recomputed if the StmtGraph was modified in between
+      final long modificationCount = graph.getModificationCount();
+      if (cachedLinearizedStmts == null
+          || cachedLinearizedStmtsModificationCount != modificationCount) {
+        cachedLinearizedStmts = graph.getStmts();
+        cachedLinearizedStmtsModificationCount = modificationCount;
+      }
+      return new ArrayList<>(cachedLinearizedStmts);
     }
 
     @Nonnull
@@ -407,6 +418,15 @@ public class Body implements Copyable {
       return Collections.unmodifiableSet(locals);
     }
 
+    /**
+     * @return a counter which increases whenever the StmtGraph or the locals of this builder are
+     *     modified. If the value did not change between two points in time, the builder was not
+     *     modified in between.
+     */
+    public long getModificationCount() {
+      return graph.getModificationCount() + localsModificationCount;
+    }
+
     @Nonnull
     public BodyBuilder setStartingStmt(@Nonnull Stmt startingStmt) {
       graph.setStartingStmt(startingStmt);
@@ -416,18 +436,22 @@ public class Body implements Copyable {
     @Nonnull
     public BodyBuilder setLocals(@Nonnull Set<Local> locals) {
       this.locals = locals;
+      localsModificationCount++;
       return this;
     }
 
     @Nonnull
     public BodyBuilder addLocal(@Nonnull String name, Type type) {
       locals.add(localGen.generateLocal(type));
+      localsModificationCount++;
       return this;
     }
 
     @Nonnull
     public BodyBuilder addLocal(@Nonnull Local local) {
-      locals.add(local);
+      if (locals.add(local)) {
+        localsModificationCount++;
+      }
       return this;
     }
 
@@ -457,6 +481,7 @@ public class Body implements Copyable {
         }
         locals.remove(oldLocal);
         locals.add(newLocal);
+        localsModificationCount++;
       }
     }
 
@@ -535,6 +560,21 @@ public class Body implements Copyable {
       return this;
     }
 
+    public boolean isCompactStmtGraph() {
+      return compactStmtGraph;
+    }
+
+    /**
+     * @param compactStmtGraph if true, build() freezes the StmtGraph into an {@link
+     *     ImmutableBlockStmtGraph} which needs less memory and is faster to traverse, but has to be
+     *     copied again when the Body is modified via a new BodyBuilder.
+     */
+    @Nonnull
+    public BodyBuilder setCompactStmtGraph(boolean compactStmtGraph) {
+      this.compactStmtGraph = compactStmtGraph;
+      return this;
+    }
+
     @Nonnull
     public Body build() {
 
@@ -563,7 +603,11 @@ public class Body implements Copyable {
         throw new RuntimeException("StmtGraph of " + methodSig + " is invalid.", e);
       }
 
-      return new Body(methodSig, locals, graph, position);
+      return new Body(
+          methodSig,
+          locals,
+          compactStmtGraph ? new ImmutableBlockStmtGraph(graph) : graph,
+          position);
     }
 
     @Nonnull
@@ -614,17 +658,8 @@ public class Body implements Copyable {
   public static Map<Local, Collection<Stmt>> collectUses(List<Stmt> stmts) {
     Map<Local, Collection<Stmt>> allUses = new HashMap<>();
     for (Stmt stmt : stmts) {
-      Collection<Value> uses = stmt.getUses();
-      for (Value value : uses) {
-        if (value instanceof Local) {
-          Collection<Stmt> localUses = allUses.get(value);
-          if (localUses == null) {
-            localUses = new ArrayList<>();
-          }
-          localUses.add(stmt);
-          allUses.put((Local) value, localUses);
-        }
-      }
+      stmt.forEachLocalUse(
+          local -> allUses.computeIfAbsent(local, key -> new ArrayList<>()).add(stmt));
     }
     return allUses;
   }
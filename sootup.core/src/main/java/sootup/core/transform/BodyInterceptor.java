@@ -23,6 +23,7 @@ package sootup.core.transform;
  */
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.model.Body;
 import sootup.core.views.View;
 
@@ -37,4 +38,15 @@ public interface BodyInterceptor {
    * @param view
    */
   void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view);
+
+  /**
+   * @return a fingerprint of this interceptor and its configuration that is stable across runs, or
+   *     null if there is none. Persisted bodies are reused only if every interceptor they were
+   *     built with has the same fingerprint, so bodies of an interceptor without one are not
+   *     persisted.
+   */
+  @Nullable
+  default String cacheKey() {
+    return null;
+  }
 }
@@ -0,0 +1,185 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+
+/**
+ * Thread-safe collector for the run time, the statement count changes and the failures of {@link
+ * BodyInterceptor}s. The statistics are grouped by the class of the interceptor and are only
+ * collected while at least one recording is active (see {@link #startRecording()}).
+ *
+ * @see RunTimeBodyInterceptor
+ */
+public class BodyInterceptorMetrics {
+
+  @Nonnull private final Map<String, Accumulator> accumulators = new ConcurrentHashMap<>();
+  @Nonnull private final AtomicInteger activeRecordings = new AtomicInteger();
+
+  /** Enables the collection of statistics. Calls have to be balanced by {@link #stopRecording()} */
+  public void startRecording() {
+    activeRecordings.incrementAndGet();
+  }
+
+  public void stopRecording() {
+    if (activeRecordings.decrementAndGet() < 0) {
+      activeRecordings.incrementAndGet();
+      throw new IllegalStateException("stopRecording() was called without startRecording().");
+    }
+  }
+
+  public boolean isRecording() {
+    return activeRecordings.get() > 0;
+  }
+
+  /**
+   * @param interceptor the interceptor that was applied
+   * @param nanos the wall time the interceptor took
+   * @param stmtCountDelta the number of stmts after the interceptor ran minus the number before
+   * @param failed whether the interceptor threw an exception
+   */
+  public void record(
+      @Nonnull BodyInterceptor interceptor, long nanos, int stmtCountDelta, boolean failed) {
+    Accumulator accumulator =
+        accumulators.computeIfAbsent(interceptor.getClass().getName(), k -> new Accumulator());
+    accumulator.invocations.increment();
+    accumulator.nanos.add(nanos);
+    accumulator.stmtCountDelta.add(stmtCountDelta);
+    if (failed) {
+      accumulator.failures.increment();
+    }
+  }
+
+  /** Removes all collected statistics. */
+  public void reset() {
+    accumulators.clear();
+  }
+
+  /** @return a snapshot of the collected statistics, sorted by descending total run time. */
+  @Nonnull
+  public List<InterceptorStatistics> getStatistics() {
+    List<InterceptorStatistics> statistics = new ArrayList<>(accumulators.size());
+    accumulators.forEach(
+        (name, accumulator) ->
+            statistics.add(
+                new InterceptorStatistics(
+                    name,
+                    accumulator.invocations.sum(),
+                    accumulator.failures.sum(),
+                    accumulator.nanos.sum(),
+                    accumulator.stmtCountDelta.sum())));
+    statistics.sort(Comparator.comparingLong(InterceptorStatistics::getTotalNanos).reversed());
+    return statistics;
+  }
+
+  private static class Accumulator {
+    private final LongAdder invocations = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+    private final LongAdder stmtCountDelta = new LongAdder();
+  }
+
+  /** Immutable statistics of a single {@link BodyInterceptor} class. */
+  public static class InterceptorStatistics {
+    @Nonnull private final String interceptorName;
+    private final long invocations;
+    private final long failures;
+    private final long totalNanos;
+    private final long stmtCountDelta;
+
+    public InterceptorStatistics(
+        @Nonnull String interceptorName,
+        long invocations,
+        long failures,
+        long totalNanos,
+        long stmtCountDelta) {
+      this.interceptorName = interceptorName;
+      this.invocations = invocations;
+      this.failures = failures;
+      this.totalNanos = totalNanos;
+      this.stmtCountDelta = stmtCountDelta;
+    }
+
+    /** @return the fully qualified class name of the interceptor */
+    @Nonnull
+    public String getInterceptorName() {
+      return interceptorName;
+    }
+
+    public long getInvocations() {
+      return invocations;
+    }
+
+    public long getFailures() {
+      return failures;
+    }
+
+    public long getTotalNanos() {
+      return totalNanos;
+    }
+
+    /** @return the summed up change of the number of stmts, negative if stmts were removed */
+    public long getStmtCountDelta() {
+      return stmtCountDelta;
+    }
+
+    /** @return the statistics that were collected since <code>earlier</code> was taken */
+    @Nonnull
+    public InterceptorStatistics minus(@Nonnull InterceptorStatistics earlier) {
+      if (!interceptorName.equals(earlier.interceptorName)) {
+        throw new IllegalArgumentException(
+            "Can not subtract statistics of "
+                + earlier.interceptorName
+                + " from "
+                + interceptorName);
+      }
+      return new InterceptorStatistics(
+          interceptorName,
+          invocations - earlier.invocations,
+          failures - earlier.failures,
+          totalNanos - earlier.totalNanos,
+          stmtCountDelta - earlier.stmtCountDelta);
+    }
+
+    @Override
+    public String toString() {
+      return interceptorName
+          + ": "
+          + invocations
+          + " invocations, "
+          + failures
+          + " failures, "
+          + (totalNanos / 1_000_000)
+          + " ms, "
+          + stmtCountDelta
+          + " stmts";
+    }
+  }
+}
@@ -0,0 +1,128 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import sootup.core.graph.MutableStmtGraph;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.views.View;
+
+/**
+ * Applies a list of {@link BodyInterceptor}s to a body and avoids work whose input did not change:
+ *
+ * <ul>
+ *   <li>if an interceptor occurs multiple times in the list and the body was not modified since its
+ *       previous application, the pass is skipped.
+ *   <li>an {@link IncrementalBodyInterceptor} that already ran on the body only gets the Stmts that
+ *       were modified since its previous application.
+ * </ul>
+ *
+ * The modified Stmts are only recorded (see {@link MutableStmtGraph#enableChangeTracking()}) if an
+ * incremental interceptor occurs multiple times, and only while the pipeline is applied. The
+ * pipeline itself holds no state of a body, so one instance can be used concurrently for different
+ * bodies.
+ */
+public class BodyInterceptorPipeline {
+
+  @Nonnull private final List<BodyInterceptor> interceptors;
+  private final boolean tracksChanges;
+
+  public BodyInterceptorPipeline(@Nonnull List<BodyInterceptor> interceptors) {
+    this.interceptors = interceptors;
+    final Set<BodyInterceptor> incrementalInterceptors =
+        Collections.newSetFromMap(new IdentityHashMap<>());
+    boolean repeatsIncrementalInterceptor = false;
+    for (BodyInterceptor interceptor : interceptors) {
+      if (interceptor instanceof IncrementalBodyInterceptor
+          && !incrementalInterceptors.add(interceptor)) {
+        repeatsIncrementalInterceptor = true;
+        break;
+      }
+    }
+    this.tracksChanges = repeatsIncrementalInterceptor;
+  }
+
+  @Nonnull
+  public List<BodyInterceptor> getInterceptors() {
+    return interceptors;
+  }
+
+  /**
+   * Applies the interceptors in order to the given builder.
+   *
+   * @throws IllegalStateException if an interceptor fails
+   */
+  public void apply(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
+    final MutableStmtGraph graph = builder.getStmtGraph();
+    final boolean enablesChangeTracking = tracksChanges && !graph.isChangeTrackingEnabled();
+    if (enablesChangeTracking) {
+      graph.enableChangeTracking();
+    }
+    try {
+      applyInterceptors(builder, view, graph);
+    } finally {
+      if (enablesChangeTracking) {
+        // the recorded Stmts are only needed while the pipeline is applied
+        graph.disableChangeTracking();
+      }
+    }
+  }
+
+  private void applyInterceptors(
+      @Nonnull Body.BodyBuilder builder, @Nonnull View<?> view, @Nonnull MutableStmtGraph graph) {
+    // modification counts of the builder and of its StmtGraph after the last run of an interceptor
+    final Map<BodyInterceptor, long[]> lastRun = new IdentityHashMap<>();
+    for (BodyInterceptor interceptor : interceptors) {
+      final long[] previous = lastRun.get(interceptor);
+      try {
+        if (previous == null) {
+          interceptor.interceptBody(builder, view);
+        } else if (previous[0] != builder.getModificationCount()) {
+          if (interceptor instanceof IncrementalBodyInterceptor) {
+            final Set<Stmt> modifiedStmts = graph.getModifiedStmtsSince(previous[1]);
+            if (modifiedStmts.isEmpty()) {
+              // only the locals changed or the modified stmts are removed already
+              interceptor.interceptBody(builder, view);
+            } else {
+              ((IncrementalBodyInterceptor) interceptor)
+                  .interceptBody(builder, view, modifiedStmts);
+            }
+          } else {
+            interceptor.interceptBody(builder, view);
+          }
+        }
+      } catch (Exception e) {
+        throw new IllegalStateException(
+            "Failed to apply " + interceptor + " to " + builder.getMethodSignature(), e);
+      }
+      lastRun.put(
+          interceptor, new long[] {builder.getModificationCount(), graph.getModificationCount()});
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.Set;
+import javax.annotation.Nonnull;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.views.View;
+
+/**
+ * A {@link BodyInterceptor} that is able to restrict its work to the region of a body that changed
+ * since it was applied the last time. Used by {@link BodyInterceptorPipeline}: the first
+ * application on a body is always a full {@link #interceptBody(Body.BodyBuilder, View)}, further
+ * applications only receive the Stmts that were modified in the meantime.
+ */
+public interface IncrementalBodyInterceptor extends BodyInterceptor {
+
+  /**
+   * Applies the transformation only to the given Stmts and the region they affect. The result has
+   * to be the same as a full {@link #interceptBody(Body.BodyBuilder, View)} on a body that was
+   * already transformed by this interceptor before the Stmts were modified.
+   *
+   * @param builder the body to transform
+   * @param view the view the body belongs to
+   * @param modifiedStmts the Stmts of the body that were added, replaced or whose flows changed
+   *     since the last application of this interceptor; never empty
+   */
+  void interceptBody(
+      @Nonnull Body.BodyBuilder builder, @Nonnull View<?> view, @Nonnull Set<Stmt> modifiedStmts);
+}
@@ -0,0 +1,145 @@
+package sootup.core.transform;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.views.View;
+
+/**
+ * Decorates a {@link BodyInterceptor} and reports its run time, its change of the stmt count and
+ * whether it failed to a {@link BodyInterceptorMetrics} instance. If the metrics instance is not
+ * recording, the call is delegated without any measurement.
+ */
+public class RunTimeBodyInterceptor implements BodyInterceptor {
+
+  @Nonnull private final BodyInterceptor delegate;
+  @Nonnull private final BodyInterceptorMetrics metrics;
+
+  protected RunTimeBodyInterceptor(
+      @Nonnull BodyInterceptor delegate, @Nonnull BodyInterceptorMetrics metrics) {
+    this.delegate = delegate;
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return a decorator of the given interceptor which is an {@link IncrementalBodyInterceptor} as
+   *     well if the given interceptor is incremental
+   */
+  @Nonnull
+  public static RunTimeBodyInterceptor of(
+      @Nonnull BodyInterceptor delegate, @Nonnull BodyInterceptorMetrics metrics) {
+    if (delegate instanceof IncrementalBodyInterceptor) {
+      return new Incremental((IncrementalBodyInterceptor) delegate, metrics);
+    }
+    return new RunTimeBodyInterceptor(delegate, metrics);
+  }
+
+  /** wraps every interceptor of the given list that is not wrapped already. */
+  @Nonnull
+  public static List<BodyInterceptor> wrap(
+      @Nonnull List<BodyInterceptor> interceptors, @Nonnull BodyInterceptorMetrics metrics) {
+    List<BodyInterceptor> wrapped = new ArrayList<>(interceptors.size());
+    // an interceptor that occurs multiple times keeps a single identity, see
+    // BodyInterceptorPipeline
+    Map<BodyInterceptor, BodyInterceptor> wrappers = new IdentityHashMap<>();
+    for (BodyInterceptor interceptor : interceptors) {
+      if (interceptor instanceof RunTimeBodyInterceptor
+          && ((RunTimeBodyInterceptor) interceptor).metrics == metrics) {
+        wrapped.add(interceptor);
+      } else {
+        wrapped.add(wrappers.computeIfAbsent(interceptor, i -> of(i, metrics)));
+      }
+    }
+    return wrapped;
+  }
+
+  @Override
+  public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
+    measure(builder, () -> delegate.interceptBody(builder, view));
+  }
+
+  protected void measure(@Nonnull Body.BodyBuilder builder, @Nonnull Runnable interception) {
+    if (!metrics.isRecording()) {
+      interception.run();
+      return;
+    }
+
+    final int stmtCountBefore = builder.getStmtGraph().getNodes().size();
+    final long start = System.nanoTime();
+    boolean failed = true;
+    try {
+      interception.run();
+      failed = false;
+    } finally {
+      final long nanos = System.nanoTime() - start;
+      final int stmtCountDelta = builder.getStmtGraph().getNodes().size() - stmtCountBefore;
+      metrics.record(delegate, nanos, stmtCountDelta, failed);
+    }
+  }
+
+  /** measuring does not change the bodies, so the decorator shares the key of its delegate */
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return delegate.cacheKey();
+  }
+
+  @Nonnull
+  public BodyInterceptor getDelegate() {
+    return delegate;
+  }
+
+  @Override
+  public String toString() {
+    return delegate.toString();
+  }
+
+  /** Decorator of an {@link IncrementalBodyInterceptor} that keeps it incremental. */
+  private static class Incremental extends RunTimeBodyInterceptor
+      implements IncrementalBodyInterceptor {
+
+    @Nonnull private final IncrementalBodyInterceptor incrementalDelegate;
+
+    private Incremental(
+        @Nonnull IncrementalBodyInterceptor delegate, @Nonnull BodyInterceptorMetrics metrics) {
+      super(delegate, metrics);
+      this.incrementalDelegate = delegate;
+    }
+
+    @Override
+    public void interceptBody(
+        @Nonnull Body.BodyBuilder builder,
+        @Nonnull View<?> view,
+        @Nonnull Set<Stmt> modifiedStmts) {
+      measure(builder, () -> incrementalDelegate.interceptBody(builder, view, modifiedStmts));
+    }
+  }
+}
@@ -56,6 +56,15 @@ public class EscapedWriter extends FilterWriter {
     }
   }
 
+  /** Write a segment of the given char array. */
+  @Override
+  public void write(char[] cbuf, int off, int len) throws IOException {
+    final int end = off + len;
+    for (int i = off; i < end; i++) {
+      write(cbuf[i]);
+    }
+  }
+
   private final StringBuilder mini = new StringBuilder(8);
 
   private boolean isClean(int ch) {
@@ -0,0 +1,115 @@
+package sootup.core.util;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+public class ExecutorUtils {
+
+  /**
+   * Creates an executor with a fixed number of threads and a bounded queue. If the queue is full,
+   * the submitting thread runs the task itself, so tasks do not pile up in memory.
+   *
+   * @param threadName the name of the threads, which are daemon threads then; the default threads
+   *     are used if it is null
+   */
+  @Nonnull
+  public static ThreadPoolExecutor newBoundedExecutor(
+      int threads, int queueCapacity, @Nullable String threadName) {
+    if (threadName == null) {
+      return new ThreadPoolExecutor(
+          threads,
+          threads,
+          0L,
+          TimeUnit.MILLISECONDS,
+          new ArrayBlockingQueue<>(queueCapacity),
+          new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+    return new ThreadPoolExecutor(
+        threads,
+        threads,
+        0L,
+        TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(queueCapacity),
+        runnable -> {
+          final Thread thread = new Thread(runnable, threadName);
+          thread.setDaemon(true);
+          return thread;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy());
+  }
+
+  /**
+   * Shuts the executor down and waits until its tasks are finished. If the waiting thread is
+   * interrupted, the running tasks are interrupted as well and the interrupt flag is restored.
+   *
+   * @return false if the waiting thread was interrupted
+   */
+  public static boolean shutdownAndAwaitTermination(@Nonnull ExecutorService executor) {
+    executor.shutdown();
+    try {
+      executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+      return true;
+    } catch (InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Applies the task to each item with the given number of threads; it is applied in the calling
+   * thread if parallelism is 1. At most 2 * parallelism items are queued at once (see {@link
+   * #newBoundedExecutor(int, int, String)}). Returns when the task is applied to all items.
+   *
+   * @throws IllegalStateException if the calling thread is interrupted while waiting for the tasks
+   */
+  public static <T> void forEach(
+      @Nonnull Iterable<? extends T> items, int parallelism, @Nonnull Consumer<? super T> task) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be at least 1 but is " + parallelism);
+    }
+    if (parallelism == 1) {
+      items.forEach(task);
+      return;
+    }
+
+    final ThreadPoolExecutor executor = newBoundedExecutor(parallelism, 2 * parallelism, null);
+    try {
+      for (T item : items) {
+        executor.execute(() -> task.accept(item));
+      }
+    } finally {
+      executor.shutdown();
+    }
+    if (!shutdownAndAwaitTermination(executor)) {
+      throw new IllegalStateException("Interrupted while waiting for the parallel tasks.");
+    }
+  }
+}
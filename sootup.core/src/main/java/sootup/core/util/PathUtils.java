@@ -22,10 +22,18 @@ package sootup.core.util;
  * #L%
  */
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import sootup.core.inputlocation.FileType;
 
@@ -75,4 +83,45 @@ public class PathUtils {
   public static boolean isArchive(@Nonnull Path path) {
     return hasExtension(path, FileType.ARCHIVE_TYPES);
   }
+
+  /**
+   * Creates a fingerprint of the given file or of all files inside the given directory. Only the
+   * paths, sizes and modification times of the files are hashed, so the fingerprint is cheap to
+   * compute but changes whenever a file is added, removed or modified.
+   *
+   * @return the SHA-256 hash as hexadecimal string
+   */
+  @Nonnull
+  public static String fingerprint(@Nonnull Path path) throws IOException {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform supports SHA-256
+      throw new IllegalStateException(e);
+    }
+    digest.update(path.toAbsolutePath().toString().getBytes(StandardCharsets.UTF_8));
+
+    final List<Path> files;
+    try (Stream<Path> stream = Files.walk(path)) {
+      files = stream.filter(Files::isRegularFile).sorted().collect(Collectors.toList());
+    }
+    for (Path file : files) {
+      final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      final String entry =
+          path.relativize(file)
+              + ":"
+              + attributes.size()
+              + ":"
+              + attributes.lastModifiedTime().toMillis()
+              + "\n";
+      digest.update(entry.getBytes(StandardCharsets.UTF_8));
+    }
+
+    final StringBuilder hash = new StringBuilder(64);
+    for (byte b : digest.digest()) {
+      hash.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return hash.toString();
+  }
 }
@@ -22,9 +22,13 @@ package sootup.core.util.printer;
  * #L%
  */
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.HashMap;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.common.constant.Constant;
@@ -45,6 +49,14 @@ public abstract class AbstractStmtPrinter extends StmtPrinter {
   protected StringBuilder output = new StringBuilder();
   private final HashMap<String, PackageName> imports = new HashMap<>();
 
+  /**
+   * if set, the output is written to this sink whenever a line is completed and the buffer is full
+   */
+  @Nullable private Writer sink = null;
+
+  private int bufferSize = 0;
+  private char[] chunk = new char[0];
+
   boolean useImports = false;
 
   void enableImports(boolean enable) {
@@ -139,6 +151,37 @@ public abstract class AbstractStmtPrinter extends StmtPrinter {
   public void newline() {
     output.append("\n");
     startOfLine = true;
+    if (sink != null && output.length() >= bufferSize) {
+      flush();
+    }
+  }
+
+  /**
+   * Streams the output to the given sink instead of keeping it in memory: whenever a line is
+   * completed and at least bufferSize chars are buffered, the buffered output is written to the
+   * sink. Call {@link #flush()} after printing to write the remaining output.
+   */
+  void streamTo(@Nonnull Writer sink, int bufferSize) {
+    this.sink = sink;
+    this.bufferSize = bufferSize;
+  }
+
+  /** writes the buffered output to the sink (if streaming is enabled) and clears the buffer. */
+  public void flush() {
+    if (sink == null) {
+      return;
+    }
+    final int length = output.length();
+    if (chunk.length < length) {
+      chunk = new char[Math.max(length, 2 * chunk.length)];
+    }
+    output.getChars(0, length, chunk, 0);
+    try {
+      sink.write(chunk, 0, length);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    output.setLength(0);
   }
 
   @Override
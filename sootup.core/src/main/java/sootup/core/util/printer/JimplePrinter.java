@@ -22,9 +22,20 @@ package sootup.core.util.printer;
  * #L%
  */
 
-import java.io.PrintWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Trap;
@@ -41,6 +52,7 @@ import sootup.core.signatures.MethodSignature;
 import sootup.core.signatures.PackageName;
 import sootup.core.types.ClassType;
 import sootup.core.types.Type;
+import sootup.core.util.ExecutorUtils;
 
 /**
  * Prints out a class and all its methods.
@@ -69,8 +81,11 @@ public class JimplePrinter {
     LegacyMode
   }
 
+  /** amount of chars that are buffered before they are written when streaming */
+  public static final int DEFAULT_BUFFER_SIZE = 8192;
+
   private final Set<Option> options = EnumSet.noneOf(Option.class);
-  private static int jimpleLnNum = 0; // actual line number
+  private int jimpleLnNum = 0; // actual line number
 
   public JimplePrinter(Option... options) {
     this.options.addAll(Arrays.asList(options));
@@ -114,10 +129,21 @@ public class JimplePrinter {
     }
   }
 
-  public void printTo(SootClass<?> cl, PrintWriter out) {
+  /**
+   * Prints the given class to out. The output is streamed i.e. it is written to out in chunks of
+   * about {@link #DEFAULT_BUFFER_SIZE} chars while printing, except if {@link Option#UseImports} is
+   * set: then the imports are only known after the whole class is printed.
+   *
+   * @throws UncheckedIOException if writing to out fails
+   */
+  public void printTo(SootClass<?> cl, Writer out) {
 
     LabeledStmtPrinter printer = determinePrinter();
-    printer.enableImports(options.contains(Option.UseImports));
+    final boolean useImports = options.contains(Option.UseImports);
+    printer.enableImports(useImports);
+    if (!useImports) {
+      printer.streamTo(out, DEFAULT_BUFFER_SIZE);
+    }
 
     // add jimple line number tags
     setJimpleLnNum(1);
@@ -207,28 +233,98 @@ public class JimplePrinter {
     }
 
     // Print methods
-    printMethods(cl, printer, out);
+    printMethods(cl, printer);
     printer.literal("}");
 
     printer.newline();
     incJimpleLnNum();
 
-    // if enabled: print the list of imports and append class contents
-    if (options.contains(Option.UseImports)) {
-      Map<String, PackageName> entries = printer.getImports();
-      // remove current class itself from imports
-      entries.remove(cl.getType().getClassName());
+    final String lineSeparator = System.lineSeparator();
+    try {
+      // if enabled: print the list of imports and append class contents
+      if (useImports) {
+        Map<String, PackageName> entries = printer.getImports();
+        // remove current class itself from imports
+        entries.remove(cl.getType().getClassName());
+
+        for (Map.Entry<String, PackageName> item : entries.entrySet()) {
+          out.write("import " + item.getValue() + "." + item.getKey() + ";" + lineSeparator);
+        }
+        out.write(lineSeparator);
+        out.write(printer.toString());
+      } else {
+        printer.flush();
+      }
+      out.write(lineSeparator);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Prints the given class to the channel, encoded as UTF-8. The channel is not closed.
+   *
+   * @see #printTo(SootClass, Writer)
+   */
+  public void printTo(SootClass<?> cl, WritableByteChannel out) {
+    final Writer writer =
+        Channels.newWriter(out, StandardCharsets.UTF_8.newEncoder(), DEFAULT_BUFFER_SIZE);
+    printTo(cl, writer);
+    try {
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 
-      for (Map.Entry<String, PackageName> item : entries.entrySet()) {
-        out.println("import " + item.getValue() + "." + item.getKey() + ";");
+  /**
+   * Prints each of the given classes into its own file named <code>
+   * &lt;fully qualified classname&gt;.jimple</code> in outputDirectory. The classes are printed by
+   * parallelism threads; each of them streams its class directly into the file, so that the whole
+   * Jimple of a class is never kept in memory (see {@link #printTo(SootClass, Writer)}).
+   *
+   * @return the classes that could not be printed mapped to the cause
+   * @throws IOException if outputDirectory can not be created
+   * @throws IllegalArgumentException if two of the classes would be printed into the same file
+   */
+  @Nonnull
+  public Map<ClassType, Exception> printToDirectory(
+      @Nonnull Collection<? extends SootClass<?>> classes,
+      @Nonnull Path outputDirectory,
+      int parallelism)
+      throws IOException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be at least 1 but is " + parallelism);
+    }
+    // classes with the same file would overwrite each other (concurrently)
+    final Set<String> fileNames = new HashSet<>();
+    for (SootClass<?> cl : classes) {
+      if (!fileNames.add(cl.getName() + ".jimple")) {
+        throw new IllegalArgumentException(
+            "More than one class would be printed into '" + cl.getName() + ".jimple'.");
       }
-      out.println();
     }
+    Files.createDirectories(outputDirectory);
+
+    final Map<ClassType, Exception> failures = new ConcurrentHashMap<>();
+    final Option[] printerOptions = options.toArray(new Option[0]);
+    final Consumer<SootClass<?>> task =
+        cl -> {
+          final Path file = outputDirectory.resolve(cl.getName() + ".jimple");
+          try (Writer writer =
+              new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8)) {
+            // a JimplePrinter is not thread-safe: use one per class
+            new JimplePrinter(printerOptions).printTo(cl, writer);
+          } catch (Exception e) {
+            failures.put(cl.getType(), e);
+          }
+        };
 
-    out.println(printer.toString());
+    ExecutorUtils.forEach(classes, parallelism, task);
+    return failures;
   }
 
-  private void printMethods(SootClass<?> cl, LabeledStmtPrinter printer, PrintWriter out) {
+  private void printMethods(SootClass<?> cl, LabeledStmtPrinter printer) {
     Iterator<? extends Method> methodIt = cl.getMethods().iterator();
     if (methodIt.hasNext()) {
       printer.incIndent();
@@ -265,17 +361,34 @@ public class JimplePrinter {
    * Prints out the method corresponding to body Body, (declaration and body), in the textual format
    * corresponding to the IR used to encode body body.
    */
-  public void printTo(Body body, PrintWriter out) {
+  public void printTo(Body body, Writer out) {
     LabeledStmtPrinter printer = determinePrinter();
-    printer.enableImports(options.contains(Option.UseImports));
+    final boolean useImports = options.contains(Option.UseImports);
+    printer.enableImports(useImports);
+    if (!useImports) {
+      printer.streamTo(out, DEFAULT_BUFFER_SIZE);
+    }
     printBody(body, printer);
-    out.print(printer);
+    flushTo(printer, out, useImports);
   }
 
-  public void printTo(StmtGraph<?> graph, PrintWriter out) {
+  public void printTo(StmtGraph<?> graph, Writer out) {
     LabeledStmtPrinter printer = determinePrinter();
+    printer.streamTo(out, DEFAULT_BUFFER_SIZE);
     printStmts(graph, printer);
-    out.print(printer);
+    flushTo(printer, out, false);
+  }
+
+  private void flushTo(LabeledStmtPrinter printer, Writer out, boolean buffered) {
+    if (!buffered) {
+      printer.flush();
+      return;
+    }
+    try {
+      out.write(printer.toString());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
   }
 
   /**
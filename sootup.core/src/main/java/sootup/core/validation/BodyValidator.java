@@ -35,6 +35,20 @@ public interface BodyValidator {
    */
   void validate(Body body, List<ValidationException> exceptions);
 
+  /**
+   * Validates the given body using the information that is precomputed once per body and shared by
+   * all validators (see {@link ValidationEngine}). Validators which need e.g. the def-use
+   * information should override this method instead of computing it on their own.
+   *
+   * @param body the body to check
+   * @param context the shared information about the body
+   * @param exceptions the list of exceptions
+   */
+  default void validate(
+      Body body, ValidationContext context, List<ValidationException> exceptions) {
+    validate(body, exceptions);
+  }
+
   /**
    * Basic validators run essential checks and are run always if validate is called.<br>
    * If this method returns false and the caller of the validator respects this property,<br>
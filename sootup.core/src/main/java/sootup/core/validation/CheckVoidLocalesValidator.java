@@ -23,17 +23,21 @@ package sootup.core.validation;
  */
 
 import java.util.List;
+import sootup.core.jimple.basic.Local;
 import sootup.core.model.Body;
+import sootup.core.types.VoidType;
 
 public class CheckVoidLocalesValidator implements BodyValidator {
 
   @Override
   public void validate(Body body, List<ValidationException> exception) {
-    // TODO: check copied code from old soot
-    /*
-     * for (Local l : body.getLocals()) { if (l.getType() instanceof VoidType) { exception.add(new ValidationException(l,
-     * "Local " + l + " in " + body.getMethod() + " defined with void type")); } }
-     */
+    for (Local l : body.getLocals()) {
+      if (l.getType() instanceof VoidType) {
+        exception.add(
+            new ValidationException(
+                l, "Local " + l + " in " + body.getMethodSignature() + " defined with void type"));
+      }
+    }
   }
 
   @Override
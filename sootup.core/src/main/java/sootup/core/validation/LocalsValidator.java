@@ -22,6 +22,7 @@ package sootup.core.validation;
  * #L%
  */
 
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 import javax.annotation.Nonnull;
@@ -33,27 +34,24 @@ public class LocalsValidator implements BodyValidator {
   /** Verifies that each Local of getUses() and getDefs() belongs to this body's locals. */
   @Override
   public void validate(@Nonnull Body body, @Nonnull List<ValidationException> exception) {
-    final Set<Local> locals = body.getLocals();
-
-    body.getUses()
-        .parallelStream()
-        .filter(value -> value instanceof Local && !locals.contains(value))
-        .forEach(
-            value ->
-                exception.add(
-                    new ValidationException(
-                        value,
-                        "Local not in chain : " + value + " in " + body.getMethodSignature())));
+    validate(body, new ValidationContext(body, null), exception);
+  }
 
-    body.getDefs()
-        .parallelStream()
-        .filter(value -> value instanceof Local && !locals.contains(value))
-        .forEach(
-            value ->
-                exception.add(
-                    new ValidationException(
-                        value,
-                        "Local not in chain : " + value + " in " + body.getMethodSignature())));
+  @Override
+  public void validate(
+      @Nonnull Body body,
+      @Nonnull ValidationContext context,
+      @Nonnull List<ValidationException> exception) {
+    final Set<Local> locals = body.getLocals();
+    final Set<Local> referencedLocals = new LinkedHashSet<>(context.getUsedLocals());
+    referencedLocals.addAll(context.getDefinedLocals());
+    for (Local local : referencedLocals) {
+      if (!locals.contains(local)) {
+        exception.add(
+            new ValidationException(
+                local, "Local not in chain : " + local + " in " + body.getMethodSignature()));
+      }
+    }
   }
 
   @Override
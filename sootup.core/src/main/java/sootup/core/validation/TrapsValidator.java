@@ -23,27 +23,36 @@ package sootup.core.validation;
  */
 
 import java.util.List;
+import sootup.core.jimple.basic.Trap;
 import sootup.core.model.Body;
 
 public class TrapsValidator implements BodyValidator {
 
-  /** Verifies that the begin, end and handler units of each trap are in this body. */
+  /** Verifies that the begin, end and handler Stmt of each Trap are in the Body. */
   @Override
   public void validate(Body body, List<ValidationException> exception) {
+    validate(body, new ValidationContext(body, null), exception);
+  }
 
-    // TODO: check code from old soot below
-    /*
-     * PatchingChain<Unit> units = body.getUnits();
-     *
-     * for (Trap t : body.getTraps()) { if (!units.contains(t.getBeginUnit())) { exception.add(new
-     * ValidationException(t.getBeginUnit(), "begin not in chain" + " in " + body.getMethod())); }
-     *
-     * if (!units.contains(t.getEndUnit())) { exception.add(new ValidationException(t.getEndUnit(), "end not in chain" +
-     * " in " + body.getMethod())); }
-     *
-     * if (!units.contains(t.getHandlerUnit())) { exception.add(new ValidationException(t.getHandlerUnit(),
-     * "handler not in chain" + " in " + body.getMethod())); } }
-     */
+  @Override
+  public void validate(Body body, ValidationContext context, List<ValidationException> exception) {
+    for (Trap trap : body.getTraps()) {
+      if (!context.containsStmt(trap.getBeginStmt())) {
+        exception.add(
+            new ValidationException(
+                trap.getBeginStmt(), "begin not in chain in " + body.getMethodSignature()));
+      }
+      if (!context.containsStmt(trap.getEndStmt())) {
+        exception.add(
+            new ValidationException(
+                trap.getEndStmt(), "end not in chain in " + body.getMethodSignature()));
+      }
+      if (!context.containsStmt(trap.getHandlerStmt())) {
+        exception.add(
+            new ValidationException(
+                trap.getHandlerStmt(), "handler not in chain in " + body.getMethodSignature()));
+      }
+    }
   }
 
   @Override
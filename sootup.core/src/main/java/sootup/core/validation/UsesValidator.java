@@ -22,7 +22,11 @@ package sootup.core.validation;
  * #L%
  */
 
-import java.util.List;
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
 
 public class UsesValidator implements BodyValidator {
@@ -30,37 +34,108 @@ public class UsesValidator implements BodyValidator {
   /** Verifies that each use in this Body has a def. */
   @Override
   public void validate(Body body, List<ValidationException> exception) {
-    // TODO: auto generated stub
-    /*
-     * // Conservative validation of uses: add edges to exception handlers // even if they are not reachable. // // class C {
-     * // int a; // public void m() { // try { // a = 2; // } catch (Exception e) { // System.out.println("a: "+ a); // } //
-     * } // } // // In a graph generated from the Jimple representation there would // be no edge from "a = 2;" to "catch..."
-     * because "a = 2" can only // generate an Error, a subclass of Throwable and not of Exception. // Use of 'a' in
-     * "System.out.println" would thus trigger a 'no defs // for value' RuntimeException. // To avoid this we create an
-     * ExceptionalUnitGraph that considers all // exception handlers (even unreachable ones as the one in the code // snippet
-     * above) by using a PedanticThrowAnalysis and setting the // parameter 'omitExceptingUnitEdges' to false. // // Note
-     * that unreachable traps can be removed by setting jb.uce's // "remove-unreachable-traps" option to true.
-     *
-     * ThrowAnalysis throwAnalysis = PedanticThrowAnalysis.v(); UnitGraph g = new ExceptionalUnitGraph(body, throwAnalysis,
-     * false); LocalDefs ld = LocalDefs.Factory.newLocalDefs(g, true);
-     *
-     * Collection<Local> locals = body.getLocals(); for (Unit u : body.getUnits()) { for (ValueBox box : u.getUseBoxes()) {
-     * Value v = box.getValue(); if (v instanceof Local) { Local l = (Local) v;
-     *
-     * if (!locals.contains(l)) { String msg = "Local " + v + " is referenced here but not in body's local-chain. (" +
-     * body.getMethod() + ")"; exception.add(new ValidationException(u, msg, msg)); }
-     *
-     * if (ld.getDefsOfAt(l, u).isEmpty()) { // abroken graph is also a possible reason for undefined locals! assert
-     * graphEdgesAreValid(g, u) : "broken graph found: " + u;
-     *
-     * exception.add(new ValidationException(u, "There is no path from a definition of " + v + " to this statement.", "(" +
-     * body.getMethod() + ") no defs for value: " + l + "!")); } } } }
-     *
-     * }
-     *
-     * private boolean graphEdgesAreValid(UnitGraph g, Unit u) { /* for (Unit p : g.getPredsOf(u)) { if
-     * (!g.getSuccsOf(p).contains(u)) { return false; } } return true;
-     */
+    validate(body, new ValidationContext(body, null), exception);
+  }
+
+  /**
+   * Verifies that each used Local has a def in this Body and that a def of it reaches each use on
+   * at least one path. The check is conservative: the defs of a Stmt with exceptional flows reach
+   * the trap handlers, although the Stmt could throw before the assignment. Unreachable Stmts are
+   * not checked.
+   */
+  @Override
+  public void validate(Body body, ValidationContext context, List<ValidationException> exception) {
+    final Map<Local, Integer> localIds = new HashMap<>();
+    for (Local local : context.getUsedLocals()) {
+      if (context.getDefsOf(local).isEmpty()) {
+        exception.add(
+            new ValidationException(
+                local,
+                "There is no definition of " + local + " in this body.",
+                "(" + body.getMethodSignature() + ")"));
+      } else {
+        localIds.put(local, localIds.size());
+      }
+    }
+    final StmtGraph<?> graph = body.getStmtGraph();
+    if (localIds.isEmpty() || graph.getStartingStmt() == null) {
+      return;
+    }
+
+    // the ids of the Locals of which a def reaches the Stmt; null if the Stmt is not reached
+    final List<Stmt> stmts = context.getStmts();
+    final BitSet[] reachingDefs = new BitSet[stmts.size()];
+    final Deque<Integer> worklist = new ArrayDeque<>();
+    final BitSet queued = new BitSet(stmts.size());
+    final int start = context.indexOf(graph.getStartingStmt());
+    reachingDefs[start] = new BitSet(localIds.size());
+    worklist.add(start);
+    queued.set(start);
+    while (!worklist.isEmpty()) {
+      final int idx = worklist.poll();
+      queued.clear(idx);
+      final Stmt stmt = stmts.get(idx);
+      final BitSet out = (BitSet) reachingDefs[idx].clone();
+      stmt.forEachDef(
+          def -> {
+            final Integer id = localIds.get(def);
+            if (id != null) {
+              out.set(id);
+            }
+          });
+      for (Stmt successor : graph.successors(stmt)) {
+        propagate(context.indexOf(successor), out, reachingDefs, worklist, queued);
+      }
+      for (Stmt handler : graph.exceptionalSuccessors(stmt).values()) {
+        propagate(context.indexOf(handler), out, reachingDefs, worklist, queued);
+      }
+    }
+
+    for (int i = 0; i < stmts.size(); i++) {
+      final BitSet defs = reachingDefs[i];
+      if (defs == null) {
+        continue;
+      }
+      final Stmt stmt = stmts.get(i);
+      stmt.forEachLocalUse(
+          local -> {
+            final Integer id = localIds.get(local);
+            if (id != null && !defs.get(id)) {
+              exception.add(
+                  new ValidationException(
+                      stmt,
+                      "There is no path from a definition of "
+                          + local
+                          + " to this statement. ("
+                          + body.getMethodSignature()
+                          + ")"));
+            }
+          });
+    }
+  }
+
+  /** adds the defs to the reaching defs of the target Stmt and queues it if they changed */
+  private static void propagate(
+      int target,
+      @Nonnull BitSet defs,
+      @Nonnull BitSet[] reachingDefs,
+      @Nonnull Deque<Integer> worklist,
+      @Nonnull BitSet queued) {
+    final BitSet targetDefs = reachingDefs[target];
+    if (targetDefs == null) {
+      reachingDefs[target] = (BitSet) defs.clone();
+    } else {
+      final BitSet newDefs = (BitSet) defs.clone();
+      newDefs.andNot(targetDefs);
+      if (newDefs.isEmpty()) {
+        return;
+      }
+      targetDefs.or(newDefs);
+    }
+    if (!queued.get(target)) {
+      queued.set(target);
+      worklist.add(target);
+    }
   }
 
   @Override
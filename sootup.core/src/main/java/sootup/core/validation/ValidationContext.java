@@ -0,0 +1,130 @@
+package sootup.core.validation;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.views.View;
+
+/**
+ * Information about a Body which is needed by several validators. It is computed once per Body in a
+ * single pass over its Stmts and then shared by all validators that are run on that Body, so that
+ * each validator does not need to traverse the Body and derive it on its own.
+ */
+public class ValidationContext {
+
+  @Nonnull private final Body body;
+  @Nullable private final View<?> view;
+
+  @Nonnull private final List<Stmt> stmts;
+  @Nonnull private final Map<Stmt, Integer> stmtIndex;
+  @Nonnull private final Map<Local, List<Stmt>> defs = new HashMap<>();
+  @Nonnull private final Map<Local, List<Stmt>> uses = new HashMap<>();
+
+  /**
+   * @param body the body that is validated
+   * @param view the view the body belongs to; is needed by validators which check types
+   */
+  public ValidationContext(@Nonnull Body body, @Nullable View<?> view) {
+    this.body = body;
+    this.view = view;
+    this.stmts = body.getStmts();
+    this.stmtIndex = new IdentityHashMap<>(stmts.size());
+
+    for (int i = 0; i < stmts.size(); i++) {
+      final Stmt stmt = stmts.get(i);
+      stmtIndex.put(stmt, i);
+      stmt.forEachLocalUse(local -> uses.computeIfAbsent(local, k -> new ArrayList<>()).add(stmt));
+      stmt.forEachDef(
+          value -> {
+            if (value instanceof Local) {
+              defs.computeIfAbsent((Local) value, k -> new ArrayList<>()).add(stmt);
+            }
+          });
+    }
+  }
+
+  @Nonnull
+  public Body getBody() {
+    return body;
+  }
+
+  @Nullable
+  public View<?> getView() {
+    return view;
+  }
+
+  /** @throws IllegalStateException if the context was created without a View */
+  @Nonnull
+  public TypeHierarchy getTypeHierarchy() {
+    if (view == null) {
+      throw new IllegalStateException("There is no View given to retrieve the TypeHierarchy.");
+    }
+    return view.getTypeHierarchy();
+  }
+
+  /** @return the Stmts of the Body in linearized order */
+  @Nonnull
+  public List<Stmt> getStmts() {
+    return stmts;
+  }
+
+  /** @return the position of the stmt in {@link #getStmts()} or -1 if it is not in the Body */
+  public int indexOf(@Nonnull Stmt stmt) {
+    final Integer idx = stmtIndex.get(stmt);
+    return idx == null ? -1 : idx;
+  }
+
+  public boolean containsStmt(@Nonnull Stmt stmt) {
+    return stmtIndex.containsKey(stmt);
+  }
+
+  /** @return the Stmts which assign the given Local */
+  @Nonnull
+  public List<Stmt> getDefsOf(@Nonnull Local local) {
+    return defs.getOrDefault(local, Collections.emptyList());
+  }
+
+  /** @return the Stmts which use the given Local */
+  @Nonnull
+  public List<Stmt> getUsesOf(@Nonnull Local local) {
+    return uses.getOrDefault(local, Collections.emptyList());
+  }
+
+  /** @return all Locals which are assigned in the Body */
+  @Nonnull
+  public Set<Local> getDefinedLocals() {
+    return Collections.unmodifiableSet(defs.keySet());
+  }
+
+  /** @return all Locals which are used in the Body */
+  @Nonnull
+  public Set<Local> getUsedLocals() {
+    return Collections.unmodifiableSet(uses.keySet());
+  }
+}
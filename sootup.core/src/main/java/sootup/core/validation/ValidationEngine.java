@@ -0,0 +1,137 @@
+package sootup.core.validation;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.model.Body;
+import sootup.core.model.SootClass;
+import sootup.core.model.SootMethod;
+import sootup.core.util.ExecutorUtils;
+import sootup.core.views.View;
+
+/**
+ * Runs a set of validators over whole classes. The classes are validated in parallel, one class per
+ * task. For each Body a {@link ValidationContext} is computed once and shared by all
+ * BodyValidators.
+ *
+ * <pre>
+ * <code>
+ * ValidationEngine engine = new ValidationEngine(
+ *     Collections.emptyList(),
+ *     Arrays.asList(new LocalsValidator(), new TrapsValidator(), new UsesValidator()));
+ * ValidationReport report = engine.validate(view, 8);
+ * report.writeJson(writer);
+ * </code>
+ * </pre>
+ */
+public class ValidationEngine {
+
+  @Nonnull private final List<ClassValidator> classValidators;
+  @Nonnull private final List<BodyValidator> bodyValidators;
+
+  public ValidationEngine(
+      @Nonnull List<? extends ClassValidator> classValidators,
+      @Nonnull List<? extends BodyValidator> bodyValidators) {
+    this.classValidators = new ArrayList<>(classValidators);
+    this.bodyValidators = new ArrayList<>(bodyValidators);
+  }
+
+  /** validates all classes of the view. */
+  @Nonnull
+  public ValidationReport validate(@Nonnull View<? extends SootClass<?>> view, int parallelism) {
+    return validate(view.getClasses(), view, parallelism);
+  }
+
+  /**
+   * Validates the given classes and the bodies of their methods.
+   *
+   * @param view the view the classes belong to; is passed to the validators via the {@link
+   *     ValidationContext}
+   * @param parallelism the number of threads that validate classes
+   */
+  @Nonnull
+  public ValidationReport validate(
+      @Nonnull Collection<? extends SootClass<?>> classes,
+      @Nullable View<?> view,
+      int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be at least 1 but is " + parallelism);
+    }
+
+    final ValidationReport.Builder report = new ValidationReport.Builder();
+    final long start = System.nanoTime();
+    ExecutorUtils.forEach(classes, parallelism, cl -> validateClass(cl, view, report));
+    return report.build(System.nanoTime() - start);
+  }
+
+  private void validateClass(
+      @Nonnull SootClass<?> cl, @Nullable View<?> view, @Nonnull ValidationReport.Builder report) {
+    report.addValidatedClass();
+    final List<ValidationException> exceptions = new ArrayList<>();
+    for (ClassValidator validator : classValidators) {
+      try {
+        validator.validate(cl, exceptions);
+      } catch (ValidationException e) {
+        exceptions.add(e);
+      } catch (Exception e) {
+        report.addError(cl.getType(), null, validator.getClass().getName(), e);
+      }
+      exceptions.forEach(e -> report.addViolation(cl.getType(), null, validator, e));
+      exceptions.clear();
+    }
+
+    if (bodyValidators.isEmpty()) {
+      return;
+    }
+    for (SootMethod method : cl.getMethods()) {
+      if (!method.hasBody()) {
+        continue;
+      }
+      final Body body;
+      final ValidationContext context;
+      try {
+        body = method.getBody();
+        context = new ValidationContext(body, view);
+      } catch (Exception e) {
+        report.addError(cl.getType(), method.getSignature(), Body.class.getName(), e);
+        continue;
+      }
+      report.addValidatedBody();
+
+      for (BodyValidator validator : bodyValidators) {
+        try {
+          validator.validate(body, context, exceptions);
+        } catch (ValidationException e) {
+          exceptions.add(e);
+        } catch (Exception e) {
+          report.addError(cl.getType(), method.getSignature(), validator.getClass().getName(), e);
+        }
+        exceptions.forEach(
+            e -> report.addViolation(cl.getType(), method.getSignature(), validator, e));
+        exceptions.clear();
+      }
+    }
+  }
+}
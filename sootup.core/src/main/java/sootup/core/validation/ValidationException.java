@@ -22,40 +22,53 @@ package sootup.core.validation;
  * #L%
  */
 
+import javax.annotation.Nullable;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootMethod;
 
 public class ValidationException extends RuntimeException {
 
-  public ValidationException(SootMethod sm, String void_parameter_types_are_invalid) {
-    // TODO: auto generated stub
+  /** the element (e.g. a Local, Value, SootMethod or SootClass) which violates the validation */
+  @Nullable private final Object concerned;
 
+  public ValidationException(SootMethod sm, String message) {
+    this((Object) sm, message);
   }
 
-  public ValidationException(SootClass curClass, String circular_outer_class_chain) {
-    // TODO: auto generated stub
-
+  public ValidationException(SootClass curClass, String message) {
+    this((Object) curClass, message);
   }
 
-  public ValidationException(Local ls, String s) {
-    // TODO: auto generated stub
-
+  public ValidationException(Local ls, String message) {
+    this((Object) ls, message);
   }
 
-  public ValidationException(Value value, String s) {
-    // TODO: auto generated stub
+  public ValidationException(Value value, String message) {
+    this((Object) value, message);
+  }
 
+  public ValidationException(Stmt stmt, String message) {
+    this((Object) stmt, message);
   }
 
-  public ValidationException(Local l, String s, String s1) {
-    // TODO: auto generated stub
+  public ValidationException(Local l, String message, String detail) {
+    this((Object) l, message + " " + detail);
+  }
 
+  public ValidationException(SootMethod method, String message, String detail) {
+    this((Object) method, message + " " + detail);
   }
 
-  public ValidationException(SootMethod method, String s, String s1) {
-    // TODO: auto generated stub
+  private ValidationException(@Nullable Object concerned, String message) {
+    super(message);
+    this.concerned = concerned;
+  }
 
+  @Nullable
+  public Object getConcerned() {
+    return concerned;
   }
 }
@@ -0,0 +1,284 @@
+package sootup.core.validation;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+
+/**
+ * The result of a {@link ValidationEngine} run: the violations that were found by the validators
+ * and the errors that occurred while validating (e.g. a Body that could not be created or a
+ * validator that crashed).
+ */
+public class ValidationReport {
+
+  public enum Kind {
+    /** a validator found a violation */
+    VIOLATION,
+    /** the validation itself failed */
+    ERROR
+  }
+
+  /** A single entry of the report. */
+  public static class Finding {
+    @Nonnull private final Kind kind;
+    @Nonnull private final ClassType classType;
+    @Nullable private final MethodSignature methodSignature;
+    @Nonnull private final String validator;
+    @Nonnull private final String message;
+
+    Finding(
+        @Nonnull Kind kind,
+        @Nonnull ClassType classType,
+        @Nullable MethodSignature methodSignature,
+        @Nonnull String validator,
+        @Nullable String message) {
+      this.kind = kind;
+      this.classType = classType;
+      this.methodSignature = methodSignature;
+      this.validator = validator;
+      this.message = message == null ? "" : message;
+    }
+
+    @Nonnull
+    public Kind getKind() {
+      return kind;
+    }
+
+    @Nonnull
+    public ClassType getClassType() {
+      return classType;
+    }
+
+    /**
+     * @return the method whose body was validated or null if it is a finding of a ClassValidator
+     */
+    @Nullable
+    public MethodSignature getMethodSignature() {
+      return methodSignature;
+    }
+
+    /** @return the class name of the validator */
+    @Nonnull
+    public String getValidator() {
+      return validator;
+    }
+
+    @Nonnull
+    public String getMessage() {
+      return message;
+    }
+
+    @Override
+    public String toString() {
+      return kind
+          + " "
+          + validator
+          + " "
+          + (methodSignature == null ? classType : methodSignature)
+          + ": "
+          + message;
+    }
+  }
+
+  private final long validatedClasses;
+  private final long validatedBodies;
+  private final long wallTimeNanos;
+  @Nonnull private final List<Finding> findings;
+
+  private ValidationReport(
+      long validatedClasses, long validatedBodies, long wallTimeNanos, List<Finding> findings) {
+    this.validatedClasses = validatedClasses;
+    this.validatedBodies = validatedBodies;
+    this.wallTimeNanos = wallTimeNanos;
+    this.findings = Collections.unmodifiableList(findings);
+  }
+
+  public long getValidatedClasses() {
+    return validatedClasses;
+  }
+
+  public long getValidatedBodies() {
+    return validatedBodies;
+  }
+
+  public long getWallTimeNanos() {
+    return wallTimeNanos;
+  }
+
+  /** @return all findings sorted by class, method and validator */
+  @Nonnull
+  public List<Finding> getFindings() {
+    return findings;
+  }
+
+  @Nonnull
+  public List<Finding> getViolations() {
+    return findings.stream().filter(f -> f.kind == Kind.VIOLATION).collect(Collectors.toList());
+  }
+
+  @Nonnull
+  public List<Finding> getErrors() {
+    return findings.stream().filter(f -> f.kind == Kind.ERROR).collect(Collectors.toList());
+  }
+
+  /** @return true if there are neither violations nor errors */
+  public boolean isValid() {
+    return findings.isEmpty();
+  }
+
+  /**
+   * Writes the report as a JSON object with the counters and an array of all findings e.g. to be
+   * processed in a CI pipeline.
+   */
+  public void writeJson(@Nonnull Writer out) throws IOException {
+    out.write("{\"validatedClasses\":" + validatedClasses);
+    out.write(",\"validatedBodies\":" + validatedBodies);
+    out.write(",\"wallTimeNanos\":" + wallTimeNanos);
+    out.write(",\"findings\":[");
+    for (int i = 0; i < findings.size(); i++) {
+      final Finding finding = findings.get(i);
+      if (i > 0) {
+        out.write(',');
+      }
+      out.write("\n{\"kind\":");
+      writeJsonString(out, finding.kind.name());
+      out.write(",\"class\":");
+      writeJsonString(out, finding.classType.getFullyQualifiedName());
+      out.write(",\"method\":");
+      if (finding.methodSignature == null) {
+        out.write("null");
+      } else {
+        writeJsonString(out, finding.methodSignature.toString());
+      }
+      out.write(",\"validator\":");
+      writeJsonString(out, finding.validator);
+      out.write(",\"message\":");
+      writeJsonString(out, finding.message);
+      out.write('}');
+    }
+    out.write("]}\n");
+  }
+
+  private static void writeJsonString(@Nonnull Writer out, @Nonnull String str) throws IOException {
+    out.write('"');
+    for (int i = 0; i < str.length(); i++) {
+      final char c = str.charAt(i);
+      switch (c) {
+        case '"':
+          out.write("\\\"");
+          break;
+        case '\\':
+          out.write("\\\\");
+          break;
+        case '\n':
+          out.write("\\n");
+          break;
+        case '\r':
+          out.write("\\r");
+          break;
+        case '\t':
+          out.write("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            out.write(String.format("\\u%04x", (int) c));
+          } else {
+            out.write(c);
+          }
+      }
+    }
+    out.write('"');
+  }
+
+  @Override
+  public String toString() {
+    return "ValidationReport{"
+        + "validatedClasses="
+        + validatedClasses
+        + ", validatedBodies="
+        + validatedBodies
+        + ", violations="
+        + getViolations().size()
+        + ", errors="
+        + getErrors().size()
+        + '}';
+  }
+
+  /** Collects the findings; can be used concurrently. */
+  static class Builder {
+    private final LongAdder validatedClasses = new LongAdder();
+    private final LongAdder validatedBodies = new LongAdder();
+    private final Queue<Finding> findings = new ConcurrentLinkedQueue<>();
+
+    void addValidatedClass() {
+      validatedClasses.increment();
+    }
+
+    void addValidatedBody() {
+      validatedBodies.increment();
+    }
+
+    void addViolation(
+        @Nonnull ClassType classType,
+        @Nullable MethodSignature methodSignature,
+        @Nonnull Object validator,
+        @Nonnull ValidationException exception) {
+      findings.add(
+          new Finding(
+              Kind.VIOLATION,
+              classType,
+              methodSignature,
+              validator.getClass().getName(),
+              exception.getMessage()));
+    }
+
+    void addError(
+        @Nonnull ClassType classType,
+        @Nullable MethodSignature methodSignature,
+        @Nonnull String origin,
+        @Nonnull Throwable error) {
+      findings.add(new Finding(Kind.ERROR, classType, methodSignature, origin, error.toString()));
+    }
+
+    @Nonnull
+    ValidationReport build(long wallTimeNanos) {
+      final List<Finding> sortedFindings = new ArrayList<>(findings);
+      sortedFindings.sort(
+          Comparator.comparing((Finding f) -> f.classType.getFullyQualifiedName())
+              .thenComparing(f -> f.methodSignature == null ? "" : f.methodSignature.toString())
+              .thenComparing(f -> f.validator)
+              .thenComparing(f -> f.message));
+      return new ValidationReport(
+          validatedClasses.sum(), validatedBodies.sum(), wallTimeNanos, sortedFindings);
+    }
+  }
+}
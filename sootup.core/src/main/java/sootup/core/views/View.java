@@ -32,6 +32,7 @@ import javax.annotation.Nullable;
 import sootup.core.IdentifierFactory;
 import sootup.core.Project;
 import sootup.core.Scope;
+import sootup.core.cache.BodyCache;
 import sootup.core.frontend.ResolveException;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.model.SootClass;
@@ -56,6 +57,12 @@ public interface View<T extends SootClass> {
   @Nonnull
   List<BodyInterceptor> getBodyInterceptors(AnalysisInputLocation inputLocation);
 
+  /** Returns the cache for the method bodies of the given input location if one is configured. */
+  @Nonnull
+  default Optional<BodyCache> getBodyCache(AnalysisInputLocation inputLocation) {
+    return Optional.empty();
+  }
+
   /** Return all classes in the view. */
   @Nonnull
   Collection<T> getClasses();
@@ -0,0 +1,63 @@
+package sootup.core.graph;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.*;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.stmt.JNopStmt;
+import sootup.core.jimple.common.stmt.JReturnVoidStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+
+@Category(Java8Test.class)
+public class CachingStmtGraphTest {
+
+  private final Stmt firstNop = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+  private final Stmt secondNop = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+  private final Stmt returnStmt = new JReturnVoidStmt(StmtPositionInfo.createNoStmtPositionInfo());
+
+  private MutableBlockStmtGraph createGraph() {
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(firstNop);
+    graph.putEdge(firstNop, secondNop);
+    graph.putEdge(secondNop, returnStmt);
+    return graph;
+  }
+
+  @Test
+  public void memoizedViews() {
+    final MutableBlockStmtGraph backingGraph = createGraph();
+    final CachingStmtGraph<?> graph = new CachingStmtGraph<>(backingGraph);
+
+    assertEquals(backingGraph.getStmts(), graph.getStmts());
+    assertSame(graph.getStmts(), graph.getStmts());
+    assertSame(graph.getTraps(), graph.getTraps());
+    assertSame(graph.getTails(), graph.getTails());
+    assertSame(graph.getEntrypoints(), graph.getEntrypoints());
+    assertEquals(Collections.singletonList(returnStmt), graph.getTails());
+    assertEquals(Collections.singletonList(firstNop), graph.getEntrypoints());
+
+    try {
+      graph.getStmts().remove(0);
+      fail();
+    } catch (UnsupportedOperationException ignore) {
+    }
+  }
+
+  @Test
+  public void builderStmtsAreRecomputedAfterModification() {
+    final Body.BodyBuilder builder = Body.builder(createGraph());
+    final List<Stmt> stmts = builder.getStmts();
+    assertEquals(Arrays.asList(firstNop, secondNop, returnStmt), stmts);
+
+    // the returned List is a copy
+    stmts.clear();
+    assertEquals(Arrays.asList(firstNop, secondNop, returnStmt), builder.getStmts());
+
+    builder.getStmtGraph().removeNode(secondNop);
+    assertEquals(Arrays.asList(firstNop, returnStmt), builder.getStmts());
+  }
+}
@@ -0,0 +1,168 @@
+package sootup.core.graph;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.*;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.expr.JLeExpr;
+import sootup.core.jimple.common.ref.JCaughtExceptionRef;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.signatures.MethodSubSignature;
+import sootup.core.signatures.PackageName;
+import sootup.core.types.ClassType;
+import sootup.core.types.UnknownType;
+import sootup.core.types.VoidType;
+
+@Category(Java8Test.class)
+public class ImmutableBlockStmtGraphTest {
+
+  private final ClassType exceptionSig =
+      new ClassType() {
+        @Override
+        public boolean isBuiltInClass() {
+          return true;
+        }
+
+        @Override
+        public String getFullyQualifiedName() {
+          return getPackageName() + "." + getClassName();
+        }
+
+        @Override
+        public String getClassName() {
+          return "Exception";
+        }
+
+        @Override
+        public PackageName getPackageName() {
+          return new PackageName("java.lang");
+        }
+      };
+
+  private final Stmt firstNop = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+  private final Stmt secondNop = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+  private final Stmt ifStmt =
+      new JIfStmt(
+          new JLeExpr(IntConstant.getInstance(2), IntConstant.getInstance(3)),
+          StmtPositionInfo.createNoStmtPositionInfo());
+  private final Stmt gotoStmt = new JGotoStmt(StmtPositionInfo.createNoStmtPositionInfo());
+  private final Stmt returnStmt = new JReturnVoidStmt(StmtPositionInfo.createNoStmtPositionInfo());
+  private final Stmt handlerStmt =
+      new JIdentityStmt<>(
+          new Local("ex", UnknownType.getInstance()),
+          new JCaughtExceptionRef(UnknownType.getInstance()),
+          StmtPositionInfo.createNoStmtPositionInfo());
+  private final Stmt handlerReturn =
+      new JReturnVoidStmt(StmtPositionInfo.createNoStmtPositionInfo());
+
+  private MutableBlockStmtGraph createGraph() {
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(firstNop);
+    graph.addNode(firstNop);
+    graph.addNode(secondNop, Collections.singletonMap(exceptionSig, handlerStmt));
+    graph.putEdge(firstNop, secondNop);
+    graph.putEdge(secondNop, ifStmt);
+    graph.putEdge(ifStmt, gotoStmt);
+    graph.putEdge(ifStmt, returnStmt);
+    graph.putEdge(gotoStmt, returnStmt);
+    graph.putEdge(handlerStmt, handlerReturn);
+    return graph;
+  }
+
+  @Test
+  public void copyOf() {
+    final MutableBlockStmtGraph graph = createGraph();
+    final ImmutableBlockStmtGraph immutableGraph = new ImmutableBlockStmtGraph(graph);
+
+    assertEquals(graph.getStartingStmt(), immutableGraph.getStartingStmt());
+    assertEquals(graph.getStmts(), immutableGraph.getStmts());
+    assertEquals(graph.getStmts(), immutableGraph.getNodes());
+    assertEquals(graph.getBlocks().size(), immutableGraph.getBlocks().size());
+    assertEquals(graph.getTraps(), immutableGraph.getTraps());
+    assertEquals(new HashSet<>(graph.getTails()), new HashSet<>(immutableGraph.getTails()));
+
+    for (Stmt node : graph.getNodes()) {
+      assertTrue(immutableGraph.containsNode(node));
+      assertEquals(graph.successors(node), immutableGraph.successors(node));
+      assertEquals(graph.predecessors(node), immutableGraph.predecessors(node));
+      assertEquals(graph.exceptionalSuccessors(node), immutableGraph.exceptionalSuccessors(node));
+      assertEquals(graph.inDegree(node), immutableGraph.inDegree(node));
+      assertEquals(graph.outDegree(node), immutableGraph.outDegree(node));
+      assertEquals(graph.getBlockOf(node).getStmts(), immutableGraph.getBlockOf(node).getStmts());
+      for (Stmt target : graph.getNodes()) {
+        assertEquals(
+            graph.hasEdgeConnecting(node, target), immutableGraph.hasEdgeConnecting(node, target));
+      }
+    }
+
+    assertEquals(
+        Arrays.asList(secondNop, ifStmt), immutableGraph.exceptionalPredecessors(handlerStmt));
+    assertEquals(
+        Collections.singletonMap(exceptionSig, immutableGraph.getBlockOf(secondNop)),
+        immutableGraph.getBlockOf(handlerStmt).getExceptionalPredecessors());
+
+    assertFalse(
+        immutableGraph.containsNode(new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo())));
+
+    // copying it back results in the same graph
+    assertEquals(graph, new MutableBlockStmtGraph(immutableGraph));
+    assertEquals(graph, immutableGraph);
+  }
+
+  @Test
+  public void isUnmodifiable() {
+    final ImmutableBlockStmtGraph immutableGraph = new ImmutableBlockStmtGraph(createGraph());
+    try {
+      immutableGraph.getNodes().add(firstNop);
+      fail();
+    } catch (UnsupportedOperationException ignore) {
+    }
+    try {
+      immutableGraph.getBlockOf(firstNop).getStmts().remove(0);
+      fail();
+    } catch (UnsupportedOperationException ignore) {
+    }
+  }
+
+  @Test
+  public void emptyGraph() {
+    final ImmutableBlockStmtGraph immutableGraph =
+        new ImmutableBlockStmtGraph(new MutableBlockStmtGraph());
+    assertNull(immutableGraph.getStartingStmt());
+    assertTrue(immutableGraph.getNodes().isEmpty());
+    assertTrue(immutableGraph.getBlocks().isEmpty());
+    assertTrue(immutableGraph.getTraps().isEmpty());
+    assertFalse(immutableGraph.iterator().hasNext());
+  }
+
+  @Test
+  public void compactBody() {
+    final MethodSignature methodSignature =
+        new MethodSignature(
+            exceptionSig,
+            new MethodSubSignature("foo", Collections.emptyList(), VoidType.getInstance()));
+    final Body body =
+        Body.builder(createGraph())
+            .setMethodSignature(methodSignature)
+            .setCompactStmtGraph(true)
+            .build();
+    assertTrue(body.getStmtGraph() instanceof ImmutableBlockStmtGraph);
+
+    // modifying a compact body results in a compact body again
+    final Body.BodyBuilder builder = Body.builder(body, Collections.emptySet());
+    assertTrue(builder.isCompactStmtGraph());
+    builder.removeStmt(firstNop);
+    builder.setStartingStmt(secondNop);
+    final Body modifiedBody = builder.build();
+    assertTrue(modifiedBody.getStmtGraph() instanceof ImmutableBlockStmtGraph);
+    assertEquals(secondNop, modifiedBody.getStmtGraph().getStartingStmt());
+    assertTrue(body.getStmtGraph().containsNode(firstNop));
+  }
+}
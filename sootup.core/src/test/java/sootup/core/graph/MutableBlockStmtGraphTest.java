@@ -7,6 +7,8 @@ import java.util.*;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import sootup.core.graph.throwanalysis.ThrowAnalysis;
+import sootup.core.graph.throwanalysis.ThrowableSet;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.StmtPositionInfo;
 import sootup.core.jimple.basic.Trap;
@@ -135,6 +137,49 @@ public class MutableBlockStmtGraphTest {
     assertEquals(Arrays.asList(firstNop, thirdNop), graph.getBlocksSorted().get(0).getStmts());
   }
 
+  @Test
+  public void changeTrackingTest() {
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(firstNop);
+    graph.putEdge(firstNop, secondNop);
+    graph.putEdge(secondNop, thirdNop);
+
+    try {
+      graph.getModifiedStmtsSince(0);
+      fail("change tracking is not enabled yet");
+    } catch (IllegalStateException ignored) {
+    }
+
+    graph.enableChangeTracking();
+    final long mark = graph.getModificationCount();
+    assertTrue(graph.getModifiedStmtsSince(mark).isEmpty());
+
+    Stmt replacement = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    graph.replaceNode(secondNop, replacement);
+    assertTrue(graph.getModificationCount() > mark);
+    assertEquals(Collections.singleton(replacement), graph.getModifiedStmtsSince(mark));
+
+    // removing a stmt touches its neighbours as their flows change
+    final long secondMark = graph.getModificationCount();
+    graph.removeNode(replacement);
+    Set<Stmt> modified = graph.getModifiedStmtsSince(secondMark);
+    assertEquals(2, modified.size());
+    assertTrue(modified.contains(firstNop));
+    assertTrue(modified.contains(thirdNop));
+    assertFalse(graph.getModifiedStmtsSince(mark).contains(replacement));
+    assertEquals(1, graph.getModifiedBlocksSince(mark).size());
+
+    // no modification in between
+    final long thirdMark = graph.getModificationCount();
+    assertTrue(graph.getModifiedStmtsSince(thirdMark).isEmpty());
+
+    // the recorded stmts are discarded, the modifications are still counted
+    graph.disableChangeTracking();
+    assertFalse(graph.isChangeTrackingEnabled());
+    graph.removeNode(thirdNop);
+    assertTrue(graph.getModificationCount() > thirdMark);
+  }
+
   @Test
   public void removeStmtTail() {
     MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
@@ -1007,4 +1052,216 @@ public class MutableBlockStmtGraphTest {
     assertEquals(1, graph.successors(stmt1).size());
     assertTrue(graph.successors(stmt1).contains(stmt2));
   }
+
+  @Test
+  public void insertBeforeBlockHead() {
+    Stmt stmt1 = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    Stmt stmt2 = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    Stmt inserted = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    Stmt gotoStmt = new JGotoStmt(StmtPositionInfo.createNoStmtPositionInfo());
+
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(stmt1);
+    graph.putEdge(stmt1, stmt2);
+    graph.putEdge(stmt2, gotoStmt);
+    graph.putEdge(gotoStmt, stmt2);
+    assertEquals(2, graph.getBlocks().size());
+
+    // stmt2 is the head of a loop block: both of its predecessors have to reach the inserted Stmt
+    graph.insertBefore(stmt2, inserted);
+    assertEquals(Collections.singletonList(stmt2), graph.successors(inserted));
+    assertEquals(Arrays.asList(stmt1, gotoStmt), graph.predecessors(inserted));
+    assertEquals(Collections.singletonList(inserted), graph.predecessors(stmt2));
+    assertEquals(Collections.singletonList(inserted), graph.successors(gotoStmt));
+    assertEquals(2, graph.getBlocks().size());
+
+    // the starting Stmt heads a block without predecessors: the blocks are merged
+    Stmt newStart = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    graph.insertBefore(stmt1, newStart);
+    assertEquals(newStart, graph.getStartingStmt());
+    assertEquals(Collections.singletonList(stmt1), graph.successors(newStart));
+    assertEquals(2, graph.getBlocks().size());
+  }
+
+  @Test
+  public void removeNodesInBatch() {
+    Stmt gotoStmt = new JGotoStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    Stmt returnStmt = new JReturnVoidStmt(StmtPositionInfo.createNoStmtPositionInfo());
+
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(firstNop);
+    graph.putEdge(firstNop, conditionalStmt);
+    graph.putEdge(conditionalStmt, secondNop);
+    graph.putEdge(conditionalStmt, gotoStmt);
+    graph.putEdge(secondNop, thirdNop);
+    graph.putEdge(thirdNop, returnStmt);
+    graph.putEdge(gotoStmt, returnStmt);
+    assertEquals(4, graph.getBlocks().size());
+
+    // the block of secondNop and thirdNop becomes empty: its predecessor is linked to its successor
+    MutableStmtGraph.Batch batch = graph.startBatch();
+    Arrays.asList(firstNop, secondNop, thirdNop).forEach(batch::removeNode);
+    batch.commit();
+    assertEquals(conditionalStmt, graph.getStartingStmt());
+    assertEquals(3, graph.getNodes().size());
+    assertEquals(3, graph.getBlocks().size());
+    assertEquals(Arrays.asList(returnStmt, gotoStmt), graph.successors(conditionalStmt));
+    assertEquals(Arrays.asList(gotoStmt, conditionalStmt), graph.predecessors(returnStmt));
+    assertEquals(1, graph.getBlockOf(conditionalStmt).getStmts().size());
+  }
+
+  @Test
+  public void initializeWithThrowAnalysis() {
+    Stmt returnStmt = new JReturnVoidStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    Stmt handlerReturnStmt = new JReturnVoidStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    ThrowAnalysis throwAnalysis =
+        stmt -> stmt == secondNop ? ThrowableSet.empty().add(ioExceptionSig) : ThrowableSet.empty();
+
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.initializeWith(
+        Arrays.asList(
+            firstNop, secondNop, thirdNop, returnStmt, secondHandlerStmt, handlerReturnStmt),
+        Collections.emptyMap(),
+        Collections.singletonList(
+            new Trap(ioExceptionSig, firstNop, returnStmt, secondHandlerStmt)),
+        throwAnalysis);
+
+    assertTrue(graph.exceptionalSuccessors(firstNop).isEmpty());
+    assertEquals(
+        Collections.singletonMap(ioExceptionSig, secondHandlerStmt),
+        graph.exceptionalSuccessors(secondNop));
+    assertTrue(graph.exceptionalSuccessors(thirdNop).isEmpty());
+    assertEquals(
+        Collections.singletonList(new Trap(ioExceptionSig, secondNop, thirdNop, secondHandlerStmt)),
+        graph.getTraps());
+  }
+
+  @Test
+  public void removeExceptionalEdge() {
+    Stmt returnStmt = new JReturnVoidStmt(StmtPositionInfo.createNoStmtPositionInfo());
+
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.addBlock(
+        Arrays.asList(firstNop, secondNop, thirdNop),
+        Collections.singletonMap(ioExceptionSig, secondHandlerStmt));
+    graph.putEdge(secondHandlerStmt, returnStmt);
+    graph.setStartingStmt(firstNop);
+
+    // only the given stmt loses its exceptional flow
+    graph.removeExceptionalEdge(secondNop, ioExceptionSig);
+    assertEquals(
+        Collections.singletonMap(ioExceptionSig, secondHandlerStmt),
+        graph.exceptionalSuccessors(firstNop));
+    assertTrue(graph.exceptionalSuccessors(secondNop).isEmpty());
+    assertEquals(
+        Collections.singletonMap(ioExceptionSig, secondHandlerStmt),
+        graph.exceptionalSuccessors(thirdNop));
+    assertEquals(Collections.singletonList(secondNop), graph.successors(firstNop));
+    assertEquals(Collections.singletonList(thirdNop), graph.successors(secondNop));
+
+    // the head of a block
+    graph.removeExceptionalEdge(firstNop, ioExceptionSig);
+    assertTrue(graph.exceptionalSuccessors(firstNop).isEmpty());
+    assertEquals(Collections.singletonList(secondNop), graph.successors(firstNop));
+    assertEquals(Arrays.asList(firstNop, secondNop), graph.getBlockOf(firstNop).getStmts());
+    assertEquals(
+        Collections.singletonList(
+            new Trap(ioExceptionSig, thirdNop, secondHandlerStmt, secondHandlerStmt)),
+        graph.getTraps());
+
+    try {
+      graph.removeExceptionalEdge(secondNop, ioExceptionSig);
+      fail();
+    } catch (IllegalArgumentException ignore) {
+    }
+  }
+
+  @Test
+  public void commitBatch() {
+    Stmt gotoStmt = new JGotoStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    Stmt returnStmt = new JReturnVoidStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    Stmt replacingNop = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    Stmt insertedNop = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    Stmt replacingGoto = new JGotoStmt(StmtPositionInfo.createNoStmtPositionInfo());
+
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.setStartingStmt(firstNop);
+    graph.putEdge(firstNop, conditionalStmt);
+    graph.putEdge(conditionalStmt, secondNop);
+    graph.putEdge(conditionalStmt, gotoStmt);
+    graph.putEdge(secondNop, thirdNop);
+    graph.putEdge(thirdNop, returnStmt);
+    graph.putEdge(gotoStmt, returnStmt);
+    assertEquals(4, graph.getBlocks().size());
+
+    MutableStmtGraph.Batch batch = graph.startBatch();
+    batch.removeNode(firstNop);
+    batch.replaceNode(secondNop, replacingNop);
+    batch.insertBefore(returnStmt, insertedNop);
+    batch.replaceNode(conditionalStmt, replacingGoto);
+    batch.setEdges(replacingGoto, Collections.singletonList(secondNop));
+    // nothing is applied before the commit
+    assertEquals(6, graph.getNodes().size());
+    batch.commit();
+
+    assertEquals(replacingGoto, graph.getStartingStmt());
+    assertFalse(graph.containsNode(firstNop));
+    assertFalse(graph.containsNode(secondNop));
+    assertFalse(graph.containsNode(conditionalStmt));
+    assertEquals(Collections.singletonList(replacingNop), graph.successors(replacingGoto));
+    assertEquals(Collections.singletonList(thirdNop), graph.successors(replacingNop));
+    assertEquals(Collections.singletonList(insertedNop), graph.successors(thirdNop));
+    assertEquals(Collections.singletonList(insertedNop), graph.successors(gotoStmt));
+    assertEquals(Collections.singletonList(returnStmt), graph.successors(insertedNop));
+    assertEquals(Collections.singletonList(insertedNop), graph.predecessors(returnStmt));
+    assertEquals(
+        new HashSet<>(Arrays.asList(thirdNop, gotoStmt)),
+        new HashSet<>(graph.predecessors(insertedNop)));
+    assertEquals(4, graph.getBlocks().size());
+    assertEquals(Arrays.asList(replacingNop, thirdNop), graph.getBlockOf(thirdNop).getStmts());
+    assertEquals(Arrays.asList(insertedNop, returnStmt), graph.getBlockOf(insertedNop).getStmts());
+    graph.validateBlocks();
+
+    try {
+      batch.commit();
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+  }
+
+  @Test
+  public void commitBatchWithTraps() {
+    Stmt returnStmt = new JReturnVoidStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    Stmt handlerReturnStmt = new JReturnVoidStmt(StmtPositionInfo.createNoStmtPositionInfo());
+    Stmt insertedNop = new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo());
+
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.addBlock(
+        Arrays.asList(firstNop, secondNop, thirdNop),
+        Collections.singletonMap(ioExceptionSig, secondHandlerStmt));
+    graph.putEdge(thirdNop, returnStmt);
+    graph.putEdge(secondHandlerStmt, handlerReturnStmt);
+    graph.setStartingStmt(firstNop);
+
+    MutableStmtGraph.Batch batch = graph.startBatch();
+    batch.removeNode(secondNop);
+    // the inserted Stmt is not covered by the trap
+    batch.insertBefore(thirdNop, Collections.singletonList(insertedNop), Collections.emptyMap());
+    batch.commit();
+
+    assertEquals(Collections.singletonList(insertedNop), graph.successors(firstNop));
+    assertEquals(Collections.singletonList(thirdNop), graph.successors(insertedNop));
+    assertEquals(
+        Collections.singletonMap(ioExceptionSig, secondHandlerStmt),
+        graph.exceptionalSuccessors(firstNop));
+    assertTrue(graph.exceptionalSuccessors(insertedNop).isEmpty());
+    assertEquals(
+        Collections.singletonMap(ioExceptionSig, secondHandlerStmt),
+        graph.exceptionalSuccessors(thirdNop));
+    assertEquals(Collections.singletonList(firstNop), graph.getBlockOf(firstNop).getStmts());
+    final List<Trap> traps = graph.getTraps();
+    assertEquals(2, traps.size());
+    assertEquals(new Trap(ioExceptionSig, firstNop, insertedNop, secondHandlerStmt), traps.get(0));
+    graph.validateBlocks();
+  }
 }
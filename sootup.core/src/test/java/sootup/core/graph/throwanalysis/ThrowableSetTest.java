@@ -0,0 +1,94 @@
+package sootup.core.graph.throwanalysis;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.signatures.PackageName;
+import sootup.core.types.ClassType;
+
+@Category(Java8Test.class)
+public class ThrowableSetTest {
+
+  private final ClassType throwable = classType("java.lang", "Throwable");
+  private final ClassType runtimeException = classType("java.lang", "RuntimeException");
+  private final ClassType nullPointerException = classType("java.lang", "NullPointerException");
+  private final ClassType arithmeticException = classType("java.lang", "ArithmeticException");
+  private final ClassType ioException = classType("java.io", "IOException");
+  private final ClassType customException = classType("my.pkg", "CustomException");
+
+  private static ClassType classType(String packageName, String className) {
+    return new ClassType() {
+      @Override
+      public boolean isBuiltInClass() {
+        return false;
+      }
+
+      @Override
+      public String getFullyQualifiedName() {
+        return getPackageName() + "." + getClassName();
+      }
+
+      @Override
+      public String getClassName() {
+        return className;
+      }
+
+      @Override
+      public PackageName getPackageName() {
+        return new PackageName(packageName);
+      }
+    };
+  }
+
+  @Test
+  public void catchableAs() {
+    final ThrowableSet set = ThrowableSet.empty().add(nullPointerException);
+    assertTrue(set.catchableAs(nullPointerException, null));
+    assertTrue(set.catchableAs(runtimeException, null));
+    assertTrue(set.catchableAs(throwable, null));
+    assertFalse(set.catchableAs(arithmeticException, null));
+    assertFalse(set.catchableAs(ioException, null));
+    assertFalse(ThrowableSet.empty().catchableAs(throwable, null));
+
+    // a subtype of a type with subtypes might be thrown
+    final ThrowableSet withSubtypes = ThrowableSet.empty().addWithSubtypes(runtimeException);
+    assertTrue(withSubtypes.catchableAs(arithmeticException, null));
+    assertFalse(withSubtypes.catchableAs(ioException, null));
+
+    // well-known types are never subtypes of other types
+    assertFalse(set.catchableAs(customException, null));
+    // without a TypeHierarchy other types are assumed to be caught
+    assertTrue(ThrowableSet.empty().add(customException).catchableAs(runtimeException, null));
+  }
+
+  @Test
+  public void whichEscape() {
+    final ThrowableSet set =
+        ThrowableSet.empty()
+            .add(nullPointerException)
+            .add(ioException)
+            .addWithSubtypes(runtimeException);
+
+    assertEquals(ThrowableSet.empty().add(ioException), set.whichEscape(runtimeException, null));
+    // only some of the subtypes of RuntimeException are caught
+    assertEquals(
+        ThrowableSet.empty().add(ioException).addWithSubtypes(runtimeException),
+        set.whichEscape(nullPointerException, null));
+    assertTrue(set.whichEscape(throwable, null).isEmpty());
+    // well-known types are never caught by other types
+    assertEquals(set, set.whichEscape(customException, null));
+  }
+
+  @Test
+  public void union() {
+    final ThrowableSet first = ThrowableSet.empty().add(nullPointerException);
+    final ThrowableSet second = ThrowableSet.empty().addWithSubtypes(runtimeException);
+    final ThrowableSet union = first.union(second);
+    assertEquals(union, second.union(first));
+    assertTrue(union.getExactTypes().contains(nullPointerException));
+    assertTrue(union.getTypesWithSubtypes().contains(runtimeException));
+    assertSame(first, first.union(ThrowableSet.empty()));
+  }
+}
@@ -0,0 +1,44 @@
+package sootup.core.util;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(Java8Test.class)
+public class ExecutorUtilsTest {
+
+  @Test
+  public void forEach() {
+    List<Integer> items = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+    for (int parallelism : new int[] {1, 4}) {
+      Set<Integer> processed = ConcurrentHashMap.newKeySet();
+      ExecutorUtils.forEach(items, parallelism, processed::add);
+      assertEquals(items.size(), processed.size());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void forEachWithoutThreads() {
+    ExecutorUtils.forEach(IntStream.range(0, 10).boxed().collect(Collectors.toList()), 0, i -> {});
+  }
+
+  @Test
+  public void boundedExecutor() throws InterruptedException {
+    ThreadPoolExecutor executor = ExecutorUtils.newBoundedExecutor(1, 1, "test-worker");
+    Set<String> threadNames = ConcurrentHashMap.newKeySet();
+    for (int i = 0; i < 100; i++) {
+      executor.execute(() -> threadNames.add(Thread.currentThread().getName()));
+    }
+    assertTrue(ExecutorUtils.shutdownAndAwaitTermination(executor));
+    assertTrue(executor.isTerminated());
+    assertTrue(threadNames.contains("test-worker"));
+  }
+}
@@ -21,10 +21,18 @@ package sootup.java.bytecode.frontend;
  * #L%
  */
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.objectweb.asm.MethodVisitor;
 import org.objectweb.asm.tree.ClassNode;
+import sootup.core.cache.BodyCache;
 import sootup.core.frontend.AbstractClassSource;
 import sootup.core.frontend.ClassProvider;
 import sootup.core.frontend.ResolveException;
@@ -32,6 +40,7 @@ import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.inputlocation.FileType;
 import sootup.core.jimple.basic.NoPositionInformation;
 import sootup.core.model.SootClass;
+import sootup.core.transform.BodyInterceptor;
 import sootup.core.types.ClassType;
 import sootup.core.views.View;
 import sootup.java.core.JavaModuleIdentifierFactory;
@@ -54,10 +63,25 @@ public class AsmJavaClassProvider implements ClassProvider<JavaSootClass> {
       AnalysisInputLocation<? extends SootClass<?>> analysisInputLocation,
       Path sourcePath,
       ClassType classType) {
-    SootClassNode classNode = new SootClassNode(analysisInputLocation);
+    final Optional<BodyCache> bodyCache = view.getBodyCache(analysisInputLocation);
+    SootClassNode classNode;
 
     try {
-      AsmUtil.initAsmClassSource(sourcePath, classNode);
+      if (bodyCache.isPresent()) {
+        // the bodies of the class are cached under the hash of its class file and interceptors
+        final byte[] classFile = Files.readAllBytes(sourcePath);
+        final List<BodyInterceptor> bodyInterceptors =
+            view.getBodyInterceptors(analysisInputLocation);
+        classNode =
+            new SootClassNode(
+                analysisInputLocation,
+                bodyCache.get(),
+                bodyCacheKeyOf(classFile, bodyInterceptors));
+        AsmUtil.initAsmClassSource(classFile, classNode);
+      } else {
+        classNode = new SootClassNode(analysisInputLocation, null, null);
+        AsmUtil.initAsmClassSource(sourcePath, classNode);
+      }
     } catch (IOException exception) {
       throw new ResolveException(
           exception.getMessage(), sourcePath, NoPositionInformation.getInstance(), exception);
@@ -78,6 +102,38 @@ public class AsmJavaClassProvider implements ClassProvider<JavaSootClass> {
     }
   }
 
+  /**
+   * @return a hash of the class file and of the configuration of the interceptors that are applied
+   *     to its bodies i.e. everything the resulting bodies depend on, or null if an interceptor has
+   *     no {@link BodyInterceptor#cacheKey()} so that the bodies must not be cached
+   */
+  @Nullable
+  private static String bodyCacheKeyOf(
+      @Nonnull byte[] classFile, @Nonnull List<BodyInterceptor> bodyInterceptors) {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform supports SHA-256
+      throw new IllegalStateException(e);
+    }
+    digest.update(classFile);
+    for (BodyInterceptor interceptor : bodyInterceptors) {
+      final String interceptorKey = interceptor.cacheKey();
+      if (interceptorKey == null) {
+        return null;
+      }
+      digest.update(interceptorKey.getBytes(StandardCharsets.UTF_8));
+      // separates the keys so that their concatenation is unambiguous
+      digest.update((byte) 0);
+    }
+    final StringBuilder key = new StringBuilder(64);
+    for (byte b : digest.digest()) {
+      key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+    }
+    return key.toString();
+  }
+
   @Override
   @Nonnull
   public FileType getHandledFileType() {
@@ -87,10 +143,17 @@ public class AsmJavaClassProvider implements ClassProvider<JavaSootClass> {
   class SootClassNode extends ClassNode {
 
     private final AnalysisInputLocation<? extends SootClass<?>> analysisInputLocation;
+    @Nullable private final BodyCache bodyCache;
+    @Nullable private final String bodyCacheKey;
 
-    SootClassNode(AnalysisInputLocation<? extends SootClass<?>> analysisInputLocation) {
+    SootClassNode(
+        AnalysisInputLocation<? extends SootClass<?>> analysisInputLocation,
+        @Nullable BodyCache bodyCache,
+        @Nullable String bodyCacheKey) {
       super(AsmUtil.SUPPORTED_ASM_OPCODE);
       this.analysisInputLocation = analysisInputLocation;
+      this.bodyCache = bodyCache;
+      this.bodyCacheKey = bodyCacheKey;
     }
 
     @Override
@@ -110,7 +173,9 @@ public class AsmJavaClassProvider implements ClassProvider<JavaSootClass> {
               signature,
               exceptions,
               view,
-              view.getBodyInterceptors(analysisInputLocation));
+              view.getBodyInterceptors(analysisInputLocation),
+              bodyCache,
+              bodyCacheKey);
       methods.add(mn);
       return mn;
     }
@@ -51,6 +51,7 @@ import javax.annotation.Nullable;
 import org.objectweb.asm.Handle;
 import org.objectweb.asm.commons.JSRInlinerAdapter;
 import org.objectweb.asm.tree.*;
+import sootup.core.cache.BodyCache;
 import sootup.core.frontend.BodySource;
 import sootup.core.graph.MutableBlockStmtGraph;
 import sootup.core.jimple.Jimple;
@@ -81,6 +82,7 @@ import sootup.core.model.*;
 import sootup.core.signatures.FieldSignature;
 import sootup.core.signatures.MethodSignature;
 import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyInterceptorPipeline;
 import sootup.core.types.ArrayType;
 import sootup.core.types.ClassType;
 import sootup.core.types.PrimitiveType;
@@ -115,8 +117,16 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   /* -state fields- */
   private int nextLocal;
   private List<JavaLocal> locals;
+  /** the types of the local variable slots which are determined by the LocalVariableTable */
+  @Nullable private Type[] declaredLocalTypes;
+
   private LinkedListMultimap<BranchingStmt, LabelNode> stmtsThatBranchToLabel;
-  private Map<AbstractInsnNode, Stmt> insnToStmt;
+  /** the Stmt of an instruction, indexed by the position of the instruction */
+  private Stmt[] insnToStmt;
+  /** reverse index of insnToStmt: the position of the instruction a Stmt is associated with */
+  private Map<Stmt, Integer> stmtToInsnIdx;
+  /** the Stmts that were associated with an instruction and use the given Expr; built lazily */
+  @Nullable private Map<Expr, List<Stmt>> stmtsUsingExpr;
 
   @Nonnull private final Map<Stmt, Stmt> replacedStmt = new HashMap<>();
 
@@ -129,7 +139,9 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   @Nullable private JavaClassType declaringClass;
 
   private final View<?> view;
-  private final List<BodyInterceptor> bodyInterceptors;
+  private final BodyInterceptorPipeline bodyInterceptorPipeline;
+  @Nullable private final BodyCache bodyCache;
+  @Nullable private final String bodyCacheKey;
 
   @Nonnull private final Set<LabelNode> inlineExceptionLabels = new HashSet<>();
 
@@ -158,10 +170,14 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
       @Nonnull String signature,
       @Nonnull String[] exceptions,
       View<?> view,
-      @Nonnull List<BodyInterceptor> bodyInterceptors) {
+      @Nonnull List<BodyInterceptor> bodyInterceptors,
+      @Nullable BodyCache bodyCache,
+      @Nullable String bodyCacheKey) {
     super(AsmUtil.SUPPORTED_ASM_OPCODE, null, access, name, desc, signature, exceptions);
-    this.bodyInterceptors = bodyInterceptors;
+    this.bodyInterceptorPipeline = new BodyInterceptorPipeline(bodyInterceptors);
     this.view = view;
+    this.bodyCache = bodyCache;
+    this.bodyCacheKey = bodyCacheKey;
   }
 
   @Override
@@ -177,6 +193,20 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   @Override
   @Nonnull
   public Body resolveBody(@Nonnull Iterable<Modifier> modifierIt) {
+    if (bodyCache != null && bodyCacheKey != null) {
+      final Optional<Body> cachedBody = bodyCache.getBody(bodyCacheKey, getSignature());
+      if (cachedBody.isPresent()) {
+        return cachedBody.get();
+      }
+      final Body body = createBody();
+      bodyCache.putBody(bodyCacheKey, body);
+      return body;
+    }
+    return createBody();
+  }
+
+  @Nonnull
+  private Body createBody() {
 
     /* initialize */
     nextLocal = maxLocals;
@@ -185,7 +215,10 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
             maxLocals
                 + Math.max((maxLocals / 2), 5)); // [ms] initial capacity is just roughly estimated.
     stmtsThatBranchToLabel = LinkedListMultimap.create();
-    insnToStmt = new LinkedHashMap<>(instructions.size());
+    declaredLocalTypes = determineDeclaredLocalTypes();
+    insnToStmt = new Stmt[instructions.size()];
+    stmtToInsnIdx = new IdentityHashMap<>(instructions.size());
+    stmtsUsingExpr = null;
     operandStack = new OperandStack(this, instructions.size());
     trapHandler = new LinkedHashMap<>(tryCatchBlocks.size());
 
@@ -241,20 +274,16 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
 
     /* clean up for gc */
     locals = null;
+    declaredLocalTypes = null;
     stmtsThatBranchToLabel = null;
     insnToStmt = null;
+    stmtToInsnIdx = null;
+    stmtsUsingExpr = null;
     operandStack = null;
 
     bodyBuilder.setMethodSignature(lazyMethodSignature.get());
 
-    for (BodyInterceptor bodyInterceptor : bodyInterceptors) {
-      try {
-        bodyInterceptor.interceptBody(bodyBuilder, view);
-      } catch (Exception e) {
-        throw new IllegalStateException(
-            "Failed to apply " + bodyInterceptor + " to " + lazyMethodSignature.get(), e);
-      }
-    }
+    bodyInterceptorPipeline.apply(bodyBuilder, view);
     return bodyBuilder.build();
   }
 
@@ -284,7 +313,10 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     JavaLocal local = locals.get(idx);
     if (local == null) {
       String name = determineLocalName(idx);
-      local = JavaJimple.newLocal(name, UnknownType.getInstance(), Collections.emptyList());
+      Type type = declaredLocalTypes == null ? null : declaredLocalTypes[idx];
+      local =
+          JavaJimple.newLocal(
+              name, type == null ? UnknownType.getInstance() : type, Collections.emptyList());
       locals.set(idx, local);
     }
     return local;
@@ -311,20 +343,153 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     return name;
   }
 
+  /**
+   * Determines the types of the local variable slots from the LocalVariableTable. A slot gets the
+   * declared type if all of its entries agree on the type and every store into the slot happens
+   * inside the scope of one of them, otherwise the slot can hold values of different types and the
+   * type is left to the type inference. The LocalVariableTypeTable is not needed as the erasure of
+   * its generic signatures is the descriptor in the LocalVariableTable.
+   *
+   * @return the types indexed by the slot or null if there is no LocalVariableTable
+   */
+  @Nullable
+  private Type[] determineDeclaredLocalTypes() {
+    if (localVariables == null || localVariables.isEmpty()) {
+      return null;
+    }
+    final String[] descs = new String[maxLocals];
+    final List<List<LocalVariableNode>> entriesOfSlot = new ArrayList<>(maxLocals);
+    for (int i = 0; i < maxLocals; i++) {
+      entriesOfSlot.add(new ArrayList<>(1));
+    }
+    for (LocalVariableNode lvn : localVariables) {
+      if (lvn.index < 0 || lvn.index >= maxLocals) {
+        continue;
+      }
+      if (descs[lvn.index] == null) {
+        descs[lvn.index] = lvn.desc;
+      } else if (!descs[lvn.index].equals(lvn.desc)) {
+        // hint: an empty desc marks a slot which holds values of different types
+        descs[lvn.index] = "";
+      }
+      entriesOfSlot.get(lvn.index).add(lvn);
+    }
+
+    for (AbstractInsnNode insn : instructions) {
+      final int slot;
+      final String expectedDescs;
+      final int op = insn.getOpcode();
+      if (op >= ISTORE && op <= ASTORE) {
+        slot = ((VarInsnNode) insn).var;
+        expectedDescs = op == ISTORE ? "ZBCSI" : op == LSTORE ? "J" : op == FSTORE ? "F" : "D";
+      } else if (op == IINC) {
+        slot = ((IincInsnNode) insn).var;
+        expectedDescs = "I";
+      } else {
+        continue;
+      }
+      final String desc = descs[slot];
+      if (desc == null || desc.isEmpty()) {
+        continue;
+      }
+      final boolean matchesDesc =
+          op == ASTORE
+              ? desc.charAt(0) == 'L' || desc.charAt(0) == '['
+              : desc.length() == 1 && expectedDescs.indexOf(desc.charAt(0)) >= 0;
+      if (!matchesDesc || !isInScope(insn, entriesOfSlot.get(slot))) {
+        descs[slot] = "";
+      }
+    }
+
+    final Type[] types = new Type[maxLocals];
+    for (int slot = 0; slot < maxLocals; slot++) {
+      final String desc = descs[slot];
+      if (desc != null && !desc.isEmpty()) {
+        try {
+          types[slot] = AsmUtil.toJimpleType(desc);
+        } catch (AssertionError e) {
+          // malformed debug information
+          types[slot] = null;
+        }
+      }
+    }
+    return types;
+  }
+
+  /**
+   * Checks whether the store is inside of the scope of one of the entries. The scope of a local
+   * variable usually starts directly after the instruction which initially stores its value.
+   */
+  private boolean isInScope(
+      @Nonnull AbstractInsnNode store, @Nonnull List<LocalVariableNode> entriesOfSlot) {
+    final int storeIdx = getInsnIndex(store);
+    for (LocalVariableNode lvn : entriesOfSlot) {
+      if (getInsnIndex(lvn.start) <= storeIdx + 1 && storeIdx < getInsnIndex(lvn.end)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns the position of the instruction which is used to index the per instruction data. */
+  int getInsnIndex(@Nonnull AbstractInsnNode insn) {
+    return instructions.indexOf(insn);
+  }
+
+  private boolean hasStmt(@Nonnull AbstractInsnNode insn) {
+    return insnToStmt[getInsnIndex(insn)] != null;
+  }
+
+  /** Associates the stmt with the instruction and returns the previously associated Stmt. */
+  @Nullable
+  private Stmt putStmt(int insnIdx, @Nonnull Stmt stmt) {
+    final Stmt previousStmt = insnToStmt[insnIdx];
+    if (previousStmt != null) {
+      stmtToInsnIdx.remove(previousStmt);
+    }
+    insnToStmt[insnIdx] = stmt;
+    stmtToInsnIdx.put(stmt, insnIdx);
+    if (stmtsUsingExpr != null) {
+      indexExprUses(stmt);
+    }
+    return previousStmt;
+  }
+
+  private void indexExprUses(@Nonnull Stmt stmt) {
+    if (stmt instanceof StmtContainer) {
+      for (Stmt containedStmt : ((StmtContainer) stmt).getStmts()) {
+        indexExprUses(containedStmt);
+      }
+      return;
+    }
+    for (Value use : stmt.getUses()) {
+      if (use instanceof Expr) {
+        final List<Stmt> stmts =
+            stmtsUsingExpr.computeIfAbsent((Expr) use, k -> new ArrayList<>(1));
+        if (!stmts.contains(stmt)) {
+          stmts.add(stmt);
+        }
+      }
+    }
+  }
+
   void setStmt(@Nonnull AbstractInsnNode insn, @Nonnull Stmt stmt) {
-    Stmt overwrittenStmt = insnToStmt.put(insn, stmt);
+    final int insnIdx = getInsnIndex(insn);
+    final Stmt overwrittenStmt = insnToStmt[insnIdx];
     if (overwrittenStmt != null) {
       throw new IllegalArgumentException(
           insn.getOpcode() + " already has an associated Stmt: " + overwrittenStmt);
     }
+    putStmt(insnIdx, stmt);
   }
 
   void mergeStmts(@Nonnull AbstractInsnNode insn, @Nonnull Stmt stmt) {
-    Stmt initiallyAssignedStmt = insnToStmt.put(insn, stmt);
+    final int insnIdx = getInsnIndex(insn);
+    Stmt initiallyAssignedStmt = insnToStmt[insnIdx];
     if (initiallyAssignedStmt != null) {
-      Stmt merged = StmtContainer.getOrCreate(initiallyAssignedStmt, stmt);
-      insnToStmt.put(insn, merged);
+      stmt = StmtContainer.getOrCreate(initiallyAssignedStmt, stmt);
     }
+    putStmt(insnIdx, stmt);
   }
 
   @Nonnull
@@ -338,7 +503,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
 
   @SuppressWarnings("unchecked")
   <A extends Stmt> A getStmt(@Nonnull AbstractInsnNode insn) {
-    return (A) insnToStmt.get(insn);
+    return (A) insnToStmt[getInsnIndex(insn)];
   }
 
   private void addReadOperandAssignments() {
@@ -484,7 +649,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   private void convertIincInsn(@Nonnull IincInsnNode insn) {
     Local local = getOrCreateLocal(insn.var);
     addReadOperandAssignments(local);
-    if (!insnToStmt.containsKey(insn)) {
+    if (!hasStmt(insn)) {
       JAddExpr add = Jimple.newAddExpr(local, IntConstant.getInstance(insn.incr));
       setStmt(
           insn, Jimple.newAssignStmt(local, add, new SimpleStmtPositionInfo(currentLineNumber)));
@@ -552,7 +717,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     int op = insn.getOpcode();
     boolean dword = op == LASTORE || op == DASTORE;
     StackFrame frame = operandStack.getOrCreateStackframe(insn);
-    if (!insnToStmt.containsKey(insn)) {
+    if (!hasStmt(insn)) {
       Operand valueOp = dword ? operandStack.popImmediateDual() : operandStack.popImmediate();
       Operand indexOp = operandStack.popImmediate();
       Operand baseOp = operandStack.popLocal();
@@ -845,7 +1010,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     int op = insn.getOpcode();
     boolean dword = op == LRETURN || op == DRETURN;
     StackFrame frame = operandStack.getOrCreateStackframe(insn);
-    if (!insnToStmt.containsKey(insn)) {
+    if (!hasStmt(insn)) {
       Operand val = dword ? operandStack.popImmediateDual() : operandStack.popImmediate();
       JReturnStmt ret =
           Jimple.newReturnStmt(
@@ -865,8 +1030,8 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
       /*
        * We can ignore NOP instructions, but for completeness, we handle them
        */
-      if (!insnToStmt.containsKey(insn)) {
-        insnToStmt.put(insn, Jimple.newNopStmt(new SimpleStmtPositionInfo(currentLineNumber)));
+      if (!hasStmt(insn)) {
+        setStmt(insn, Jimple.newNopStmt(new SimpleStmtPositionInfo(currentLineNumber)));
       }
     } else if (op >= ACONST_NULL && op <= DCONST_1) {
       convertConstInsn(insn);
@@ -901,13 +1066,13 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     } else if (op >= IRETURN && op <= ARETURN) {
       convertReturnInsn(insn);
     } else if (op == RETURN) {
-      if (!insnToStmt.containsKey(insn)) {
+      if (!hasStmt(insn)) {
         setStmt(insn, Jimple.newReturnVoidStmt(new SimpleStmtPositionInfo(currentLineNumber)));
       }
     } else if (op == ATHROW) {
       StackFrame frame = operandStack.getOrCreateStackframe(insn);
       Operand opr;
-      if (!insnToStmt.containsKey(insn)) {
+      if (!hasStmt(insn)) {
         opr = operandStack.popImmediate();
         JThrowStmt ts =
             Jimple.newThrowStmt(
@@ -923,7 +1088,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
       operandStack.push(opr);
     } else if (op == MONITORENTER || op == MONITOREXIT) {
       StackFrame frame = operandStack.getOrCreateStackframe(insn);
-      if (!insnToStmt.containsKey(insn)) {
+      if (!hasStmt(insn)) {
         Operand opr = operandStack.popStackConst();
         AbstractOpStmt ts =
             op == MONITORENTER
@@ -1003,7 +1168,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   private void convertJumpInsn(@Nonnull JumpInsnNode insn) {
     int op = insn.getOpcode();
     if (op == GOTO) {
-      if (!insnToStmt.containsKey(insn)) {
+      if (!hasStmt(insn)) {
         BranchingStmt gotoStmt = Jimple.newGotoStmt(new SimpleStmtPositionInfo(currentLineNumber));
         stmtsThatBranchToLabel.put(gotoStmt, insn.label);
         setStmt(insn, gotoStmt);
@@ -1012,7 +1177,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     }
     /* must be ifX insn */
     StackFrame frame = operandStack.getOrCreateStackframe(insn);
-    if (!insnToStmt.containsKey(insn)) {
+    if (!hasStmt(insn)) {
       Operand val = operandStack.popImmediate();
       Immediate v = (Immediate) val.stackOrValue();
       AbstractConditionExpr cond;
@@ -1187,7 +1352,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
 
   private void convertLookupSwitchInsn(@Nonnull LookupSwitchInsnNode insn) {
     StackFrame frame = operandStack.getOrCreateStackframe(insn);
-    if (insnToStmt.containsKey(insn)) {
+    if (hasStmt(insn)) {
       frame.mergeIn(currentLineNumber, operandStack.pop());
       return;
     }
@@ -1313,7 +1478,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
       operandStack.pushDual(opr);
     } else if (!(returnType == VoidType.getInstance())) {
       operandStack.push(opr);
-    } else if (!insnToStmt.containsKey(insn)) {
+    } else if (!hasStmt(insn)) {
       JInvokeStmt stmt =
           Jimple.newInvokeStmt(
               (AbstractInvokeExpr) opr.value, new SimpleStmtPositionInfo(currentLineNumber));
@@ -1405,7 +1570,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
       operandStack.pushDual(opr);
     } else if (!(returnType instanceof VoidType)) {
       operandStack.push(opr);
-    } else if (!insnToStmt.containsKey(insn)) {
+    } else if (!hasStmt(insn)) {
       JInvokeStmt stmt =
           Jimple.newInvokeStmt(
               (AbstractInvokeExpr) opr.value, new SimpleStmtPositionInfo(currentLineNumber));
@@ -1478,7 +1643,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
 
   private void convertTableSwitchInsn(@Nonnull TableSwitchInsnNode insn) {
     StackFrame frame = operandStack.getOrCreateStackframe(insn);
-    if (insnToStmt.containsKey(insn)) {
+    if (hasStmt(insn)) {
       frame.mergeIn(currentLineNumber, operandStack.pop());
       return;
     }
@@ -1579,7 +1744,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     StackFrame frame = operandStack.getOrCreateStackframe(insn);
     Operand opr = dword ? operandStack.popDual() : operandStack.pop();
     Local local = getOrCreateLocal(insn.var);
-    if (!insnToStmt.containsKey(insn)) {
+    if (!hasStmt(insn)) {
       AbstractDefinitionStmt<Local, ?> as =
           Jimple.newAssignStmt(
               local, opr.stackOrValue(), new SimpleStmtPositionInfo(currentLineNumber));
@@ -1600,7 +1765,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
       convertVarStoreInsn(insn);
     } else if (op == RET) {
       /* we handle it, even though it should be removed */
-      if (!insnToStmt.containsKey(insn)) {
+      if (!hasStmt(insn)) {
         setStmt(
             insn,
             Jimple.newRetStmt(
@@ -1621,7 +1786,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     // somewhere from the real exception handler in case this is inline
     // code
     if (inlineExceptionLabels.contains(ln)) {
-      if (!insnToStmt.containsKey(ln)) {
+      if (!hasStmt(ln)) {
         JNopStmt nop = Jimple.newNopStmt(new SimpleStmtPositionInfo(currentLineNumber));
         setStmt(ln, nop);
       }
@@ -1664,6 +1829,8 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
               tgt, /* "default" targets i.e. LabelNode or fallsthrough "target" of if  */
       @Nonnull List<LabelNode> tgts /* other branch target(s) */) {
     Operand[] stackss = operandStack.getStack().toArray(new Operand[0]);
+    // the operand stack is reused for the next branch, so the edges keep a snapshot of it
+    final List<Operand> stack = Arrays.asList(stackss);
     /* iterate over possible following/successing instructions which is: combined(tgt, tgts) */
     int i = 0;
     int lastIdx = tgts.size();
@@ -1672,7 +1839,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
       BranchedInsnInfo edge = edges.get(branchingInsn, tgt);
       if (edge == null) {
         // [ms] check why this edge could be already there
-        edge = new BranchedInsnInfo(tgt, operandStack.getStack());
+        edge = new BranchedInsnInfo(tgt, stack);
         edge.addToPrevStack(stackss);
         edges.put(branchingInsn, tgt, edge);
         conversionWorklist.add(edge);
@@ -1695,7 +1862,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
           continue outer_loop;
         }
       }
-      edge.addOperandStack(operandStack.getStack());
+      edge.addOperandStack(stack);
       edge.addToPrevStack(stackss);
       conversionWorklist.add(edge);
     } while (i < lastIdx && (tgt = tgts.get(i++)) != null);
@@ -1735,8 +1902,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
     do {
       BranchedInsnInfo edge = worklist.pollLast();
       AbstractInsnNode insn = edge.getInsn();
-      operandStack.setOperandStack(
-          new ArrayList<>(edge.getOperandStacks().get(edge.getOperandStacks().size() - 1)));
+      operandStack.setOperandStack(edge.getOperandStacks().get(edge.getOperandStacks().size() - 1));
       do {
         int type = insn.getType();
         if (type == FIELD_INSN) {
@@ -1979,7 +2145,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
         danglingLabel.add((LabelNode) insn);
       }
 
-      Stmt stmt = insnToStmt.get(insn);
+      Stmt stmt = getStmt(insn);
       if (stmt == null) {
         continue;
       }
@@ -2051,7 +2217,7 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
       stmtList.clear();
 
       // connect tail of stmtList with its target
-      Stmt targetStmt = insnToStmt.get(entry.getKey());
+      Stmt targetStmt = getStmt(entry.getKey());
       graph.putEdge(gotoStmt, targetStmt);
     }
   }
@@ -2099,27 +2265,20 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
   }
 
   void replaceStmt(@Nonnull Stmt oldStmt, Stmt newStmt) {
-    AbstractInsnNode key = null;
-
-    // TODO: [ms] bit expensive and called a lot? -> find better solution!
-    for (Entry<AbstractInsnNode, Stmt> entry : insnToStmt.entrySet()) {
-      if (Objects.equals(oldStmt, entry.getValue())) {
-        key = entry.getKey();
-      }
-    }
-
-    if (key == null) {
+    final Integer insnIdx = stmtToInsnIdx.get(oldStmt);
+    if (insnIdx == null) {
       // throw new IllegalStateException("Could not replace value in insn map because oldStmt " +
       // oldStmt + " it is absent");
       return;
     }
 
     if (newStmt == null) {
-      insnToStmt.remove(key);
+      insnToStmt[insnIdx] = null;
+      stmtToInsnIdx.remove(oldStmt);
       return;
     }
 
-    insnToStmt.put(key, newStmt);
+    putStmt(insnIdx, newStmt);
     replacedStmt.put(oldStmt, newStmt);
 
     if (oldStmt instanceof BranchingStmt) {
@@ -2137,20 +2296,20 @@ public class AsmMethodSource extends JSRInlinerAdapter implements BodySource {
    * @param expr which is used to filter associated Stmts
    */
   public Stream<Stmt> getStmtsThatUse(@Nonnull Expr expr) {
-    Stream<Stmt> currentUses =
-        insnToStmt.values().stream()
-            .flatMap(
-                stmt ->
-                    stmt instanceof StmtContainer
-                        ? ((StmtContainer) stmt).getStmts().stream()
-                        : Stream.of(stmt))
-            .filter(stmt -> stmt.getUses().contains(expr));
-
-    Stream<Stmt> oldMappedUses =
-        replacedStmt.entrySet().stream()
-            .filter(stmt -> stmt.getKey().getUses().contains(expr))
-            .map(stmt -> getLatestVersionOfStmt(stmt.getValue()));
-
-    return Stream.concat(currentUses, oldMappedUses);
+    if (stmtsUsingExpr == null) {
+      // hint: replaced Stmts stay indexed, they are resolved to their latest version
+      stmtsUsingExpr = new IdentityHashMap<>();
+      for (Stmt stmt : insnToStmt) {
+        if (stmt != null) {
+          indexExprUses(stmt);
+        }
+      }
+      replacedStmt.keySet().forEach(this::indexExprUses);
+    }
+    final List<Stmt> stmts = stmtsUsingExpr.get(expr);
+    if (stmts == null) {
+      return Stream.empty();
+    }
+    return stmts.stream().map(this::getLatestVersionOfStmt);
   }
 }
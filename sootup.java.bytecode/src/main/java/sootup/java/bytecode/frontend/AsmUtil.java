@@ -75,6 +75,11 @@ public final class AsmUtil {
     }
   }
 
+  protected static void initAsmClassSource(
+      @Nonnull byte[] classFile, @Nonnull ClassVisitor classNode) {
+    new ClassReader(classFile).accept(classNode, ClassReader.SKIP_FRAMES);
+  }
+
   /**
    * Determines if a type is a dword type.
    *
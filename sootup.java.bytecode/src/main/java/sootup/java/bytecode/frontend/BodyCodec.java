@@ -0,0 +1,935 @@
+package sootup.java.bytecode.frontend;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.*;
+import java.util.*;
+import javax.annotation.Nonnull;
+import sootup.core.IdentifierFactory;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.ImmutableBlockStmtGraph;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.Jimple;
+import sootup.core.jimple.basic.*;
+import sootup.core.jimple.common.constant.*;
+import sootup.core.jimple.common.expr.*;
+import sootup.core.jimple.common.ref.*;
+import sootup.core.jimple.common.stmt.*;
+import sootup.core.jimple.javabytecode.stmt.*;
+import sootup.core.model.Body;
+import sootup.core.model.FullPosition;
+import sootup.core.model.Position;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.*;
+import sootup.java.core.jimple.basic.JavaLocal;
+import sootup.java.core.language.JavaJimple;
+import sootup.java.core.types.JavaClassType;
+
+/**
+ * Encodes a {@link Body} into a compact binary representation and back. The StmtGraph is stored
+ * block by block with its (exceptional) successors, so the decoded body has the same structure as
+ * the encoded one. Strings are stored once per body and referenced by their index afterwards.
+ *
+ * <p>The codec supports the Jimple that is created by the bytecode frontend. Bodies that contain
+ * e.g. phi expressions, method handles of fields or annotated locals can not be encoded and result
+ * in an {@link IllegalArgumentException}.
+ */
+public final class BodyCodec {
+
+  /** changes whenever the encoding changes, so cached encodings of an older version are ignored */
+  public static final int FORMAT_VERSION = 1;
+
+  // types
+  private static final byte PRIMITIVE_TYPE = 0;
+  private static final byte CLASS_TYPE = 1;
+  private static final byte ARRAY_TYPE = 2;
+  private static final byte VOID_TYPE = 3;
+  private static final byte NULL_TYPE = 4;
+  private static final byte UNKNOWN_TYPE = 5;
+
+  // positions
+  private static final byte NO_POSITION = 0;
+  private static final byte POSITION = 1;
+  private static final byte FULL_STMT_POSITION = 2;
+
+  // values
+  private static final byte LOCAL = 0;
+  private static final byte INT_CONSTANT = 1;
+  private static final byte LONG_CONSTANT = 2;
+  private static final byte FLOAT_CONSTANT = 3;
+  private static final byte DOUBLE_CONSTANT = 4;
+  private static final byte STRING_CONSTANT = 5;
+  private static final byte CLASS_CONSTANT = 6;
+  private static final byte NULL_CONSTANT = 7;
+  private static final byte BOOLEAN_CONSTANT = 8;
+  private static final byte ENUM_CONSTANT = 9;
+  private static final byte METHOD_HANDLE = 10;
+  private static final byte METHOD_TYPE = 11;
+  private static final byte ADD = 12;
+  private static final byte AND = 13;
+  private static final byte CMP = 14;
+  private static final byte CMPG = 15;
+  private static final byte CMPL = 16;
+  private static final byte DIV = 17;
+  private static final byte EQ = 18;
+  private static final byte GE = 19;
+  private static final byte GT = 20;
+  private static final byte LE = 21;
+  private static final byte LT = 22;
+  private static final byte MUL = 23;
+  private static final byte NE = 24;
+  private static final byte OR = 25;
+  private static final byte REM = 26;
+  private static final byte SHL = 27;
+  private static final byte SHR = 28;
+  private static final byte SUB = 29;
+  private static final byte USHR = 30;
+  private static final byte XOR = 31;
+  private static final byte CAST = 32;
+  private static final byte INSTANCE_OF = 33;
+  private static final byte LENGTH = 34;
+  private static final byte NEG = 35;
+  private static final byte NEW = 36;
+  private static final byte NEW_ARRAY = 37;
+  private static final byte NEW_MULTI_ARRAY = 38;
+  private static final byte VIRTUAL_INVOKE = 39;
+  private static final byte SPECIAL_INVOKE = 40;
+  private static final byte INTERFACE_INVOKE = 41;
+  private static final byte STATIC_INVOKE = 42;
+  private static final byte DYNAMIC_INVOKE = 43;
+  private static final byte ARRAY_REF = 44;
+  private static final byte INSTANCE_FIELD_REF = 45;
+  private static final byte STATIC_FIELD_REF = 46;
+  private static final byte PARAMETER_REF = 47;
+  private static final byte THIS_REF = 48;
+  private static final byte CAUGHT_EXCEPTION_REF = 49;
+
+  // stmts
+  private static final byte ASSIGN = 0;
+  private static final byte IDENTITY = 1;
+  private static final byte INVOKE = 2;
+  private static final byte IF = 3;
+  private static final byte GOTO = 4;
+  private static final byte TABLE_SWITCH = 5;
+  private static final byte LOOKUP_SWITCH = 6;
+  private static final byte RETURN = 7;
+  private static final byte RETURN_VOID = 8;
+  private static final byte THROW = 9;
+  private static final byte NOP = 10;
+  private static final byte ENTER_MONITOR = 11;
+  private static final byte EXIT_MONITOR = 12;
+  private static final byte RET = 13;
+  private static final byte BREAKPOINT = 14;
+
+  private BodyCodec() {}
+
+  /**
+   * @return the binary representation of the body
+   * @throws IllegalArgumentException if the body contains Jimple that is not supported
+   */
+  @Nonnull
+  public static byte[] encode(@Nonnull Body body) {
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+    try {
+      new Encoder(new DataOutputStream(bytes)).writeBody(body);
+    } catch (IOException e) {
+      // a ByteArrayOutputStream does not throw, so it is a string that is too long
+      throw new IllegalArgumentException("The Body can not be encoded.", e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * @return the body that is represented by the given bytes
+   * @throws IllegalArgumentException if the bytes are no valid encoding of a body
+   */
+  @Nonnull
+  public static Body decode(@Nonnull byte[] bytes) {
+    try {
+      return new Decoder(new DataInputStream(new ByteArrayInputStream(bytes))).readBody();
+    } catch (IOException | RuntimeException e) {
+      throw new IllegalArgumentException("The bytes are no valid encoding of a Body.", e);
+    }
+  }
+
+  private static final class Encoder {
+
+    @Nonnull private final DataOutputStream out;
+    @Nonnull private final Map<String, Integer> strings = new HashMap<>();
+    @Nonnull private final Map<Local, Integer> locals = new HashMap<>();
+    @Nonnull private final Map<Stmt, Integer> stmts = new IdentityHashMap<>();
+
+    Encoder(@Nonnull DataOutputStream out) {
+      this.out = out;
+    }
+
+    void writeBody(@Nonnull Body body) throws IOException {
+      final StmtGraph<?> graph = body.getStmtGraph();
+      writeMethodSignature(body.getMethodSignature());
+      writePosition(body.getPosition());
+      out.writeBoolean(graph instanceof ImmutableBlockStmtGraph);
+
+      out.writeInt(body.getLocals().size());
+      for (Local local : body.getLocals()) {
+        if (local instanceof JavaLocal
+            && ((JavaLocal) local).getAnnotations().iterator().hasNext()) {
+          throw new IllegalArgumentException("Annotated locals are not supported.");
+        }
+        locals.put(local, locals.size());
+        writeString(local.getName());
+        writeType(local.getType());
+      }
+
+      // the blocks are written with their Stmts first, so the edges can refer to Stmt indices
+      final List<? extends BasicBlock<?>> blocks = new ArrayList<>(graph.getBlocks());
+      out.writeInt(blocks.size());
+      for (BasicBlock<?> block : blocks) {
+        final List<Stmt> blockStmts = block.getStmts();
+        out.writeInt(blockStmts.size());
+        for (Stmt stmt : blockStmts) {
+          stmts.put(stmt, stmts.size());
+          writeStmt(stmt);
+        }
+      }
+      for (BasicBlock<?> block : blocks) {
+        final Map<? extends ClassType, ? extends BasicBlock<?>> exceptionalSuccessors =
+            block.getExceptionalSuccessors();
+        out.writeInt(exceptionalSuccessors.size());
+        for (Map.Entry<? extends ClassType, ? extends BasicBlock<?>> entry :
+            exceptionalSuccessors.entrySet()) {
+          writeType(entry.getKey());
+          out.writeInt(stmtIndex(entry.getValue().getHead()));
+        }
+        final List<? extends BasicBlock<?>> successors = block.getSuccessors();
+        out.writeInt(successors.size());
+        for (BasicBlock<?> successor : successors) {
+          out.writeInt(stmtIndex(successor.getHead()));
+        }
+      }
+      final Stmt startingStmt = graph.getStartingStmt();
+      out.writeInt(startingStmt == null ? -1 : stmtIndex(startingStmt));
+      out.flush();
+    }
+
+    private int stmtIndex(@Nonnull Stmt stmt) {
+      final Integer index = stmts.get(stmt);
+      if (index == null) {
+        throw new IllegalArgumentException("The StmtGraph refers to a Stmt it does not contain.");
+      }
+      return index;
+    }
+
+    private void writeString(@Nonnull String str) throws IOException {
+      final Integer index = strings.get(str);
+      if (index != null) {
+        out.writeInt(index);
+        return;
+      }
+      // the first occurrence carries the string, the following ones only its index
+      out.writeInt(strings.size());
+      strings.put(str, strings.size());
+      out.writeUTF(str);
+    }
+
+    private void writeType(@Nonnull Type type) throws IOException {
+      if (type instanceof PrimitiveType) {
+        out.writeByte(PRIMITIVE_TYPE);
+        writeString(((PrimitiveType) type).getName());
+      } else if (type instanceof ArrayType) {
+        out.writeByte(ARRAY_TYPE);
+        out.writeInt(((ArrayType) type).getDimension());
+        writeType(((ArrayType) type).getBaseType());
+      } else if (type.getClass() == JavaClassType.class) {
+        out.writeByte(CLASS_TYPE);
+        writeString(((ClassType) type).getFullyQualifiedName());
+      } else if (type instanceof VoidType) {
+        out.writeByte(VOID_TYPE);
+      } else if (type instanceof NullType) {
+        out.writeByte(NULL_TYPE);
+      } else if (type instanceof UnknownType) {
+        out.writeByte(UNKNOWN_TYPE);
+      } else {
+        throw new IllegalArgumentException("Unsupported type " + type.getClass().getName());
+      }
+    }
+
+    private void writeTypes(@Nonnull List<Type> types) throws IOException {
+      out.writeInt(types.size());
+      for (Type type : types) {
+        writeType(type);
+      }
+    }
+
+    private void writeMethodSignature(@Nonnull MethodSignature signature) throws IOException {
+      writeType(signature.getDeclClassType());
+      writeString(signature.getName());
+      writeType(signature.getType());
+      writeTypes(signature.getParameterTypes());
+    }
+
+    private void writeFieldSignature(@Nonnull FieldSignature signature) throws IOException {
+      writeType(signature.getDeclClassType());
+      writeString(signature.getName());
+      writeType(signature.getType());
+    }
+
+    private void writePosition(@Nonnull Position position) throws IOException {
+      if (position instanceof NoPositionInformation) {
+        out.writeByte(NO_POSITION);
+        return;
+      }
+      out.writeByte(POSITION);
+      out.writeInt(position.getFirstLine());
+      out.writeInt(position.getFirstCol());
+      out.writeInt(position.getLastLine());
+      out.writeInt(position.getLastCol());
+    }
+
+    private void writeStmtPosition(@Nonnull StmtPositionInfo positionInfo) throws IOException {
+      if (positionInfo instanceof FullStmtPositionInfo) {
+        throw new IllegalArgumentException("Operand positions are not supported.");
+      }
+      writePosition(positionInfo.getStmtPosition());
+    }
+
+    private void writeValue(@Nonnull Value value) throws IOException {
+      if (value instanceof Local) {
+        final Integer index = locals.get(value);
+        if (index == null) {
+          throw new IllegalArgumentException("Local " + value + " is not declared in the Body.");
+        }
+        out.writeByte(LOCAL);
+        out.writeInt(index);
+      } else if (value instanceof Constant) {
+        writeConstant((Constant) value);
+      } else if (value instanceof AbstractBinopExpr) {
+        out.writeByte(binopTag((AbstractBinopExpr) value));
+        writeValue(((AbstractBinopExpr) value).getOp1());
+        writeValue(((AbstractBinopExpr) value).getOp2());
+      } else if (value instanceof AbstractInvokeExpr) {
+        writeInvokeExpr((AbstractInvokeExpr) value);
+      } else if (value instanceof JCastExpr) {
+        out.writeByte(CAST);
+        writeValue(((JCastExpr) value).getOp());
+        writeType(value.getType());
+      } else if (value instanceof JInstanceOfExpr) {
+        out.writeByte(INSTANCE_OF);
+        writeValue(((JInstanceOfExpr) value).getOp());
+        writeType(((JInstanceOfExpr) value).getCheckType());
+      } else if (value instanceof JLengthExpr) {
+        out.writeByte(LENGTH);
+        writeValue(((JLengthExpr) value).getOp());
+      } else if (value instanceof JNegExpr) {
+        out.writeByte(NEG);
+        writeValue(((JNegExpr) value).getOp());
+      } else if (value instanceof JNewExpr) {
+        out.writeByte(NEW);
+        writeType(((JNewExpr) value).getType());
+      } else if (value instanceof JNewArrayExpr) {
+        out.writeByte(NEW_ARRAY);
+        writeType(((JNewArrayExpr) value).getBaseType());
+        writeValue(((JNewArrayExpr) value).getSize());
+      } else if (value instanceof JNewMultiArrayExpr) {
+        out.writeByte(NEW_MULTI_ARRAY);
+        writeType(((JNewMultiArrayExpr) value).getBaseType());
+        writeValues(((JNewMultiArrayExpr) value).getSizes());
+      } else if (value instanceof JArrayRef) {
+        out.writeByte(ARRAY_REF);
+        writeValue(((JArrayRef) value).getBase());
+        writeValue(((JArrayRef) value).getIndex());
+      } else if (value instanceof JInstanceFieldRef) {
+        out.writeByte(INSTANCE_FIELD_REF);
+        writeValue(((JInstanceFieldRef) value).getBase());
+        writeFieldSignature(((JInstanceFieldRef) value).getFieldSignature());
+      } else if (value instanceof JStaticFieldRef) {
+        out.writeByte(STATIC_FIELD_REF);
+        writeFieldSignature(((JStaticFieldRef) value).getFieldSignature());
+      } else if (value instanceof JParameterRef) {
+        out.writeByte(PARAMETER_REF);
+        writeType(value.getType());
+        out.writeInt(((JParameterRef) value).getIndex());
+      } else if (value instanceof JThisRef) {
+        out.writeByte(THIS_REF);
+        writeType(value.getType());
+      } else if (value instanceof JCaughtExceptionRef) {
+        out.writeByte(CAUGHT_EXCEPTION_REF);
+        writeType(value.getType());
+      } else {
+        throw new IllegalArgumentException("Unsupported value " + value.getClass().getName());
+      }
+    }
+
+    private void writeValues(@Nonnull List<? extends Value> values) throws IOException {
+      out.writeInt(values.size());
+      for (Value value : values) {
+        writeValue(value);
+      }
+    }
+
+    private void writeConstant(@Nonnull Constant constant) throws IOException {
+      if (constant instanceof IntConstant) {
+        out.writeByte(INT_CONSTANT);
+        out.writeInt(((IntConstant) constant).getValue());
+      } else if (constant instanceof LongConstant) {
+        out.writeByte(LONG_CONSTANT);
+        out.writeLong(((LongConstant) constant).getValue());
+      } else if (constant instanceof FloatConstant) {
+        out.writeByte(FLOAT_CONSTANT);
+        out.writeFloat(((FloatConstant) constant).getValue());
+      } else if (constant instanceof DoubleConstant) {
+        out.writeByte(DOUBLE_CONSTANT);
+        out.writeDouble(((DoubleConstant) constant).getValue());
+      } else if (constant instanceof StringConstant) {
+        out.writeByte(STRING_CONSTANT);
+        writeString(((StringConstant) constant).getValue());
+        writeType(constant.getType());
+      } else if (constant instanceof ClassConstant) {
+        out.writeByte(CLASS_CONSTANT);
+        writeString(((ClassConstant) constant).getValue());
+        writeType(constant.getType());
+      } else if (constant instanceof NullConstant) {
+        out.writeByte(NULL_CONSTANT);
+      } else if (constant instanceof BooleanConstant) {
+        out.writeByte(BOOLEAN_CONSTANT);
+        out.writeBoolean(constant == BooleanConstant.getTrue());
+      } else if (constant instanceof EnumConstant) {
+        out.writeByte(ENUM_CONSTANT);
+        writeString(((EnumConstant) constant).getValue());
+        writeType(constant.getType());
+      } else if (constant instanceof MethodHandle
+          && ((MethodHandle) constant).getMethodSignature() != null) {
+        out.writeByte(METHOD_HANDLE);
+        writeMethodSignature(((MethodHandle) constant).getMethodSignature());
+        out.writeInt(((MethodHandle) constant).tag);
+        writeType(constant.getType());
+      } else if (constant instanceof MethodType) {
+        // the frontend creates method types with a placeholder name, see JavaJimple
+        out.writeByte(METHOD_TYPE);
+        writeTypes(((MethodType) constant).getParameterTypes());
+        writeType(((MethodType) constant).getReturnType());
+      } else {
+        throw new IllegalArgumentException("Unsupported constant " + constant.getClass().getName());
+      }
+    }
+
+    private byte binopTag(@Nonnull AbstractBinopExpr expr) {
+      if (expr instanceof JAddExpr) {
+        return ADD;
+      }
+      if (expr instanceof JAndExpr) {
+        return AND;
+      }
+      if (expr instanceof JCmpExpr) {
+        return CMP;
+      }
+      if (expr instanceof JCmpgExpr) {
+        return CMPG;
+      }
+      if (expr instanceof JCmplExpr) {
+        return CMPL;
+      }
+      if (expr instanceof JDivExpr) {
+        return DIV;
+      }
+      if (expr instanceof JEqExpr) {
+        return EQ;
+      }
+      if (expr instanceof JGeExpr) {
+        return GE;
+      }
+      if (expr instanceof JGtExpr) {
+        return GT;
+      }
+      if (expr instanceof JLeExpr) {
+        return LE;
+      }
+      if (expr instanceof JLtExpr) {
+        return LT;
+      }
+      if (expr instanceof JMulExpr) {
+        return MUL;
+      }
+      if (expr instanceof JNeExpr) {
+        return NE;
+      }
+      if (expr instanceof JOrExpr) {
+        return OR;
+      }
+      if (expr instanceof JRemExpr) {
+        return REM;
+      }
+      if (expr instanceof JShlExpr) {
+        return SHL;
+      }
+      if (expr instanceof JShrExpr) {
+        return SHR;
+      }
+      if (expr instanceof JSubExpr) {
+        return SUB;
+      }
+      if (expr instanceof JUshrExpr) {
+        return USHR;
+      }
+      if (expr instanceof JXorExpr) {
+        return XOR;
+      }
+      throw new IllegalArgumentException("Unsupported expression " + expr.getClass().getName());
+    }
+
+    private void writeInvokeExpr(@Nonnull AbstractInvokeExpr expr) throws IOException {
+      if (expr instanceof JVirtualInvokeExpr) {
+        out.writeByte(VIRTUAL_INVOKE);
+      } else if (expr instanceof JSpecialInvokeExpr) {
+        out.writeByte(SPECIAL_INVOKE);
+      } else if (expr instanceof JInterfaceInvokeExpr) {
+        out.writeByte(INTERFACE_INVOKE);
+      } else if (expr instanceof JStaticInvokeExpr) {
+        out.writeByte(STATIC_INVOKE);
+      } else if (expr instanceof JDynamicInvokeExpr) {
+        final JDynamicInvokeExpr dynamicInvoke = (JDynamicInvokeExpr) expr;
+        out.writeByte(DYNAMIC_INVOKE);
+        writeMethodSignature(dynamicInvoke.getBootstrapMethodSignature());
+        writeValues(dynamicInvoke.getBootstrapArgs());
+        out.writeInt(dynamicInvoke.getHandleTag());
+      } else {
+        throw new IllegalArgumentException("Unsupported expression " + expr.getClass().getName());
+      }
+      if (expr instanceof AbstractInstanceInvokeExpr) {
+        writeValue(((AbstractInstanceInvokeExpr) expr).getBase());
+      }
+      writeMethodSignature(expr.getMethodSignature());
+      writeValues(expr.getArgs());
+    }
+
+    private void writeStmt(@Nonnull Stmt stmt) throws IOException {
+      if (stmt instanceof JAssignStmt) {
+        out.writeByte(ASSIGN);
+        writeValue(((JAssignStmt<?, ?>) stmt).getLeftOp());
+        writeValue(((JAssignStmt<?, ?>) stmt).getRightOp());
+      } else if (stmt instanceof JIdentityStmt) {
+        out.writeByte(IDENTITY);
+        writeValue(((JIdentityStmt<?>) stmt).getLeftOp());
+        writeValue(((JIdentityStmt<?>) stmt).getRightOp());
+      } else if (stmt instanceof JInvokeStmt) {
+        out.writeByte(INVOKE);
+        writeValue(((JInvokeStmt) stmt).getInvokeExpr());
+      } else if (stmt instanceof JIfStmt) {
+        out.writeByte(IF);
+        writeValue(((JIfStmt) stmt).getCondition());
+      } else if (stmt instanceof JGotoStmt) {
+        out.writeByte(GOTO);
+      } else if (stmt instanceof JSwitchStmt) {
+        final JSwitchStmt switchStmt = (JSwitchStmt) stmt;
+        final List<IntConstant> values = switchStmt.getValues();
+        if (switchStmt.isTableSwitch()) {
+          out.writeByte(TABLE_SWITCH);
+          writeValue(switchStmt.getKey());
+          out.writeInt(values.get(0).getValue());
+          out.writeInt(values.get(values.size() - 1).getValue());
+        } else {
+          out.writeByte(LOOKUP_SWITCH);
+          writeValue(switchStmt.getKey());
+          writeValues(values);
+        }
+      } else if (stmt instanceof JReturnStmt) {
+        out.writeByte(RETURN);
+        writeValue(((JReturnStmt) stmt).getOp());
+      } else if (stmt instanceof JReturnVoidStmt) {
+        out.writeByte(RETURN_VOID);
+      } else if (stmt instanceof JThrowStmt) {
+        out.writeByte(THROW);
+        writeValue(((JThrowStmt) stmt).getOp());
+      } else if (stmt instanceof JNopStmt) {
+        out.writeByte(NOP);
+      } else if (stmt instanceof JEnterMonitorStmt) {
+        out.writeByte(ENTER_MONITOR);
+        writeValue(((JEnterMonitorStmt) stmt).getOp());
+      } else if (stmt instanceof JExitMonitorStmt) {
+        out.writeByte(EXIT_MONITOR);
+        writeValue(((JExitMonitorStmt) stmt).getOp());
+      } else if (stmt instanceof JRetStmt) {
+        out.writeByte(RET);
+        writeValue(((JRetStmt) stmt).getStmtAddress());
+      } else if (stmt instanceof JBreakpointStmt) {
+        out.writeByte(BREAKPOINT);
+      } else {
+        throw new IllegalArgumentException("Unsupported stmt " + stmt.getClass().getName());
+      }
+      writeStmtPosition(stmt.getPositionInfo());
+    }
+  }
+
+  private static final class Decoder {
+
+    @Nonnull private final DataInputStream in;
+    @Nonnull private final JavaJimple jimple = JavaJimple.getInstance();
+    @Nonnull private final IdentifierFactory identifierFactory = jimple.getIdentifierFactory();
+    @Nonnull private final List<String> strings = new ArrayList<>();
+    @Nonnull private final List<Local> locals = new ArrayList<>();
+
+    Decoder(@Nonnull DataInputStream in) {
+      this.in = in;
+    }
+
+    @Nonnull
+    Body readBody() throws IOException {
+      final MethodSignature methodSignature = readMethodSignature();
+      final Position position = readPosition();
+      final boolean compactStmtGraph = in.readBoolean();
+
+      final int localCount = in.readInt();
+      for (int i = 0; i < localCount; i++) {
+        locals.add(JavaJimple.newLocal(readString(), readType()));
+      }
+
+      final int blockCount = in.readInt();
+      final List<List<Stmt>> blocks = new ArrayList<>(blockCount);
+      final List<Stmt> stmts = new ArrayList<>();
+      for (int i = 0; i < blockCount; i++) {
+        final int stmtCount = in.readInt();
+        final List<Stmt> blockStmts = new ArrayList<>(stmtCount);
+        for (int j = 0; j < stmtCount; j++) {
+          blockStmts.add(readStmt());
+        }
+        stmts.addAll(blockStmts);
+        blocks.add(blockStmts);
+      }
+
+      final MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+      final List<List<Stmt>> successors = new ArrayList<>(blockCount);
+      for (List<Stmt> blockStmts : blocks) {
+        final int exceptionalSuccessorCount = in.readInt();
+        final Map<ClassType, Stmt> exceptionalSuccessors = new HashMap<>();
+        for (int i = 0; i < exceptionalSuccessorCount; i++) {
+          exceptionalSuccessors.put((ClassType) readType(), stmts.get(in.readInt()));
+        }
+        graph.addBlock(blockStmts, exceptionalSuccessors);
+
+        final int successorCount = in.readInt();
+        final List<Stmt> blockSuccessors = new ArrayList<>(successorCount);
+        for (int i = 0; i < successorCount; i++) {
+          blockSuccessors.add(stmts.get(in.readInt()));
+        }
+        successors.add(blockSuccessors);
+      }
+      // the successors are linked after all blocks exist. Branches are linked first: a block that
+      // is the target of a fall through without any other predecessor is merged into the
+      // preceding block, so it must know its branching predecessors by then.
+      for (boolean branches : new boolean[] {true, false}) {
+        for (int i = 0; i < blockCount; i++) {
+          final List<Stmt> blockStmts = blocks.get(i);
+          final Stmt tail = blockStmts.get(blockStmts.size() - 1);
+          if (tail.branches() == branches) {
+            for (Stmt successor : successors.get(i)) {
+              graph.putEdge(tail, successor);
+            }
+          }
+        }
+      }
+      final int startingStmt = in.readInt();
+      if (startingStmt >= 0) {
+        graph.setStartingStmt(stmts.get(startingStmt));
+      }
+
+      return Body.builder(graph)
+          .setMethodSignature(methodSignature)
+          .setPosition(position)
+          .setLocals(new LinkedHashSet<>(locals))
+          .setCompactStmtGraph(compactStmtGraph)
+          .build();
+    }
+
+    @Nonnull
+    private String readString() throws IOException {
+      final int index = in.readInt();
+      if (index == strings.size()) {
+        strings.add(in.readUTF());
+      }
+      return strings.get(index);
+    }
+
+    @Nonnull
+    private Type readType() throws IOException {
+      final byte tag = in.readByte();
+      switch (tag) {
+        case PRIMITIVE_TYPE:
+          final String name = readString();
+          return identifierFactory
+              .getPrimitiveType(name)
+              .orElseThrow(() -> new IllegalArgumentException("Unknown primitive type " + name));
+        case CLASS_TYPE:
+          return identifierFactory.getClassType(readString());
+        case ARRAY_TYPE:
+          final int dimension = in.readInt();
+          return identifierFactory.getArrayType(readType(), dimension);
+        case VOID_TYPE:
+          return VoidType.getInstance();
+        case NULL_TYPE:
+          return NullType.getInstance();
+        case UNKNOWN_TYPE:
+          return UnknownType.getInstance();
+        default:
+          throw new IllegalArgumentException("Unknown type tag " + tag);
+      }
+    }
+
+    @Nonnull
+    private List<Type> readTypes() throws IOException {
+      final int count = in.readInt();
+      final List<Type> types = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        types.add(readType());
+      }
+      return types;
+    }
+
+    @Nonnull
+    private MethodSignature readMethodSignature() throws IOException {
+      final ClassType declaringClass = (ClassType) readType();
+      final String name = readString();
+      final Type returnType = readType();
+      return identifierFactory.getMethodSignature(declaringClass, name, returnType, readTypes());
+    }
+
+    @Nonnull
+    private FieldSignature readFieldSignature() throws IOException {
+      final ClassType declaringClass = (ClassType) readType();
+      final String name = readString();
+      return identifierFactory.getFieldSignature(name, declaringClass, readType());
+    }
+
+    @Nonnull
+    private Position readPosition() throws IOException {
+      final byte tag = in.readByte();
+      if (tag == NO_POSITION) {
+        return NoPositionInformation.getInstance();
+      }
+      return new FullPosition(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+    }
+
+    @Nonnull
+    private StmtPositionInfo readStmtPosition() throws IOException {
+      final Position position = readPosition();
+      if (position instanceof NoPositionInformation) {
+        return StmtPositionInfo.createNoStmtPositionInfo();
+      }
+      return new SimpleStmtPositionInfo(position);
+    }
+
+    @Nonnull
+    private Local readLocal() throws IOException {
+      return (Local) readValue();
+    }
+
+    @Nonnull
+    private Immediate readImmediate() throws IOException {
+      return (Immediate) readValue();
+    }
+
+    @Nonnull
+    private List<Immediate> readImmediates() throws IOException {
+      final int count = in.readInt();
+      final List<Immediate> immediates = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        immediates.add(readImmediate());
+      }
+      return immediates;
+    }
+
+    @Nonnull
+    private Value readValue() throws IOException {
+      final byte tag = in.readByte();
+      switch (tag) {
+        case LOCAL:
+          return locals.get(in.readInt());
+        case INT_CONSTANT:
+          return IntConstant.getInstance(in.readInt());
+        case LONG_CONSTANT:
+          return LongConstant.getInstance(in.readLong());
+        case FLOAT_CONSTANT:
+          return FloatConstant.getInstance(in.readFloat());
+        case DOUBLE_CONSTANT:
+          return DoubleConstant.getInstance(in.readDouble());
+        case STRING_CONSTANT:
+          return new StringConstant(readString(), readType());
+        case CLASS_CONSTANT:
+          return new ClassConstant(readString(), readType());
+        case NULL_CONSTANT:
+          return NullConstant.getInstance();
+        case BOOLEAN_CONSTANT:
+          return BooleanConstant.getInstance(in.readBoolean());
+        case ENUM_CONSTANT:
+          return new EnumConstant(readString(), (ClassType) readType());
+        case METHOD_HANDLE:
+          final MethodSignature handleSignature = readMethodSignature();
+          return new MethodHandle(handleSignature, in.readInt(), readType());
+        case METHOD_TYPE:
+          final List<Type> parameterTypes = readTypes();
+          return jimple.newMethodType(parameterTypes, readType());
+        case ADD:
+          return Jimple.newAddExpr(readImmediate(), readImmediate());
+        case AND:
+          return Jimple.newAndExpr(readImmediate(), readImmediate());
+        case CMP:
+          return Jimple.newCmpExpr(readImmediate(), readImmediate());
+        case CMPG:
+          return Jimple.newCmpgExpr(readImmediate(), readImmediate());
+        case CMPL:
+          return Jimple.newCmplExpr(readImmediate(), readImmediate());
+        case DIV:
+          return Jimple.newDivExpr(readImmediate(), readImmediate());
+        case EQ:
+          return Jimple.newEqExpr(readImmediate(), readImmediate());
+        case GE:
+          return Jimple.newGeExpr(readImmediate(), readImmediate());
+        case GT:
+          return Jimple.newGtExpr(readImmediate(), readImmediate());
+        case LE:
+          return Jimple.newLeExpr(readImmediate(), readImmediate());
+        case LT:
+          return Jimple.newLtExpr(readImmediate(), readImmediate());
+        case MUL:
+          return Jimple.newMulExpr(readImmediate(), readImmediate());
+        case NE:
+          return Jimple.newNeExpr(readImmediate(), readImmediate());
+        case OR:
+          return Jimple.newOrExpr(readImmediate(), readImmediate());
+        case REM:
+          return Jimple.newRemExpr(readImmediate(), readImmediate());
+        case SHL:
+          return Jimple.newShlExpr(readImmediate(), readImmediate());
+        case SHR:
+          return Jimple.newShrExpr(readImmediate(), readImmediate());
+        case SUB:
+          return Jimple.newSubExpr(readImmediate(), readImmediate());
+        case USHR:
+          return Jimple.newUshrExpr(readImmediate(), readImmediate());
+        case XOR:
+          return Jimple.newXorExpr(readImmediate(), readImmediate());
+        case CAST:
+          return Jimple.newCastExpr(readImmediate(), readType());
+        case INSTANCE_OF:
+          return Jimple.newInstanceOfExpr(readImmediate(), readType());
+        case LENGTH:
+          return Jimple.newLengthExpr(readImmediate());
+        case NEG:
+          return Jimple.newNegExpr(readImmediate());
+        case NEW:
+          return Jimple.newNewExpr((ClassType) readType());
+        case NEW_ARRAY:
+          return jimple.newNewArrayExpr(readType(), readImmediate());
+        case NEW_MULTI_ARRAY:
+          return Jimple.newNewMultiArrayExpr((ArrayType) readType(), readImmediates());
+        case VIRTUAL_INVOKE:
+          return Jimple.newVirtualInvokeExpr(readLocal(), readMethodSignature(), readImmediates());
+        case SPECIAL_INVOKE:
+          return Jimple.newSpecialInvokeExpr(readLocal(), readMethodSignature(), readImmediates());
+        case INTERFACE_INVOKE:
+          return Jimple.newInterfaceInvokeExpr(
+              readLocal(), readMethodSignature(), readImmediates());
+        case STATIC_INVOKE:
+          return Jimple.newStaticInvokeExpr(readMethodSignature(), readImmediates());
+        case DYNAMIC_INVOKE:
+          final MethodSignature bootstrapMethod = readMethodSignature();
+          final List<Immediate> bootstrapArgs = readImmediates();
+          final int handleTag = in.readInt();
+          return Jimple.newDynamicInvokeExpr(
+              bootstrapMethod, bootstrapArgs, readMethodSignature(), handleTag, readImmediates());
+        case ARRAY_REF:
+          return jimple.newArrayRef(readLocal(), readImmediate());
+        case INSTANCE_FIELD_REF:
+          return Jimple.newInstanceFieldRef(readLocal(), readFieldSignature());
+        case STATIC_FIELD_REF:
+          return Jimple.newStaticFieldRef(readFieldSignature());
+        case PARAMETER_REF:
+          return Jimple.newParameterRef(readType(), in.readInt());
+        case THIS_REF:
+          return Jimple.newThisRef((ClassType) readType());
+        case CAUGHT_EXCEPTION_REF:
+          return new JCaughtExceptionRef(readType());
+        default:
+          throw new IllegalArgumentException("Unknown value tag " + tag);
+      }
+    }
+
+    @Nonnull
+    private Stmt readStmt() throws IOException {
+      final byte tag = in.readByte();
+      switch (tag) {
+        case ASSIGN:
+          final Value leftOp = readValue();
+          final Value rightOp = readValue();
+          return Jimple.newAssignStmt(leftOp, rightOp, readStmtPosition());
+        case IDENTITY:
+          final Local local = readLocal();
+          final IdentityRef identityRef = (IdentityRef) readValue();
+          return Jimple.newIdentityStmt(local, identityRef, readStmtPosition());
+        case INVOKE:
+          final AbstractInvokeExpr invokeExpr = (AbstractInvokeExpr) readValue();
+          return Jimple.newInvokeStmt(invokeExpr, readStmtPosition());
+        case IF:
+          final AbstractConditionExpr condition = (AbstractConditionExpr) readValue();
+          return Jimple.newIfStmt(condition, readStmtPosition());
+        case GOTO:
+          return Jimple.newGotoStmt(readStmtPosition());
+        case TABLE_SWITCH:
+          final Immediate tableKey = readImmediate();
+          final int lowIndex = in.readInt();
+          final int highIndex = in.readInt();
+          return Jimple.newTableSwitchStmt(tableKey, lowIndex, highIndex, readStmtPosition());
+        case LOOKUP_SWITCH:
+          final Immediate lookupKey = readImmediate();
+          final List<IntConstant> lookupValues = new ArrayList<>();
+          for (Immediate value : readImmediates()) {
+            lookupValues.add((IntConstant) value);
+          }
+          return Jimple.newLookupSwitchStmt(lookupKey, lookupValues, readStmtPosition());
+        case RETURN:
+          final Immediate returnValue = readImmediate();
+          return Jimple.newReturnStmt(returnValue, readStmtPosition());
+        case RETURN_VOID:
+          return Jimple.newReturnVoidStmt(readStmtPosition());
+        case THROW:
+          final Immediate thrown = readImmediate();
+          return Jimple.newThrowStmt(thrown, readStmtPosition());
+        case NOP:
+          return Jimple.newNopStmt(readStmtPosition());
+        case ENTER_MONITOR:
+          final Immediate enterOp = readImmediate();
+          return Jimple.newEnterMonitorStmt(enterOp, readStmtPosition());
+        case EXIT_MONITOR:
+          final Immediate exitOp = readImmediate();
+          return Jimple.newExitMonitorStmt(exitOp, readStmtPosition());
+        case RET:
+          final Immediate stmtAddress = readImmediate();
+          return Jimple.newRetStmt(stmtAddress, readStmtPosition());
+        case BREAKPOINT:
+          return Jimple.newBreakpointStmt(readStmtPosition());
+        default:
+          throw new IllegalArgumentException("Unknown stmt tag " + tag);
+      }
+    }
+  }
+}
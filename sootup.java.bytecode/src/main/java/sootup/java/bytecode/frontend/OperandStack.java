@@ -22,9 +22,8 @@
 
 package sootup.java.bytecode.frontend;
 
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import javax.annotation.Nonnull;
 import org.objectweb.asm.tree.AbstractInsnNode;
 import sootup.core.jimple.Jimple;
@@ -41,20 +40,23 @@ import sootup.core.types.Type;
 public class OperandStack {
 
   @Nonnull private final AsmMethodSource methodSource;
-  private List<Operand> stack;
-  @Nonnull public Map<AbstractInsnNode, StackFrame> frames;
+  /** the operands of the currently converted instructions; reused for each branch of the method */
+  @Nonnull private final List<Operand> stack = new ArrayList<>();
+  /** the frame of an instruction, indexed by the position of the instruction */
+  @Nonnull private final StackFrame[] frames;
 
   public OperandStack(@Nonnull AsmMethodSource methodSource, int nrInsn) {
     this.methodSource = methodSource;
-    frames = new LinkedHashMap<>(nrInsn);
+    frames = new StackFrame[nrInsn];
   }
 
   @Nonnull
   public StackFrame getOrCreateStackframe(@Nonnull AbstractInsnNode insn) {
-    StackFrame frame = frames.get(insn);
+    final int insnIdx = methodSource.getInsnIndex(insn);
+    StackFrame frame = frames[insnIdx];
     if (frame == null) {
       frame = new StackFrame(methodSource);
-      frames.put(insn, frame);
+      frames[insnIdx] = frame;
     }
     return frame;
   }
@@ -188,7 +190,12 @@ public class OperandStack {
     return stack;
   }
 
-  public void setOperandStack(@Nonnull List<Operand> stack) {
-    this.stack = stack;
+  /**
+   * Replaces the operands of the stack with the given ones. The given list is copied, so it can be
+   * kept as a snapshot of the stack.
+   */
+  public void setOperandStack(@Nonnull List<Operand> operands) {
+    stack.clear();
+    stack.addAll(operands);
   }
 }
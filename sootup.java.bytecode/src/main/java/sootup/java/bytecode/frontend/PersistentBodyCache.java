@@ -0,0 +1,364 @@
+package sootup.java.bytecode.frontend;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.CodeSource;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.cache.BodyCache;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.util.ExecutorUtils;
+import sootup.core.util.PathUtils;
+import sootup.java.core.JavaSootClass;
+
+/**
+ * A {@link BodyCache} that stores the bodies in a directory, so they can be reused by later runs.
+ * Every run that creates new bodies appends them to a new segment file which is completed when the
+ * cache is closed; the completed segments that exist when the cache is opened are memory-mapped and
+ * indexed. When there are too many segments, they are merged into one on opening. Bodies are
+ * encoded with {@link BodyCodec} and written asynchronously by a single background thread. Bodies
+ * that are put while the cache is open are available after the cache is opened again.
+ *
+ * <p>The entries are stored in a subdirectory per SootUp version and encoding version, so a cache
+ * is never read by a SootUp version it was not written by. Builds without a release version (i.e.
+ * development and snapshot builds) additionally get a fingerprint of their jars or class
+ * directories in the name of the subdirectory.
+ *
+ * <pre>
+ * <code>
+ * PersistentBodyCache cache = PersistentBodyCache.open(Paths.get("body-cache"));
+ * ClassLoadingOptions options = new ClassLoadingOptions() {
+ *   public List&lt;BodyInterceptor&gt; getBodyInterceptors() {
+ *     return BytecodeBodyInterceptors.Default.bodyInterceptors();
+ *   }
+ *   public Optional&lt;BodyCache&gt; getBodyCache() {
+ *     return Optional.of(cache);
+ *   }
+ * };
+ * JavaView view = project.createView(inputLocation -&gt; options);
+ * ...
+ * cache.close();
+ * </code>
+ * </pre>
+ */
+public class PersistentBodyCache implements BodyCache, Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(PersistentBodyCache.class);
+
+  private static final int SEGMENT_MAGIC = 0x53554243; // "SUBC"
+  private static final String SEGMENT_SUFFIX = ".segment";
+  /** the suffix of a segment that is still written, it is renamed when the cache is closed */
+  private static final String PARTIAL_SEGMENT_SUFFIX = ".partial";
+  /** partial segments that were not modified for this time are left over by killed processes */
+  private static final long STALE_PARTIAL_SEGMENT_MILLIS = TimeUnit.DAYS.toMillis(1);
+  /** the number of segments up to which they are not merged on opening */
+  private static final int MAX_SEGMENTS = 8;
+
+  private static final int WRITE_QUEUE_CAPACITY = 1024;
+
+  @Nonnull private final Path directory;
+  /** the encoded bodies of the segments that existed when the cache was opened */
+  @Nonnull private final Map<String, ByteBuffer> entries = new ConcurrentHashMap<>();
+  /** the entries that are written by this instance */
+  @Nonnull private final Set<String> writtenEntries = ConcurrentHashMap.newKeySet();
+
+  @Nonnull private final ThreadPoolExecutor writer;
+  private DataOutputStream segment;
+  private Path segmentFile;
+  private boolean closed = false;
+
+  private PersistentBodyCache(@Nonnull Path directory) {
+    this.directory = directory;
+    // when the queue is full the caller writes the body itself instead of piling up bodies
+    this.writer =
+        ExecutorUtils.newBoundedExecutor(1, WRITE_QUEUE_CAPACITY, "PersistentBodyCache-writer");
+  }
+
+  /**
+   * Opens the cache in the given directory and indexes the bodies that are stored in it. The
+   * directory is created if it does not exist.
+   */
+  @Nonnull
+  public static PersistentBodyCache open(@Nonnull Path directory) throws IOException {
+    final Path versionDirectory = directory.resolve(versionDirectoryName());
+    Files.createDirectories(versionDirectory);
+
+    final PersistentBodyCache cache = new PersistentBodyCache(versionDirectory);
+    final List<Path> indexedSegments = new ArrayList<>();
+    try (DirectoryStream<Path> segments = Files.newDirectoryStream(versionDirectory)) {
+      for (Path segment : segments) {
+        final String fileName = segment.getFileName().toString();
+        if (fileName.endsWith(SEGMENT_SUFFIX)) {
+          if (cache.indexSegment(segment)) {
+            indexedSegments.add(segment);
+          }
+        } else if (fileName.endsWith(PARTIAL_SEGMENT_SUFFIX)) {
+          deleteIfStale(segment);
+        }
+      }
+    }
+    if (indexedSegments.size() > MAX_SEGMENTS) {
+      cache.mergeSegments(indexedSegments);
+    }
+    return cache;
+  }
+
+  /**
+   * @return the name of the subdirectory of the cache for this SootUp version; builds without a
+   *     release version get a fingerprint of the classes that lift and encode the bodies
+   */
+  @Nonnull
+  static String versionDirectoryName() throws IOException {
+    final String sootUpVersion = BodyCodec.class.getPackage().getImplementationVersion();
+    final String name =
+        "v"
+            + BodyCodec.FORMAT_VERSION
+            + "-"
+            + (sootUpVersion == null ? "unversioned" : sootUpVersion);
+    if (sootUpVersion != null && !sootUpVersion.endsWith("-SNAPSHOT")) {
+      return name;
+    }
+    final Set<Path> codeSources = new TreeSet<>();
+    for (Class<?> clazz : Arrays.asList(Body.class, JavaSootClass.class, BodyCodec.class)) {
+      final CodeSource codeSource = clazz.getProtectionDomain().getCodeSource();
+      if (codeSource != null && codeSource.getLocation() != null) {
+        try {
+          codeSources.add(Paths.get(codeSource.getLocation().toURI()));
+        } catch (URISyntaxException | IllegalArgumentException e) {
+          logger.debug("Can not fingerprint " + codeSource.getLocation() + ".", e);
+        }
+      }
+    }
+    final StringBuilder fingerprints = new StringBuilder();
+    for (Path codeSource : codeSources) {
+      fingerprints.append(PathUtils.fingerprint(codeSource));
+    }
+    return name + "-" + Integer.toHexString(fingerprints.toString().hashCode());
+  }
+
+  private static void deleteIfStale(@Nonnull Path partialSegment) {
+    try {
+      if (Files.getLastModifiedTime(partialSegment).toMillis()
+          < System.currentTimeMillis() - STALE_PARTIAL_SEGMENT_MILLIS) {
+        Files.deleteIfExists(partialSegment);
+      }
+    } catch (IOException e) {
+      logger.debug("Could not delete the stale body cache segment " + partialSegment + ".", e);
+    }
+  }
+
+  /**
+   * Writes the entries of the indexed segments into a single new segment and deletes the indexed
+   * ones. The merged segments stay readable by the processes that mapped them already; processes
+   * that open the cache concurrently may index both, which only duplicates entries.
+   */
+  private void mergeSegments(@Nonnull List<Path> indexedSegments) throws IOException {
+    final Path partialSegment = directory.resolve(UUID.randomUUID() + PARTIAL_SEGMENT_SUFFIX);
+    final Path mergedSegment = completedSegmentOf(partialSegment);
+    try (DataOutputStream out =
+        new DataOutputStream(
+            new BufferedOutputStream(
+                Files.newOutputStream(partialSegment, StandardOpenOption.CREATE_NEW), 1 << 16))) {
+      out.writeInt(SEGMENT_MAGIC);
+      for (Map.Entry<String, ByteBuffer> entry : entries.entrySet()) {
+        final ByteBuffer encodedBody = entry.getValue().duplicate();
+        final byte[] bytes = new byte[encodedBody.remaining()];
+        encodedBody.get(bytes);
+        writeRecord(out, entry.getKey().getBytes(StandardCharsets.UTF_8), bytes);
+      }
+    }
+    Files.move(partialSegment, mergedSegment, StandardCopyOption.ATOMIC_MOVE);
+
+    entries.clear();
+    indexSegment(mergedSegment);
+    for (Path segment : indexedSegments) {
+      try {
+        Files.deleteIfExists(segment);
+      } catch (IOException e) {
+        // e.g. a mapped file on Windows; it is merged again on the next opening
+        logger.debug("Could not delete the merged body cache segment " + segment + ".", e);
+      }
+    }
+  }
+
+  @Nonnull
+  private static Path completedSegmentOf(@Nonnull Path partialSegment) {
+    final String fileName = partialSegment.getFileName().toString();
+    return partialSegment.resolveSibling(
+        fileName.substring(0, fileName.length() - PARTIAL_SEGMENT_SUFFIX.length())
+            + SEGMENT_SUFFIX);
+  }
+
+  /** @return false if the segment was removed concurrently or is no body cache segment */
+  private boolean indexSegment(@Nonnull Path segment) throws IOException {
+    final MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        logger.warn("Ignoring body cache segment " + segment + " as it is larger than 2 GB.");
+        return false;
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    } catch (NoSuchFileException e) {
+      // merged by a concurrently opened cache
+      return false;
+    }
+    if (buffer.remaining() < 4 || buffer.getInt() != SEGMENT_MAGIC) {
+      logger.warn("Ignoring body cache segment " + segment + " as it is no body cache segment.");
+      return false;
+    }
+    // a record is the entry key followed by the encoded body; a record that was not completely
+    // written e.g. because the process was killed ends the segment
+    while (true) {
+      final String entry = readString(buffer);
+      if (entry == null || buffer.remaining() < 4) {
+        return true;
+      }
+      final int length = buffer.getInt();
+      if (length < 0 || buffer.remaining() < length) {
+        return true;
+      }
+      final ByteBuffer body = buffer.slice();
+      body.limit(length);
+      buffer.position(buffer.position() + length);
+      entries.putIfAbsent(entry, body);
+    }
+  }
+
+  private static String readString(@Nonnull ByteBuffer buffer) {
+    if (buffer.remaining() < 4) {
+      return null;
+    }
+    final int length = buffer.getInt();
+    if (length < 0 || buffer.remaining() < length) {
+      return null;
+    }
+    final byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  @Nonnull
+  private static String entryOf(@Nonnull String key, @Nonnull MethodSignature methodSignature) {
+    return key + ' ' + methodSignature;
+  }
+
+  /** @return the number of bodies that were stored when the cache was opened */
+  public int size() {
+    return entries.size();
+  }
+
+  @Nonnull
+  @Override
+  public Optional<Body> getBody(@Nonnull String key, @Nonnull MethodSignature methodSignature) {
+    final ByteBuffer encodedBody = entries.get(entryOf(key, methodSignature));
+    if (encodedBody == null) {
+      return Optional.empty();
+    }
+    final byte[] bytes = new byte[encodedBody.remaining()];
+    encodedBody.duplicate().get(bytes);
+    try {
+      return Optional.of(BodyCodec.decode(bytes));
+    } catch (IllegalArgumentException e) {
+      // a damaged entry is a cache miss; the body is created and stored again
+      entries.remove(entryOf(key, methodSignature));
+      return Optional.empty();
+    }
+  }
+
+  @Override
+  public void putBody(@Nonnull String key, @Nonnull Body body) {
+    final String entry = entryOf(key, body.getMethodSignature());
+    if (entries.containsKey(entry) || !writtenEntries.add(entry)) {
+      return;
+    }
+    try {
+      writer.execute(() -> write(entry, body));
+    } catch (RejectedExecutionException e) {
+      // the cache is closed already
+    }
+  }
+
+  private void write(@Nonnull String entry, @Nonnull Body body) {
+    final byte[] encodedBody;
+    try {
+      encodedBody = BodyCodec.encode(body);
+    } catch (IllegalArgumentException e) {
+      logger.debug("Body of " + body.getMethodSignature() + " is not cached.", e);
+      return;
+    }
+    final byte[] entryBytes = entry.getBytes(StandardCharsets.UTF_8);
+    synchronized (this) {
+      try {
+        if (closed) {
+          return;
+        }
+        if (segment == null) {
+          segmentFile = directory.resolve(UUID.randomUUID() + PARTIAL_SEGMENT_SUFFIX);
+          segment =
+              new DataOutputStream(
+                  new BufferedOutputStream(
+                      Files.newOutputStream(segmentFile, StandardOpenOption.CREATE_NEW), 1 << 16));
+          segment.writeInt(SEGMENT_MAGIC);
+        }
+        writeRecord(segment, entryBytes, encodedBody);
+      } catch (IOException e) {
+        logger.warn("Could not write the body cache in " + directory + ".", e);
+      }
+    }
+  }
+
+  private static void writeRecord(
+      @Nonnull DataOutputStream out, @Nonnull byte[] entryBytes, @Nonnull byte[] encodedBody)
+      throws IOException {
+    out.writeInt(entryBytes.length);
+    out.write(entryBytes);
+    out.writeInt(encodedBody.length);
+    out.write(encodedBody);
+  }
+
+  /** Waits until the pending bodies are written and completes the current segment. */
+  @Override
+  public void close() throws IOException {
+    ExecutorUtils.shutdownAndAwaitTermination(writer);
+    synchronized (this) {
+      closed = true;
+      if (segment != null) {
+        segment.close();
+        segment = null;
+        Files.move(segmentFile, completedSegmentOf(segmentFile), StandardCopyOption.ATOMIC_MOVE);
+        segmentFile = null;
+      }
+    }
+  }
+}
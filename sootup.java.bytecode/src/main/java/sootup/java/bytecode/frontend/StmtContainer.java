@@ -23,6 +23,7 @@ package sootup.java.bytecode.frontend;
 import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Consumer;
 import javax.annotation.Nonnull;
 import sootup.core.jimple.basic.JimpleComparator;
 import sootup.core.jimple.basic.StmtPositionInfo;
@@ -93,6 +94,16 @@ class StmtContainer extends Stmt {
     throw new UnsupportedOperationException();
   }
 
+  @Override
+  public void forEachUse(@Nonnull Consumer<Value> consumer) {
+    throw new UnsupportedOperationException();
+  }
+
+  @Override
+  public void forEachDef(@Nonnull Consumer<Value> consumer) {
+    throw new UnsupportedOperationException();
+  }
+
   @Override
   public boolean fallsThrough() {
     throw new UnsupportedOperationException();
@@ -201,6 +201,21 @@ public class JavaClassPathAnalysisInputLocation implements AnalysisInputLocation
     return Optional.empty();
   }
 
+  /** @return the fingerprints of all class path entries or empty if an entry has none */
+  @Nonnull
+  @Override
+  public Optional<String> getFingerprint() {
+    StringBuilder fingerprint = new StringBuilder();
+    for (AnalysisInputLocation<JavaSootClass> inputLocation : cpEntries) {
+      Optional<String> entryFingerprint = inputLocation.getFingerprint();
+      if (!entryFingerprint.isPresent()) {
+        return Optional.empty();
+      }
+      fingerprint.append(entryFingerprint.get()).append(File.pathSeparatorChar);
+    }
+    return Optional.of(fingerprint.toString());
+  }
+
   @Nonnull
   private Optional<AnalysisInputLocation<JavaSootClass>> inputLocationForPath(@Nonnull Path path) {
     if (Files.exists(path) && (Files.isDirectory(path) || PathUtils.isArchive(path))) {
@@ -39,6 +39,7 @@ import sootup.core.frontend.ClassProvider;
 import sootup.core.frontend.ResolveException;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.types.ClassType;
+import sootup.core.util.PathUtils;
 import sootup.core.util.StreamUtils;
 import sootup.core.views.View;
 import sootup.java.bytecode.frontend.AsmJavaClassProvider;
@@ -240,6 +241,20 @@ public class JrtFileSystemAnalysisInputLocation implements ModuleInfoAnalysisInp
     return Collections.unmodifiableSet(moduleInfoMap.keySet());
   }
 
+  /** the classes of the jrt file system are stored in the modules image of the running JDK */
+  @Nonnull
+  @Override
+  public Optional<String> getFingerprint() {
+    Path modulesImage = Paths.get(System.getProperty("java.home"), "lib", "modules");
+    try {
+      return Optional.of(
+          System.getProperty("java.runtime.version") + ":" + PathUtils.fingerprint(modulesImage));
+    } catch (IOException e) {
+      throw new ResolveException(
+          "Could not create the fingerprint of " + modulesImage, modulesImage, e);
+    }
+  }
+
   @Override
   public boolean equals(Object o) {
     return o instanceof JrtFileSystemAnalysisInputLocation;
@@ -29,6 +29,7 @@ import org.xml.sax.SAXException;
 import sootup.core.IdentifierFactory;
 import sootup.core.frontend.AbstractClassSource;
 import sootup.core.frontend.ClassProvider;
+import sootup.core.frontend.ResolveException;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.inputlocation.FileType;
 import sootup.core.model.SourceType;
@@ -161,6 +162,24 @@ public class PathBasedAnalysisInputLocation implements AnalysisInputLocation<Jav
     return srcType;
   }
 
+  @Nonnull
+  @Override
+  public Optional<String> getFingerprint() {
+    if (pathBasedAnalysisInputLocationObj != null) {
+      return pathBasedAnalysisInputLocationObj.getFingerprint();
+    }
+    return Optional.of(fingerprintOf(path));
+  }
+
+  @Nonnull
+  protected static String fingerprintOf(@Nonnull Path path) {
+    try {
+      return PathUtils.fingerprint(path);
+    } catch (IOException e) {
+      throw new ResolveException("Could not create the fingerprint of " + path, path, e);
+    }
+  }
+
   private static boolean isMultiReleaseJar(Path path) {
     try {
       FileInputStream inputStream = new FileInputStream(path.toFile());
@@ -529,12 +548,22 @@ public class PathBasedAnalysisInputLocation implements AnalysisInputLocation<Jav
 
   private static class ApkAnalysisInputLocation extends ArchiveBasedAnalysisInputLocation {
 
+    @Nonnull private final Path apkPath;
+
     private ApkAnalysisInputLocation(@Nonnull Path path, @Nullable SourceType srcType) {
       super(path, srcType);
+      this.apkPath = path;
       String jarPath = dex2jar(path);
       this.path = Paths.get(jarPath);
     }
 
+    /** the converted jar is rewritten on every run, so the apk itself is fingerprinted */
+    @Nonnull
+    @Override
+    public Optional<String> getFingerprint() {
+      return Optional.of(fingerprintOf(apkPath));
+    }
+
     private String dex2jar(Path path) {
       String apkPath = path.toAbsolutePath().toString();
       String outDir = "./tmp/";
@@ -614,6 +643,7 @@ public class PathBasedAnalysisInputLocation implements AnalysisInputLocation<Jav
     public List<AnalysisInputLocation<JavaSootClass>> containedInputLocations = new ArrayList<>();
     public static int maxAllowedBytesToExtract =
         1024 * 1024 * 500; // limit of extracted file size to protect against archive bombs
+    @Nonnull private final Path warPath;
 
     private WarArchiveAnalysisInputLocation(@Nonnull Path warPath, @Nullable SourceType srcType) {
       super(
@@ -625,6 +655,7 @@ public class PathBasedAnalysisInputLocation implements AnalysisInputLocation<Jav
                   + warPath.hashCode()
                   + "/"),
           srcType);
+      this.warPath = warPath;
       extractWarFile(warPath, path);
 
       Path webInfPath = path.resolve("WEB-INF");
@@ -679,6 +710,13 @@ public class PathBasedAnalysisInputLocation implements AnalysisInputLocation<Jav
       return Optional.empty();
     }
 
+    /** the war file is extracted on every run, so the war file itself is fingerprinted */
+    @Nonnull
+    @Override
+    public Optional<String> getFingerprint() {
+      return Optional.of(fingerprintOf(warPath));
+    }
+
     /**
      * Extracts the war file at the temporary location to analyze underlying class and jar files
      *
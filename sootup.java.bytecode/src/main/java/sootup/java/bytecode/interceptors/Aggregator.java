@@ -20,30 +20,36 @@ package sootup.java.bytecode.interceptors;
  * <http://www.gnu.org/licenses/lgpl-2.1.html>.
  * #L%
  */
-import com.google.common.collect.Lists;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 import javax.annotation.Nonnull;
-import sootup.core.graph.StmtGraph;
+import javax.annotation.Nullable;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.MutableStmtGraph;
 import sootup.core.jimple.basic.Immediate;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Value;
-import sootup.core.jimple.common.expr.AbstractBinopExpr;
+import sootup.core.jimple.common.constant.Constant;
 import sootup.core.jimple.common.expr.AbstractInstanceInvokeExpr;
+import sootup.core.jimple.common.expr.AbstractInvokeExpr;
 import sootup.core.jimple.common.ref.JArrayRef;
 import sootup.core.jimple.common.ref.JFieldRef;
+import sootup.core.jimple.common.ref.JInstanceFieldRef;
 import sootup.core.jimple.common.stmt.*;
-import sootup.core.jimple.common.stmt.JAssignStmt;
-import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.jimple.javabytecode.stmt.JEnterMonitorStmt;
+import sootup.core.jimple.javabytecode.stmt.JExitMonitorStmt;
 import sootup.core.model.Body;
 import sootup.core.transform.BodyInterceptor;
 import sootup.core.views.View;
 
 public class Aggregator implements BodyInterceptor {
 
-  // TODO: [ms] the onlyStackVars flag kind of enable/disables ***everything*** that does
-  // something in this Interceptor.. check with old soot again (see usage in big if)
-  boolean onlyStackVars;
+  // side effect classes of a Stmt, used as indices into the side effect counters
+  private static final int INVOKE = 0;
+  private static final int FIELD_WRITE = 1;
+  private static final int ARRAY_WRITE = 2;
+  private static final int HEAP_READ = 3;
+
+  final boolean onlyStackVars;
 
   public Aggregator() {
     this(false);
@@ -53,140 +59,250 @@ public class Aggregator implements BodyInterceptor {
     this.onlyStackVars = onlyStackVars;
   }
 
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName() + "(onlyStackVars=" + onlyStackVars + ")";
+  }
+
   /**
    * Traverse the statements in the given body, looking for aggregation possibilities; that is,
    * given a def d and a use u, d has no other uses, u has no other defs, collapse d and u.
    *
+   * <p>Only a def and a use inside the same block are collapsed. The number of defs and uses of
+   * every Local is counted once upfront, intervening side effects are detected by comparing
+   * counters of the side effect classes (invoke, field write, array write, heap read) at the
+   * position of d and u. So the whole pass is linear in the size of the body.
+   *
    * <p>option: only-stack-locals; if this is true, only aggregate variables starting with $
    */
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
+    final MutableStmtGraph graph = builder.getStmtGraph();
+
+    // [number of defs, number of uses] of each Local
+    final Map<Local, int[]> defUseCounts = new HashMap<>();
+    for (Stmt stmt : builder.getStmts()) {
+      stmt.forEachLocalUse(use -> defUseCounts.computeIfAbsent(use, k -> new int[2])[1]++);
+      for (Value def : stmt.getDefs()) {
+        if (def instanceof Local) {
+          defUseCounts.computeIfAbsent((Local) def, k -> new int[2])[0]++;
+        }
+      }
+    }
 
-    StmtGraph<?> graph = builder.getStmtGraph();
-    List<Stmt> stmts = builder.getStmts();
-
-    for (Stmt stmt : Lists.newArrayList(stmts)) {
-      if (stmt instanceof JAssignStmt) {
-        final JAssignStmt<?, ?> assignStmt = (JAssignStmt<?, ?>) stmt;
-        Value lhs = assignStmt.getLeftOp();
-        if (lhs instanceof Local) {
-          Local lhsLocal = (Local) lhs;
-          if (onlyStackVars && !lhsLocal.getName().startsWith("$stack")) {
-            continue;
+    // the blocks change while aggregating, so work on a copy
+    final List<List<Stmt>> blocks = new ArrayList<>();
+    for (BasicBlock<?> block : graph.getBlocks()) {
+      blocks.add(new ArrayList<>(block.getStmts()));
+    }
+    for (List<Stmt> block : blocks) {
+      aggregateBlock(builder, block, defUseCounts);
+    }
+  }
+
+  private void aggregateBlock(
+      @Nonnull Body.BodyBuilder builder,
+      @Nonnull List<Stmt> block,
+      @Nonnull Map<Local, int[]> defUseCounts) {
+    // the number of Stmts of each side effect class before the current position
+    final int[] sideEffects = new int[4];
+    final Map<Local, Integer> lastDefPositions = new HashMap<>();
+    final Map<Local, Aggregatee> aggregatees = new HashMap<>();
+
+    for (int position = 0; position < block.size(); position++) {
+      final Stmt stmt = block.get(position);
+      Stmt newStmt = stmt;
+      List<Stmt> removedDefs = null;
+      for (Value use : stmt.getUses()) {
+        if (!(use instanceof Local)) {
+          continue;
+        }
+        final Aggregatee aggregatee = aggregatees.remove(use);
+        if (aggregatee == null || !canMove(aggregatee, sideEffects, lastDefPositions)) {
+          continue;
+        }
+        final Stmt aggregated = insert(aggregatee.def.getRightOp(), newStmt, (Local) use);
+        if (aggregated != null) {
+          newStmt = aggregated;
+          if (removedDefs == null) {
+            removedDefs = new ArrayList<>();
           }
-          for (Value val : assignStmt.getUses()) {
-            if (val instanceof Local) {
-              List<AbstractDefinitionStmt<Local, Value>> defs = ((Local) val).getDefsOfLocal(stmts);
-              if (defs.size() == 1) {
-                Stmt relevantDef = defs.get(0);
-                List<Stmt> path = graph.getExtendedBasicBlockPathBetween(relevantDef, stmt);
-
-                boolean cantAggr = false;
-                boolean propagatingInvokeExpr = false;
-                boolean propagatingFieldRef = false;
-                boolean propagatingArrayRef = false;
-                List<JFieldRef> fieldRefList = new ArrayList<>();
-
-                List<Value> localsUsed = new ArrayList<>();
-                for (Stmt pathStmt : path) {
-                  List<Value> allDefs = pathStmt.getDefs();
-                  for (Value def : allDefs) {
-                    if (def instanceof Local) {
-                      localsUsed.add(def);
-                    } else if (def instanceof AbstractInstanceInvokeExpr) {
-                      propagatingInvokeExpr = true;
-                    } else if (def instanceof JArrayRef) {
-                      propagatingArrayRef = true;
-                    } else if (def instanceof JFieldRef) {
-                      propagatingFieldRef = true;
-                      fieldRefList.add((JFieldRef) def);
-                    }
-                  }
-                }
-                for (Stmt pathStmt : path) {
-                  if (pathStmt != stmt && pathStmt != relevantDef) {
-                    for (Value stmtDef : pathStmt.getDefs()) {
-                      if (localsUsed.contains(stmtDef)) {
-                        cantAggr = true;
-                        break;
-                      }
-                      if (propagatingInvokeExpr || propagatingFieldRef || propagatingArrayRef) {
-                        if (stmtDef instanceof JFieldRef) {
-                          if (propagatingInvokeExpr) {
-                            cantAggr = true;
-                            break;
-                          } else if (propagatingFieldRef) {
-                            // Can't aggregate a field access if passing a definition of a field
-                            // with the same name, because they might be aliased
-                            for (JFieldRef fieldRef : fieldRefList) {
-                              if (fieldRef.equals((JFieldRef) stmtDef)) {
-                                cantAggr = true;
-                                break;
-                              }
-                            }
-                          }
-                        } else if (stmtDef instanceof JArrayRef) {
-                          if (propagatingInvokeExpr || propagatingArrayRef) {
-                            // Cannot aggregate an invoke expr past an array write and cannot
-                            // aggregate an array read past a write
-                            cantAggr = true;
-                            break;
-                          }
-                        }
-                      }
-                    }
-                  }
-                  // Check for intervening side effects due to method calls
-                  if (propagatingInvokeExpr || propagatingFieldRef || propagatingArrayRef) {
-                    for (final Value value : stmt.getUses()) {
-                      if (pathStmt == stmt && value == lhs) {
-                        break;
-                      }
-                      if (value instanceof AbstractInstanceInvokeExpr
-                          || (propagatingInvokeExpr
-                              && (value instanceof JFieldRef || value instanceof JArrayRef))) {
-                        cantAggr = true;
-                        break;
-                      }
-                    }
-                  }
-                }
-
-                if (cantAggr) {
-                  continue;
-                }
-
-                Value aggregatee = ((JAssignStmt<?, ?>) relevantDef).getRightOp();
-                JAssignStmt<?, ?> newStmt = null;
-                if (assignStmt.getRightOp() instanceof AbstractBinopExpr) {
-                  AbstractBinopExpr rightOp = (AbstractBinopExpr) assignStmt.getRightOp();
-                  if (rightOp.getOp1() == val) {
-                    AbstractBinopExpr newBinopExpr = rightOp.withOp1((Immediate) aggregatee);
-                    newStmt =
-                        new JAssignStmt<>(
-                            assignStmt.getLeftOp(), newBinopExpr, assignStmt.getPositionInfo());
-                  } else if (rightOp.getOp2() == val) {
-                    AbstractBinopExpr newBinopExpr = rightOp.withOp2((Immediate) aggregatee);
-                    newStmt =
-                        new JAssignStmt<>(
-                            assignStmt.getLeftOp(), newBinopExpr, assignStmt.getPositionInfo());
-                  }
-                } else {
-                  newStmt = assignStmt.withRValue(aggregatee);
-                }
-                if (newStmt != null) {
-                  builder.replaceStmt(stmt, newStmt);
-                  if (graph.getStartingStmt() == relevantDef) {
-                    Stmt newStartingStmt = builder.getStmtGraph().successors(relevantDef).get(0);
-                    builder.setStartingStmt(newStartingStmt);
-                  }
-                  builder.removeStmt(relevantDef);
-                }
-              }
-            }
+          removedDefs.add(aggregatee.def);
+        }
+      }
+
+      if (newStmt != stmt) {
+        builder.replaceStmt(stmt, newStmt);
+        for (Stmt removedDef : removedDefs) {
+          removeStmt(builder, removedDef);
+        }
+      }
+
+      final int sideEffectClasses = sideEffectClassesOf(newStmt);
+      for (int i = 0; i < sideEffects.length; i++) {
+        if ((sideEffectClasses & (1 << i)) != 0) {
+          sideEffects[i]++;
+        }
+      }
+
+      for (Value def : newStmt.getDefs()) {
+        if (def instanceof Local) {
+          lastDefPositions.put((Local) def, position);
+        }
+      }
+      if (newStmt instanceof JAssignStmt) {
+        final JAssignStmt<?, ?> assignStmt = (JAssignStmt<?, ?>) newStmt;
+        if (assignStmt.getLeftOp() instanceof Local) {
+          final Local local = (Local) assignStmt.getLeftOp();
+          final int[] defUseCount = defUseCounts.get(local);
+          if (defUseCount[0] == 1
+              && defUseCount[1] == 1
+              && (!onlyStackVars || local.getName().startsWith("$"))) {
+            aggregatees.put(local, new Aggregatee(assignStmt, position, sideEffects.clone()));
           }
         }
       }
     }
   }
+
+  /**
+   * Checks whether the right hand side of the aggregatee's def can be moved behind all Stmts that
+   * have been visited since the def.
+   */
+  private static boolean canMove(
+      @Nonnull Aggregatee aggregatee,
+      @Nonnull int[] sideEffects,
+      @Nonnull Map<Local, Integer> lastDefPositions) {
+    final Value value = aggregatee.def.getRightOp();
+
+    // the used Locals must not be redefined in between
+    if (value instanceof Local && isDefinedAfter((Local) value, aggregatee, lastDefPositions)) {
+      return false;
+    }
+    for (Value use : value.getUses()) {
+      if (use instanceof Local && isDefinedAfter((Local) use, aggregatee, lastDefPositions)) {
+        return false;
+      }
+    }
+
+    final int invokes = sideEffects[INVOKE] - aggregatee.sideEffects[INVOKE];
+    final int fieldWrites = sideEffects[FIELD_WRITE] - aggregatee.sideEffects[FIELD_WRITE];
+    final int arrayWrites = sideEffects[ARRAY_WRITE] - aggregatee.sideEffects[ARRAY_WRITE];
+    final int heapReads = sideEffects[HEAP_READ] - aggregatee.sideEffects[HEAP_READ];
+    if (value instanceof AbstractInvokeExpr) {
+      // an invoke may read or write anything
+      return invokes + fieldWrites + arrayWrites + heapReads == 0;
+    } else if (value instanceof JFieldRef) {
+      // fields of different objects might be aliased, so don't pass any field write
+      return invokes + fieldWrites == 0;
+    } else if (value instanceof JArrayRef) {
+      return invokes + arrayWrites == 0;
+    }
+    return true;
+  }
+
+  private static boolean isDefinedAfter(
+      @Nonnull Local local,
+      @Nonnull Aggregatee aggregatee,
+      @Nonnull Map<Local, Integer> lastDefPositions) {
+    final Integer lastDefPosition = lastDefPositions.get(local);
+    return lastDefPosition != null && lastDefPosition > aggregatee.position;
+  }
+
+  /**
+   * Replaces the use of the given Local in stmt by value.
+   *
+   * @return the new Stmt or null if value can not be inserted at the position of the use
+   */
+  @Nullable
+  private static Stmt insert(@Nonnull Value value, @Nonnull Stmt stmt, @Nonnull Local local) {
+    if (value instanceof Immediate) {
+      // Constants can not be the base of a reference or an invoke
+      if (value instanceof Constant && isUsedAsBase(stmt, local)) {
+        return null;
+      }
+      for (Value use : stmt.getUses()) {
+        if (use.equals(local)) {
+          return stmt.withNewUse(use, value);
+        }
+      }
+      return null;
+    }
+    // any other value has to be the whole right hand side of an assignment to a Local
+    if (stmt instanceof JAssignStmt) {
+      final JAssignStmt<?, ?> assignStmt = (JAssignStmt<?, ?>) stmt;
+      if (assignStmt.getLeftOp() instanceof Local && assignStmt.getRightOp().equals(local)) {
+        return assignStmt.withRValue(value);
+      }
+    }
+    return null;
+  }
+
+  private static boolean isUsedAsBase(@Nonnull Stmt stmt, @Nonnull Local local) {
+    final List<Value> values = new ArrayList<>(stmt.getUses());
+    values.addAll(stmt.getDefs());
+    for (Value value : values) {
+      if (value instanceof JInstanceFieldRef
+          && ((JInstanceFieldRef) value).getBase().equals(local)) {
+        return true;
+      }
+      if (value instanceof JArrayRef && ((JArrayRef) value).getBase().equals(local)) {
+        return true;
+      }
+      if (value instanceof AbstractInstanceInvokeExpr
+          && ((AbstractInstanceInvokeExpr) value).getBase().equals(local)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static void removeStmt(@Nonnull Body.BodyBuilder builder, @Nonnull Stmt stmt) {
+    final MutableStmtGraph graph = builder.getStmtGraph();
+    final Stmt newStartingStmt =
+        graph.getStartingStmt() == stmt ? graph.successors(stmt).get(0) : null;
+    builder.removeStmt(stmt);
+    if (newStartingStmt != null) {
+      builder.setStartingStmt(newStartingStmt);
+    }
+  }
+
+  /** Returns the side effect classes of stmt as a bit mask. */
+  private static int sideEffectClassesOf(@Nonnull Stmt stmt) {
+    if (stmt.containsInvokeExpr()
+        || stmt instanceof JEnterMonitorStmt
+        || stmt instanceof JExitMonitorStmt) {
+      return 1 << INVOKE;
+    }
+    if (!(stmt instanceof JAssignStmt)) {
+      return 0;
+    }
+    final JAssignStmt<?, ?> assignStmt = (JAssignStmt<?, ?>) stmt;
+    int sideEffectClasses = 0;
+    if (assignStmt.getLeftOp() instanceof JFieldRef) {
+      sideEffectClasses |= 1 << FIELD_WRITE;
+    } else if (assignStmt.getLeftOp() instanceof JArrayRef) {
+      sideEffectClasses |= 1 << ARRAY_WRITE;
+    }
+    if (assignStmt.getRightOp() instanceof JFieldRef
+        || assignStmt.getRightOp() instanceof JArrayRef) {
+      sideEffectClasses |= 1 << HEAP_READ;
+    }
+    return sideEffectClasses;
+  }
+
+  /** A single use Local that is defined in the current block. */
+  private static class Aggregatee {
+    @Nonnull final JAssignStmt<?, ?> def;
+    final int position;
+    // the side effect counters directly after def
+    @Nonnull final int[] sideEffects;
+
+    Aggregatee(@Nonnull JAssignStmt<?, ?> def, int position, @Nonnull int[] sideEffects) {
+      this.def = def;
+      this.position = position;
+      this.sideEffects = sideEffects;
+    }
+  }
 }
@@ -22,6 +22,7 @@ package sootup.java.bytecode.interceptors;
  */
 import com.google.common.collect.Lists;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.common.expr.JCastExpr;
 import sootup.core.jimple.common.stmt.JAssignStmt;
@@ -61,6 +62,12 @@ import sootup.core.views.View;
  */
 public class CastAndReturnInliner implements BodyInterceptor {
 
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
 
@@ -24,6 +24,7 @@ package sootup.java.bytecode.interceptors;
 import com.google.common.collect.Lists;
 import java.util.*;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.common.constant.Constant;
@@ -31,7 +32,7 @@ import sootup.core.jimple.common.constant.IntConstant;
 import sootup.core.jimple.common.stmt.JIfStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
-import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.IncrementalBodyInterceptor;
 import sootup.core.views.View;
 
 /**
@@ -42,15 +43,35 @@ import sootup.core.views.View;
  * @author Marcus Nachtigall
  * @author Markus Schmidt
  */
-public class ConditionalBranchFolder implements BodyInterceptor {
+public class ConditionalBranchFolder implements IncrementalBodyInterceptor {
+
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
 
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
+    foldBranches(builder, Lists.newArrayList(builder.getStmtGraph().getNodes()));
+  }
+
+  /**
+   * The condition of an if statement can only become constant by replacing the if statement, so
+   * only the modified Stmts are checked.
+   */
+  @Override
+  public void interceptBody(
+      @Nonnull Body.BodyBuilder builder, @Nonnull View<?> view, @Nonnull Set<Stmt> modifiedStmts) {
+    foldBranches(builder, modifiedStmts);
+  }
 
+  private void foldBranches(@Nonnull Body.BodyBuilder builder, @Nonnull Collection<Stmt> stmts) {
     final MutableStmtGraph stmtGraph = builder.getStmtGraph();
 
-    for (Stmt stmt : Lists.newArrayList(stmtGraph.getNodes())) {
-      if (!(stmt instanceof JIfStmt)) {
+    for (Stmt stmt : stmts) {
+      if (!(stmt instanceof JIfStmt) || !stmtGraph.containsNode(stmt)) {
+        // hint: the stmt could be already pruned as part of an exclusively reachable region
         continue;
       }
 
@@ -24,6 +24,7 @@ import com.google.common.collect.Lists;
 import java.util.ArrayList;
 import java.util.List;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.jimple.basic.Immediate;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Value;
@@ -48,6 +49,12 @@ import sootup.core.views.View;
  */
 public class ConstantPropagatorAndFolder implements BodyInterceptor {
 
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
     List<Stmt> defs = new ArrayList<>();
@@ -24,6 +24,7 @@ package sootup.java.bytecode.interceptors;
 import com.google.common.collect.Lists;
 import java.util.*;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Value;
@@ -43,37 +44,43 @@ import sootup.core.views.View;
 /** @author Zun Wang */
 public class CopyPropagator implements BodyInterceptor {
 
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
     final StmtGraph<?> stmtGraph = builder.getStmtGraph();
     for (Stmt stmt : Lists.newArrayList(stmtGraph)) {
-      for (Value use : stmt.getUses()) {
-        if (use instanceof Local) {
-          List<Stmt> defsOfUse = ((Local) use).getDefsForLocalUse(stmtGraph, stmt);
+      stmt.forEachLocalUse(
+          use -> {
+            List<Stmt> defsOfUse = use.getDefsForLocalUse(stmtGraph, stmt);
 
-          if (isPropagable(defsOfUse)) {
-            AbstractDefinitionStmt<?, ?> defStmt = (AbstractDefinitionStmt<?, ?>) defsOfUse.get(0);
-            Value rhs = defStmt.getRightOp();
-            // if rhs is a constant, then replace use, if it is possible
-            if (rhs instanceof Constant) {
-              replaceUse(builder, stmt, use, rhs);
-            }
-            // if rhs is a cast expr with a ref type and its op is 0 (IntConstant or LongConstant)
-            // then replace use, if it is possible
-            else if (rhs instanceof JCastExpr && rhs.getType() instanceof ReferenceType) {
-              Value op = ((JCastExpr) rhs).getOp();
-              if ((op instanceof IntConstant && op.equals(IntConstant.getInstance(0)))
-                  || (op instanceof LongConstant && op.equals(LongConstant.getInstance(0)))) {
-                replaceUse(builder, stmt, use, NullConstant.getInstance());
+            if (isPropagable(defsOfUse)) {
+              AbstractDefinitionStmt<?, ?> defStmt =
+                  (AbstractDefinitionStmt<?, ?>) defsOfUse.get(0);
+              Value rhs = defStmt.getRightOp();
+              // if rhs is a constant, then replace use, if it is possible
+              if (rhs instanceof Constant) {
+                replaceUse(builder, stmt, use, rhs);
+              }
+              // if rhs is a cast expr with a ref type and its op is 0 (IntConstant or LongConstant)
+              // then replace use, if it is possible
+              else if (rhs instanceof JCastExpr && rhs.getType() instanceof ReferenceType) {
+                Value op = ((JCastExpr) rhs).getOp();
+                if ((op instanceof IntConstant && op.equals(IntConstant.getInstance(0)))
+                    || (op instanceof LongConstant && op.equals(LongConstant.getInstance(0)))) {
+                  replaceUse(builder, stmt, use, NullConstant.getInstance());
+                }
+              }
+              // if rhs is a local, then replace use, if it is possible
+              else if (rhs instanceof Local && !rhs.equivTo(use)) {
+                replaceUse(builder, stmt, use, rhs);
               }
             }
-            // if rhs is a local, then replace use, if it is possible
-            else if (rhs instanceof Local && !rhs.equivTo(use)) {
-              replaceUse(builder, stmt, use, rhs);
-            }
-          }
-        }
-      }
+          });
     }
   }
 
@@ -22,8 +22,8 @@ package sootup.java.bytecode.interceptors;
  */
 import java.util.*;
 import javax.annotation.Nonnull;
-import sootup.core.graph.MutableBasicBlock;
-import sootup.core.graph.StmtGraph;
+import javax.annotation.Nullable;
+import sootup.core.graph.MutableStmtGraph;
 import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Value;
@@ -44,7 +44,9 @@ import sootup.core.views.View;
 /**
  * This interceptor eliminates assignment statements to locals whose values are not subsequently
  * used, unless evaluating the right-hand side of the assignment may cause side-effects. Complexity
- * is linear with respect to the statements.
+ * is linear with respect to the statements: each Stmt gets a dense id, the definitions of each
+ * Local are indexed once, the essential Stmts are marked with a worklist and the dead Stmts are
+ * removed from the StmtGraph in a single batch.
  *
  * @author Marcus Nachtigall
  */
@@ -62,24 +64,32 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
     this.eliminateOnlyStackLocals = eliminateOnlyStackLocals;
   }
 
-  Map<Local, Collection<Stmt>> allDefs = new HashMap<>();
-  Map<Local, Collection<Stmt>> allUses = new HashMap<>();
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName() + "(eliminateOnlyStackLocals=" + eliminateOnlyStackLocals + ")";
+  }
 
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
-    StmtGraph<MutableBasicBlock> stmtGraph = builder.getStmtGraph();
+    MutableStmtGraph stmtGraph = builder.getStmtGraph();
     List<Stmt> stmts = builder.getStmts();
-    Deque<Stmt> deque = new ArrayDeque<>(stmts.size());
+    final int stmtCount = stmts.size();
 
     // Make a first pass through the statements, noting the statements we must absolutely keep
+    final boolean[] live = new boolean[stmtCount];
+    final int[] worklist = new int[stmtCount];
+    int worklistSize = 0;
+    // Stmts of the form a = a are useless and never kept
+    final boolean[] selfAssignment = new boolean[stmtCount];
 
     boolean isStatic = Modifier.isStatic(builder.getModifiers());
     boolean allEssential = true;
     boolean containsInvoke = false;
     Local thisLocal = null;
 
-    for (Iterator<Stmt> iterator = stmtGraph.getNodes().iterator(); iterator.hasNext(); ) {
-      Stmt stmt = iterator.next();
+    for (int i = 0; i < stmtCount; i++) {
+      Stmt stmt = stmts.get(i);
       boolean isEssential = true;
 
       if (stmt instanceof JAssignStmt) {
@@ -87,9 +97,9 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
         Value lhs = assignStmt.getLeftOp();
         Value rhs = assignStmt.getRightOp();
 
-        // Stmt is of the form a = a which is useless
         if (lhs == rhs && lhs instanceof Local) {
-          iterator.remove();
+          selfAssignment[i] = true;
+          allEssential = false;
           continue;
         }
 
@@ -97,144 +107,172 @@ public class DeadAssignmentEliminator implements BodyInterceptor {
             && (!eliminateOnlyStackLocals
                 || ((Local) lhs).getName().startsWith("$")
                 || lhs.getType() instanceof NullType)) {
-          // FIXME: [ms] inspection says right side of && is always true
-          isEssential = false;
 
           if (!containsInvoke) {
             // performance optimization: to not repeat containsInvokeExpr()
             containsInvoke = assignStmt.containsInvokeExpr();
           }
 
-          if (rhs instanceof JCastExpr) {
-            // CastExpr: can trigger ClassCastException, but null-casts never fail
-            JCastExpr castExpr = (JCastExpr) rhs;
-            Type type = castExpr.getType();
-            Value value = castExpr.getOp();
-            isEssential = !(value instanceof NullConstant) && type instanceof ReferenceType;
-          } else if (rhs instanceof AbstractInvokeExpr
-              || rhs instanceof JArrayRef
-              || rhs instanceof JNewExpr
-              || rhs instanceof JNewArrayExpr
-              || rhs instanceof JNewMultiArrayExpr) {
-            // InvokeExpr: can have side effects (like throwing a null pointer exception)
-            // JArrayRef: can have side effects (like throwing a null pointer exception)
-            // JNewExpr: can trigger class initialization
-            // JNewArrayExpr: can throw exception
-            // JNewMultiArrayExpr: can throw exception
-            isEssential = true;
-          } else if (rhs instanceof JFieldRef) {
-            // can trigger class initialization
-            isEssential = true;
-
-            if (rhs instanceof JInstanceFieldRef) {
-              JInstanceFieldRef instanceFieldRef = (JInstanceFieldRef) rhs;
-              if (!isStatic && thisLocal == null) {
-                thisLocal = Body.getThisLocal(stmtGraph);
-              }
-
-              // Any JInstanceFieldRef may have side effects, unless the base is reading from 'this'
-              // in a non-static method
-              isEssential = (isStatic || thisLocal != instanceFieldRef.getBase());
-            }
-          } else if (rhs instanceof JDivExpr || rhs instanceof JRemExpr) {
-            AbstractBinopExpr expr = (AbstractBinopExpr) rhs;
-            Type type1 = expr.getOp1().getType();
-            Type type2 = expr.getOp2().getType();
-
-            // Can trigger a division by zero
-            boolean type2Int =
-                type2 instanceof PrimitiveType && type2.equals(PrimitiveType.getInt());
-            isEssential =
-                type2Int
-                    || type1 instanceof PrimitiveType
-                        && (type1.equals(PrimitiveType.getInt())
-                            || type1.equals(PrimitiveType.getLong()))
-                    || type2 instanceof PrimitiveType && type2.equals(PrimitiveType.getLong())
-                    || type1 instanceof UnknownType
-                    || type2 instanceof UnknownType;
-
-            if (isEssential && type2Int) {
-              Value value = expr.getOp2();
-              if (value instanceof IntConstant) {
-                IntConstant intConstant = (IntConstant) value;
-                isEssential = (intConstant.getValue() == 0);
-              } else {
-                // [ms] oh the irony..
-                isEssential = true; // could be 0, we don't know
-              }
-            }
+          if (rhs instanceof JInstanceFieldRef && !isStatic && thisLocal == null) {
+            thisLocal = Body.getThisLocal(stmtGraph);
           }
+          isEssential = hasSideEffects(rhs, isStatic, thisLocal);
         }
       }
 
       if (isEssential) {
-        deque.addFirst(stmt);
+        live[i] = true;
+        worklist[worklistSize++] = i;
       }
 
       allEssential &= isEssential;
     }
 
-    if (containsInvoke || !allEssential) {
+    if (!containsInvoke && allEssential) {
+      return;
+    }
+
+    // the removals and replacements are disjoint, so they are applied together
+    final MutableStmtGraph.Batch batch = stmtGraph.startBatch();
+
+    if (!allEssential) {
+      // index the definitions of each Local by Stmt id; a = a is not a definition worth keeping
+      final Map<Local, int[]> defsOfLocal = new HashMap<>();
+      final int[] defCounts = new int[stmtCount];
+      for (int i = 0; i < stmtCount; i++) {
+        if (selfAssignment[i]) {
+          continue;
+        }
+        for (Value def : stmts.get(i).getDefs()) {
+          if (def instanceof Local) {
+            int[] defs = defsOfLocal.get(def);
+            if (defs == null) {
+              defs = new int[1];
+              defsOfLocal.put((Local) def, defs);
+            }
+            // the first slot holds the number of definitions
+            if (defs[0] + 1 == defs.length) {
+              defs = Arrays.copyOf(defs, defs.length * 2);
+              defsOfLocal.put((Local) def, defs);
+            }
+            defs[++defs[0]] = i;
+          }
+        }
+      }
+
       // Add all the statements which are used to compute values for the essential statements,
       // recursively
-      allDefs = Body.collectDefs(builder.getStmts());
-
-      if (!allEssential) {
-        Set<Stmt> essentialStmts = new HashSet<>(stmts.size());
-        while (!deque.isEmpty()) {
-          Stmt stmt = deque.removeFirst();
-          if (essentialStmts.add(stmt)) {
-            for (Value value : stmt.getUses()) {
-              if (value instanceof Local) {
-                Local local = (Local) value;
-                Collection<Stmt> defs = allDefs.get(local);
-                if (defs != null) {
-                  deque.addAll(defs);
-                }
-              }
+      while (worklistSize > 0) {
+        final Stmt stmt = stmts.get(worklist[--worklistSize]);
+        for (Value use : stmt.getUses()) {
+          if (!(use instanceof Local)) {
+            continue;
+          }
+          final int[] defs = defsOfLocal.get(use);
+          if (defs == null) {
+            continue;
+          }
+          for (int d = 1; d <= defs[0]; d++) {
+            final int def = defs[d];
+            if (!live[def]) {
+              live[def] = true;
+              // each Stmt is enqueued at most once, so the worklist can not overflow
+              worklist[worklistSize++] = def;
             }
           }
         }
+      }
 
-        // Remove the dead statements
-        for (Stmt stmt : stmts) {
-          if (!essentialStmts.contains(stmt)) {
-            builder.removeStmt(stmt);
-          }
+      // Remove the dead statements
+      for (int i = 0; i < stmtCount; i++) {
+        if (!live[i]) {
+          batch.removeNode(stmts.get(i));
         }
       }
+    }
 
-      if (containsInvoke) {
-        allUses = Body.collectUses(builder.getStmts());
-        // Eliminate dead assignments from invokes such as x = f(), where x is no longer used
-        List<JAssignStmt<?, ?>> postProcess = new ArrayList<>();
-        for (Stmt stmt : stmts) {
-          if (stmt instanceof JAssignStmt) {
-            JAssignStmt<?, ?> assignStmt = (JAssignStmt<?, ?>) stmt;
-            if (assignStmt.containsInvokeExpr()) {
-              // Just find one use of local which is essential
-              boolean deadAssignment = true;
-              Local local = (Local) assignStmt.getRightOp();
-              for (Stmt use : allUses.get(local)) {
-                if (builder.getStmts().contains(use)) {
-                  deadAssignment = false;
-                  break;
-                }
-              }
-              if (deadAssignment) {
-                postProcess.add(assignStmt);
-              }
-            }
+    if (containsInvoke) {
+      // Eliminate dead assignments from invokes such as x = f(), where x is no longer used by any
+      // remaining statement
+      final Set<Local> usedLocals = new HashSet<>();
+      for (int i = 0; i < stmtCount; i++) {
+        if (live[i]) {
+          stmts.get(i).forEachLocalUse(usedLocals::add);
+        }
+      }
+      for (int i = 0; i < stmtCount; i++) {
+        final Stmt stmt = stmts.get(i);
+        if (live[i] && stmt instanceof JAssignStmt) {
+          JAssignStmt<?, ?> assignStmt = (JAssignStmt<?, ?>) stmt;
+          if (assignStmt.containsInvokeExpr()
+              && assignStmt.getLeftOp() instanceof Local
+              && !usedLocals.contains(assignStmt.getLeftOp())) {
+            // Transform it into a simple invoke
+            Stmt newInvoke =
+                Jimple.newInvokeStmt(assignStmt.getInvokeExpr(), assignStmt.getPositionInfo());
+            batch.replaceNode(assignStmt, newInvoke);
           }
         }
+      }
+    }
+    batch.commit();
+  }
+
+  /** Checks whether evaluating the right-hand side rhs of an assignment may cause side-effects. */
+  private static boolean hasSideEffects(Value rhs, boolean isStatic, Local thisLocal) {
+    if (rhs instanceof JCastExpr) {
+      // CastExpr: can trigger ClassCastException, but null-casts never fail
+      JCastExpr castExpr = (JCastExpr) rhs;
+      Type type = castExpr.getType();
+      Value value = castExpr.getOp();
+      return !(value instanceof NullConstant) && type instanceof ReferenceType;
+    }
+    if (rhs instanceof AbstractInvokeExpr
+        || rhs instanceof JArrayRef
+        || rhs instanceof JNewExpr
+        || rhs instanceof JNewArrayExpr
+        || rhs instanceof JNewMultiArrayExpr) {
+      // InvokeExpr: can have side effects (like throwing a null pointer exception)
+      // JArrayRef: can have side effects (like throwing a null pointer exception)
+      // JNewExpr: can trigger class initialization
+      // JNewArrayExpr: can throw exception
+      // JNewMultiArrayExpr: can throw exception
+      return true;
+    }
+    if (rhs instanceof JFieldRef) {
+      // can trigger class initialization
+      if (rhs instanceof JInstanceFieldRef) {
+        // Any JInstanceFieldRef may have side effects, unless the base is reading from 'this'
+        // in a non-static method
+        return isStatic || thisLocal != ((JInstanceFieldRef) rhs).getBase();
+      }
+      return true;
+    }
+    if (rhs instanceof JDivExpr || rhs instanceof JRemExpr) {
+      AbstractBinopExpr expr = (AbstractBinopExpr) rhs;
+      Type type1 = expr.getOp1().getType();
+      Type type2 = expr.getOp2().getType();
+
+      // Can trigger a division by zero
+      boolean type2Int = type2 instanceof PrimitiveType && type2.equals(PrimitiveType.getInt());
+      boolean isEssential =
+          type2Int
+              || type1 instanceof PrimitiveType
+                  && (type1.equals(PrimitiveType.getInt()) || type1.equals(PrimitiveType.getLong()))
+              || type2 instanceof PrimitiveType && type2.equals(PrimitiveType.getLong())
+              || type1 instanceof UnknownType
+              || type2 instanceof UnknownType;
 
-        for (JAssignStmt<?, ?> assignStmt : postProcess) {
-          // Transform it into a simple invoke
-          Stmt newInvoke =
-              Jimple.newInvokeStmt(assignStmt.getInvokeExpr(), assignStmt.getPositionInfo());
-          builder.replaceStmt(assignStmt, newInvoke);
+      if (isEssential && type2Int) {
+        Value value = expr.getOp2();
+        if (value instanceof IntConstant) {
+          return ((IntConstant) value).getValue() == 0;
         }
+        // [ms] oh the irony..
+        return true; // could be 0, we don't know
       }
+      return isEssential;
     }
+    return false;
   }
 }
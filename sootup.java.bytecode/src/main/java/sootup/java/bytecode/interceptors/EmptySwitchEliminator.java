@@ -20,14 +20,16 @@ package sootup.java.bytecode.interceptors;
  * <http://www.gnu.org/licenses/lgpl-2.1.html>.
  * #L%
  */
+import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.StmtPositionInfo;
 import sootup.core.jimple.common.stmt.JGotoStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.jimple.javabytecode.stmt.JSwitchStmt;
 import sootup.core.model.Body;
-import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.IncrementalBodyInterceptor;
 import sootup.core.views.View;
 
 /**
@@ -37,18 +39,35 @@ import sootup.core.views.View;
  *
  * @author Steven Arzt, Zun Wang
  */
-public class EmptySwitchEliminator implements BodyInterceptor {
+public class EmptySwitchEliminator implements IncrementalBodyInterceptor {
+
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
 
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
     // Iterate all stmts in the body
+    eliminateEmptySwitches(builder, builder.getStmtGraph());
+  }
+
+  /** Switches can only be introduced by modifications, so only the modified Stmts are checked. */
+  @Override
+  public void interceptBody(
+      @Nonnull Body.BodyBuilder builder, @Nonnull View<?> view, @Nonnull Set<Stmt> modifiedStmts) {
+    eliminateEmptySwitches(builder, modifiedStmts);
+  }
 
-    for (Stmt stmt : builder.getStmtGraph()) {
+  private void eliminateEmptySwitches(
+      @Nonnull Body.BodyBuilder builder, @Nonnull Iterable<Stmt> stmts) {
+    for (Stmt stmt : stmts) {
       // If the observed stmt an instance of JSwitchStmt
       if (stmt instanceof JSwitchStmt) {
         JSwitchStmt sw = (JSwitchStmt) stmt;
         // if there's only default case
-        if (sw.getValueCount() == 1) {
+        if (sw.getValueCount() == 1 && builder.getStmtGraph().containsNode(sw)) {
           StmtPositionInfo positionInfo = sw.getPositionInfo();
           JGotoStmt gotoStmt = Jimple.newGotoStmt(positionInfo);
           builder.replaceStmt(sw, gotoStmt);
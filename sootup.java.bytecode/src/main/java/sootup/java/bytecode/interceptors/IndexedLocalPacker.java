@@ -0,0 +1,373 @@
+package sootup.java.bytecode.interceptors;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.MutableStmtGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.stmt.AbstractDefinitionStmt;
+import sootup.core.jimple.common.stmt.JIdentityStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.types.Type;
+import sootup.core.views.View;
+
+/**
+ * A BodyInterceptor that packs Locals of the same type which do not interfere into a single Local.
+ * It yields the same packing as {@link LocalPacker} but works on dense indices: each Local and each
+ * Type gets an int id, liveness is computed as one {@link BitSet} per {@link BasicBlock} and the
+ * interference graph is stored as an adjacency array. Each Stmt is rewritten at most once.
+ *
+ * <p>Two Locals interfere if one of them is defined while the other one is live. Locals that are
+ * live at a trap handler are considered live throughout the trapped blocks.
+ */
+public class IndexedLocalPacker implements BodyInterceptor {
+
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
+
+  @Override
+  public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
+    final List<Stmt> stmts = builder.getStmts();
+
+    // assign dense ids to Locals and their Types
+    final List<Local> locals = new ArrayList<>(builder.getLocals());
+    final Map<Local, Integer> localIds = new HashMap<>();
+    for (Local local : locals) {
+      localIds.put(local, localIds.size());
+    }
+    for (Stmt stmt : stmts) {
+      for (Value use : stmt.getUses()) {
+        if (use instanceof Local) {
+          idOf(localIds, locals, (Local) use);
+        }
+      }
+      final Local def = definedLocal(stmt);
+      if (def != null) {
+        idOf(localIds, locals, def);
+      }
+    }
+    final int localCount = locals.size();
+    final int[] typeIds = new int[localCount];
+    final Map<Type, Integer> typeToId = new HashMap<>();
+    for (int i = 0; i < localCount; i++) {
+      typeIds[i] = typeToId.computeIfAbsent(locals.get(i).getType(), k -> typeToId.size());
+    }
+
+    final MutableStmtGraph graph = builder.getStmtGraph();
+    final Map<Stmt, BitSet> liveIns = computeLiveness(graph, localIds);
+    final int[][] interferences = buildInterferences(graph, localIds, typeIds, liveIns);
+    final int[] colors = assignColors(stmts, localIds, typeIds, typeToId.size(), interferences);
+
+    // group the Locals by (type, color); the first Local of a group names it
+    final Map<Long, Integer> groupIds = new HashMap<>();
+    final int[] groupOf = new int[localCount];
+    final List<Local> groupOrigins = new ArrayList<>();
+    for (int i = 0; i < localCount; i++) {
+      final long key = ((long) typeIds[i] << 32) | colors[i];
+      final Integer groupId = groupIds.get(key);
+      if (groupId == null) {
+        groupIds.put(key, groupOrigins.size());
+        groupOf[i] = groupOrigins.size();
+        groupOrigins.add(locals.get(i));
+      } else {
+        groupOf[i] = groupId;
+      }
+    }
+
+    // rewrite the Stmts and name the packed Locals in order of their first occurrence
+    final Local[] packedLocals = new Local[groupOrigins.size()];
+    final Set<Local> newLocals = new LinkedHashSet<>();
+    final Set<Local> replacedUses = Collections.newSetFromMap(new IdentityHashMap<>());
+    final MutableStmtGraph.Batch batch = graph.startBatch();
+    for (Stmt stmt : stmts) {
+      Stmt newStmt = stmt;
+      replacedUses.clear();
+      for (Value use : stmt.getUses()) {
+        if (use instanceof Local && replacedUses.add((Local) use)) {
+          final Local packed =
+              packedLocal(groupOf[localIds.get(use)], groupOrigins, packedLocals, newLocals);
+          if (!packed.equals(use)) {
+            newStmt = newStmt.withNewUse(use, packed);
+          }
+        }
+      }
+      final Local def = definedLocal(stmt);
+      if (def != null) {
+        final Local packed =
+            packedLocal(groupOf[localIds.get(def)], groupOrigins, packedLocals, newLocals);
+        if (!packed.equals(def)) {
+          newStmt = ((AbstractDefinitionStmt<?, ?>) newStmt).withNewDef(packed);
+        }
+      }
+      if (newStmt != stmt) {
+        batch.replaceNode(stmt, newStmt);
+      }
+    }
+    batch.commit();
+    builder.setLocals(newLocals);
+  }
+
+  /**
+   * Computes the live Locals at the head of each block. The result is keyed by the head of the
+   * block, as {@link StmtGraph#getBlocks()} may return fresh wrappers for the same block.
+   */
+  @Nonnull
+  private static Map<Stmt, BitSet> computeLiveness(
+      @Nonnull StmtGraph<?> graph, @Nonnull Map<Local, Integer> localIds) {
+    final Collection<? extends BasicBlock<?>> blocks = graph.getBlocks();
+    final Map<Stmt, BitSet> liveIns = new IdentityHashMap<>(blocks.size());
+    for (BasicBlock<?> block : blocks) {
+      liveIns.put(block.getHead(), new BitSet());
+    }
+
+    final Deque<BasicBlock<?>> worklist = new ArrayDeque<>(blocks);
+    final Set<Stmt> queued = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (BasicBlock<?> block : blocks) {
+      queued.add(block.getHead());
+    }
+    while (!worklist.isEmpty()) {
+      final BasicBlock<?> block = worklist.poll();
+      queued.remove(block.getHead());
+
+      final BitSet live = liveOut(block, liveIns);
+      final BitSet exceptionalLive = exceptionalLiveOut(block, liveIns);
+      final List<Stmt> blockStmts = block.getStmts();
+      for (int i = blockStmts.size() - 1; i >= 0; i--) {
+        transfer(blockStmts.get(i), live, exceptionalLive, localIds);
+      }
+
+      if (!live.equals(liveIns.get(block.getHead()))) {
+        liveIns.put(block.getHead(), live);
+        for (BasicBlock<?> predecessor : block.getPredecessors()) {
+          if (queued.add(predecessor.getHead())) {
+            worklist.add(predecessor);
+          }
+        }
+        for (BasicBlock<?> predecessor : block.getExceptionalPredecessors().values()) {
+          if (queued.add(predecessor.getHead())) {
+            worklist.add(predecessor);
+          }
+        }
+      }
+    }
+    return liveIns;
+  }
+
+  /**
+   * Builds the interference graph as adjacency array: the i-th entry holds the ids of all Locals of
+   * the same type that interfere with the Local with the id i.
+   */
+  @Nonnull
+  private static int[][] buildInterferences(
+      @Nonnull StmtGraph<?> graph,
+      @Nonnull Map<Local, Integer> localIds,
+      @Nonnull int[] typeIds,
+      @Nonnull Map<Stmt, BitSet> liveIns) {
+    final int localCount = typeIds.length;
+    // every interference is stored once as (smaller id << 32 | greater id)
+    long[] edges = new long[16];
+    int edgeCount = 0;
+    for (BasicBlock<?> block : graph.getBlocks()) {
+      final BitSet live = liveOut(block, liveIns);
+      final BitSet exceptionalLive = exceptionalLiveOut(block, liveIns);
+      final List<Stmt> blockStmts = block.getStmts();
+      for (int i = blockStmts.size() - 1; i >= 0; i--) {
+        final Stmt stmt = blockStmts.get(i);
+        final Local def = definedLocal(stmt);
+        if (def != null) {
+          final int defId = localIds.get(def);
+          live.or(exceptionalLive);
+          for (int other = live.nextSetBit(0); other >= 0; other = live.nextSetBit(other + 1)) {
+            if (other != defId && typeIds[other] == typeIds[defId]) {
+              if (edgeCount == edges.length) {
+                edges = Arrays.copyOf(edges, edgeCount * 2);
+              }
+              edges[edgeCount++] = ((long) Math.min(defId, other) << 32) | Math.max(defId, other);
+            }
+          }
+        }
+        transfer(stmt, live, exceptionalLive, localIds);
+      }
+    }
+
+    Arrays.sort(edges, 0, edgeCount);
+    final int[] degrees = new int[localCount];
+    int uniqueCount = 0;
+    for (int i = 0; i < edgeCount; i++) {
+      if (i == 0 || edges[i] != edges[i - 1]) {
+        edges[uniqueCount++] = edges[i];
+        degrees[(int) (edges[i] >>> 32)]++;
+        degrees[(int) edges[i]]++;
+      }
+    }
+    final int[][] interferences = new int[localCount][];
+    for (int i = 0; i < localCount; i++) {
+      interferences[i] = new int[degrees[i]];
+      degrees[i] = 0;
+    }
+    for (int i = 0; i < uniqueCount; i++) {
+      final int a = (int) (edges[i] >>> 32);
+      final int b = (int) edges[i];
+      interferences[a][degrees[a]++] = b;
+      interferences[b][degrees[b]++] = a;
+    }
+    return interferences;
+  }
+
+  /**
+   * Colors the Locals per type: parameters (i.e. Locals defined by an identity Stmt) get the first
+   * colors, the remaining Locals are colored greedily in descending order of their interferences.
+   */
+  @Nonnull
+  private static int[] assignColors(
+      @Nonnull List<Stmt> stmts,
+      @Nonnull Map<Local, Integer> localIds,
+      @Nonnull int[] typeIds,
+      int typeCount,
+      @Nonnull int[][] interferences) {
+    final int localCount = typeIds.length;
+    final int[] colors = new int[localCount];
+    Arrays.fill(colors, -1);
+    final int[] colorCounts = new int[typeCount];
+    for (Stmt stmt : stmts) {
+      if (stmt instanceof JIdentityStmt) {
+        final Local def = definedLocal(stmt);
+        final int defId = localIds.get(def);
+        if (colors[defId] < 0) {
+          colors[defId] = colorCounts[typeIds[defId]]++;
+        }
+      }
+    }
+
+    final Integer[] order = new Integer[localCount];
+    for (int i = 0; i < localCount; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(order, (a, b) -> interferences[b].length - interferences[a].length);
+
+    final BitSet unavailableColors = new BitSet();
+    for (int id : order) {
+      if (colors[id] >= 0) {
+        continue;
+      }
+      unavailableColors.clear();
+      for (int other : interferences[id]) {
+        if (colors[other] >= 0) {
+          unavailableColors.set(colors[other]);
+        }
+      }
+      final int color = unavailableColors.nextClearBit(0);
+      colors[id] = color;
+      colorCounts[typeIds[id]] = Math.max(colorCounts[typeIds[id]], color + 1);
+    }
+    return colors;
+  }
+
+  @Nonnull
+  private static BitSet liveOut(@Nonnull BasicBlock<?> block, @Nonnull Map<Stmt, BitSet> liveIns) {
+    final BitSet live = new BitSet();
+    for (BasicBlock<?> successor : block.getSuccessors()) {
+      live.or(liveIns.get(successor.getHead()));
+    }
+    return live;
+  }
+
+  @Nonnull
+  private static BitSet exceptionalLiveOut(
+      @Nonnull BasicBlock<?> block, @Nonnull Map<Stmt, BitSet> liveIns) {
+    final BitSet live = new BitSet();
+    for (BasicBlock<?> handler : block.getExceptionalSuccessors().values()) {
+      live.or(liveIns.get(handler.getHead()));
+    }
+    return live;
+  }
+
+  /** Turns the Locals live after stmt into the Locals live before stmt. */
+  private static void transfer(
+      @Nonnull Stmt stmt,
+      @Nonnull BitSet live,
+      @Nonnull BitSet exceptionalLive,
+      @Nonnull Map<Local, Integer> localIds) {
+    live.or(exceptionalLive);
+    final Local def = definedLocal(stmt);
+    if (def != null) {
+      live.clear(localIds.get(def));
+    }
+    for (Value use : stmt.getUses()) {
+      if (use instanceof Local) {
+        live.set(localIds.get(use));
+      }
+    }
+  }
+
+  @Nonnull
+  private static Local packedLocal(
+      int groupId,
+      @Nonnull List<Local> groupOrigins,
+      @Nonnull Local[] packedLocals,
+      @Nonnull Set<Local> newLocals) {
+    Local packed = packedLocals[groupId];
+    if (packed == null) {
+      final Local origin = groupOrigins.get(groupId);
+      final String name = origin.getName();
+      int prefixLength = 0;
+      while (prefixLength < name.length() && !Character.isDigit(name.charAt(prefixLength))) {
+        prefixLength++;
+      }
+      packed = origin.withName(name.substring(0, prefixLength) + newLocals.size());
+      packedLocals[groupId] = packed;
+      newLocals.add(packed);
+    }
+    return packed;
+  }
+
+  private static int idOf(
+      @Nonnull Map<Local, Integer> localIds, @Nonnull List<Local> locals, @Nonnull Local local) {
+    Integer id = localIds.get(local);
+    if (id == null) {
+      id = locals.size();
+      localIds.put(local, id);
+      locals.add(local);
+    }
+    return id;
+  }
+
+  @Nullable
+  private static Local definedLocal(@Nonnull Stmt stmt) {
+    if (!(stmt instanceof AbstractDefinitionStmt)) {
+      return null;
+    }
+    final Value def = ((AbstractDefinitionStmt<?, ?>) stmt).getLeftOp();
+    return def instanceof Local ? (Local) def : null;
+  }
+}
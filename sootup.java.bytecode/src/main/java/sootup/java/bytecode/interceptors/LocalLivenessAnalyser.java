@@ -72,11 +72,7 @@ public class LocalLivenessAnalyser {
         }
 
         Set<Local> in = new HashSet<>();
-        for (Value use : stmt.getUses()) {
-          if (use instanceof Local) {
-            in.add((Local) use);
-          }
-        }
+        stmt.forEachLocalUse(in::add);
         final List<Value> defs = stmt.getDefs();
         if (!defs.isEmpty()) {
           final Value value = defs.get(0);
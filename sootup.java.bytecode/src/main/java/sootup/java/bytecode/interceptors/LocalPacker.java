@@ -22,6 +22,7 @@ package sootup.java.bytecode.interceptors;
  */
 import java.util.*;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.Value;
@@ -36,6 +37,12 @@ import sootup.core.views.View;
 /** @author Zun Wang * */
 public class LocalPacker implements BodyInterceptor {
 
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
 
@@ -70,6 +70,12 @@ public class LocalSplitter implements BodyInterceptor {
   // FIXME: [ms] assumes that names of Locals do not contain a '#' already -> could lead to problems
   // TODO: [ms] check equivTo()'s - I guess they can be equals()'s - or even: '=='s
 
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
 
@@ -23,11 +23,12 @@ package sootup.java.bytecode.interceptors;
  */
 import java.util.*;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.graph.StmtGraph;
 import sootup.core.jimple.common.stmt.JNopStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
-import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.IncrementalBodyInterceptor;
 import sootup.core.views.View;
 
 /**
@@ -36,7 +37,13 @@ import sootup.core.views.View;
  * @author Marcus Nachtigall
  * @author Markus Schmidt
  */
-public class NopEliminator implements BodyInterceptor {
+public class NopEliminator implements IncrementalBodyInterceptor {
+
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
 
   /**
    * Removes {@link JNopStmt}s from the given {@link Body}. Complexity is linear with respect to the
@@ -46,11 +53,22 @@ public class NopEliminator implements BodyInterceptor {
    */
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
+    removeNops(builder, builder.getStmtGraph().getNodes());
+  }
+
+  /** Nops can only be introduced by modifications, so only the modified Stmts are checked. */
+  @Override
+  public void interceptBody(
+      @Nonnull Body.BodyBuilder builder, @Nonnull View<?> view, @Nonnull Set<Stmt> modifiedStmts) {
+    removeNops(builder, modifiedStmts);
+  }
+
+  private void removeNops(@Nonnull Body.BodyBuilder builder, @Nonnull Collection<Stmt> stmts) {
     StmtGraph<?> graph = builder.getStmtGraph();
 
     Queue<Stmt> q = new ArrayDeque<>();
-    for (Stmt stmt : graph.getNodes()) {
-      if (stmt instanceof JNopStmt) {
+    for (Stmt stmt : stmts) {
+      if (stmt instanceof JNopStmt && graph.containsNode(stmt)) {
         q.add(stmt);
       }
     }
@@ -0,0 +1,193 @@
+package sootup.java.bytecode.interceptors;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.graph.MutableStmtGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.expr.JPhiExpr;
+import sootup.core.jimple.common.stmt.AbstractDefinitionStmt;
+import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.views.View;
+
+/**
+ * A BodyInterceptor that leaves the static single assignment form by removing all phi Stmts. The
+ * definition and the arguments of a phi are joined into one web via union-find, and all Locals of a
+ * web are replaced by its first Local. Each Stmt is rewritten at most once.
+ *
+ * <p>This is only correct if the Locals of a web do not interfere, i.e. if the Body is in
+ * conventional SSA form as created by {@link PrunedStaticSingleAssignmentFormer}. Transformations
+ * like copy propagation on the SSA form can break this property.
+ */
+public class PhiEliminator implements BodyInterceptor {
+
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
+
+  @Override
+  public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
+    final List<Stmt> stmts = builder.getStmts();
+    final List<Local> locals = new ArrayList<>(builder.getLocals());
+    final Map<Local, Integer> localIds = new HashMap<>();
+    for (Local local : locals) {
+      localIds.put(local, localIds.size());
+    }
+
+    // join each phi definition with its arguments
+    final List<Stmt> phiStmts = new ArrayList<>();
+    int[] parents = new int[locals.size()];
+    for (int i = 0; i < parents.length; i++) {
+      parents[i] = i;
+    }
+    for (Stmt stmt : stmts) {
+      if (!(stmt instanceof JAssignStmt)
+          || !(((JAssignStmt<?, ?>) stmt).getRightOp() instanceof JPhiExpr)) {
+        continue;
+      }
+      phiStmts.add(stmt);
+      final Local def = (Local) ((JAssignStmt<?, ?>) stmt).getLeftOp();
+      for (Local arg : ((JPhiExpr) ((JAssignStmt<?, ?>) stmt).getRightOp()).getArgs()) {
+        parents = union(parents, idOf(localIds, locals, def), idOf(localIds, locals, arg));
+      }
+    }
+    if (phiStmts.isEmpty()) {
+      return;
+    }
+
+    // the phi Stmts are removed and all other Stmts are rewritten in a single batch
+    final MutableStmtGraph.Batch batch = builder.getStmtGraph().startBatch();
+    final Set<Value> replacedUses = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Stmt stmt : stmts) {
+      if (stmt instanceof JAssignStmt
+          && ((JAssignStmt<?, ?>) stmt).getRightOp() instanceof JPhiExpr) {
+        batch.removeNode(stmt);
+        continue;
+      }
+      Stmt newStmt = stmt;
+      replacedUses.clear();
+      for (Value use : stmt.getUses()) {
+        if (use instanceof Local && replacedUses.add(use)) {
+          final Local representative = representativeOf(parents, localIds, locals, (Local) use);
+          if (representative != use) {
+            newStmt = newStmt.withNewUse(use, representative);
+          }
+        }
+      }
+      final Local def = definedLocal(stmt);
+      if (def != null) {
+        final Local representative = representativeOf(parents, localIds, locals, def);
+        if (representative != def) {
+          newStmt = ((AbstractDefinitionStmt<?, ?>) newStmt).withNewDef(representative);
+        }
+      }
+      if (newStmt != stmt) {
+        batch.replaceNode(stmt, newStmt);
+      }
+    }
+    batch.commit();
+
+    final Set<Local> newLocals = new LinkedHashSet<>();
+    for (Local local : builder.getLocals()) {
+      newLocals.add(representativeOf(parents, localIds, locals, local));
+    }
+    builder.setLocals(newLocals);
+  }
+
+  @Nonnull
+  private static Local representativeOf(
+      @Nonnull int[] parents,
+      @Nonnull Map<Local, Integer> localIds,
+      @Nonnull List<Local> locals,
+      @Nonnull Local local) {
+    final Integer id = localIds.get(local);
+    if (id == null || id >= parents.length) {
+      return local;
+    }
+    final int root = find(parents, id);
+    return root == id ? local : locals.get(root);
+  }
+
+  /** Joins the webs of a and b; the smaller id, i.e. the Local declared first, becomes the root. */
+  @Nonnull
+  private static int[] union(@Nonnull int[] parents, int a, int b) {
+    final int size = Math.max(a, b) + 1;
+    if (size > parents.length) {
+      final int oldLength = parents.length;
+      parents = Arrays.copyOf(parents, Math.max(size, oldLength * 2));
+      for (int i = oldLength; i < parents.length; i++) {
+        parents[i] = i;
+      }
+    }
+    final int rootA = find(parents, a);
+    final int rootB = find(parents, b);
+    if (rootA < rootB) {
+      parents[rootB] = rootA;
+    } else if (rootB < rootA) {
+      parents[rootA] = rootB;
+    }
+    return parents;
+  }
+
+  private static int find(@Nonnull int[] parents, int id) {
+    int root = id;
+    while (parents[root] != root) {
+      root = parents[root];
+    }
+    // path compression
+    while (parents[id] != root) {
+      final int next = parents[id];
+      parents[id] = root;
+      id = next;
+    }
+    return root;
+  }
+
+  private static int idOf(
+      @Nonnull Map<Local, Integer> localIds, @Nonnull List<Local> locals, @Nonnull Local local) {
+    final Integer id = localIds.get(local);
+    if (id != null) {
+      return id;
+    }
+    localIds.put(local, locals.size());
+    locals.add(local);
+    return locals.size() - 1;
+  }
+
+  @Nullable
+  private static Local definedLocal(@Nonnull Stmt stmt) {
+    if (!(stmt instanceof AbstractDefinitionStmt)) {
+      return null;
+    }
+    final Value def = ((AbstractDefinitionStmt<?, ?>) stmt).getLeftOp();
+    return def instanceof Local ? (Local) def : null;
+  }
+}
@@ -0,0 +1,658 @@
+package sootup.java.bytecode.interceptors;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.MutableStmtGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.expr.JPhiExpr;
+import sootup.core.jimple.common.stmt.AbstractDefinitionStmt;
+import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.JIdentityStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.views.View;
+
+/**
+ * A BodyInterceptor that transforms a Body into pruned static single assignment form. Phi Stmts are
+ * placed at the iterated dominance frontiers of the definitions of a Local, but only at blocks
+ * where the Local is live, so no dead phi Stmts are created. Blocks and Locals get dense int ids,
+ * the rename stacks are arrays and each Stmt is replaced at most once.
+ *
+ * <p>Dominators, dominance frontiers and liveness take the exceptional flows into account. The
+ * argument of a phi Stmt for an exceptional predecessor is the name that is valid at the end of the
+ * trapped block. Phi Stmts of a trap handler are inserted after its caught exception Stmt.
+ *
+ * <p>Locals that are defined only once and need no phi Stmt keep their name, all other definitions
+ * get a new Local named {@code <name>#<n>}. Use {@link PhiEliminator} to leave the SSA form.
+ */
+public class PrunedStaticSingleAssignmentFormer implements BodyInterceptor {
+
+  private static final int[] EMPTY = new int[0];
+
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
+
+  @Override
+  public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
+    final MutableStmtGraph graph = builder.getStmtGraph();
+    if (graph.getStartingStmt() == null) {
+      return;
+    }
+
+    // dense block ids; keyed by the head, as getBlocks() may return fresh wrappers. The successors
+    // of a block list its normal successors first, followed by its trap handlers
+    final List<BasicBlock<?>> blocks = new ArrayList<>(graph.getBlocks());
+    final int blockCount = blocks.size();
+    final Map<Stmt, Integer> blockIds = new IdentityHashMap<>(blockCount * 2);
+    for (BasicBlock<?> block : blocks) {
+      blockIds.put(block.getHead(), blockIds.size());
+    }
+    final int[][] successors = new int[blockCount][];
+    final int[] normalSuccessorCounts = new int[blockCount];
+    final int[][] predecessors = new int[blockCount][];
+    final List<List<Stmt>> blockStmts = new ArrayList<>(blockCount);
+    for (int b = 0; b < blockCount; b++) {
+      final BasicBlock<?> block = blocks.get(b);
+      normalSuccessorCounts[b] = block.getSuccessors().size();
+      successors[b] = blockIdsOf(block.getSuccessors(), block.getExceptionalSuccessors(), blockIds);
+      predecessors[b] =
+          blockIdsOf(block.getPredecessors(), block.getExceptionalPredecessors(), blockIds);
+      blockStmts.add(new ArrayList<>(block.getStmts()));
+    }
+    final int startBlock = blockIds.get(graph.getStartingStmtBlock().getHead());
+
+    final int[] reversePostOrder = reversePostOrder(startBlock, successors);
+    final int[] dominators = computeDominators(reversePostOrder, predecessors);
+    final int[][] frontiers = computeDominanceFrontiers(reversePostOrder, predecessors, dominators);
+
+    // dense Local ids and the blocks defining each Local
+    final List<Local> locals = new ArrayList<>(builder.getLocals());
+    final Map<Local, Integer> localIds = new HashMap<>();
+    for (Local local : locals) {
+      localIds.put(local, localIds.size());
+    }
+    final BitSet[] uses = new BitSet[blockCount];
+    final BitSet[] defs = new BitSet[blockCount];
+    int[] defCounts = new int[locals.size()];
+    for (int b : reversePostOrder) {
+      final BitSet blockUses = new BitSet();
+      final BitSet blockDefs = new BitSet();
+      for (Stmt stmt : blockStmts.get(b)) {
+        for (Value use : stmt.getUses()) {
+          if (use instanceof Local) {
+            final int id = idOf(localIds, locals, (Local) use);
+            if (!blockDefs.get(id)) {
+              blockUses.set(id);
+            }
+          }
+        }
+        final Local def = definedLocal(stmt);
+        if (def != null) {
+          final int id = idOf(localIds, locals, def);
+          if (id >= defCounts.length) {
+            defCounts = Arrays.copyOf(defCounts, Math.max(id + 1, defCounts.length * 2));
+          }
+          defCounts[id]++;
+          blockDefs.set(id);
+        }
+      }
+      uses[b] = blockUses;
+      defs[b] = blockDefs;
+    }
+    final int localCount = locals.size();
+    defCounts = Arrays.copyOf(defCounts, localCount);
+
+    final BitSet[] liveIns =
+        computeLiveness(reversePostOrder, successors, normalSuccessorCounts, uses, defs);
+    final Phi[][] phis =
+        placePhis(reversePostOrder, frontiers, defs, liveIns, localCount, blockCount);
+
+    final boolean[] renamed = new boolean[localCount];
+    for (int id = 0; id < localCount; id++) {
+      renamed[id] = defCounts[id] > 1;
+    }
+    for (int b : reversePostOrder) {
+      for (Phi phi : phis[b]) {
+        renamed[phi.local] = true;
+      }
+    }
+
+    // the renamed Stmts are replaced in a single batch, which keeps the block structure
+    final MutableStmtGraph.Batch batch = graph.startBatch();
+    final Renamer renamer = new Renamer(batch, locals, localIds, renamed);
+    renamer.rename(reversePostOrder, dominators, successors, blocks, blockStmts, phis);
+    batch.commit();
+
+    // materialize the phi Stmts once all their arguments are known
+    for (int b : reversePostOrder) {
+      if (phis[b].length == 0) {
+        continue;
+      }
+      final List<Stmt> phiStmts = new ArrayList<>(phis[b].length);
+      for (Phi phi : phis[b]) {
+        phiStmts.add(
+            new JAssignStmt<>(
+                phi.def,
+                new JPhiExpr(phi.args, phi.argToBlock),
+                StmtPositionInfo.createNoStmtPositionInfo()));
+      }
+      insertAtBlockStart(graph, blockStmts.get(b), phiStmts);
+    }
+
+    final Set<Local> newLocals = new LinkedHashSet<>();
+    for (int id = 0; id < localCount; id++) {
+      if (!renamed[id] || renamer.undefinedUses.get(id)) {
+        newLocals.add(locals.get(id));
+      }
+    }
+    newLocals.addAll(renamer.versions);
+    builder.setLocals(newLocals);
+  }
+
+  /** Returns the blocks in reverse postorder of a depth first search from the starting block. */
+  @Nonnull
+  private static int[] reversePostOrder(int startBlock, @Nonnull int[][] successors) {
+    final int blockCount = successors.length;
+    final boolean[] visited = new boolean[blockCount];
+    final int[] postOrder = new int[blockCount];
+    int postOrderSize = 0;
+    final int[] stack = new int[blockCount];
+    final int[] nextSuccessor = new int[blockCount];
+    int stackSize = 0;
+    stack[stackSize++] = startBlock;
+    visited[startBlock] = true;
+    while (stackSize > 0) {
+      final int b = stack[stackSize - 1];
+      if (nextSuccessor[b] < successors[b].length) {
+        final int successor = successors[b][nextSuccessor[b]++];
+        if (!visited[successor]) {
+          visited[successor] = true;
+          stack[stackSize++] = successor;
+        }
+      } else {
+        stackSize--;
+        postOrder[postOrderSize++] = b;
+      }
+    }
+    final int[] reversePostOrder = new int[postOrderSize];
+    for (int i = 0; i < postOrderSize; i++) {
+      reversePostOrder[i] = postOrder[postOrderSize - 1 - i];
+    }
+    return reversePostOrder;
+  }
+
+  /**
+   * Computes the immediate dominator of each reachable block with the iterative algorithm of
+   * Cooper, Harvey and Kennedy. Unreachable blocks get -1, the starting block dominates itself.
+   */
+  @Nonnull
+  private static int[] computeDominators(
+      @Nonnull int[] reversePostOrder, @Nonnull int[][] predecessors) {
+    final int blockCount = predecessors.length;
+    final int[] order = new int[blockCount];
+    Arrays.fill(order, -1);
+    for (int i = 0; i < reversePostOrder.length; i++) {
+      order[reversePostOrder[i]] = i;
+    }
+    final int[] dominators = new int[blockCount];
+    Arrays.fill(dominators, -1);
+    dominators[reversePostOrder[0]] = reversePostOrder[0];
+
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int i = 1; i < reversePostOrder.length; i++) {
+        final int b = reversePostOrder[i];
+        int newDominator = -1;
+        for (int predecessor : predecessors[b]) {
+          if (dominators[predecessor] < 0) {
+            continue;
+          }
+          if (newDominator < 0) {
+            newDominator = predecessor;
+          } else {
+            int finger1 = predecessor;
+            int finger2 = newDominator;
+            while (finger1 != finger2) {
+              while (order[finger1] > order[finger2]) {
+                finger1 = dominators[finger1];
+              }
+              while (order[finger2] > order[finger1]) {
+                finger2 = dominators[finger2];
+              }
+            }
+            newDominator = finger1;
+          }
+        }
+        if (dominators[b] != newDominator) {
+          dominators[b] = newDominator;
+          changed = true;
+        }
+      }
+    }
+    return dominators;
+  }
+
+  @Nonnull
+  private static int[][] computeDominanceFrontiers(
+      @Nonnull int[] reversePostOrder, @Nonnull int[][] predecessors, @Nonnull int[] dominators) {
+    final int blockCount = predecessors.length;
+    final int[][] frontiers = new int[blockCount][];
+    final int[] frontierSizes = new int[blockCount];
+    for (int b = 0; b < blockCount; b++) {
+      frontiers[b] = EMPTY;
+    }
+    for (int b : reversePostOrder) {
+      if (predecessors[b].length < 2) {
+        continue;
+      }
+      for (int predecessor : predecessors[b]) {
+        int runner = predecessor;
+        while (dominators[runner] >= 0 && runner != dominators[b]) {
+          // all entries for b are added consecutively, so checking the last one avoids duplicates
+          final int size = frontierSizes[runner];
+          if (size > 0 && frontiers[runner][size - 1] == b) {
+            break;
+          }
+          if (size == frontiers[runner].length) {
+            frontiers[runner] = Arrays.copyOf(frontiers[runner], Math.max(4, size * 2));
+          }
+          frontiers[runner][frontierSizes[runner]++] = b;
+          if (runner == dominators[runner]) {
+            break;
+          }
+          runner = dominators[runner];
+        }
+      }
+    }
+    for (int b = 0; b < blockCount; b++) {
+      frontiers[b] = Arrays.copyOf(frontiers[b], frontierSizes[b]);
+    }
+    return frontiers;
+  }
+
+  /**
+   * Computes the Locals live at the beginning of each reachable block. Locals live at a trap
+   * handler are live throughout the trapped block.
+   */
+  @Nonnull
+  private static BitSet[] computeLiveness(
+      @Nonnull int[] reversePostOrder,
+      @Nonnull int[][] successors,
+      @Nonnull int[] normalSuccessorCounts,
+      @Nonnull BitSet[] uses,
+      @Nonnull BitSet[] defs) {
+    final BitSet[] liveIns = new BitSet[successors.length];
+    for (int b : reversePostOrder) {
+      liveIns[b] = (BitSet) uses[b].clone();
+    }
+    final BitSet live = new BitSet();
+    boolean changed = true;
+    while (changed) {
+      changed = false;
+      for (int i = reversePostOrder.length - 1; i >= 0; i--) {
+        final int b = reversePostOrder[i];
+        live.clear();
+        final int[] blockSuccessors = successors[b];
+        for (int j = 0; j < normalSuccessorCounts[b]; j++) {
+          live.or(liveIns[blockSuccessors[j]]);
+        }
+        live.andNot(defs[b]);
+        // a definition inside the trapped block does not kill what is live at the handler
+        for (int j = normalSuccessorCounts[b]; j < blockSuccessors.length; j++) {
+          live.or(liveIns[blockSuccessors[j]]);
+        }
+        live.or(uses[b]);
+        if (!live.equals(liveIns[b])) {
+          liveIns[b].or(live);
+          changed = true;
+        }
+      }
+    }
+    return liveIns;
+  }
+
+  /**
+   * Places a phi for a Local at the iterated dominance frontier of its definitions, but only where
+   * the Local is live.
+   */
+  @Nonnull
+  private static Phi[][] placePhis(
+      @Nonnull int[] reversePostOrder,
+      @Nonnull int[][] frontiers,
+      @Nonnull BitSet[] defs,
+      @Nonnull BitSet[] liveIns,
+      int localCount,
+      int blockCount) {
+    // invert the per block definitions to the defining blocks of each Local
+    final int[][] defBlocks = new int[localCount][];
+    final int[] defBlockCounts = new int[localCount];
+    for (int b : reversePostOrder) {
+      final BitSet blockDefs = defs[b];
+      for (int id = blockDefs.nextSetBit(0); id >= 0; id = blockDefs.nextSetBit(id + 1)) {
+        defBlockCounts[id]++;
+      }
+    }
+    for (int id = 0; id < localCount; id++) {
+      defBlocks[id] = new int[defBlockCounts[id]];
+      defBlockCounts[id] = 0;
+    }
+    for (int b : reversePostOrder) {
+      final BitSet blockDefs = defs[b];
+      for (int id = blockDefs.nextSetBit(0); id >= 0; id = blockDefs.nextSetBit(id + 1)) {
+        defBlocks[id][defBlockCounts[id]++] = b;
+      }
+    }
+
+    final List<List<Phi>> phis = new ArrayList<>(blockCount);
+    for (int b = 0; b < blockCount; b++) {
+      phis.add(Collections.emptyList());
+    }
+    // stamps avoid clearing the marks for each Local
+    final int[] hasPhi = new int[blockCount];
+    final int[] queued = new int[blockCount];
+    final int[] worklist = new int[blockCount];
+    for (int id = 0; id < localCount; id++) {
+      final int stamp = id + 1;
+      int worklistSize = 0;
+      for (int b : defBlocks[id]) {
+        queued[b] = stamp;
+        worklist[worklistSize++] = b;
+      }
+      while (worklistSize > 0) {
+        final int b = worklist[--worklistSize];
+        for (int frontier : frontiers[b]) {
+          if (hasPhi[frontier] == stamp || !liveIns[frontier].get(id)) {
+            continue;
+          }
+          hasPhi[frontier] = stamp;
+          if (phis.get(frontier).isEmpty()) {
+            phis.set(frontier, new ArrayList<>());
+          }
+          phis.get(frontier).add(new Phi(id));
+          if (queued[frontier] != stamp) {
+            queued[frontier] = stamp;
+            worklist[worklistSize++] = frontier;
+          }
+        }
+      }
+    }
+
+    final Phi[][] result = new Phi[blockCount][];
+    for (int b = 0; b < blockCount; b++) {
+      result[b] = phis.get(b).toArray(new Phi[0]);
+    }
+    return result;
+  }
+
+  /**
+   * Inserts the phi Stmts at the beginning of a block. Identity Stmts (e.g. the caught exception
+   * Stmt of a trap handler) stay in front of them, so that the exceptional flows still reach the
+   * handler.
+   */
+  private static void insertAtBlockStart(
+      @Nonnull MutableStmtGraph graph, @Nonnull List<Stmt> blockStmts, @Nonnull List<Stmt> phis) {
+    int position = 0;
+    while (position < blockStmts.size() && blockStmts.get(position) instanceof JIdentityStmt) {
+      position++;
+    }
+    if (position == 0) {
+      // the phi Stmts get the traps of the block, so that they can be merged into it
+      final Stmt head = blockStmts.get(0);
+      graph.insertBefore(head, phis, graph.exceptionalSuccessors(head));
+      return;
+    }
+    if (position < blockStmts.size()) {
+      graph.insertBefore(blockStmts.get(position), phis, Collections.emptyMap());
+      return;
+    }
+    // the block consists of identity Stmts only: link the phi Stmts in between
+    final Stmt tail = blockStmts.get(blockStmts.size() - 1);
+    final List<Stmt> tailSuccessors = new ArrayList<>(graph.successors(tail));
+    graph.setEdges(tail, Collections.singletonList(phis.get(0)));
+    for (int i = 1; i < phis.size(); i++) {
+      graph.putEdge(phis.get(i - 1), phis.get(i));
+    }
+    graph.setEdges(phis.get(phis.size() - 1), tailSuccessors);
+  }
+
+  @Nonnull
+  private static int[] blockIdsOf(
+      @Nonnull List<? extends BasicBlock<?>> blocks,
+      @Nonnull Map<?, ? extends BasicBlock<?>> exceptionalBlocks,
+      @Nonnull Map<Stmt, Integer> blockIds) {
+    final int[] ids = new int[blocks.size() + exceptionalBlocks.size()];
+    int size = 0;
+    for (BasicBlock<?> block : blocks) {
+      ids[size++] = blockIds.get(block.getHead());
+    }
+    for (BasicBlock<?> block : exceptionalBlocks.values()) {
+      ids[size++] = blockIds.get(block.getHead());
+    }
+    return ids;
+  }
+
+  private static int idOf(
+      @Nonnull Map<Local, Integer> localIds, @Nonnull List<Local> locals, @Nonnull Local local) {
+    final Integer id = localIds.get(local);
+    if (id != null) {
+      return id;
+    }
+    localIds.put(local, locals.size());
+    locals.add(local);
+    return locals.size() - 1;
+  }
+
+  @Nullable
+  private static Local definedLocal(@Nonnull Stmt stmt) {
+    if (!(stmt instanceof AbstractDefinitionStmt)) {
+      return null;
+    }
+    final Value def = ((AbstractDefinitionStmt<?, ?>) stmt).getLeftOp();
+    return def instanceof Local ? (Local) def : null;
+  }
+
+  /** A phi of a Local at a block whose Stmt is created after renaming. */
+  private static class Phi {
+    private final int local;
+    @Nullable private Local def;
+    private final List<Local> args = new ArrayList<>();
+    private final Map<Local, BasicBlock<?>> argToBlock = new HashMap<>();
+
+    private Phi(int local) {
+      this.local = local;
+    }
+  }
+
+  /** Renames the definitions and uses in a preorder walk over the dominator tree. */
+  private static class Renamer {
+    @Nonnull private final MutableStmtGraph.Batch batch;
+    @Nonnull private final List<Local> locals;
+    @Nonnull private final Map<Local, Integer> localIds;
+    @Nonnull private final boolean[] renamed;
+    @Nonnull private final Set<String> usedNames = new HashSet<>();
+    private int versionCounter = 0;
+
+    /** the versions in order of their creation */
+    @Nonnull private final List<Local> versions = new ArrayList<>();
+    /** ids of renamed Locals that are used where no definition reaches */
+    @Nonnull private final BitSet undefinedUses = new BitSet();
+
+    // the rename stack of each Local and a log of the pushed Local ids to pop them again
+    @Nonnull private final Local[][] stacks;
+    @Nonnull private final int[] stackSizes;
+    @Nonnull private int[] pushed = new int[16];
+    private int pushedSize = 0;
+
+    private Renamer(
+        @Nonnull MutableStmtGraph.Batch batch,
+        @Nonnull List<Local> locals,
+        @Nonnull Map<Local, Integer> localIds,
+        @Nonnull boolean[] renamed) {
+      this.batch = batch;
+      this.locals = locals;
+      this.localIds = localIds;
+      this.renamed = renamed;
+      for (Local local : locals) {
+        usedNames.add(local.getName());
+      }
+      stacks = new Local[locals.size()][];
+      stackSizes = new int[locals.size()];
+    }
+
+    private void rename(
+        @Nonnull int[] reversePostOrder,
+        @Nonnull int[] dominators,
+        @Nonnull int[][] successors,
+        @Nonnull List<BasicBlock<?>> blocks,
+        @Nonnull List<List<Stmt>> blockStmts,
+        @Nonnull Phi[][] phis) {
+      // the dominator tree as child lists; the order of getBlocks() is arbitrary, so the children
+      // are visited in reverse postorder to get deterministic names. They are pushed onto the
+      // stack in list order, hence each list starts with the child that comes last.
+      final int blockCount = dominators.length;
+      final int[] firstChild = new int[blockCount];
+      final int[] nextSibling = new int[blockCount];
+      Arrays.fill(firstChild, -1);
+      for (int i = 1; i < reversePostOrder.length; i++) {
+        final int b = reversePostOrder[i];
+        nextSibling[b] = firstChild[dominators[b]];
+        firstChild[dominators[b]] = b;
+      }
+
+      // an entry ~b on the stack leaves block b again
+      final int[] stack = new int[2 * blockCount];
+      final int[] pushedBefore = new int[blockCount];
+      int stackSize = 0;
+      stack[stackSize++] = reversePostOrder[0];
+      while (stackSize > 0) {
+        final int entry = stack[--stackSize];
+        if (entry < 0) {
+          final int b = ~entry;
+          while (pushedSize > pushedBefore[b]) {
+            stackSizes[pushed[--pushedSize]]--;
+          }
+          continue;
+        }
+        final int b = entry;
+        pushedBefore[b] = pushedSize;
+        renameBlock(b, phis[b], blockStmts.get(b));
+        for (int successor : successors[b]) {
+          for (Phi phi : phis[successor]) {
+            final Local arg = peek(phi.local);
+            if (arg != null && !phi.argToBlock.containsKey(arg)) {
+              phi.args.add(arg);
+              phi.argToBlock.put(arg, blocks.get(b));
+            }
+          }
+        }
+        stack[stackSize++] = ~b;
+        for (int child = firstChild[b]; child >= 0; child = nextSibling[child]) {
+          stack[stackSize++] = child;
+        }
+      }
+    }
+
+    private void renameBlock(int b, @Nonnull Phi[] blockPhis, @Nonnull List<Stmt> stmts) {
+      for (Phi phi : blockPhis) {
+        phi.def = newVersion(phi.local);
+        push(phi.local, phi.def);
+      }
+
+      final Set<Value> replacedUses = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (int i = 0; i < stmts.size(); i++) {
+        final Stmt stmt = stmts.get(i);
+        Stmt newStmt = stmt;
+        replacedUses.clear();
+        for (Value use : stmt.getUses()) {
+          if (use instanceof Local && replacedUses.add(use)) {
+            final int id = localIds.get(use);
+            final Local version = peek(id);
+            if (version == null) {
+              if (renamed[id]) {
+                undefinedUses.set(id);
+              }
+            } else if (!version.equals(use)) {
+              newStmt = newStmt.withNewUse(use, version);
+            }
+          }
+        }
+        final Local def = definedLocal(stmt);
+        if (def != null) {
+          final int id = localIds.get(def);
+          final Local version = renamed[id] ? newVersion(id) : def;
+          push(id, version);
+          if (version != def) {
+            newStmt = ((AbstractDefinitionStmt<?, ?>) newStmt).withNewDef(version);
+          }
+        }
+        if (newStmt != stmt) {
+          batch.replaceNode(stmt, newStmt);
+          stmts.set(i, newStmt);
+        }
+      }
+    }
+
+    @Nonnull
+    private Local newVersion(int id) {
+      final Local original = locals.get(id);
+      String name;
+      do {
+        name = original.getName() + "#" + versionCounter++;
+      } while (!usedNames.add(name));
+      final Local version = original.withName(name);
+      versions.add(version);
+      return version;
+    }
+
+    private void push(int id, @Nonnull Local version) {
+      Local[] stack = stacks[id];
+      if (stack == null) {
+        stack = stacks[id] = new Local[4];
+      } else if (stackSizes[id] == stack.length) {
+        stack = stacks[id] = Arrays.copyOf(stack, stack.length * 2);
+      }
+      stack[stackSizes[id]++] = version;
+      if (pushedSize == pushed.length) {
+        pushed = Arrays.copyOf(pushed, pushedSize * 2);
+      }
+      pushed[pushedSize++] = id;
+    }
+
+    @Nullable
+    private Local peek(int id) {
+      final int size = stackSizes[id];
+      return size == 0 ? null : stacks[id][size - 1];
+    }
+  }
+}
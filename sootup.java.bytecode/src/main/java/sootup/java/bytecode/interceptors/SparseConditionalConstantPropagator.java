@@ -0,0 +1,630 @@
+package sootup.java.bytecode.interceptors;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.MutableStmtGraph;
+import sootup.core.jimple.Jimple;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.constant.BooleanConstant;
+import sootup.core.jimple.common.constant.Constant;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.constant.LongConstant;
+import sootup.core.jimple.common.constant.NullConstant;
+import sootup.core.jimple.common.expr.AbstractBinopExpr;
+import sootup.core.jimple.common.expr.AbstractInstanceInvokeExpr;
+import sootup.core.jimple.common.expr.AbstractInvokeExpr;
+import sootup.core.jimple.common.expr.JCastExpr;
+import sootup.core.jimple.common.expr.JNegExpr;
+import sootup.core.jimple.common.expr.JPhiExpr;
+import sootup.core.jimple.common.ref.JArrayRef;
+import sootup.core.jimple.common.ref.JInstanceFieldRef;
+import sootup.core.jimple.common.stmt.AbstractDefinitionStmt;
+import sootup.core.jimple.common.stmt.JAssignStmt;
+import sootup.core.jimple.common.stmt.JIfStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.jimple.javabytecode.stmt.JSwitchStmt;
+import sootup.core.model.Body;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.types.ReferenceType;
+import sootup.core.views.View;
+
+/**
+ * A BodyInterceptor that performs sparse conditional constant propagation (Wegman and Zadeck)
+ * together with copy propagation in a single pass. It subsumes {@link CopyPropagator}, {@link
+ * ConstantPropagatorAndFolder} and {@link ConditionalBranchFolder}:
+ *
+ * <ol>
+ *   <li>every definition of a Local gets a dense id and each use is linked to its reaching
+ *       definitions, which are computed once per {@link BasicBlock},
+ *   <li>the values of the definitions and the executable blocks are computed with two worklists: a
+ *       Stmt is only evaluated again if the value of one of its reaching definitions changed or its
+ *       block became executable,
+ *   <li>each Stmt is rewritten at most once: uses with a constant value are replaced by the
+ *       constant, uses of a copy are replaced by its source if the source is not redefined in
+ *       between, definitions with a constant value are folded and branches with a constant
+ *       condition become gotos. Blocks that are never executed are removed.
+ * </ol>
+ *
+ * <p>The Body does not need to be in SSA form: instead of phi functions the values of all reaching
+ * definitions in executable blocks are merged at a use. Dead assignments and unused Locals are left
+ * to the {@link DeadAssignmentEliminator} and the {@link UnusedLocalEliminator}.
+ */
+public class SparseConditionalConstantPropagator implements BodyInterceptor {
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
+
+  @Override
+  public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
+    if (builder.getStmtGraph().getStartingStmt() == null) {
+      return;
+    }
+    final Propagation propagation = new Propagation(builder);
+    propagation.solve();
+    propagation.rewrite();
+  }
+
+  /** The state of the propagation in one Body. */
+  private static class Propagation {
+    @Nonnull private final MutableStmtGraph graph;
+
+    @Nonnull private final List<BasicBlock<?>> blocks;
+    /** the index of the block of each Stmt */
+    @Nonnull private final Map<Stmt, Integer> blockIds = new IdentityHashMap<>();
+
+    /**
+     * the contiguous range of definition ids of each Local that is defined more than once, only
+     * these definitions are tracked by the reaching definitions
+     */
+    @Nonnull private final Map<Local, int[]> ranges = new HashMap<>();
+    /** the definition of each Local that is defined exactly once */
+    @Nonnull private final Map<Local, int[]> singleDefs = new HashMap<>();
+
+    @Nonnull private final Map<Stmt, Integer> defIds = new IdentityHashMap<>();
+    @Nonnull private final Map<Stmt, Integer> multipleDefIds = new IdentityHashMap<>();
+    @Nonnull private final Stmt[] defStmts;
+    @Nonnull private final Local[] defLocals;
+    @Nonnull private final int[] defBlocks;
+    /** the definitions which reach the head of each block */
+    @Nonnull private final Map<Stmt, BitSet> blockIns;
+
+    /** the reaching definitions of each used Local instance, per Stmt */
+    @Nonnull private final Map<Stmt, Map<Local, int[]>> useDefs = new IdentityHashMap<>();
+    /** the Stmts which use a definition */
+    @Nonnull private final List<Stmt>[] users;
+
+    @Nonnull private final LatticeValue[] values;
+    @Nonnull private final BitSet executableBlocks = new BitSet();
+    @Nonnull private final Deque<Integer> blockWorklist = new ArrayDeque<>();
+    @Nonnull private final Deque<Stmt> stmtWorklist = new ArrayDeque<>();
+
+    @Nonnull
+    private final Set<Stmt> queuedStmts = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    Propagation(@Nonnull Body.BodyBuilder builder) {
+      graph = builder.getStmtGraph();
+      blocks = new ArrayList<>(graph.getBlocks());
+      for (int i = 0; i < blocks.size(); i++) {
+        for (Stmt stmt : blocks.get(i).getStmts()) {
+          blockIds.put(stmt, i);
+        }
+      }
+
+      // number the definitions
+      final Map<Local, Integer> defCount = new HashMap<>();
+      for (Stmt stmt : blockIds.keySet()) {
+        final Local def = WebBasedLocalSplitter.definedLocal(stmt);
+        if (def != null) {
+          defCount.merge(def, 1, Integer::sum);
+        }
+      }
+      int defIdCount = 0;
+      for (Map.Entry<Local, Integer> entry : defCount.entrySet()) {
+        if (entry.getValue() > 1) {
+          ranges.put(entry.getKey(), new int[] {defIdCount, defIdCount});
+          defIdCount += entry.getValue();
+        }
+      }
+      for (Map.Entry<Local, Integer> entry : defCount.entrySet()) {
+        if (entry.getValue() == 1) {
+          singleDefs.put(entry.getKey(), new int[] {defIdCount++});
+        }
+      }
+      defStmts = new Stmt[defIdCount];
+      defLocals = new Local[defIdCount];
+      defBlocks = new int[defIdCount];
+      for (int blockId = 0; blockId < blocks.size(); blockId++) {
+        for (Stmt stmt : blocks.get(blockId).getStmts()) {
+          final Local def = WebBasedLocalSplitter.definedLocal(stmt);
+          if (def != null) {
+            final int[] range = ranges.get(def);
+            final int defId = range == null ? singleDefs.get(def)[0] : range[1]++;
+            if (range != null) {
+              multipleDefIds.put(stmt, defId);
+            }
+            defIds.put(stmt, defId);
+            defStmts[defId] = stmt;
+            defLocals[defId] = def;
+            defBlocks[defId] = blockId;
+          }
+        }
+      }
+      blockIns =
+          WebBasedLocalSplitter.computeReachingDefs(graph, multipleDefIds, defLocals, ranges);
+
+      // link the uses to their reaching definitions
+      @SuppressWarnings("unchecked")
+      final List<Stmt>[] users = new List[defIdCount];
+      this.users = users;
+      for (BasicBlock<?> block : blocks) {
+        final BitSet reaching = (BitSet) blockIns.get(block.getHead()).clone();
+        for (Stmt stmt : block.getStmts()) {
+          stmt.forEachLocalUse(
+              use -> {
+                final Map<Local, int[]> uses =
+                    useDefs.computeIfAbsent(stmt, k -> new IdentityHashMap<>(4));
+                if (uses.containsKey(use)) {
+                  return;
+                }
+                final int[] defs = reachingDefs(reaching, use);
+                uses.put(use, defs);
+                for (int def : defs) {
+                  if (users[def] == null) {
+                    users[def] = new ArrayList<>();
+                  }
+                  users[def].add(stmt);
+                }
+              });
+          WebBasedLocalSplitter.kill(reaching, multipleDefIds.get(stmt), defLocals, ranges);
+        }
+      }
+
+      values = new LatticeValue[defIdCount];
+      Arrays.fill(values, LatticeValue.TOP);
+    }
+
+    /** Computes the values of the definitions and the executable blocks. */
+    void solve() {
+      markExecutable(blockIds.get(graph.getStartingStmt()));
+      do {
+        propagate();
+        // hint: a condition can only stay undetermined in malformed code, e.g. if a Local is only
+        // defined in terms of itself; then the branch might flow anywhere
+        for (int blockId = executableBlocks.nextSetBit(0);
+            blockId >= 0;
+            blockId = executableBlocks.nextSetBit(blockId + 1)) {
+          final Stmt tail = blocks.get(blockId).getTail();
+          if (takenSuccessor(tail) == UNDETERMINED) {
+            for (Stmt successor : graph.successors(tail)) {
+              markExecutable(blockIds.get(successor));
+            }
+          }
+        }
+      } while (!blockWorklist.isEmpty());
+    }
+
+    private void propagate() {
+      while (!blockWorklist.isEmpty() || !stmtWorklist.isEmpty()) {
+        while (!blockWorklist.isEmpty()) {
+          for (Stmt stmt : blocks.get(blockWorklist.poll()).getStmts()) {
+            visit(stmt);
+          }
+        }
+        while (!stmtWorklist.isEmpty()) {
+          final Stmt stmt = stmtWorklist.poll();
+          queuedStmts.remove(stmt);
+          if (executableBlocks.get(blockIds.get(stmt))) {
+            visit(stmt);
+          }
+        }
+      }
+    }
+
+    private void visit(@Nonnull Stmt stmt) {
+      final Integer defId = defIds.get(stmt);
+      if (defId != null) {
+        final LatticeValue value =
+            stmt instanceof JAssignStmt
+                ? evaluate(stmt, ((JAssignStmt<?, ?>) stmt).getRightOp())
+                : LatticeValue.BOTTOM;
+        final LatticeValue oldValue = values[defId];
+        final LatticeValue newValue = oldValue.meet(value);
+        if (!newValue.equals(oldValue)) {
+          values[defId] = newValue;
+          if (users[defId] != null) {
+            for (Stmt user : users[defId]) {
+              if (queuedStmts.add(user)) {
+                stmtWorklist.add(user);
+              }
+            }
+          }
+        }
+      }
+
+      final int blockId = blockIds.get(stmt);
+      if (blocks.get(blockId).getTail() != stmt) {
+        return;
+      }
+      final List<Stmt> successors = graph.successors(stmt);
+      final int taken = takenSuccessor(stmt);
+      if (taken >= 0 && taken < successors.size()) {
+        markExecutable(blockIds.get(successors.get(taken)));
+      } else if (taken != UNDETERMINED) {
+        for (Stmt successor : successors) {
+          markExecutable(blockIds.get(successor));
+        }
+      }
+    }
+
+    private static final int[] NO_DEFS = new int[0];
+    private static final int UNDETERMINED = -1;
+    private static final int ALL_SUCCESSORS = -2;
+
+    /**
+     * Returns the index of the only successor the branching Stmt can flow to, {@link #UNDETERMINED}
+     * if its condition has no value yet or {@link #ALL_SUCCESSORS}.
+     */
+    private int takenSuccessor(@Nonnull Stmt stmt) {
+      if (stmt instanceof JIfStmt) {
+        final LatticeValue condition = evaluate(stmt, ((JIfStmt) stmt).getCondition());
+        if (condition == LatticeValue.TOP) {
+          return UNDETERMINED;
+        }
+        // the first successor is the fallsthrough Stmt, the second is the branch target
+        if (condition.constant instanceof BooleanConstant) {
+          return condition.constant == BooleanConstant.getFalse() ? 0 : 1;
+        }
+        if (condition.constant instanceof IntConstant) {
+          return ((IntConstant) condition.constant).getValue() == 0 ? 0 : 1;
+        }
+      } else if (stmt instanceof JSwitchStmt) {
+        final JSwitchStmt switchStmt = (JSwitchStmt) stmt;
+        final LatticeValue key = evaluate(stmt, switchStmt.getKey());
+        if (key == LatticeValue.TOP) {
+          return UNDETERMINED;
+        }
+        if (key.constant instanceof IntConstant) {
+          final List<IntConstant> switchValues = switchStmt.getValues();
+          final int index = switchValues.indexOf(key.constant);
+          // the default target is the last successor
+          return index < 0 ? switchValues.size() : index;
+        }
+      }
+      return ALL_SUCCESSORS;
+    }
+
+    private void markExecutable(int blockId) {
+      if (executableBlocks.get(blockId)) {
+        return;
+      }
+      executableBlocks.set(blockId);
+      blockWorklist.add(blockId);
+      // a handler is executable as soon as one of the blocks it protects is
+      for (BasicBlock<?> handler : blocks.get(blockId).getExceptionalSuccessors().values()) {
+        markExecutable(blockIds.get(handler.getHead()));
+      }
+    }
+
+    /** Evaluates a value of the Stmt based on the current values of the definitions. */
+    @Nonnull
+    private LatticeValue evaluate(@Nonnull Stmt stmt, @Nonnull Value value) {
+      if (value instanceof Constant) {
+        return LatticeValue.of((Constant) value);
+      }
+      if (value instanceof Local) {
+        return valueOfUse(stmt, (Local) value);
+      }
+      if (value instanceof AbstractBinopExpr) {
+        final AbstractBinopExpr binop = (AbstractBinopExpr) value;
+        final LatticeValue op1 = evaluate(stmt, binop.getOp1());
+        final LatticeValue op2 = evaluate(stmt, binop.getOp2());
+        if (op1 == LatticeValue.BOTTOM || op2 == LatticeValue.BOTTOM) {
+          return LatticeValue.BOTTOM;
+        }
+        if (op1 == LatticeValue.TOP || op2 == LatticeValue.TOP) {
+          return LatticeValue.TOP;
+        }
+        return fold(binop.withOp1(op1.constant).withOp2(op2.constant));
+      }
+      if (value instanceof JNegExpr) {
+        final LatticeValue op = evaluate(stmt, ((JNegExpr) value).getOp());
+        return op.constant == null ? op : fold(((JNegExpr) value).withOp(op.constant));
+      }
+      if (value instanceof JCastExpr && value.getType() instanceof ReferenceType) {
+        final LatticeValue op = evaluate(stmt, ((JCastExpr) value).getOp());
+        if (op.constant == null) {
+          return op;
+        }
+        // a null reference may be represented by a numeric zero
+        if (op.constant instanceof NullConstant
+            || op.constant.equals(IntConstant.getInstance(0))
+            || op.constant.equals(LongConstant.getInstance(0))) {
+          return LatticeValue.of(NullConstant.getInstance());
+        }
+      }
+      return LatticeValue.BOTTOM;
+    }
+
+    @Nonnull
+    private static LatticeValue fold(@Nonnull Value expr) {
+      final Constant constant = Evaluator.getConstantValueOf(expr);
+      return constant == null ? LatticeValue.BOTTOM : LatticeValue.of(constant);
+    }
+
+    /** Merges the values of the reaching definitions of a use which lie in executable blocks. */
+    @Nonnull
+    private LatticeValue valueOfUse(@Nonnull Stmt stmt, @Nonnull Local use) {
+      final Map<Local, int[]> uses = useDefs.get(stmt);
+      final int[] defs = uses == null ? null : uses.get(use);
+      if (defs == null || defs.length == 0) {
+        return LatticeValue.BOTTOM;
+      }
+      LatticeValue value = null;
+      for (int def : defs) {
+        if (isExecutable(def)) {
+          value = value == null ? values[def] : value.meet(values[def]);
+        }
+      }
+      // hint: in valid code a use in an executable block has an executable definition
+      return value == null ? LatticeValue.BOTTOM : value;
+    }
+
+    /**
+     * Rewrites the executable Stmts once, turns branches with a constant condition into gotos and
+     * removes the Stmts that are never executed.
+     */
+    void rewrite() {
+      // the modifications are applied at once to avoid splitting and merging blocks per Stmt
+      final MutableStmtGraph.Batch batch = graph.startBatch();
+      for (int blockId = 0; blockId < blocks.size(); blockId++) {
+        final BasicBlock<?> block = blocks.get(blockId);
+        if (!executableBlocks.get(blockId)) {
+          block.getStmts().forEach(batch::removeNode);
+          continue;
+        }
+        final BitSet reaching = (BitSet) blockIns.get(block.getHead()).clone();
+        for (Stmt stmt : block.getStmts()) {
+          final Stmt newStmt = rewrite(stmt, reaching);
+          final int taken = stmt.branches() ? takenSuccessor(stmt) : UNDETERMINED;
+          if (taken >= 0 && graph.successors(stmt).size() > 1) {
+            final Stmt gotoStmt = Jimple.newGotoStmt(stmt.getPositionInfo());
+            batch.replaceNode(stmt, gotoStmt);
+            batch.setEdges(gotoStmt, Collections.singletonList(graph.successors(stmt).get(taken)));
+          } else if (newStmt != stmt) {
+            batch.replaceNode(stmt, newStmt);
+          }
+          WebBasedLocalSplitter.kill(reaching, multipleDefIds.get(stmt), defLocals, ranges);
+        }
+      }
+      batch.commit();
+    }
+
+    @Nonnull
+    private Stmt rewrite(@Nonnull Stmt stmt, @Nonnull BitSet reaching) {
+      if (stmt instanceof JAssignStmt) {
+        final JAssignStmt<?, ?> assignStmt = (JAssignStmt<?, ?>) stmt;
+        if (assignStmt.getRightOp() instanceof JPhiExpr) {
+          return stmt;
+        }
+        final Integer defId = defIds.get(stmt);
+        final Constant constant = defId == null ? null : values[defId].constant;
+        if (constant != null) {
+          return assignStmt.getRightOp() instanceof Constant
+              ? stmt
+              : assignStmt.withRValue(constant);
+        }
+      }
+
+      final Map<Local, int[]> uses = useDefs.get(stmt);
+      if (uses == null) {
+        return stmt;
+      }
+      Stmt newStmt = stmt;
+      for (Local use : uses.keySet()) {
+        final Constant constant = valueOfUse(stmt, use).constant;
+        if (constant != null && !isUsedAsBase(stmt, use)) {
+          newStmt = newStmt.withNewUse(use, constant);
+          continue;
+        }
+        final Local source = copySource(use, reaching);
+        if (source != use) {
+          newStmt = newStmt.withNewUse(use, source);
+        }
+      }
+      return newStmt;
+    }
+
+    /**
+     * Follows the chain of copies which define the use as long as their source is not redefined
+     * before the use.
+     */
+    @Nonnull
+    private Local copySource(@Nonnull Local use, @Nonnull BitSet reaching) {
+      Local current = use;
+      for (int steps = 0; steps < defStmts.length; steps++) {
+        final int def = singleExecutableDef(reaching, current);
+        if (def < 0) {
+          break;
+        }
+        final Stmt defStmt = defStmts[def];
+        if (!(defStmt instanceof JAssignStmt)) {
+          break;
+        }
+        final Value rhs = ((JAssignStmt<?, ?>) defStmt).getRightOp();
+        if (!(rhs instanceof Local) || rhs.equals(current)) {
+          break;
+        }
+        final Local source = (Local) rhs;
+        if (!hasSameExecutableDefs(reaching, source, useDefs.get(defStmt).get(source))) {
+          break;
+        }
+        current = source;
+      }
+      return current;
+    }
+
+    /**
+     * Returns the ascending definitions of the Local in reaching, the result must not be modified.
+     */
+    @Nonnull
+    private int[] reachingDefs(@Nonnull BitSet reaching, @Nonnull Local local) {
+      final int[] range = ranges.get(local);
+      if (range == null) {
+        // hint: in valid code the only definition of a Local reaches all of its uses
+        final int[] singleDef = singleDefs.get(local);
+        return singleDef == null ? NO_DEFS : singleDef;
+      }
+      int[] defs = new int[1];
+      int count = 0;
+      for (int id = reaching.nextSetBit(range[0]);
+          id >= 0 && id < range[1];
+          id = reaching.nextSetBit(id + 1)) {
+        if (count == defs.length) {
+          defs = Arrays.copyOf(defs, count * 2);
+        }
+        defs[count++] = id;
+      }
+      return count == defs.length ? defs : Arrays.copyOf(defs, count);
+    }
+
+    /** Returns the only executable definition of the Local in reaching or -1. */
+    private int singleExecutableDef(@Nonnull BitSet reaching, @Nonnull Local local) {
+      int result = -1;
+      for (int id : reachingDefs(reaching, local)) {
+        if (isExecutable(id)) {
+          if (result >= 0) {
+            return -1;
+          }
+          result = id;
+        }
+      }
+      return result;
+    }
+
+    /**
+     * Checks whether the executable definitions of the Local in reaching are the executable ones of
+     * the (ascending) defs.
+     */
+    private boolean hasSameExecutableDefs(
+        @Nonnull BitSet reaching, @Nonnull Local local, @Nonnull int[] defs) {
+      final int[] reachingDefs = reachingDefs(reaching, local);
+      if (reachingDefs == defs) {
+        return true;
+      }
+      int i = 0;
+      for (int id : reachingDefs) {
+        if (!isExecutable(id)) {
+          continue;
+        }
+        while (i < defs.length && !isExecutable(defs[i])) {
+          i++;
+        }
+        if (i == defs.length || defs[i] != id) {
+          return false;
+        }
+        i++;
+      }
+      while (i < defs.length) {
+        if (isExecutable(defs[i++])) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private boolean isExecutable(int defId) {
+      return executableBlocks.get(defBlocks[defId]);
+    }
+
+    /** A constant can not replace a Local that is the base of a field, array or invocation. */
+    private static boolean isUsedAsBase(@Nonnull Stmt stmt, @Nonnull Local local) {
+      if (stmt.containsInvokeExpr()) {
+        final AbstractInvokeExpr invokeExpr = stmt.getInvokeExpr();
+        if (invokeExpr instanceof AbstractInstanceInvokeExpr
+            && ((AbstractInstanceInvokeExpr) invokeExpr).getBase() == local) {
+          return true;
+        }
+      }
+      if (stmt instanceof AbstractDefinitionStmt) {
+        final AbstractDefinitionStmt<?, ?> defStmt = (AbstractDefinitionStmt<?, ?>) stmt;
+        return isBase(defStmt.getLeftOp(), local) || isBase(defStmt.getRightOp(), local);
+      }
+      return false;
+    }
+
+    private static boolean isBase(@Nonnull Value value, @Nonnull Local local) {
+      return (value instanceof JInstanceFieldRef && ((JInstanceFieldRef) value).getBase() == local)
+          || (value instanceof JArrayRef && ((JArrayRef) value).getBase() == local);
+    }
+  }
+
+  /** The value of a definition: not yet known (top), a constant or not constant (bottom). */
+  private static final class LatticeValue {
+    static final LatticeValue TOP = new LatticeValue(null);
+    static final LatticeValue BOTTOM = new LatticeValue(null);
+
+    @Nullable final Constant constant;
+
+    private LatticeValue(@Nullable Constant constant) {
+      this.constant = constant;
+    }
+
+    @Nonnull
+    static LatticeValue of(@Nonnull Constant constant) {
+      return new LatticeValue(constant);
+    }
+
+    @Nonnull
+    LatticeValue meet(@Nonnull LatticeValue other) {
+      if (this == TOP || other == BOTTOM) {
+        return other;
+      }
+      if (other == TOP || this == BOTTOM) {
+        return this;
+      }
+      return equals(other) ? this : BOTTOM;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      return o instanceof LatticeValue
+          && constant != null
+          && constant.equals(((LatticeValue) o).constant);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hashCode(constant);
+    }
+  }
+}
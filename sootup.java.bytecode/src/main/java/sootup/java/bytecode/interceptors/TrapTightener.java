@@ -24,9 +24,11 @@ package sootup.java.bytecode.interceptors;
 
 import java.util.*;
 import javax.annotation.Nonnull;
-import sootup.core.graph.BasicBlock;
+import javax.annotation.Nullable;
 import sootup.core.graph.MutableStmtGraph;
 import sootup.core.graph.StmtGraph;
+import sootup.core.graph.throwanalysis.ThrowAnalysis;
+import sootup.core.graph.throwanalysis.UnitThrowAnalysis;
 import sootup.core.jimple.basic.Trap;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.jimple.javabytecode.stmt.JEnterMonitorStmt;
@@ -50,42 +52,80 @@ import sootup.core.views.View;
  */
 public class TrapTightener implements BodyInterceptor {
 
+  @Nullable private final ThrowAnalysis throwAnalysis;
+
+  /** uses a {@link UnitThrowAnalysis} of the View of the Body */
+  public TrapTightener() {
+    this(null);
+  }
+
+  public TrapTightener(@Nullable ThrowAnalysis throwAnalysis) {
+    this.throwAnalysis = throwAnalysis;
+  }
+
+  @Nullable
+  @Override
+  public String cacheKey() {
+    // a given ThrowAnalysis may be configured in ways its name does not reflect
+    return throwAnalysis == null ? getClass().getName() : null;
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
 
-    // FIXME: [ms] ThrowAnalysis is missing and in result mightThrow (...) makes no sense. Issue
-    // #486
-    if (true) {
+    MutableStmtGraph graph = builder.getStmtGraph();
+    final List<Trap> traps = graph.getTraps();
+    if (traps.isEmpty()) {
       return;
     }
-
-    MutableStmtGraph graph = builder.getStmtGraph();
+    final ThrowAnalysis throwAnalysis =
+        this.throwAnalysis != null ? this.throwAnalysis : new UnitThrowAnalysis(view);
     List<Stmt> stmtsInPrintOrder = builder.getStmts();
+    Map<Stmt, Integer> stmtToIdx = new HashMap<>();
+    for (int i = 0; i < stmtsInPrintOrder.size(); i++) {
+      stmtToIdx.put(stmtsInPrintOrder.get(i), i);
+    }
 
-    // collect stmts
-    Set<Stmt> monitoredStmts = monitoredStmts(graph);
-    Map<Stmt, Collection<ClassType>> toRemove = new HashMap<>();
-    for (BasicBlock<?> block : graph.getBlocks()) {
-      for (Stmt stmt : block.getStmts()) {
-
-        Collection<ClassType> removeForStmt = new ArrayList<>();
-        for (Map.Entry<? extends ClassType, ?> exception :
-            block.getExceptionalSuccessors().entrySet()) {
-
-          // FIXME: check for java9 modules signature, too!
-          boolean isCatchAll =
-              exception.getKey().getFullyQualifiedName().equals("java.lang.Throwable");
-
-          if (
-          /* mightThrow(graph, stmt, trap) || */ (isCatchAll && monitoredStmts.contains(stmt))) {
-            // if it might throw or if trap is a catch-all block and the current stmt has an active
-            // monitor, we need to keep the block
-            removeForStmt.add(exception.getKey());
-            break;
-          }
-        }
-        if (!removeForStmt.isEmpty()) {
-          toRemove.put(stmt, removeForStmt);
+    // collect the stmts at the borders of the trap ranges which can not throw the caught exception
+    Set<Stmt> monitoredStmts = null;
+    Map<Stmt, Collection<ClassType>> toRemove = new LinkedHashMap<>();
+    for (Trap trap : traps) {
+      final ClassType exceptionType = trap.getExceptionType();
+      // FIXME: check for java9 modules signature, too!
+      boolean isCatchAll = exceptionType.getFullyQualifiedName().equals("java.lang.Throwable");
+      if (isCatchAll && monitoredStmts == null) {
+        monitoredStmts = monitoredStmts(graph);
+      }
+
+      final int beginIdx = stmtToIdx.get(trap.getBeginStmt());
+      // the endStmt is exclusive
+      final int endIdx = stmtToIdx.get(trap.getEndStmt()) - 1;
+      int firstIdx = beginIdx;
+      while (firstIdx <= endIdx
+          && !mightThrow(
+              throwAnalysis,
+              stmtsInPrintOrder.get(firstIdx),
+              exceptionType,
+              isCatchAll,
+              monitoredStmts)) {
+        firstIdx++;
+      }
+      int lastIdx = endIdx;
+      while (lastIdx > firstIdx
+          && !mightThrow(
+              throwAnalysis,
+              stmtsInPrintOrder.get(lastIdx),
+              exceptionType,
+              isCatchAll,
+              monitoredStmts)) {
+        lastIdx--;
+      }
+
+      for (int i = beginIdx; i <= endIdx; i++) {
+        if (i < firstIdx || i > lastIdx) {
+          toRemove
+              .computeIfAbsent(stmtsInPrintOrder.get(i), k -> new ArrayList<>())
+              .add(exceptionType);
         }
       }
     }
@@ -96,9 +136,20 @@ public class TrapTightener implements BodyInterceptor {
         graph.removeExceptionalEdge(entry.getKey(), classType);
       }
     }
+  }
 
-    // FIXME: check if there are traphandlers that have no predecessor
-
+  /**
+   * Checks whether the stmt might throw an exception that is caught by the trap. If the trap is a
+   * catch-all block and the stmt has an active monitor, we need to keep the stmt in the trap.
+   */
+  private boolean mightThrow(
+      @Nonnull ThrowAnalysis throwAnalysis,
+      @Nonnull Stmt stmt,
+      @Nonnull ClassType exceptionType,
+      boolean isCatchAll,
+      @Nullable Set<Stmt> monitoredStmts) {
+    return (isCatchAll && monitoredStmts.contains(stmt))
+        || throwAnalysis.mightThrow(stmt, exceptionType);
   }
 
   /**
@@ -115,14 +166,18 @@ public class TrapTightener implements BodyInterceptor {
 
     while (!queue.isEmpty()) {
       Stmt stmt = queue.removeFirst();
-      visitedStmts.add(stmt);
+      if (!visitedStmts.add(stmt)) {
+        continue;
+      }
       // enter a monitored block
       if (stmt instanceof JEnterMonitorStmt) {
         Deque<Stmt> monitoredQueue = new ArrayDeque<>();
         monitoredQueue.add(stmt);
         while (!monitoredQueue.isEmpty()) {
           Stmt monitoredStmt = monitoredQueue.removeFirst();
-          monitoredStmts.add(monitoredStmt);
+          if (!monitoredStmts.add(monitoredStmt)) {
+            continue;
+          }
           visitedStmts.add(monitoredStmt);
           if (monitoredStmt instanceof JExitMonitorStmt) {
             queue.addAll(graph.getAllSuccessors(monitoredStmt));
@@ -140,31 +195,4 @@ public class TrapTightener implements BodyInterceptor {
     }
     return monitoredStmts;
   }
-
-  /**
-   * Check whether trap-destinations of the given stmt contain the given trap.
-   *
-   * @param graph is a exceptional StmtGraph
-   * @param stmt is a stmt in the given graph
-   * @param trap is a given trap
-   * @return If trap-destinations of the given stmt contain the given trap, return true, otherwise
-   *     return false
-   */
-
-  // FIXME: [ms] makes no sense in that Implementation! StmtGraph is not the legacy
-  // ExceptionalUnitGraph
-  private boolean mightThrow(@Nonnull StmtGraph<?> graph, @Nonnull Stmt stmt, @Nonnull Trap trap) {
-    final BasicBlock<?> block = graph.getBlockOf(stmt);
-
-    for (Map.Entry<? extends ClassType, ? extends BasicBlock<?>> dest :
-        block.getExceptionalSuccessors().entrySet()) {
-      final ClassType exceptionType = dest.getKey();
-      final BasicBlock<?> traphandlerBlock = dest.getValue();
-      if (exceptionType.equals(trap.getExceptionType())
-          && traphandlerBlock.getHead().equals(trap.getHandlerStmt())) {
-        return true;
-      }
-    }
-    return false;
-  }
 }
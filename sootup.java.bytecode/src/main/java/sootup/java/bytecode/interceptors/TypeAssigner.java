@@ -22,6 +22,7 @@ package sootup.java.bytecode.interceptors;
  */
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.model.Body;
 import sootup.core.transform.BodyInterceptor;
 import sootup.core.views.View;
@@ -49,6 +50,12 @@ public class TypeAssigner implements BodyInterceptor {
     this.standardizeNames = autoStandardizeNames;
   }
 
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName() + "(standardizeNames=" + standardizeNames + ")";
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
     if (new TypeResolver((JavaView) view).resolve(builder) && standardizeNames) {
@@ -22,49 +22,97 @@ package sootup.java.bytecode.interceptors;
  */
 import java.util.*;
 import javax.annotation.Nonnull;
-import sootup.core.graph.StmtGraph;
+import javax.annotation.Nullable;
+import sootup.core.graph.MutableStmtGraph;
+import sootup.core.graph.throwanalysis.ThrowAnalysis;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
 import sootup.core.transform.BodyInterceptor;
+import sootup.core.types.ClassType;
 import sootup.core.views.View;
 
 /**
  * A BodyInterceptor that removes all unreachable stmts from the given Body.
  *
+ * <p>If a {@link ThrowAnalysis} is given, an exceptional flow is only followed if the stmt might
+ * throw an exception caught by the handler. Such impossible exceptional flows are removed, too.
+ *
  * @author Zun Wang
  */
 public class UnreachableCodeEliminator implements BodyInterceptor {
 
+  @Nullable private final ThrowAnalysis throwAnalysis;
+
+  public UnreachableCodeEliminator() {
+    this(null);
+  }
+
+  public UnreachableCodeEliminator(@Nullable ThrowAnalysis throwAnalysis) {
+    this.throwAnalysis = throwAnalysis;
+  }
+
+  @Nullable
+  @Override
+  public String cacheKey() {
+    // a given ThrowAnalysis may be configured in ways its name does not reflect
+    return throwAnalysis == null ? getClass().getName() : null;
+  }
+
   @Override
   public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
 
-    StmtGraph<?> graph = builder.getStmtGraph();
+    MutableStmtGraph graph = builder.getStmtGraph();
 
     Deque<Stmt> queue = new ArrayDeque<>();
     queue.add(graph.getStartingStmt());
 
     // calculate all reachable stmts
     Set<Stmt> reachableStmts = new HashSet<>();
+    Map<Stmt, List<ClassType>> impossibleExceptionalFlows = new LinkedHashMap<>();
     while (!queue.isEmpty()) {
       Stmt stmt = queue.removeFirst();
-      reachableStmts.add(stmt);
-      for (Stmt succ : graph.getAllSuccessors(stmt)) {
+      if (!reachableStmts.add(stmt)) {
+        // already visited as it was queued more than once
+        continue;
+      }
+      if (throwAnalysis == null) {
+        for (Stmt succ : graph.getAllSuccessors(stmt)) {
+          if (!reachableStmts.contains(succ)) {
+            queue.add(succ);
+          }
+        }
+        continue;
+      }
+
+      for (Stmt succ : graph.successors(stmt)) {
         if (!reachableStmts.contains(succ)) {
           queue.add(succ);
         }
       }
+      for (Map.Entry<ClassType, Stmt> entry : graph.exceptionalSuccessors(stmt).entrySet()) {
+        if (!throwAnalysis.mightThrow(stmt, entry.getKey())) {
+          impossibleExceptionalFlows
+              .computeIfAbsent(stmt, k -> new ArrayList<>())
+              .add(entry.getKey());
+        } else if (!reachableStmts.contains(entry.getValue())) {
+          queue.add(entry.getValue());
+        }
+      }
     }
 
-    // remove unreachable stmts from StmtGraph
-    Queue<Stmt> removeQ = new ArrayDeque<>();
+    // remove the exceptional flows before their handlers might be removed
+    impossibleExceptionalFlows.forEach(
+        (stmt, exceptionTypes) ->
+            exceptionTypes.forEach(type -> graph.removeExceptionalEdge(stmt, type)));
+
+    // remove unreachable stmts from StmtGraph: there are no flows from reachable stmts to them, so
+    // the block structure is rebuilt only once
+    final MutableStmtGraph.Batch batch = graph.startBatch();
     for (Stmt stmt : graph.getNodes()) {
       if (!reachableStmts.contains(stmt)) {
-        removeQ.add(stmt);
+        batch.removeNode(stmt);
       }
     }
-
-    for (Stmt stmt : removeQ) {
-      builder.removeStmt(stmt);
-    }
+    batch.commit();
   }
 }
@@ -24,8 +24,8 @@ package sootup.java.bytecode.interceptors;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.jimple.basic.Local;
-import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
 import sootup.core.transform.BodyInterceptor;
@@ -38,6 +38,12 @@ import sootup.core.views.View;
  */
 public class UnusedLocalEliminator implements BodyInterceptor {
 
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
+
   /**
    * Removes unused local variables from the List of Stmts of the given {@link Body}. Complexity is
    * linear with respect to the statements.
@@ -51,12 +57,13 @@ public class UnusedLocalEliminator implements BodyInterceptor {
 
     // Traverse statements copying all used uses and defs
     for (Stmt stmt : builder.getStmtGraph()) {
-      for (Value value : stmt.getUsesAndDefs()) {
-        if (value instanceof Local) {
-          Local local = (Local) value;
-          locals.add(local);
-        }
-      }
+      stmt.forEachDef(
+          value -> {
+            if (value instanceof Local) {
+              locals.add((Local) value);
+            }
+          });
+      stmt.forEachLocalUse(locals::add);
     }
 
     builder.setLocals(locals);
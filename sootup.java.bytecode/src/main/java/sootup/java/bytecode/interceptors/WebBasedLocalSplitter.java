@@ -0,0 +1,315 @@
+package sootup.java.bytecode.interceptors;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.*;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import sootup.core.graph.BasicBlock;
+import sootup.core.graph.MutableStmtGraph;
+import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.Value;
+import sootup.core.jimple.common.stmt.AbstractDefinitionStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.views.View;
+
+/**
+ * A BodyInterceptor that splits a Local into one Local per def-use web, i.e. per set of definitions
+ * that reach a common use. It produces the same kind of result as {@link LocalSplitter} but runs in
+ * (almost) linear time:
+ *
+ * <ol>
+ *   <li>every definition of a Local that is defined more than once gets a dense id; the ids of one
+ *       Local form a contiguous range,
+ *   <li>reaching definitions are computed once per {@link BasicBlock} with a bitset worklist,
+ *   <li>all definitions reaching a common use are merged with a union-find,
+ *   <li>each modified Stmt is replaced exactly once.
+ * </ol>
+ *
+ * <p>Webs are identified by their ids only - the names of the resulting Locals (<code>name#n
+ * </code>) are just for readability and never parsed again, names that are already in use are
+ * skipped. A Local that forms a single web keeps its name. Definitions inside a trapped block are
+ * conservatively assumed to reach the handler.
+ */
+public class WebBasedLocalSplitter implements BodyInterceptor {
+
+  @Nullable
+  @Override
+  public String cacheKey() {
+    return getClass().getName();
+  }
+
+  @Override
+  public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
+    final List<Stmt> stmts = builder.getStmts();
+
+    // number the definitions of all Locals that are defined more than once
+    final Map<Local, Integer> defCount = new HashMap<>();
+    for (Stmt stmt : stmts) {
+      final Local def = definedLocal(stmt);
+      if (def != null) {
+        defCount.merge(def, 1, Integer::sum);
+      }
+    }
+    final Map<Local, int[]> ranges = new HashMap<>();
+    int defIdCount = 0;
+    for (Map.Entry<Local, Integer> entry : defCount.entrySet()) {
+      if (entry.getValue() > 1) {
+        ranges.put(entry.getKey(), new int[] {defIdCount, defIdCount});
+        defIdCount += entry.getValue();
+      }
+    }
+    if (ranges.isEmpty()) {
+      return;
+    }
+
+    final Map<Stmt, Integer> defIds = new IdentityHashMap<>();
+    final Local[] defLocals = new Local[defIdCount];
+    for (Stmt stmt : stmts) {
+      final Local def = definedLocal(stmt);
+      final int[] range = def == null ? null : ranges.get(def);
+      if (range != null) {
+        final int defId = range[1]++;
+        defIds.put(stmt, defId);
+        defLocals[defId] = def;
+      }
+    }
+
+    final MutableStmtGraph graph = builder.getStmtGraph();
+    final Map<Stmt, BitSet> blockIns = computeReachingDefs(graph, defIds, defLocals, ranges);
+
+    // union all definitions that reach a common use
+    final int[] parent = new int[defIdCount];
+    for (int i = 0; i < defIdCount; i++) {
+      parent[i] = i;
+    }
+    // the reaching definition of each used Local instance, per Stmt (Locals are compared by
+    // identity as a single Local instance may be shared between Stmts of different webs)
+    final Map<Stmt, Map<Local, Integer>> useDefs = new IdentityHashMap<>();
+    for (BasicBlock<?> block : graph.getBlocks()) {
+      final BitSet reaching = (BitSet) blockIns.get(block.getHead()).clone();
+      for (Stmt stmt : block.getStmts()) {
+        stmt.forEachLocalUse(
+            use -> {
+              final int[] range = ranges.get(use);
+              if (range == null) {
+                return;
+              }
+              final int first = reaching.nextSetBit(range[0]);
+              if (first < 0 || first >= range[1]) {
+                // no reaching definition: the use keeps the original Local
+                return;
+              }
+              for (int id = reaching.nextSetBit(first + 1);
+                  id >= 0 && id < range[1];
+                  id = reaching.nextSetBit(id + 1)) {
+                union(parent, first, id);
+              }
+              useDefs.computeIfAbsent(stmt, k -> new IdentityHashMap<>()).put(use, first);
+            });
+        kill(reaching, defIds.get(stmt), defLocals, ranges);
+      }
+    }
+
+    // name the webs in order of their first definition
+    final Set<String> usedNames = new HashSet<>();
+    for (Local local : builder.getLocals()) {
+      usedNames.add(local.getName());
+    }
+    final Map<Local, Integer> websPerLocal = new HashMap<>();
+    final BitSet countedWebs = new BitSet(defIdCount);
+    for (int id = 0; id < defIdCount; id++) {
+      final int root = find(parent, id);
+      if (!countedWebs.get(root)) {
+        countedWebs.set(root);
+        websPerLocal.merge(defLocals[root], 1, Integer::sum);
+      }
+    }
+    final Local[] webLocals = new Local[defIdCount];
+    int webIndex = 1;
+    for (Stmt stmt : stmts) {
+      final Integer defId = defIds.get(stmt);
+      if (defId == null) {
+        continue;
+      }
+      final int root = find(parent, defId);
+      final Local original = defLocals[root];
+      if (webLocals[root] == null && websPerLocal.get(original) > 1) {
+        String name;
+        do {
+          name = original.getName() + "#" + webIndex++;
+        } while (!usedNames.add(name));
+        webLocals[root] = original.withName(name);
+      }
+    }
+
+    // rewrite every affected Stmt once
+    final Set<Local> stillUsed = new HashSet<>();
+    final Set<Local> newLocals = new LinkedHashSet<>();
+    final MutableStmtGraph.Batch batch = graph.startBatch();
+    for (Stmt stmt : stmts) {
+      Stmt newStmt = stmt;
+      final Map<Local, Integer> uses = useDefs.get(stmt);
+      if (uses != null) {
+        for (Map.Entry<Local, Integer> use : uses.entrySet()) {
+          final Local webLocal = webLocals[find(parent, use.getValue())];
+          if (webLocal != null) {
+            newStmt = newStmt.withNewUse(use.getKey(), webLocal);
+          }
+        }
+      }
+      final Integer defId = defIds.get(stmt);
+      if (defId != null) {
+        final Local webLocal = webLocals[find(parent, defId)];
+        if (webLocal != null) {
+          newStmt = ((AbstractDefinitionStmt<?, ?>) newStmt).withNewDef(webLocal);
+          newLocals.add(webLocal);
+        }
+      }
+      if (newStmt != stmt) {
+        batch.replaceNode(stmt, newStmt);
+      }
+      newStmt.forEachLocalUse(stillUsed::add);
+      newStmt.forEachDef(
+          def -> {
+            if (def instanceof Local) {
+              stillUsed.add((Local) def);
+            }
+          });
+    }
+
+    batch.commit();
+
+    final Set<Local> locals = new LinkedHashSet<>();
+    for (Local local : builder.getLocals()) {
+      if (!ranges.containsKey(local) || stillUsed.contains(local)) {
+        locals.add(local);
+      }
+    }
+    locals.addAll(newLocals);
+    builder.setLocals(locals);
+  }
+
+  /**
+   * Computes the set of definition ids that reach each block. The result is keyed by the head of
+   * the block, as {@link StmtGraph#getBlocks()} may return fresh wrappers for the same block.
+   */
+  @Nonnull
+  static Map<Stmt, BitSet> computeReachingDefs(
+      @Nonnull StmtGraph<?> graph,
+      @Nonnull Map<Stmt, Integer> defIds,
+      @Nonnull Local[] defLocals,
+      @Nonnull Map<Local, int[]> ranges) {
+    final Collection<? extends BasicBlock<?>> blocks = graph.getBlocks();
+    final Map<Stmt, BitSet> ins = new IdentityHashMap<>(blocks.size());
+    for (BasicBlock<?> block : blocks) {
+      ins.put(block.getHead(), new BitSet());
+    }
+
+    final Deque<BasicBlock<?>> worklist = new ArrayDeque<>(blocks);
+    final Set<Stmt> queued = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (BasicBlock<?> block : blocks) {
+      queued.add(block.getHead());
+    }
+    while (!worklist.isEmpty()) {
+      final BasicBlock<?> block = worklist.poll();
+      queued.remove(block.getHead());
+
+      final BitSet in = ins.get(block.getHead());
+      final BitSet out = (BitSet) in.clone();
+      // a handler may observe every definition of the block except the one of its last Stmt
+      final BitSet exceptionalOut = (BitSet) in.clone();
+      final List<Stmt> blockStmts = block.getStmts();
+      for (int i = 0; i < blockStmts.size(); i++) {
+        final Integer defId = defIds.get(blockStmts.get(i));
+        if (defId != null && i < blockStmts.size() - 1) {
+          exceptionalOut.set(defId);
+        }
+        kill(out, defId, defLocals, ranges);
+      }
+
+      for (BasicBlock<?> successor : block.getSuccessors()) {
+        propagate(out, successor, ins, worklist, queued);
+      }
+      for (BasicBlock<?> handler : block.getExceptionalSuccessors().values()) {
+        propagate(exceptionalOut, handler, ins, worklist, queued);
+      }
+    }
+    return ins;
+  }
+
+  private static void propagate(
+      @Nonnull BitSet out,
+      @Nonnull BasicBlock<?> successor,
+      @Nonnull Map<Stmt, BitSet> ins,
+      @Nonnull Deque<BasicBlock<?>> worklist,
+      @Nonnull Set<Stmt> queued) {
+    final BitSet in = ins.get(successor.getHead());
+    final int cardinality = in.cardinality();
+    in.or(out);
+    if (in.cardinality() != cardinality && queued.add(successor.getHead())) {
+      worklist.add(successor);
+    }
+  }
+
+  /** Replaces all definitions of the Local of defId in reaching by defId itself. */
+  static void kill(
+      @Nonnull BitSet reaching,
+      Integer defId,
+      @Nonnull Local[] defLocals,
+      @Nonnull Map<Local, int[]> ranges) {
+    if (defId == null) {
+      return;
+    }
+    final int[] range = ranges.get(defLocals[defId]);
+    reaching.clear(range[0], range[1]);
+    reaching.set(defId);
+  }
+
+  static Local definedLocal(@Nonnull Stmt stmt) {
+    if (!(stmt instanceof AbstractDefinitionStmt)) {
+      return null;
+    }
+    final Value def = ((AbstractDefinitionStmt<?, ?>) stmt).getLeftOp();
+    return def instanceof Local ? (Local) def : null;
+  }
+
+  private static int find(@Nonnull int[] parent, int id) {
+    while (parent[id] != id) {
+      parent[id] = parent[parent[id]];
+      id = parent[id];
+    }
+    return id;
+  }
+
+  private static void union(@Nonnull int[] parent, int a, int b) {
+    final int rootA = find(parent, a);
+    final int rootB = find(parent, b);
+    if (rootA != rootB) {
+      parent[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+    }
+  }
+}
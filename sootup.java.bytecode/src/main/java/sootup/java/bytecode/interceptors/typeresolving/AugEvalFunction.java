@@ -225,7 +225,7 @@ public class AugEvalFunction {
    * type
    */
   private Deque<ClassType> getExceptionPath(@Nonnull ClassType exceptionType) {
-    ViewTypeHierarchy hierarchy = new ViewTypeHierarchy(view);
+    ViewTypeHierarchy hierarchy = BytecodeHierarchy.getViewTypeHierarchy(view);
     ClassType throwable = factory.getClassType("java.lang.Throwable");
     Deque<ClassType> path = new ArrayDeque<>();
     path.push(exceptionType);
@@ -25,6 +25,7 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import sootup.core.IdentifierFactory;
 import sootup.core.model.SootClass;
+import sootup.core.typehierarchy.TypeHierarchy;
 import sootup.core.typehierarchy.ViewTypeHierarchy;
 import sootup.core.types.*;
 import sootup.core.views.View;
@@ -40,7 +41,7 @@ public class BytecodeHierarchy implements IHierarchy {
   private final PrimitiveHierarchy primitiveHierarchy;
 
   public BytecodeHierarchy(View<? extends SootClass<?>> view) {
-    this.typeHierarchy = new ViewTypeHierarchy(view);
+    this.typeHierarchy = getViewTypeHierarchy(view);
     IdentifierFactory factory = view.getIdentifierFactory();
     object = factory.getClassType("java.lang.Object");
     serializable = factory.getClassType("java.io.Serializable");
@@ -48,6 +49,18 @@ public class BytecodeHierarchy implements IHierarchy {
     primitiveHierarchy = new PrimitiveHierarchy();
   }
 
+  /**
+   * Returns the type hierarchy of the view, so that the view is scanned only once and not for every
+   * body whose types are resolved.
+   */
+  @Nonnull
+  static ViewTypeHierarchy getViewTypeHierarchy(@Nonnull View<? extends SootClass<?>> view) {
+    final TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+    return typeHierarchy instanceof ViewTypeHierarchy
+        ? (ViewTypeHierarchy) typeHierarchy
+        : new ViewTypeHierarchy(view);
+  }
+
   @Override
   public boolean isAncestor(@Nonnull Type ancestor, @Nonnull Type child) {
     boolean isAncestor = primitiveHierarchy.isAncestor(ancestor, child);
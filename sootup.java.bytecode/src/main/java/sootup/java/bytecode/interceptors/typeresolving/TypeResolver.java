@@ -33,7 +33,6 @@ import sootup.core.jimple.common.expr.AbstractBinopExpr;
 import sootup.core.jimple.common.expr.JCastExpr;
 import sootup.core.jimple.common.expr.JNegExpr;
 import sootup.core.jimple.common.ref.JArrayRef;
-import sootup.core.jimple.common.ref.JInstanceFieldRef;
 import sootup.core.jimple.common.stmt.AbstractDefinitionStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
@@ -41,6 +40,7 @@ import sootup.core.types.ArrayType;
 import sootup.core.types.ClassType;
 import sootup.core.types.PrimitiveType;
 import sootup.core.types.Type;
+import sootup.core.types.UnknownType;
 import sootup.java.bytecode.interceptors.typeresolving.types.AugIntegerTypes;
 import sootup.java.core.views.JavaView;
 
@@ -60,9 +60,31 @@ public class TypeResolver {
     BytecodeHierarchy hierarchy = new BytecodeHierarchy(view);
     AugEvalFunction evalFunction = new AugEvalFunction(view);
     final Collection<Local> locals = Lists.newArrayList(builder.getLocals());
-    Typing iniTyping = new Typing(locals);
-    Collection<Typing> typings =
-        applyAssignmentConstraint(builder.getStmtGraph(), iniTyping, evalFunction, hierarchy);
+    final StmtGraph<?> graph = builder.getStmtGraph();
+
+    // fast path: the types the frontend declared (e.g. from the LocalVariableTable) are kept and
+    // only the remaining locals are inferred, if the declared types fit to all assignments
+    Collection<Typing> typings = null;
+    final Set<Local> declaredLocals = new HashSet<>();
+    Typing declaredTyping = new Typing(locals);
+    for (Local local : locals) {
+      if (!(local.getType() instanceof UnknownType)) {
+        declaredLocals.add(local);
+        declaredTyping.set(local, local.getType());
+      }
+    }
+    if (!declaredLocals.isEmpty()) {
+      typings =
+          applyAssignmentConstraint(graph, declaredTyping, evalFunction, hierarchy, declaredLocals);
+      typings.removeIf(
+          typing -> !fitsDeclaredTypes(graph, typing, evalFunction, hierarchy, declaredLocals));
+    }
+    if (typings == null || typings.isEmpty()) {
+      Typing iniTyping = new Typing(locals);
+      typings =
+          applyAssignmentConstraint(
+              graph, iniTyping, evalFunction, hierarchy, Collections.emptySet());
+    }
     if (typings.isEmpty()) {
       return false;
     }
@@ -103,7 +125,7 @@ public class TypeResolver {
       if (stmt instanceof AbstractDefinitionStmt) {
         AbstractDefinitionStmt<?, ?> defStmt = (AbstractDefinitionStmt<?, ?>) stmt;
         Value lhs = defStmt.getLeftOp();
-        if (lhs instanceof Local || lhs instanceof JArrayRef || lhs instanceof JInstanceFieldRef) {
+        if (lhs instanceof Local || lhs instanceof JArrayRef) {
           final int id = assignments.size();
           this.assignments.add(defStmt);
           addDependsForRHS(defStmt.getRightOp(), id);
@@ -149,20 +171,33 @@ public class TypeResolver {
     bitSet.set(id);
   }
 
-  private Collection<Typing> applyAssignmentConstraint(
+  /**
+   * Infers the types of the locals which are not contained in <code>fixedLocals</code>, the types
+   * of those are taken from the given typing and are not changed.
+   */
+  private List<Typing> applyAssignmentConstraint(
       @Nonnull StmtGraph<?> graph,
       @Nonnull Typing typing,
       @Nonnull AugEvalFunction evalFunction,
-      @Nonnull BytecodeHierarchy hierarchy) {
+      @Nonnull BytecodeHierarchy hierarchy,
+      @Nonnull Set<Local> fixedLocals) {
     int numOfAssigns = this.assignments.size();
     if (numOfAssigns == 0) {
-      return Collections.emptyList();
+      return new ArrayList<>();
     }
     Deque<Typing> workQueue = new ArrayDeque<>();
     List<Typing> ret = new ArrayList<>();
 
     BitSet stmtsList = new BitSet(numOfAssigns);
-    stmtsList.set(0, numOfAssigns);
+    if (fixedLocals.isEmpty()) {
+      stmtsList.set(0, numOfAssigns);
+    } else {
+      for (int id = 0; id < numOfAssigns; id++) {
+        if (!fixedLocals.contains(getAssignedLocal(this.assignments.get(id)))) {
+          stmtsList.set(id);
+        }
+      }
+    }
     typing.setStmtsIDList(stmtsList);
     workQueue.add(typing);
 
@@ -178,7 +213,11 @@ public class TypeResolver {
         actualSL.clear(stmtId);
         AbstractDefinitionStmt<?, ?> defStmt = this.assignments.get(stmtId);
         Value lhs = defStmt.getLeftOp();
-        Local local = (lhs instanceof Local) ? (Local) lhs : ((JArrayRef) lhs).getBase();
+        Local local = getAssignedLocal(defStmt);
+        if (fixedLocals.contains(local)) {
+          // a dependency of a local whose type is fixed
+          continue;
+        }
         Type t_old = actualTyping.getType(local);
         Type t_right = evalFunction.evaluate(actualTyping, defStmt.getRightOp(), defStmt, graph);
         if (lhs instanceof JArrayRef) {
@@ -217,6 +256,42 @@ public class TypeResolver {
     return ret;
   }
 
+  /** Returns the local whose type is constrained by the assignment. */
+  @Nonnull
+  private static Local getAssignedLocal(@Nonnull AbstractDefinitionStmt<?, ?> defStmt) {
+    Value lhs = defStmt.getLeftOp();
+    return (lhs instanceof Local) ? (Local) lhs : ((JArrayRef) lhs).getBase();
+  }
+
+  /**
+   * Checks whether the assignments to the locals with declared types would not change their types,
+   * i.e. whether the declared types are valid for the given typing of the other locals.
+   */
+  private boolean fitsDeclaredTypes(
+      @Nonnull StmtGraph<?> graph,
+      @Nonnull Typing typing,
+      @Nonnull AugEvalFunction evalFunction,
+      @Nonnull BytecodeHierarchy hierarchy,
+      @Nonnull Set<Local> declaredLocals) {
+    for (AbstractDefinitionStmt<?, ?> defStmt : this.assignments) {
+      Value lhs = defStmt.getLeftOp();
+      if (!(lhs instanceof Local) || !declaredLocals.contains(lhs)) {
+        continue;
+      }
+      Type declaredType = typing.getType((Local) lhs);
+      Type t_right = evalFunction.evaluate(typing, defStmt.getRightOp(), defStmt, graph);
+      if (t_right == null) {
+        return false;
+      }
+      Collection<Type> leastCommonAncestors =
+          hierarchy.getLeastCommonAncestor(declaredType, t_right);
+      if (leastCommonAncestors.size() != 1 || !leastCommonAncestors.contains(declaredType)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   /** This method is used to remove the more general typings. */
   private void minimize(@Nonnull List<Typing> typings, @Nonnull BytecodeHierarchy hierarchy) {
     Set<Type> objectLikeTypes = new HashSet<>();
@@ -20,45 +20,78 @@ package sootup.java.bytecode.interceptors.typeresolving;
  * <http://www.gnu.org/licenses/lgpl-2.1.html>.
  * #L%
  */
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import sootup.core.jimple.basic.Local;
 import sootup.core.types.Type;
 import sootup.java.bytecode.interceptors.typeresolving.types.BottomType;
 
+/**
+ * Assigns types to locals. The types are stored in an array which is indexed by a dense id of the
+ * local, the ids are shared by all copies of a typing so that a copy only needs to copy the array.
+ */
 public class Typing {
-  private HashMap<Local, Type> local2Type = new HashMap<>();
+  @Nonnull private final LocalIds localIds;
+  @Nonnull private Type[] types;
   private BitSet stmtsIDList;
 
   public Typing(@Nonnull Collection<Local> locals) {
+    localIds = new LocalIds();
+    types = new Type[locals.size()];
     for (Local local : locals) {
-      local2Type.put(local, BottomType.getInstance());
+      set(local, BottomType.getInstance());
     }
     stmtsIDList = new BitSet();
   }
 
   public Typing(@Nonnull Typing typing, @Nonnull BitSet stmtsIDList) {
-    this.local2Type = new HashMap<>(typing.local2Type);
+    this.localIds = typing.localIds;
+    this.types = typing.types.clone();
     this.stmtsIDList = stmtsIDList;
   }
 
+  @Nullable
   public Type getType(Local local) {
-    return local2Type.get(local);
+    final int id = localIds.getId(local);
+    return id < 0 || id >= types.length ? null : types[id];
   }
 
   public void set(@Nonnull Local local, @Nonnull Type type) {
-    this.local2Type.put(local, type);
+    final int id = localIds.getOrCreateId(local);
+    if (id >= types.length) {
+      types = Arrays.copyOf(types, Math.max(id + 1, types.length * 2));
+    }
+    types[id] = type;
   }
 
+  /** Returns the locals which have a type in this typing. */
   public Collection<Local> getLocals() {
-    return local2Type.keySet();
+    final List<Local> locals = new ArrayList<>(types.length);
+    for (int id = 0; id < types.length; id++) {
+      if (types[id] != null) {
+        locals.add(localIds.getLocal(id));
+      }
+    }
+    return locals;
   }
 
+  /** Returns a copy of the types of the locals. */
   public Map<Local, Type> getMap() {
-    return this.local2Type;
+    final Map<Local, Type> local2Type = new LinkedHashMap<>();
+    for (int id = 0; id < types.length; id++) {
+      if (types[id] != null) {
+        local2Type.put(localIds.getLocal(id), types[id]);
+      }
+    }
+    return local2Type;
   }
 
   public void setStmtsIDList(BitSet bitSet) {
@@ -81,14 +114,15 @@ public class Typing {
    *     given typing.
    */
   public int compare(Typing typing, BytecodeHierarchy hierarchy, Collection<Local> localsToIgnore) {
-    if (!typing.getLocals().equals(this.getLocals())) {
+    if (!hasSameLocals(typing)) {
       throw new RuntimeException("The compared typings should have the same locals' set!");
     }
     int ret = 0;
-    for (Local local : this.local2Type.keySet()) {
-      if (!localsToIgnore.contains(local)) {
-        Type ta = getType(local);
-        Type tb = typing.getType(local);
+    for (int id = 0; id < types.length; id++) {
+      final Type ta = types[id];
+      final Local local = ta == null ? null : localIds.getLocal(id);
+      if (local != null && !localsToIgnore.contains(local)) {
+        Type tb = localIds == typing.localIds ? typing.types[id] : typing.getType(local);
 
         int cmp;
         if (ta.equals(tb)) {
@@ -111,4 +145,45 @@ public class Typing {
     }
     return ret;
   }
+
+  private boolean hasSameLocals(@Nonnull Typing typing) {
+    if (localIds != typing.localIds) {
+      return typing.getMap().keySet().equals(getMap().keySet());
+    }
+    final int length = Math.max(types.length, typing.types.length);
+    for (int id = 0; id < length; id++) {
+      final boolean hasType = id < types.length && types[id] != null;
+      final boolean otherHasType = id < typing.types.length && typing.types[id] != null;
+      if (hasType != otherHasType) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** the dense ids of the locals of a typing and all of its copies */
+  private static class LocalIds {
+    @Nonnull private final Map<Local, Integer> ids = new HashMap<>();
+    @Nonnull private final List<Local> locals = new ArrayList<>();
+
+    int getId(@Nonnull Local local) {
+      final Integer id = ids.get(local);
+      return id == null ? -1 : id;
+    }
+
+    int getOrCreateId(@Nonnull Local local) {
+      Integer id = ids.get(local);
+      if (id == null) {
+        id = locals.size();
+        ids.put(local, id);
+        locals.add(local);
+      }
+      return id;
+    }
+
+    @Nonnull
+    Local getLocal(int id) {
+      return locals.get(id);
+    }
+  }
 }
@@ -0,0 +1,104 @@
+package sootup.java.bytecode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import categories.Java8Test;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.model.SootClass;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyInterceptorMetrics.InterceptorStatistics;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.interceptors.DeadAssignmentEliminator;
+import sootup.java.bytecode.interceptors.NopEliminator;
+import sootup.java.bytecode.interceptors.UnusedLocalEliminator;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.views.BodyMaterializationReport;
+import sootup.java.core.views.JavaView;
+
+@Category(Java8Test.class)
+public class BodyMaterializationTest {
+
+  private JavaView createView() {
+    List<BodyInterceptor> interceptors =
+        Arrays.asList(
+            new NopEliminator(), new DeadAssignmentEliminator(), new UnusedLocalEliminator());
+    return TestInputs.createJPushView(() -> interceptors);
+  }
+
+  @Test
+  public void testMaterializeBodies() {
+    JavaView view = createView();
+    List<ClassType> classTypes =
+        view.getClasses().stream().map(SootClass::getType).collect(Collectors.toList());
+    long concreteMethods =
+        view.getClasses().stream()
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(method -> method.hasBody())
+            .count();
+
+    BodyMaterializationReport report = view.materializeBodies(classTypes, 4);
+
+    assertTrue(report.getFailures().isEmpty());
+    assertEquals(concreteMethods, report.getMaterializedBodies());
+    assertTrue(report.getUnresolvedClasses().isEmpty());
+    assertTrue(report.getStmtCount() > 0);
+
+    List<String> interceptorNames =
+        report.getInterceptorStatistics().stream()
+            .map(InterceptorStatistics::getInterceptorName)
+            .collect(Collectors.toList());
+    assertEquals(3, interceptorNames.size());
+    assertTrue(interceptorNames.contains(NopEliminator.class.getName()));
+    for (InterceptorStatistics statistics : report.getInterceptorStatistics()) {
+      assertEquals(concreteMethods, statistics.getInvocations());
+      assertTrue(statistics.getStmtCountDelta() <= 0);
+    }
+
+    // the bodies are already built: a second run does not apply the interceptors again
+    BodyMaterializationReport secondReport = view.materializeBodies(classTypes, 1);
+    assertEquals(report.getMaterializedBodies(), secondReport.getMaterializedBodies());
+    assertTrue(secondReport.getInterceptorStatistics().isEmpty());
+    assertFalse(view.getBodyInterceptorMetrics().isRecording());
+  }
+
+  @Test
+  public void testBodyInterceptorsAreWrappedOnce() {
+    JavaView view = createView();
+    AnalysisInputLocation<?> inputLocation = view.getProject().getInputLocations().get(0);
+    List<BodyInterceptor> interceptors = view.getBodyInterceptors(inputLocation);
+    assertEquals(3, interceptors.size());
+    assertSame(interceptors, view.getBodyInterceptors(inputLocation));
+  }
+
+  @Test
+  public void testUnresolved() {
+    JavaView view = createView();
+    ClassType unknown = JavaIdentifierFactory.getInstance().getClassType("does.not.Exist");
+    BodyMaterializationReport report =
+        view.materializeBodies(Collections.singletonList(unknown), 2);
+    assertEquals(Collections.singletonList(unknown), report.getUnresolvedClasses());
+    assertEquals(0, report.getMaterializedBodies());
+
+    Optional<? extends SootClass<?>> clazz =
+        view.getClass(JavaIdentifierFactory.getInstance().getClassType("cn.jpush.android.data.f"));
+    assertTrue(clazz.isPresent());
+    report =
+        view.materializeMethodBodies(
+            clazz.get().getMethods().stream()
+                .map(method -> method.getSignature())
+                .collect(Collectors.toList()),
+            2);
+    assertTrue(report.getMaterializedBodies() > 0);
+    assertTrue(report.getUnresolvedMethods().isEmpty());
+  }
+}
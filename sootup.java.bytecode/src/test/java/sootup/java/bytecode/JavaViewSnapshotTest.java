@@ -0,0 +1,235 @@
+package sootup.java.bytecode;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import sootup.core.frontend.AbstractClassSource;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.jimple.basic.NoPositionInformation;
+import sootup.core.model.FullPosition;
+import sootup.core.model.Position;
+import sootup.core.model.SootField;
+import sootup.core.model.SootMethod;
+import sootup.core.typehierarchy.TypeHierarchy;
+import sootup.core.types.ClassType;
+import sootup.core.views.View;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaProject;
+import sootup.java.core.JavaSootClass;
+import sootup.java.core.JavaSootClassSource;
+import sootup.java.core.JavaSootField;
+import sootup.java.core.JavaSootMethod;
+import sootup.java.core.OverridingJavaClassSource;
+import sootup.java.core.language.JavaLanguage;
+import sootup.java.core.views.JavaView;
+import sootup.java.core.views.JavaViewSnapshot;
+
+@Category(Java8Test.class)
+public class JavaViewSnapshotTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  /**
+   * The classes of the jpush jar with made-up positions, as the bytecode frontend does not provide
+   * positions for classes and their members.
+   */
+  private static class PositionedInputLocation implements AnalysisInputLocation<JavaSootClass> {
+
+    private final PathBasedAnalysisInputLocation delegate =
+        new PathBasedAnalysisInputLocation(TestInputs.JPUSH, null);
+
+    @Nonnull
+    @Override
+    public Optional<? extends AbstractClassSource<JavaSootClass>> getClassSource(
+        @Nonnull ClassType type, @Nonnull View<?> view) {
+      return delegate.getClassSource(type, view).map(this::withPositions);
+    }
+
+    @Nonnull
+    @Override
+    public Collection<? extends AbstractClassSource<JavaSootClass>> getClassSources(
+        @Nonnull View<?> view) {
+      return delegate.getClassSources(view).stream()
+          .map(this::withPositions)
+          .collect(Collectors.toList());
+    }
+
+    @Nonnull
+    @Override
+    public Optional<String> getFingerprint() {
+      return delegate.getFingerprint();
+    }
+
+    private AbstractClassSource<JavaSootClass> withPositions(
+        AbstractClassSource<JavaSootClass> classSource) {
+      JavaSootClassSource javaClassSource = (JavaSootClassSource) classSource;
+      int line = 1;
+      List<SootField> fields = new ArrayList<>();
+      for (SootField field : javaClassSource.resolveFields()) {
+        fields.add(
+            new JavaSootField(
+                field.getSignature(),
+                field.getModifiers(),
+                Collections.emptyList(),
+                new FullPosition(line, 4, line, 20)));
+        line++;
+      }
+      List<SootMethod> methods = new ArrayList<>();
+      for (SootMethod method : javaClassSource.resolveMethods()) {
+        methods.add(
+            new JavaSootMethod(
+                method.getBodySource(),
+                method.getSignature(),
+                method.getModifiers(),
+                method.getExceptionSignatures(),
+                Collections.emptyList(),
+                new FullPosition(line, 4, line + 5, 5)));
+        line += 6;
+      }
+      return new OverridingJavaClassSource(javaClassSource)
+          .withFields(fields)
+          .withMethods(methods)
+          .withPosition(new FullPosition(1, 0, line, 1));
+    }
+  }
+
+  private Map<String, String> fieldsOf(JavaSootClass clazz) {
+    return clazz.getFields().stream()
+        .collect(
+            Collectors.toMap(
+                field -> field.getSignature().toString(),
+                field -> field.getModifiers().toString()));
+  }
+
+  private Map<String, String> methodsOf(JavaSootClass clazz) {
+    return clazz.getMethods().stream()
+        .collect(
+            Collectors.toMap(
+                method -> method.getSignature().toString(),
+                method -> method.getModifiers() + " " + method.getExceptionSignatures()));
+  }
+
+  private Map<String, Position> positionsOf(JavaSootClass clazz) {
+    Map<String, Position> positions = new HashMap<>();
+    positions.put(clazz.getType().toString(), clazz.getPosition());
+    clazz.getFields().forEach(field -> positions.put(field.toString(), field.getPosition()));
+    clazz.getMethods().forEach(method -> positions.put(method.toString(), method.getPosition()));
+    return positions;
+  }
+
+  @Test
+  public void testRestore() throws IOException {
+    Path snapshotFile = folder.getRoot().toPath().resolve("view.snapshot");
+    JavaProject project = TestInputs.createProject(TestInputs.JPUSH);
+    assertFalse(JavaViewSnapshot.restore(project, snapshotFile).isPresent());
+    JavaViewSnapshot.write(project.createView(), snapshotFile);
+
+    JavaView view = project.createView();
+    JavaView restoredView = JavaViewSnapshot.restore(project, snapshotFile).get();
+    Collection<JavaSootClass> classes = view.getClasses();
+    assertEquals(classes.size(), restoredView.getClasses().size());
+    assertFalse(
+        restoredView.getClass(project.getIdentifierFactory().getClassType("a.B")).isPresent());
+
+    int comparedBodies = 0;
+    for (JavaSootClass clazz : classes) {
+      JavaSootClass restoredClass = restoredView.getClass(clazz.getType()).get();
+      assertEquals(clazz.getModifiers(), restoredClass.getModifiers());
+      assertEquals(clazz.getSuperclass(), restoredClass.getSuperclass());
+      assertEquals(clazz.getOuterClass(), restoredClass.getOuterClass());
+      assertEquals(clazz.getInterfaces(), restoredClass.getInterfaces());
+      assertEquals(fieldsOf(clazz), fieldsOf(restoredClass));
+      assertEquals(methodsOf(clazz), methodsOf(restoredClass));
+      assertEquals(positionsOf(clazz), positionsOf(restoredClass));
+
+      // the bodies are lifted from the jar on demand
+      if (comparedBodies < 100) {
+        for (SootMethod method : clazz.getMethods()) {
+          if (method.hasBody()) {
+            assertEquals(
+                method.getBody().toString(),
+                restoredClass
+                    .getMethod(method.getSignature().getSubSignature())
+                    .get()
+                    .getBody()
+                    .toString());
+            comparedBodies++;
+          }
+        }
+      }
+    }
+    assertTrue(comparedBodies > 0);
+
+    TypeHierarchy typeHierarchy = view.getTypeHierarchy();
+    TypeHierarchy restoredTypeHierarchy = restoredView.getTypeHierarchy();
+    for (JavaSootClass clazz : classes) {
+      ClassType type = clazz.getType();
+      assertEquals(typeHierarchy.subtypesOf(type), restoredTypeHierarchy.subtypesOf(type));
+      assertEquals(
+          typeHierarchy.implementedInterfacesOf(type),
+          restoredTypeHierarchy.implementedInterfacesOf(type));
+    }
+  }
+
+  @Test
+  public void testRestorePositions() throws IOException {
+    Path snapshotFile = folder.getRoot().toPath().resolve("view.snapshot");
+    JavaProject project =
+        JavaProject.builder(new JavaLanguage(7))
+            .addInputLocation(new PositionedInputLocation())
+            .build();
+    JavaView view = JavaViewSnapshot.restoreOrCreate(project, snapshotFile);
+    JavaView restoredView = JavaViewSnapshot.restore(project, snapshotFile).get();
+
+    int comparedPositions = 0;
+    for (JavaSootClass clazz : view.getClasses()) {
+      Map<String, Position> positions = positionsOf(clazz);
+      assertEquals(positions, positionsOf(restoredView.getClass(clazz.getType()).get()));
+      comparedPositions += positions.size();
+    }
+    assertTrue(comparedPositions > 0);
+    assertFalse(view.getClasses().iterator().next().getPosition() instanceof NoPositionInformation);
+  }
+
+  @Test
+  public void testOutdatedSnapshot() throws IOException {
+    Path copiedJar = folder.getRoot().toPath().resolve("copy.jar");
+    Files.copy(TestInputs.JPUSH, copiedJar);
+    Path snapshotFile = folder.getRoot().toPath().resolve("view.snapshot");
+
+    JavaView createdView =
+        JavaViewSnapshot.restoreOrCreate(TestInputs.createProject(copiedJar), snapshotFile);
+    assertTrue(Files.exists(snapshotFile));
+    Optional<JavaView> restoredView =
+        JavaViewSnapshot.restore(TestInputs.createProject(copiedJar), snapshotFile);
+    assertTrue(restoredView.isPresent());
+    assertEquals(createdView.getClasses().size(), restoredView.get().getClasses().size());
+
+    // modifying the jar invalidates the snapshot
+    Files.setLastModifiedTime(
+        copiedJar, FileTime.fromMillis(Files.getLastModifiedTime(copiedJar).toMillis() + 60_000));
+    assertFalse(
+        JavaViewSnapshot.restore(TestInputs.createProject(copiedJar), snapshotFile).isPresent());
+    JavaViewSnapshot.restoreOrCreate(TestInputs.createProject(copiedJar), snapshotFile);
+    assertTrue(
+        JavaViewSnapshot.restore(TestInputs.createProject(copiedJar), snapshotFile).isPresent());
+
+    // a different set of input locations does not match either
+    JavaProject otherProject =
+        TestInputs.projectBuilder(copiedJar)
+            .addInputLocation(new PathBasedAnalysisInputLocation(TestInputs.JPUSH, null))
+            .build();
+    assertFalse(JavaViewSnapshot.restore(otherProject, snapshotFile).isPresent());
+  }
+}
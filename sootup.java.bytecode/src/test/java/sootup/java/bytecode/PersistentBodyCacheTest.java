@@ -0,0 +1,251 @@
+package sootup.java.bytecode;
+
+import static org.junit.Assert.*;
+
+import categories.Java8Test;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import sootup.core.cache.BodyCache;
+import sootup.core.graph.StmtGraph;
+import sootup.core.inputlocation.ClassLoadingOptions;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.frontend.BodyCodec;
+import sootup.java.bytecode.frontend.PersistentBodyCache;
+import sootup.java.bytecode.interceptors.Aggregator;
+import sootup.java.bytecode.interceptors.BytecodeBodyInterceptors;
+import sootup.java.core.views.JavaView;
+
+@Category(Java8Test.class)
+public class PersistentBodyCacheTest {
+
+  @Rule public TemporaryFolder folder = new TemporaryFolder();
+
+  private JavaView createView(BodyCache bodyCache) {
+    return createView(bodyCache, BytecodeBodyInterceptors.Default.bodyInterceptors());
+  }
+
+  private JavaView createView(BodyCache bodyCache, List<BodyInterceptor> bodyInterceptors) {
+    ClassLoadingOptions options =
+        new ClassLoadingOptions() {
+          @Override
+          public List<BodyInterceptor> getBodyInterceptors() {
+            return bodyInterceptors;
+          }
+
+          @Override
+          public Optional<BodyCache> getBodyCache() {
+            return Optional.ofNullable(bodyCache);
+          }
+        };
+    return TestInputs.createJPushView(options);
+  }
+
+  private Map<MethodSignature, String> resolveBodies(JavaView view) {
+    return view.getClasses().stream()
+        .flatMap(clazz -> clazz.getMethods().stream())
+        .filter(SootMethod::hasBody)
+        .collect(Collectors.toMap(SootMethod::getSignature, method -> method.getBody().toString()));
+  }
+
+  /** the StmtGraphs contain different Stmt instances, so they are compared via their positions */
+  private void assertSameStructure(StmtGraph<?> expected, StmtGraph<?> actual) {
+    List<Stmt> expectedStmts = expected.getStmts();
+    List<Stmt> actualStmts = actual.getStmts();
+    assertEquals(expectedStmts.size(), actualStmts.size());
+    for (int i = 0; i < expectedStmts.size(); i++) {
+      Stmt expectedStmt = expectedStmts.get(i);
+      Stmt actualStmt = actualStmts.get(i);
+      assertEquals(expectedStmt.getClass(), actualStmt.getClass());
+      assertEquals(expectedStmt.toString(), actualStmt.toString());
+      assertEquals(
+          expectedStmt.getPositionInfo().getStmtPosition(),
+          actualStmt.getPositionInfo().getStmtPosition());
+      assertEquals(
+          expected.successors(expectedStmt).stream()
+              .map(expectedStmts::indexOf)
+              .collect(Collectors.toList()),
+          actual.successors(actualStmt).stream()
+              .map(actualStmts::indexOf)
+              .collect(Collectors.toList()));
+      Map<ClassType, Integer> expectedHandlers = new HashMap<>();
+      expected
+          .exceptionalSuccessors(expectedStmt)
+          .forEach((type, handler) -> expectedHandlers.put(type, expectedStmts.indexOf(handler)));
+      Map<ClassType, Integer> actualHandlers = new HashMap<>();
+      actual
+          .exceptionalSuccessors(actualStmt)
+          .forEach((type, handler) -> actualHandlers.put(type, actualStmts.indexOf(handler)));
+      assertEquals(expectedHandlers, actualHandlers);
+    }
+  }
+
+  @Test
+  public void testCodec() {
+    JavaView view = createView(null);
+    int encodedBodies = 0;
+    for (SootMethod method :
+        view.getClasses().stream()
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .collect(Collectors.toList())) {
+      Body body = method.getBody();
+      Body decodedBody = BodyCodec.decode(BodyCodec.encode(body));
+      assertEquals(body.getMethodSignature(), decodedBody.getMethodSignature());
+      assertEquals(body.getLocals(), decodedBody.getLocals());
+      assertEquals(body.getPosition(), decodedBody.getPosition());
+      assertSameStructure(body.getStmtGraph(), decodedBody.getStmtGraph());
+      assertEquals(body.toString(), decodedBody.toString());
+      encodedBodies++;
+    }
+    assertTrue(encodedBodies > 0);
+  }
+
+  @Test
+  public void testWarmStart() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    Map<MethodSignature, String> expectedBodies = resolveBodies(createView(null));
+
+    PersistentBodyCache coldCache = PersistentBodyCache.open(directory);
+    assertEquals(0, coldCache.size());
+    assertEquals(expectedBodies, resolveBodies(createView(coldCache)));
+    coldCache.close();
+
+    // the second run gets the bodies from the cache
+    PersistentBodyCache warmCache = PersistentBodyCache.open(directory);
+    assertEquals(expectedBodies.size(), warmCache.size());
+    AtomicInteger hits = new AtomicInteger();
+    assertEquals(expectedBodies, resolveBodies(createView(countingCache(warmCache, hits))));
+    assertEquals(expectedBodies.size(), hits.get());
+    warmCache.close();
+
+    // nothing new is written as every body was found
+    PersistentBodyCache reopenedCache = PersistentBodyCache.open(directory);
+    assertEquals(expectedBodies.size(), reopenedCache.size());
+    reopenedCache.close();
+  }
+
+  /** counts the bodies that are found in the given cache */
+  private static BodyCache countingCache(BodyCache cache, AtomicInteger hits) {
+    return new BodyCache() {
+      @Override
+      public Optional<Body> getBody(String key, MethodSignature methodSignature) {
+        Optional<Body> body = cache.getBody(key, methodSignature);
+        body.ifPresent(b -> hits.incrementAndGet());
+        return body;
+      }
+
+      @Override
+      public void putBody(String key, Body body) {
+        cache.putBody(key, body);
+      }
+    };
+  }
+
+  @Test
+  public void testInterceptorConfigurations() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    List<BodyInterceptor> allLocals = Collections.singletonList(new Aggregator(false));
+    List<BodyInterceptor> onlyStackLocals = Collections.singletonList(new Aggregator(true));
+    Map<MethodSignature, String> expectedBodies = resolveBodies(createView(null, onlyStackLocals));
+
+    PersistentBodyCache cache = PersistentBodyCache.open(directory);
+    resolveBodies(createView(cache, allLocals));
+    cache.close();
+
+    // the same interceptor with another setting must not get the cached bodies
+    cache = PersistentBodyCache.open(directory);
+    assertEquals(expectedBodies.size(), cache.size());
+    AtomicInteger hits = new AtomicInteger();
+    assertEquals(
+        expectedBodies, resolveBodies(createView(countingCache(cache, hits), onlyStackLocals)));
+    assertEquals(0, hits.get());
+    cache.close();
+
+    // both configurations are cached separately now
+    cache = PersistentBodyCache.open(directory);
+    assertEquals(2 * expectedBodies.size(), cache.size());
+    resolveBodies(createView(countingCache(cache, hits), allLocals));
+    assertEquals(expectedBodies.size(), hits.get());
+    cache.close();
+  }
+
+  @Test
+  public void testInterceptorWithoutCacheKey() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    List<BodyInterceptor> withoutCacheKey = Collections.singletonList((builder, view) -> {});
+
+    PersistentBodyCache cache = PersistentBodyCache.open(directory);
+    assertFalse(resolveBodies(createView(cache, withoutCacheKey)).isEmpty());
+    cache.close();
+
+    cache = PersistentBodyCache.open(directory);
+    assertEquals(0, cache.size());
+    cache.close();
+  }
+
+  private List<Path> filesOf(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.collect(Collectors.toList());
+    }
+  }
+
+  @Test
+  public void testUnversionedBuildDirectory() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    PersistentBodyCache.open(directory).close();
+    PersistentBodyCache.open(directory).close();
+
+    // the classes of the tests are no release, so the directory names the build
+    List<Path> versionDirectories = filesOf(directory);
+    assertEquals(1, versionDirectories.size());
+    assertTrue(
+        versionDirectories.get(0).getFileName().toString().matches("v\\d+-unversioned-[0-9a-f]+"));
+  }
+
+  @Test
+  public void testMergeSegments() throws IOException {
+    Path directory = folder.getRoot().toPath();
+    List<Body> bodies =
+        createView(null).getClasses().stream()
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(SootMethod::hasBody)
+            .limit(9)
+            .map(SootMethod::getBody)
+            .collect(Collectors.toList());
+    assertEquals(9, bodies.size());
+
+    // every run writes a new segment, one more than the cache keeps unmerged
+    for (Body body : bodies) {
+      PersistentBodyCache cache = PersistentBodyCache.open(directory);
+      cache.putBody("key", body);
+      cache.close();
+    }
+    Path versionDirectory = filesOf(directory).get(0);
+    List<Path> segments = filesOf(versionDirectory);
+    assertEquals(9, segments.size());
+    assertTrue(segments.stream().allMatch(segment -> segment.toString().endsWith(".segment")));
+
+    PersistentBodyCache mergedCache = PersistentBodyCache.open(directory);
+    assertEquals(1, filesOf(versionDirectory).size());
+    assertEquals(bodies.size(), mergedCache.size());
+    for (Body body : bodies) {
+      assertEquals(
+          body.toString(), mergedCache.getBody("key", body.getMethodSignature()).get().toString());
+    }
+    mergedCache.close();
+  }
+}
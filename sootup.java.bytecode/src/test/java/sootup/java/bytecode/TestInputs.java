@@ -0,0 +1,43 @@
+package sootup.java.bytecode;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import javax.annotation.Nonnull;
+import sootup.core.inputlocation.ClassLoadingOptions;
+import sootup.java.bytecode.inputlocation.PathBasedAnalysisInputLocation;
+import sootup.java.core.JavaProject;
+import sootup.java.core.language.JavaLanguage;
+import sootup.java.core.views.JavaView;
+
+/** The jars of the shared-test-resources that are used by several tests. */
+public final class TestInputs {
+
+  /** a real world android library with ~90 classes (see soot issue 1580) */
+  public static final Path JPUSH =
+      Paths.get("../shared-test-resources/soot-1580/jpush-android_v3.0.5.jar");
+
+  private TestInputs() {}
+
+  @Nonnull
+  public static JavaProject.JavaProjectBuilder projectBuilder(@Nonnull Path jar) {
+    return JavaProject.builder(new JavaLanguage(7))
+        .addInputLocation(new PathBasedAnalysisInputLocation(jar, null));
+  }
+
+  @Nonnull
+  public static JavaProject createProject(@Nonnull Path jar) {
+    return projectBuilder(jar).build();
+  }
+
+  /** @return a view of the jpush jar with the default class loading options */
+  @Nonnull
+  public static JavaView createJPushView() {
+    return createProject(JPUSH).createView();
+  }
+
+  /** @return a view of the jpush jar that uses the given options for all of its classes */
+  @Nonnull
+  public static JavaView createJPushView(@Nonnull ClassLoadingOptions classLoadingOptions) {
+    return createProject(JPUSH).createView(analysisInputLocation -> classLoadingOptions);
+  }
+}
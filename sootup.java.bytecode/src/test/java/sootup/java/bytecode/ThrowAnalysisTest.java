@@ -0,0 +1,98 @@
+package sootup.java.bytecode;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import categories.Java8Test;
+import java.util.Collections;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.graph.throwanalysis.InterproceduralThrowAnalysis;
+import sootup.core.graph.throwanalysis.ThrowAnalysis;
+import sootup.core.graph.throwanalysis.UnitThrowAnalysis;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.java.bytecode.inputlocation.JavaClassPathAnalysisInputLocation;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.JavaProject;
+import sootup.java.core.language.JavaJimple;
+import sootup.java.core.language.JavaLanguage;
+import sootup.java.core.views.JavaView;
+
+@Category(Java8Test.class)
+public class ThrowAnalysisTest {
+
+  private final JavaIdentifierFactory factory = JavaIdentifierFactory.getInstance();
+  private final StmtPositionInfo noStmtPositionInfo = StmtPositionInfo.createNoStmtPositionInfo();
+
+  private final ClassType ioException = factory.getClassType("java.io.IOException");
+  private final ClassType nullPointerException =
+      factory.getClassType("java.lang.NullPointerException");
+  private final ClassType customException = factory.getClassType("CustomException");
+
+  private JavaView createView() {
+    JavaProject project =
+        JavaProject.builder(new JavaLanguage(8))
+            .addInputLocation(
+                new JavaClassPathAnalysisInputLocation(
+                    "../shared-test-resources/miniTestSuite/java6/binary/"))
+            .addInputLocation(
+                new JavaClassPathAnalysisInputLocation(
+                    System.getProperty("java.home") + "/lib/rt.jar"))
+            .build();
+    return project.createView();
+  }
+
+  @Test
+  public void testStaticInvoke() {
+    JavaView view = createView();
+    MethodSignature staticMethod =
+        factory.getMethodSignature(
+            factory.getClassType("StaticMethod"), "staticMethod", "void", Collections.emptyList());
+    Stmt invokeStmt =
+        JavaJimple.newInvokeStmt(JavaJimple.newStaticInvokeExpr(staticMethod), noStmtPositionInfo);
+
+    // without looking at the invoked method anything might be thrown
+    ThrowAnalysis unitThrowAnalysis = new UnitThrowAnalysis(view);
+    assertTrue(unitThrowAnalysis.mightThrow(invokeStmt, ioException));
+
+    // the body only prints a String
+    ThrowAnalysis throwAnalysis = new InterproceduralThrowAnalysis(view);
+    assertFalse(throwAnalysis.mightThrow(invokeStmt, ioException));
+    assertFalse(throwAnalysis.mightThrow(invokeStmt, customException));
+    assertTrue(throwAnalysis.mightThrow(invokeStmt, nullPointerException));
+  }
+
+  @Test
+  public void testVirtualInvoke() {
+    JavaView view = createView();
+    ClassType classType = factory.getClassType("ThrowExceptionMethod");
+    Local base = JavaJimple.newLocal("obj", classType);
+    Stmt divideByZero =
+        JavaJimple.newInvokeStmt(
+            JavaJimple.newVirtualInvokeExpr(
+                base,
+                factory.getMethodSignature(
+                    classType, "divideByZero", "void", Collections.emptyList())),
+            noStmtPositionInfo);
+    Stmt throwCustomException =
+        JavaJimple.newInvokeStmt(
+            JavaJimple.newVirtualInvokeExpr(
+                base,
+                factory.getMethodSignature(
+                    classType, "throwCustomException", "void", Collections.emptyList())),
+            noStmtPositionInfo);
+
+    // the methods can be overridden: the declared exceptions are used
+    ThrowAnalysis throwAnalysis = new InterproceduralThrowAnalysis(view);
+    assertFalse(throwAnalysis.mightThrow(divideByZero, customException));
+    assertTrue(throwAnalysis.mightThrow(divideByZero, nullPointerException));
+    assertTrue(throwAnalysis.mightThrow(throwCustomException, customException));
+    assertTrue(
+        throwAnalysis.mightThrow(
+            throwCustomException, factory.getClassType("java.lang.Exception")));
+  }
+}
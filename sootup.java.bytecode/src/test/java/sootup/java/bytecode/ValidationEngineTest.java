@@ -0,0 +1,155 @@
+package sootup.java.bytecode;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import categories.Java8Test;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.NoPositionInformation;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.PrimitiveType;
+import sootup.core.util.ImmutableUtils;
+import sootup.core.validation.*;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.language.JavaJimple;
+import sootup.java.core.views.JavaView;
+
+@Category(Java8Test.class)
+public class ValidationEngineTest {
+
+  private JavaView createView() {
+    return TestInputs.createJPushView();
+  }
+
+  private final List<BodyValidator> validators =
+      Arrays.asList(
+          new LocalsValidator(),
+          new TrapsValidator(),
+          new UsesValidator(),
+          new CheckVoidLocalesValidator());
+
+  @Test
+  public void testValidate() {
+    JavaView view = createView();
+    long concreteMethods =
+        view.getClasses().stream()
+            .flatMap(clazz -> clazz.getMethods().stream())
+            .filter(method -> method.hasBody())
+            .count();
+
+    ValidationReport report =
+        new ValidationEngine(Collections.emptyList(), validators).validate(view, 4);
+    assertEquals(view.getClasses().size(), report.getValidatedClasses());
+    assertEquals(concreteMethods, report.getValidatedBodies());
+    assertTrue(report.getErrors().toString(), report.getErrors().isEmpty());
+
+    // the result does not depend on the parallelism
+    ValidationReport sequentialReport =
+        new ValidationEngine(Collections.emptyList(), validators).validate(view, 1);
+    assertEquals(
+        report.getFindings().stream().map(Object::toString).collect(Collectors.toList()),
+        sequentialReport.getFindings().stream().map(Object::toString).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void testFindings() throws IOException {
+    JavaView view = createView();
+    BodyValidator firstLocalValidator =
+        new BodyValidator() {
+          @Override
+          public void validate(@Nonnull Body body, @Nonnull List<ValidationException> exceptions) {
+            for (Local local : body.getLocals()) {
+              exceptions.add(new ValidationException(local, "found \"" + local + "\""));
+              return;
+            }
+          }
+
+          @Override
+          public boolean isBasicValidator() {
+            return true;
+          }
+        };
+    BodyValidator crashingValidator =
+        new BodyValidator() {
+          @Override
+          public void validate(@Nonnull Body body, @Nonnull List<ValidationException> exceptions) {
+            throw new IllegalStateException("crashed");
+          }
+
+          @Override
+          public boolean isBasicValidator() {
+            return true;
+          }
+        };
+
+    ValidationReport report =
+        new ValidationEngine(
+                Collections.emptyList(), Arrays.asList(firstLocalValidator, crashingValidator))
+            .validate(view, 2);
+    assertTrue(report.getViolations().size() > 0);
+    assertEquals(report.getValidatedBodies(), report.getErrors().size());
+    for (ValidationReport.Finding error : report.getErrors()) {
+      assertTrue(error.getMessage().contains("crashed"));
+    }
+
+    StringWriter writer = new StringWriter();
+    report.writeJson(writer);
+    String json = writer.toString();
+    assertTrue(json.startsWith("{\"validatedClasses\":" + report.getValidatedClasses()));
+    assertTrue(json.contains("\"kind\":\"VIOLATION\""));
+    assertTrue(json.contains("\"message\":\"found \\\""));
+  }
+
+  @Test
+  public void testDefReachesUse() {
+    StmtPositionInfo noPositionInfo = StmtPositionInfo.createNoStmtPositionInfo();
+    Local a = JavaJimple.newLocal("a", PrimitiveType.getInt());
+    Local b = JavaJimple.newLocal("b", PrimitiveType.getInt());
+    Stmt defA = JavaJimple.newAssignStmt(a, IntConstant.getInstance(1), noPositionInfo);
+    Stmt aToB = JavaJimple.newAssignStmt(b, a, noPositionInfo);
+    Stmt ret = JavaJimple.newReturnStmt(b, noPositionInfo);
+    MethodSignature signature =
+        JavaIdentifierFactory.getInstance()
+            .getMethodSignature("test", "ab.c", "int", Collections.emptyList());
+
+    // a = 1; b = a; return b
+    Body.BodyBuilder builder =
+        Body.builder()
+            .setMethodSignature(signature)
+            .setLocals(ImmutableUtils.immutableSet(a, b))
+            .setStartingStmt(defA)
+            .addFlow(defA, aToB)
+            .addFlow(aToB, ret)
+            .setPosition(NoPositionInformation.getInstance());
+    List<ValidationException> exceptions = new ArrayList<>();
+    new UsesValidator().validate(builder.build(), exceptions);
+    assertTrue(exceptions.isEmpty());
+
+    // b = a; a = 1; return b: the def of a does not reach its use
+    builder =
+        Body.builder()
+            .setMethodSignature(signature)
+            .setLocals(ImmutableUtils.immutableSet(a, b))
+            .setStartingStmt(aToB)
+            .addFlow(aToB, defA)
+            .addFlow(defA, ret)
+            .setPosition(NoPositionInformation.getInstance());
+    new UsesValidator().validate(builder.build(), exceptions);
+    assertEquals(1, exceptions.size());
+    assertTrue(exceptions.get(0).getMessage().contains("There is no path from a definition of a"));
+  }
+}
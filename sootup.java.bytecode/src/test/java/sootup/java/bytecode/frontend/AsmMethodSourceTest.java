@@ -1,12 +1,19 @@
 package sootup.java.bytecode.frontend;
 
 import static junit.framework.TestCase.fail;
+import static org.junit.Assert.assertEquals;
 
 import categories.Java8Test;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Collectors;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import org.objectweb.asm.Label;
+import org.objectweb.asm.Opcodes;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
 import sootup.core.model.SootClass;
 import sootup.core.model.SootMethod;
 import sootup.core.signatures.MethodSignature;
@@ -20,6 +27,65 @@ import sootup.java.core.views.JavaView;
 @Category(Java8Test.class)
 public class AsmMethodSourceTest {
 
+  /** creates the source of <code>static int sum(int n)</code> of the class "Example" */
+  private AsmMethodSource createMethodSource() {
+    AsmMethodSource methodSource =
+        new AsmMethodSource(
+            Opcodes.ACC_STATIC,
+            "sum",
+            "(I)I",
+            null,
+            null,
+            null,
+            Collections.emptyList(),
+            null,
+            null);
+    methodSource.setDeclaringClass(JavaIdentifierFactory.getInstance().getClassType("Example"));
+    return methodSource;
+  }
+
+  /**
+   * The sum is kept on the operand stack across the loop, so the instructions of the loop are
+   * converted again with the operands of the back edge, which replaces Stmts and Exprs that use the
+   * first operands.
+   */
+  @Test
+  public void testOperandsAcrossLoop() {
+    AsmMethodSource methodSource = createMethodSource();
+    Label loop = new Label();
+    Label exit = new Label();
+    methodSource.visitCode();
+    methodSource.visitInsn(Opcodes.ICONST_0);
+    methodSource.visitLabel(loop);
+    methodSource.visitVarInsn(Opcodes.ILOAD, 0);
+    methodSource.visitJumpInsn(Opcodes.IFLE, exit);
+    methodSource.visitVarInsn(Opcodes.ILOAD, 0);
+    methodSource.visitInsn(Opcodes.IADD);
+    methodSource.visitIincInsn(0, -1);
+    methodSource.visitJumpInsn(Opcodes.GOTO, loop);
+    methodSource.visitLabel(exit);
+    methodSource.visitInsn(Opcodes.IRETURN);
+    methodSource.visitMaxs(2, 1);
+    methodSource.visitEnd();
+
+    Body body = methodSource.resolveBody(Collections.emptyList());
+    assertEquals(
+        Arrays.asList(
+            "l0 := @parameter0: int",
+            "$stack1 = 0",
+            "$stack2 = l0",
+            "if $stack2 <= 0",
+            "$stack3 = l0",
+            "$stack1 = $stack1 + $stack3",
+            "l0 = l0 + -1",
+            "goto",
+            "return $stack1"),
+        body.getStmts().stream().map(Stmt::toString).collect(Collectors.toList()));
+
+    // the per instruction data is set up again for each resolved body
+    assertEquals(body.toString(), methodSource.resolveBody(Collections.emptyList()).toString());
+  }
+
   @Test
   @Ignore("FIXME")
   public void testFix_StackUnderrun_convertPutFieldInsn_init() {
@@ -2,24 +2,44 @@ package sootup.java.bytecode.interceptors;
 
 import static org.junit.Assert.assertEquals;
 
+import categories.Java8Test;
 import java.util.Collections;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.NoPositionInformation;
 import sootup.core.jimple.basic.StmtPositionInfo;
 import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.constant.NullConstant;
 import sootup.core.jimple.common.expr.JAddExpr;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
 import sootup.core.types.PrimitiveType;
 import sootup.core.util.ImmutableUtils;
 import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.language.JavaJimple;
 
+@Category(Java8Test.class)
 public class AggregatorTest {
 
+  static final StmtPositionInfo noPositionInfo = StmtPositionInfo.createNoStmtPositionInfo();
+  static final JavaIdentifierFactory factory = JavaIdentifierFactory.getInstance();
+  static final ClassType classType = factory.getClassType("ab.c");
+  static final FieldSignature field = factory.getFieldSignature("f", classType, "int");
+  static final MethodSignature method =
+      factory.getMethodSignature("foo", "ab.c", "int", Collections.emptyList());
+
+  final Local a = JavaJimple.newLocal("a", PrimitiveType.getInt());
+  final Local b = JavaJimple.newLocal("b", PrimitiveType.getInt());
+  final Local r = JavaJimple.newLocal("r", classType);
+
   /**
    * Tests the correct aggregation. Transforms from
    *
@@ -66,6 +86,83 @@ public class AggregatorTest {
     }
   }
 
+  /**
+   * Tests the aggregation of a value that is not an Immediate into the right hand side of an
+   * assignment:
+   *
+   * <p>a = staticinvoke foo(); b = a; return;
+   *
+   * <p>to
+   *
+   * <p>b = staticinvoke foo(); return;
+   */
+  @Test
+  public void testAggregationOfInvoke() {
+    Body.BodyBuilder builder =
+        createLinearBodyBuilder(
+            JavaJimple.newAssignStmt(a, Jimple.newStaticInvokeExpr(method), noPositionInfo),
+            JavaJimple.newAssignStmt(b, a, noPositionInfo),
+            JavaJimple.newReturnVoidStmt(noPositionInfo));
+    new Aggregator().interceptBody(builder, null);
+
+    assertEquals("[b = staticinvoke <ab.c: int foo()>(), return]", toString(builder.getStmts()));
+  }
+
+  /**
+   * A field read must not be moved behind a field write, so nothing changes:
+   *
+   * <p>a = &lt;ab.c: int f&gt;; &lt;ab.c: int f&gt; = 1; b = a; return;
+   */
+  @Test
+  public void testNoAggregationPastFieldWrite() {
+    Body.BodyBuilder builder =
+        createLinearBodyBuilder(
+            JavaJimple.newAssignStmt(a, Jimple.newStaticFieldRef(field), noPositionInfo),
+            JavaJimple.newAssignStmt(
+                Jimple.newStaticFieldRef(field), IntConstant.getInstance(1), noPositionInfo),
+            JavaJimple.newAssignStmt(b, a, noPositionInfo),
+            JavaJimple.newReturnVoidStmt(noPositionInfo));
+    final String original = toString(builder.getStmts());
+    new Aggregator().interceptBody(builder, null);
+
+    assertEquals(original, toString(builder.getStmts()));
+  }
+
+  /**
+   * A constant can not become the base of a field reference, so nothing changes:
+   *
+   * <p>r = null; a = r.&lt;ab.c: int f&gt;; return;
+   */
+  @Test
+  public void testNoConstantAsBase() {
+    Body.BodyBuilder builder =
+        createLinearBodyBuilder(
+            JavaJimple.newAssignStmt(r, NullConstant.getInstance(), noPositionInfo),
+            JavaJimple.newAssignStmt(a, Jimple.newInstanceFieldRef(r, field), noPositionInfo),
+            JavaJimple.newReturnVoidStmt(noPositionInfo));
+    final String original = toString(builder.getStmts());
+    new Aggregator().interceptBody(builder, null);
+
+    assertEquals(original, toString(builder.getStmts()));
+  }
+
+  private Body.BodyBuilder createLinearBodyBuilder(Stmt... stmts) {
+    Body.BodyBuilder builder = Body.builder();
+    builder.setStartingStmt(stmts[0]);
+    builder.setMethodSignature(
+        factory.getMethodSignature("test", "ab.c", "void", Collections.emptyList()));
+    for (int i = 1; i < stmts.length; i++) {
+      builder.addFlow(stmts[i - 1], stmts[i]);
+    }
+    builder.setLocals(ImmutableUtils.immutableSet(a, b, r));
+    builder.setPosition(NoPositionInformation.getInstance());
+    return builder;
+  }
+
+  private static String toString(List<Stmt> stmts) {
+    return stmts.stream().map(Stmt::toString).collect(Collectors.toList()).toString();
+  }
+
   private static Body.BodyBuilder createBodyBuilder(boolean withAggregation) {
     StmtPositionInfo noPositionInfo = StmtPositionInfo.createNoStmtPositionInfo();
 
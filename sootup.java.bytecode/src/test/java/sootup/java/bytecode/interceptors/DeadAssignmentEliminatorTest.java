@@ -1,22 +1,31 @@
 package sootup.java.bytecode.interceptors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
+import categories.Java8Test;
 import java.util.*;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import sootup.core.graph.StmtGraph;
+import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.NoPositionInformation;
 import sootup.core.jimple.basic.StmtPositionInfo;
 import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.constant.NullConstant;
+import sootup.core.jimple.common.stmt.BranchingStmt;
+import sootup.core.jimple.common.stmt.JInvokeStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
 import sootup.core.types.PrimitiveType;
 import sootup.core.util.ImmutableUtils;
 import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.language.JavaJimple;
 import sootup.java.core.types.JavaClassType;
 
+@Category(Java8Test.class)
 public class DeadAssignmentEliminatorTest {
 
   @Test
@@ -43,6 +52,77 @@ public class DeadAssignmentEliminatorTest {
     assertEquals(expectedGraph.getNodes().size(), actualGraph.getNodes().size());
   }
 
+  /**
+   *
+   *
+   * <pre>
+   *    l0 := @this: Test
+   *    if l0 == null goto label1
+   *    c = 42
+   *    d = c
+   * label1:
+   *    b = virtualinvoke l0.<Test: int foo()>()
+   *    return
+   * </pre>
+   *
+   * to:
+   *
+   * <pre>
+   *    l0 := @this: Test
+   *    if l0 == null goto label1
+   * label1:
+   *    virtualinvoke l0.<Test: int foo()>()
+   *    return
+   * </pre>
+   */
+  @Test
+  public void testRemoveDeadBranchAndInvokeAssignment() {
+    JavaIdentifierFactory factory = JavaIdentifierFactory.getInstance();
+    StmtPositionInfo noPositionInfo = StmtPositionInfo.createNoStmtPositionInfo();
+    JavaClassType classType = factory.getClassType("Test");
+    MethodSignature fooSignature =
+        factory.getMethodSignature(classType, "foo", "int", Collections.emptyList());
+
+    Local l0 = JavaJimple.newLocal("l0", classType);
+    Local b = JavaJimple.newLocal("b", PrimitiveType.getInt());
+    Local c = JavaJimple.newLocal("c", PrimitiveType.getInt());
+    Local d = JavaJimple.newLocal("d", PrimitiveType.getInt());
+
+    Stmt identity =
+        JavaJimple.newIdentityStmt(l0, JavaJimple.newThisRef(classType), noPositionInfo);
+    BranchingStmt ifStmt =
+        Jimple.newIfStmt(Jimple.newEqExpr(l0, NullConstant.getInstance()), noPositionInfo);
+    Stmt intToC = JavaJimple.newAssignStmt(c, IntConstant.getInstance(42), noPositionInfo);
+    Stmt cToD = JavaJimple.newAssignStmt(d, c, noPositionInfo);
+    Stmt invokeToB =
+        JavaJimple.newAssignStmt(b, Jimple.newVirtualInvokeExpr(l0, fooSignature), noPositionInfo);
+    Stmt ret = Jimple.newReturnVoidStmt(noPositionInfo);
+
+    Body.BodyBuilder builder = Body.builder();
+    builder.setStartingStmt(identity);
+    builder.setMethodSignature(
+        factory.getMethodSignature(classType, "test", "void", Collections.emptyList()));
+    builder.addFlow(identity, ifStmt);
+    builder.addFlow(ifStmt, intToC);
+    builder.addFlow(ifStmt, invokeToB);
+    builder.addFlow(intToC, cToD);
+    builder.addFlow(cToD, invokeToB);
+    builder.addFlow(invokeToB, ret);
+    builder.setLocals(ImmutableUtils.immutableSet(l0, b, c, d));
+    builder.setPosition(NoPositionInformation.getInstance());
+
+    new DeadAssignmentEliminator().interceptBody(builder, null);
+    StmtGraph<?> graph = builder.build().getStmtGraph();
+
+    assertEquals(4, graph.getNodes().size());
+    List<Stmt> successors = graph.successors(ifStmt);
+    assertEquals(2, successors.size());
+    Stmt invoke = successors.get(0);
+    assertTrue(invoke instanceof JInvokeStmt);
+    assertEquals(invoke, successors.get(1));
+    assertEquals(Collections.singletonList(ret), graph.successors(invoke));
+  }
+
   private static Body.BodyBuilder createBody(boolean essentialOption) {
     JavaIdentifierFactory factory = JavaIdentifierFactory.getInstance();
     JavaJimple javaJimple = JavaJimple.getInstance();
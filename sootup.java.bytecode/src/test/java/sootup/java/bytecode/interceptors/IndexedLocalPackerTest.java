@@ -0,0 +1,214 @@
+package sootup.java.bytecode.interceptors;
+
+import static org.junit.Assert.assertEquals;
+
+import categories.Java8Test;
+import java.util.*;
+import java.util.stream.Collectors;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.ref.IdentityRef;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.VoidType;
+import sootup.core.util.ImmutableUtils;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.language.JavaJimple;
+import sootup.java.core.types.JavaClassType;
+
+@Category(Java8Test.class)
+public class IndexedLocalPackerTest {
+
+  JavaIdentifierFactory factory = JavaIdentifierFactory.getInstance();
+  StmtPositionInfo noStmtPositionInfo = StmtPositionInfo.createNoStmtPositionInfo();
+
+  JavaClassType classType = factory.getClassType("Test");
+  JavaClassType intType = factory.getClassType("int");
+  JavaClassType exception = factory.getClassType("Exception");
+  MethodSignature methodSignature =
+      new MethodSignature(
+          classType, "test", Collections.singletonList(intType), VoidType.getInstance());
+
+  IdentityRef identityRef = JavaJimple.newThisRef(classType);
+  IdentityRef identityRef0 = JavaJimple.newParameterRef(intType, 0);
+  IdentityRef identityRef1 = JavaJimple.newParameterRef(intType, 1);
+
+  Local l0 = JavaJimple.newLocal("l0", classType);
+  Local l1 = JavaJimple.newLocal("l1", intType);
+  Local l2 = JavaJimple.newLocal("l2", intType);
+  Local l3 = JavaJimple.newLocal("l3", intType);
+  Local l4 = JavaJimple.newLocal("l4", exception);
+  Local l5 = JavaJimple.newLocal("l5", intType);
+  Local l1hash1 = JavaJimple.newLocal("l1#1", intType);
+  Local l2hash2 = JavaJimple.newLocal("l2#2", intType);
+  Local l2hash3 = JavaJimple.newLocal("l2#3", intType);
+  Local l1hash4 = JavaJimple.newLocal("l1#4", intType);
+  Local l1hash5 = JavaJimple.newLocal("l1#5", intType);
+
+  /**
+   *
+   *
+   * <pre>
+   *    l0 := @this Test
+   *    l1#1 := @parameter0: int;
+   *    l2#2 := @parameter1: int;
+   *    l3 = 10;
+   *    l2#3 = l3;
+   *    l1#4 = 0;
+   *    l1#5 = l1#4 + 1;
+   *  label1:
+   *    l1#5 = l1#5 + 1;
+   *    if l1#5 > l3 goto label2;
+   *    goto label1;
+   *  label2:
+   *    return;
+   * </pre>
+   *
+   * to:
+   *
+   * <pre>
+   *    l0 := @this: Test;
+   *    l1 := @parameter0: int;
+   *    l2 := @parameter1: int;
+   *    l1 = 10;
+   *    l2 = l1;
+   *    l2 = 0;
+   *    l2 = l2 + 1;
+   *  label1:
+   *    l2 = l2 + 1;
+   *    if l2 > l1 goto label2;
+   *    goto label1;
+   *  label2:
+   *    return;
+   * </pre>
+   */
+  @Test
+  public void testPacking() {
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    Body.BodyBuilder builder = Body.builder(graph).setMethodSignature(methodSignature);
+    builder.setLocals(
+        ImmutableUtils.immutableSet(l0, l1, l2, l3, l1hash1, l2hash2, l2hash3, l1hash4, l1hash5));
+
+    Stmt startingStmt = JavaJimple.newIdentityStmt(l0, identityRef, noStmtPositionInfo);
+    Stmt identityStmt0 = JavaJimple.newIdentityStmt(l1hash1, identityRef0, noStmtPositionInfo);
+    Stmt identityStmt1 = JavaJimple.newIdentityStmt(l2hash2, identityRef1, noStmtPositionInfo);
+    Stmt stmt1 = JavaJimple.newAssignStmt(l3, IntConstant.getInstance(10), noStmtPositionInfo);
+    Stmt stmt2 = JavaJimple.newAssignStmt(l2hash3, l3, noStmtPositionInfo);
+    Stmt stmt3 = JavaJimple.newAssignStmt(l1hash4, IntConstant.getInstance(0), noStmtPositionInfo);
+    Stmt stmt4 =
+        JavaJimple.newAssignStmt(
+            l1hash5,
+            JavaJimple.newAddExpr(l1hash4, IntConstant.getInstance(1)),
+            noStmtPositionInfo);
+    Stmt stmt5 =
+        JavaJimple.newAssignStmt(
+            l1hash5,
+            JavaJimple.newAddExpr(l1hash5, IntConstant.getInstance(1)),
+            noStmtPositionInfo);
+    Stmt stmt6 = JavaJimple.newIfStmt(JavaJimple.newGtExpr(l1hash5, l3), noStmtPositionInfo);
+    Stmt gt = JavaJimple.newGotoStmt(noStmtPositionInfo);
+    Stmt ret = JavaJimple.newReturnVoidStmt(noStmtPositionInfo);
+
+    graph.putEdge(startingStmt, identityStmt0);
+    graph.putEdge(identityStmt0, identityStmt1);
+    graph.putEdge(identityStmt1, stmt1);
+    graph.putEdge(stmt1, stmt2);
+    graph.putEdge(stmt2, stmt3);
+    graph.putEdge(stmt3, stmt4);
+    graph.putEdge(stmt4, stmt5);
+    graph.putEdge(stmt5, stmt6);
+    graph.putEdge(stmt6, gt);
+    graph.putEdge(gt, stmt5);
+    graph.putEdge(stmt6, ret);
+    builder.setStartingStmt(startingStmt);
+
+    new IndexedLocalPacker().interceptBody(builder, null);
+
+    assertEquals(ImmutableUtils.immutableSet(l0, l1, l2), builder.getLocals());
+    assertEquals(
+        Arrays.asList(
+            "l0 := @this: Test",
+            "l1 := @parameter0: int",
+            "l2 := @parameter1: int",
+            "l1 = 10",
+            "l2 = l1",
+            "l2 = 0",
+            "l2 = l2 + 1",
+            "l2 = l2 + 1",
+            "if l2 > l1",
+            "goto",
+            "return"),
+        toStrings(builder.getStmts()));
+  }
+
+  /**
+   * l1 is used in the handler, so it must not share a Local with the Locals defined in the trapped
+   * block.
+   *
+   * <pre>
+   *    l0 := @this Test
+   *    l1 = 1
+   *  label1:
+   *    l2 = 2
+   *    l3 = l2
+   *  label2:
+   *    return
+   *  label3:
+   *    l4 := @caughtexception
+   *    l5 = l1
+   *    return
+   *
+   *  catch Exception from label1 to label2 with label3;
+   * </pre>
+   */
+  @Test
+  public void testPackingWithTrap() {
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    Body.BodyBuilder builder = Body.builder(graph).setMethodSignature(methodSignature);
+    builder.setLocals(ImmutableUtils.immutableSet(l0, l1, l2, l3, l4, l5));
+
+    Stmt startingStmt = JavaJimple.newIdentityStmt(l0, identityRef, noStmtPositionInfo);
+    Stmt stmt1 = JavaJimple.newAssignStmt(l1, IntConstant.getInstance(1), noStmtPositionInfo);
+    Stmt stmt2 = JavaJimple.newAssignStmt(l2, IntConstant.getInstance(2), noStmtPositionInfo);
+    Stmt stmt3 = JavaJimple.newAssignStmt(l3, l2, noStmtPositionInfo);
+    Stmt ret = JavaJimple.newReturnVoidStmt(noStmtPositionInfo);
+    Stmt handler =
+        JavaJimple.newIdentityStmt(
+            l4, JavaJimple.getInstance().newCaughtExceptionRef(), noStmtPositionInfo);
+    Stmt stmt5 = JavaJimple.newAssignStmt(l5, l1, noStmtPositionInfo);
+    Stmt handlerRet = JavaJimple.newReturnVoidStmt(noStmtPositionInfo);
+
+    graph.addBlock(Arrays.asList(startingStmt, stmt1), Collections.emptyMap());
+    graph.addBlock(Arrays.asList(stmt2, stmt3), Collections.singletonMap(exception, handler));
+    graph.addBlock(Arrays.asList(handler, stmt5, handlerRet), Collections.emptyMap());
+    graph.putEdge(stmt1, stmt2);
+    graph.putEdge(stmt3, ret);
+    graph.setStartingStmt(startingStmt);
+
+    new IndexedLocalPacker().interceptBody(builder, null);
+
+    assertEquals(
+        ImmutableUtils.immutableSet(l0, l1, l2, JavaJimple.newLocal("l3", exception)),
+        builder.getLocals());
+    assertEquals(
+        Arrays.asList(
+            "l0 := @this: Test",
+            "l1 = 1",
+            "l2 = 2",
+            "l2 = l2",
+            "return",
+            "l3 := @caughtexception",
+            "l1 = l1",
+            "return"),
+        toStrings(builder.getStmts()));
+  }
+
+  private static List<String> toStrings(List<Stmt> stmts) {
+    return stmts.stream().map(Stmt::toString).collect(Collectors.toList());
+  }
+}
@@ -4,6 +4,7 @@ import static org.junit.Assert.*;
 
 import categories.Java8Test;
 import java.util.*;
+import javax.annotation.Nonnull;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import sootup.core.graph.StmtGraph;
@@ -13,7 +14,10 @@ import sootup.core.jimple.basic.StmtPositionInfo;
 import sootup.core.jimple.common.stmt.JNopStmt;
 import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.Body;
+import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyInterceptorPipeline;
 import sootup.core.util.ImmutableUtils;
+import sootup.core.views.View;
 import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.language.JavaJimple;
 import sootup.java.core.types.JavaClassType;
@@ -63,6 +67,58 @@ public class NopEliminatorTest {
     assertEquals(testBody.getStmtGraph().getNodes(), processedBody.getStmtGraph().getNodes());
   }
 
+  /**
+   * Tests that a repeated NopEliminator inside a pipeline is skipped if nothing changed in between
+   * and only checks the modified stmts otherwise.
+   */
+  @Test
+  public void testJNopPipeline() {
+    final NopEliminator nopEliminator = new NopEliminator();
+    final int[] invocations = new int[2];
+    BodyInterceptor countingNopEliminator =
+        new NopEliminator() {
+          @Override
+          public void interceptBody(@Nonnull Body.BodyBuilder builder, @Nonnull View<?> view) {
+            invocations[0]++;
+            super.interceptBody(builder, view);
+          }
+
+          @Override
+          public void interceptBody(
+              @Nonnull Body.BodyBuilder builder,
+              @Nonnull View<?> view,
+              @Nonnull Set<Stmt> modifiedStmts) {
+            invocations[1]++;
+            super.interceptBody(builder, view, modifiedStmts);
+          }
+        };
+    BodyInterceptor nopInserter =
+        (builder, view) -> {
+          Stmt ret = builder.getStmtGraph().getTails().get(0);
+          builder.insertBefore(ret, new JNopStmt(StmtPositionInfo.createNoStmtPositionInfo()));
+        };
+
+    Body.BodyBuilder builder = createBody(true);
+    final int stmtCount = builder.getStmtGraph().getNodes().size();
+    new BodyInterceptorPipeline(
+            Arrays.asList(
+                countingNopEliminator,
+                nopEliminator,
+                countingNopEliminator,
+                nopInserter,
+                countingNopEliminator))
+        .apply(builder, null);
+
+    // the second application is skipped as nothing changed, the third is incremental
+    assertEquals(1, invocations[0]);
+    assertEquals(1, invocations[1]);
+    assertEquals(stmtCount - 1, builder.getStmtGraph().getNodes().size());
+    assertTrue(
+        builder.getStmtGraph().getNodes().stream().noneMatch(stmt -> stmt instanceof JNopStmt));
+    // the modified stmts are not recorded after the pipeline is applied
+    assertFalse(builder.getStmtGraph().isChangeTrackingEnabled());
+  }
+
   /**
    * Generates the correct test {@link Body} for the corresponding test case.
    *
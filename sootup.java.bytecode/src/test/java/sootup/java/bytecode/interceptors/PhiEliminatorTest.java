@@ -0,0 +1,117 @@
+package sootup.java.bytecode.interceptors;
+
+import static org.junit.Assert.assertEquals;
+
+import categories.Java8Test;
+import java.util.*;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.expr.JPhiExpr;
+import sootup.core.jimple.common.ref.IdentityRef;
+import sootup.core.jimple.common.stmt.BranchingStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.VoidType;
+import sootup.core.util.ImmutableUtils;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.language.JavaJimple;
+import sootup.java.core.types.JavaClassType;
+
+@Category(Java8Test.class)
+public class PhiEliminatorTest {
+
+  JavaIdentifierFactory factory = JavaIdentifierFactory.getInstance();
+  StmtPositionInfo noStmtPositionInfo = StmtPositionInfo.createNoStmtPositionInfo();
+
+  JavaClassType intType = factory.getClassType("int");
+  JavaClassType classType = factory.getClassType("Test");
+  MethodSignature methodSignature =
+      new MethodSignature(classType, "test", Collections.emptyList(), VoidType.getInstance());
+  IdentityRef identityRef = JavaJimple.newThisRef(classType);
+
+  Local l0 = JavaJimple.newLocal("l0", classType);
+  Local l1hash0 = JavaJimple.newLocal("l1#0", intType);
+  Local l1hash1 = JavaJimple.newLocal("l1#1", intType);
+  Local l1hash2 = JavaJimple.newLocal("l1#2", intType);
+
+  /**
+   *
+   *
+   * <pre>
+   *    l0 := @this: Test
+   *    l1#0 = 0
+   * label1:
+   *    l1#1 = phi(l1#0, l1#2)
+   *    l1#2 = l1#1 + 1
+   *    if l1#2 < 10 goto label1
+   *    return l1#2
+   * </pre>
+   *
+   * to:
+   *
+   * <pre>
+   *    l0 := @this: Test
+   *    l1#0 = 0
+   * label1:
+   *    l1#0 = l1#0 + 1
+   *    if l1#0 < 10 goto label1
+   *    return l1#0
+   * </pre>
+   */
+  @Test
+  public void testPhiElimination() {
+    Stmt startingStmt = JavaJimple.newIdentityStmt(l0, identityRef, noStmtPositionInfo);
+    Stmt assign0 =
+        JavaJimple.newAssignStmt(l1hash0, IntConstant.getInstance(0), noStmtPositionInfo);
+    Stmt phiStmt =
+        JavaJimple.newAssignStmt(
+            l1hash1,
+            new JPhiExpr(Arrays.asList(l1hash0, l1hash2), Collections.emptyMap()),
+            noStmtPositionInfo);
+    Stmt increment =
+        JavaJimple.newAssignStmt(
+            l1hash2,
+            JavaJimple.newAddExpr(l1hash1, IntConstant.getInstance(1)),
+            noStmtPositionInfo);
+    Stmt ifStmt =
+        JavaJimple.newIfStmt(
+            JavaJimple.newLtExpr(l1hash2, IntConstant.getInstance(10)), noStmtPositionInfo);
+    Stmt returnStmt = JavaJimple.newReturnStmt(l1hash2, noStmtPositionInfo);
+
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    Map<BranchingStmt, List<Stmt>> branchingMap = new HashMap<>();
+    branchingMap.put((BranchingStmt) ifStmt, Collections.singletonList(phiStmt));
+    graph.initializeWith(
+        Arrays.asList(startingStmt, assign0, phiStmt, increment, ifStmt, returnStmt),
+        branchingMap,
+        Collections.emptyList());
+    Body.BodyBuilder builder = Body.builder(graph);
+    builder.setMethodSignature(methodSignature);
+    builder.setLocals(ImmutableUtils.immutableSet(l0, l1hash0, l1hash1, l1hash2));
+
+    new PhiEliminator().interceptBody(builder, null);
+
+    String expectedBodyString =
+        "{\n"
+            + "    Test l0;\n"
+            + "    int l1#0;\n"
+            + "\n"
+            + "\n"
+            + "    l0 := @this: Test;\n"
+            + "    l1#0 = 0;\n"
+            + "\n"
+            + "  label1:\n"
+            + "    l1#0 = l1#0 + 1;\n"
+            + "\n"
+            + "    if l1#0 < 10 goto label1;\n"
+            + "\n"
+            + "    return l1#0;\n"
+            + "}\n";
+    assertEquals(expectedBodyString, builder.build().toString());
+  }
+}
@@ -0,0 +1,266 @@
+package sootup.java.bytecode.interceptors;
+
+import static org.junit.Assert.assertEquals;
+
+import categories.Java8Test;
+import java.util.*;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.basic.Trap;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.ref.IdentityRef;
+import sootup.core.jimple.common.stmt.BranchingStmt;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.types.VoidType;
+import sootup.core.util.ImmutableUtils;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.language.JavaJimple;
+import sootup.java.core.types.JavaClassType;
+
+@Category(Java8Test.class)
+public class PrunedStaticSingleAssignmentFormerTest {
+
+  JavaIdentifierFactory factory = JavaIdentifierFactory.getInstance();
+  StmtPositionInfo noStmtPositionInfo = StmtPositionInfo.createNoStmtPositionInfo();
+  JavaJimple javaJimple = JavaJimple.getInstance();
+
+  JavaClassType intType = factory.getClassType("int");
+  JavaClassType classType = factory.getClassType("Test");
+  JavaClassType refType = factory.getClassType("ref");
+  MethodSignature methodSignature =
+      new MethodSignature(classType, "test", Collections.emptyList(), VoidType.getInstance());
+  IdentityRef identityRef = JavaJimple.newThisRef(classType);
+  ClassType exception = factory.getClassType("Exception");
+  IdentityRef caughtExceptionRef = javaJimple.newCaughtExceptionRef();
+
+  Local l0 = JavaJimple.newLocal("l0", classType);
+  Local l1 = JavaJimple.newLocal("l1", intType);
+  Local l2 = JavaJimple.newLocal("l2", intType);
+  Local l3 = JavaJimple.newLocal("l3", intType);
+  Local stack4 = JavaJimple.newLocal("stack4", refType);
+
+  Stmt startingStmt = JavaJimple.newIdentityStmt(l0, identityRef, noStmtPositionInfo);
+
+  /**
+   *
+   *
+   * <pre>
+   *    l0 := @this: Test
+   *    l1 = 1
+   *    l2 = 1
+   *    l3 = 0
+   * label1:
+   *    if l3 < 100 goto label3
+   *    if l2 < 20 goto label2
+   *    l2 = l1
+   *    l3 = l3 + 1
+   *    goto label1
+   * label2:
+   *    l2 = l3
+   *    l3 = l3 + 2
+   *    goto label1
+   * label3:
+   *    return l2
+   * </pre>
+   *
+   * l1 is defined once and keeps its name, the phis are only placed at the loop header.
+   */
+  @Test
+  public void testSSA() {
+    Stmt assign1tol1 = JavaJimple.newAssignStmt(l1, IntConstant.getInstance(1), noStmtPositionInfo);
+    Stmt assign1tol2 = JavaJimple.newAssignStmt(l2, IntConstant.getInstance(1), noStmtPositionInfo);
+    Stmt assign0tol3 = JavaJimple.newAssignStmt(l3, IntConstant.getInstance(0), noStmtPositionInfo);
+    Stmt ifStmt =
+        JavaJimple.newIfStmt(
+            JavaJimple.newLtExpr(l3, IntConstant.getInstance(100)), noStmtPositionInfo);
+    Stmt ifStmt2 =
+        JavaJimple.newIfStmt(
+            JavaJimple.newLtExpr(l2, IntConstant.getInstance(20)), noStmtPositionInfo);
+    Stmt assignl1tol2 = JavaJimple.newAssignStmt(l2, l1, noStmtPositionInfo);
+    Stmt assignl3plus1tol3 =
+        JavaJimple.newAssignStmt(
+            l3, JavaJimple.newAddExpr(l3, IntConstant.getInstance(1)), noStmtPositionInfo);
+    Stmt gotoStmt = JavaJimple.newGotoStmt(noStmtPositionInfo);
+    Stmt assignl3tol2 = JavaJimple.newAssignStmt(l2, l3, noStmtPositionInfo);
+    Stmt assignl3plus2tol3 =
+        JavaJimple.newAssignStmt(
+            l3, JavaJimple.newAddExpr(l3, IntConstant.getInstance(2)), noStmtPositionInfo);
+    Stmt gotoStmt2 = JavaJimple.newGotoStmt(noStmtPositionInfo);
+    Stmt returnStmt = JavaJimple.newReturnStmt(l2, noStmtPositionInfo);
+
+    Map<BranchingStmt, List<Stmt>> branchingMap = new HashMap<>();
+    branchingMap.put((BranchingStmt) ifStmt, Collections.singletonList(returnStmt));
+    branchingMap.put((BranchingStmt) ifStmt2, Collections.singletonList(assignl3tol2));
+    branchingMap.put((BranchingStmt) gotoStmt, Collections.singletonList(ifStmt));
+    branchingMap.put((BranchingStmt) gotoStmt2, Collections.singletonList(ifStmt));
+    Body.BodyBuilder builder =
+        createBody(
+            Arrays.asList(
+                startingStmt,
+                assign1tol1,
+                assign1tol2,
+                assign0tol3,
+                ifStmt,
+                ifStmt2,
+                assignl1tol2,
+                assignl3plus1tol3,
+                gotoStmt,
+                assignl3tol2,
+                assignl3plus2tol3,
+                gotoStmt2,
+                returnStmt),
+            branchingMap,
+            Collections.emptyList(),
+            ImmutableUtils.immutableSet(l0, l1, l2, l3));
+
+    new PrunedStaticSingleAssignmentFormer().interceptBody(builder, null);
+
+    String expectedBodyString =
+        "{\n"
+            + "    Test l0;\n"
+            + "    int l1, l2#0, l2#2, l2#4, l2#6, l3#1, l3#3, l3#5, l3#7;\n"
+            + "\n"
+            + "\n"
+            + "    l0 := @this: Test;\n"
+            + "    l1 = 1;\n"
+            + "    l2#0 = 1;\n"
+            + "    l3#1 = 0;\n"
+            + "\n"
+            + "  label1:\n"
+            + "    l2#2 = phi(l2#0, l2#4, l2#6);\n"
+            + "    l3#3 = phi(l3#1, l3#5, l3#7);\n"
+            + "\n"
+            + "    if l3#3 < 100 goto label3;\n"
+            + "\n"
+            + "    if l2#2 < 20 goto label2;\n"
+            + "    l2#6 = l1;\n"
+            + "    l3#7 = l3#3 + 1;\n"
+            + "\n"
+            + "    goto label1;\n"
+            + "\n"
+            + "  label2:\n"
+            + "    l2#4 = l3#3;\n"
+            + "    l3#5 = l3#3 + 2;\n"
+            + "\n"
+            + "    goto label1;\n"
+            + "\n"
+            + "  label3:\n"
+            + "    return l2#2;\n"
+            + "}\n";
+    assertEquals(expectedBodyString, builder.build().toString());
+  }
+
+  /**
+   *
+   *
+   * <pre>
+   *    l0 := @this: Test
+   *    l1 = 0
+   * label1:
+   *    l1 = l1 + 1
+   *    if l1 < 10 goto label1
+   *    l1 = l1 * 2
+   * label2:
+   *    goto label4
+   * label3:
+   *    stack4 := @caughtexception
+   * label4:
+   *    return l1
+   *
+   * catch Exception from label1 to label2 with label3;
+   * </pre>
+   *
+   * The handler is reached from two trapped blocks, so it gets a phi after its caught exception
+   * Stmt, and the return Stmt joins the handler and the normal flow.
+   */
+  @Test
+  public void testTrappedSSA() {
+    Stmt assign0tol1 = JavaJimple.newAssignStmt(l1, IntConstant.getInstance(0), noStmtPositionInfo);
+    Stmt assignl1plus1tol1 =
+        JavaJimple.newAssignStmt(
+            l1, JavaJimple.newAddExpr(l1, IntConstant.getInstance(1)), noStmtPositionInfo);
+    Stmt ifStmt =
+        JavaJimple.newIfStmt(
+            JavaJimple.newLtExpr(l1, IntConstant.getInstance(10)), noStmtPositionInfo);
+    Stmt assignl1times2tol1 =
+        JavaJimple.newAssignStmt(
+            l1, JavaJimple.newMulExpr(l1, IntConstant.getInstance(2)), noStmtPositionInfo);
+    Stmt returnStmt = JavaJimple.newReturnStmt(l1, noStmtPositionInfo);
+    Stmt handlerStmt = JavaJimple.newIdentityStmt(stack4, caughtExceptionRef, noStmtPositionInfo);
+
+    Stmt gotoStmt = JavaJimple.newGotoStmt(noStmtPositionInfo);
+
+    Map<BranchingStmt, List<Stmt>> branchingMap = new HashMap<>();
+    branchingMap.put((BranchingStmt) ifStmt, Collections.singletonList(assignl1plus1tol1));
+    branchingMap.put((BranchingStmt) gotoStmt, Collections.singletonList(returnStmt));
+    Body.BodyBuilder builder =
+        createBody(
+            Arrays.asList(
+                startingStmt,
+                assign0tol1,
+                assignl1plus1tol1,
+                ifStmt,
+                assignl1times2tol1,
+                gotoStmt,
+                handlerStmt,
+                returnStmt),
+            branchingMap,
+            Collections.singletonList(
+                new Trap(exception, assignl1plus1tol1, gotoStmt, handlerStmt)),
+            ImmutableUtils.immutableSet(l0, l1, stack4));
+
+    new PrunedStaticSingleAssignmentFormer().interceptBody(builder, null);
+
+    String expectedBodyString =
+        "{\n"
+            + "    Test l0;\n"
+            + "    int l1#0, l1#1, l1#2, l1#3, l1#4, l1#5;\n"
+            + "    ref stack4;\n"
+            + "\n"
+            + "\n"
+            + "    l0 := @this: Test;\n"
+            + "    l1#0 = 0;\n"
+            + "\n"
+            + "  label1:\n"
+            + "    l1#1 = phi(l1#0, l1#2);\n"
+            + "    l1#2 = l1#1 + 1;\n"
+            + "\n"
+            + "    if l1#2 < 10 goto label1;\n"
+            + "    l1#3 = l1#2 * 2;\n"
+            + "\n"
+            + "  label2:\n"
+            + "    goto label4;\n"
+            + "\n"
+            + "  label3:\n"
+            + "    stack4 := @caughtexception;\n"
+            + "    l1#4 = phi(l1#2, l1#3);\n"
+            + "\n"
+            + "  label4:\n"
+            + "    l1#5 = phi(l1#3, l1#4);\n"
+            + "\n"
+            + "    return l1#5;\n"
+            + "\n"
+            + " catch Exception from label1 to label2 with label3;\n"
+            + "}\n";
+    assertEquals(expectedBodyString, builder.build().toString());
+  }
+
+  private Body.BodyBuilder createBody(
+      List<Stmt> stmts,
+      Map<BranchingStmt, List<Stmt>> branchingMap,
+      List<Trap> traps,
+      Set<Local> locals) {
+    MutableBlockStmtGraph graph = new MutableBlockStmtGraph();
+    graph.initializeWith(stmts, branchingMap, traps);
+    Body.BodyBuilder builder = Body.builder(graph);
+    builder.setMethodSignature(methodSignature);
+    builder.setLocals(locals);
+    return builder;
+  }
+}
@@ -0,0 +1,202 @@
+package sootup.java.bytecode.interceptors;
+
+import static org.junit.Assert.assertEquals;
+
+import categories.Java8Test;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.jimple.Jimple;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.constant.StringConstant;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.PrimitiveType;
+import sootup.core.types.VoidType;
+import sootup.core.util.Utils;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.language.JavaJimple;
+import sootup.java.core.types.JavaClassType;
+
+@Category(Java8Test.class)
+public class SparseConditionalConstantPropagatorTest {
+
+  JavaIdentifierFactory factory = JavaIdentifierFactory.getInstance();
+  StmtPositionInfo noStmtPositionInfo = StmtPositionInfo.createNoStmtPositionInfo();
+  JavaClassType classType = factory.getClassType("Test");
+  JavaClassType refType = factory.getClassType("ref");
+  MethodSignature methodSignature =
+      new MethodSignature(classType, "test", Collections.emptyList(), VoidType.getInstance());
+
+  Local i1 = JavaJimple.newLocal("i1", PrimitiveType.getInt());
+  Local i2 = JavaJimple.newLocal("i2", PrimitiveType.getInt());
+  Local i3 = JavaJimple.newLocal("i3", PrimitiveType.getInt());
+  Local r0 = JavaJimple.newLocal("r0", classType);
+  Local r1 = JavaJimple.newLocal("r1", refType);
+  Local r2 = JavaJimple.newLocal("r2", refType);
+  Local r3 = JavaJimple.newLocal("r3", refType);
+
+  /**
+   * The condition is constant, hence the branch becomes a goto and the other successor is removed:
+   *
+   * <p>a = "str"; b = "str"; if(a == b) return b; else return a;
+   */
+  @Test
+  public void testConstantCondition() {
+    JavaJimple javaJimple = JavaJimple.getInstance();
+    Local a = JavaJimple.newLocal("a", factory.getClassType("java.lang.String"));
+    Local b = JavaJimple.newLocal("b", factory.getClassType("java.lang.String"));
+    StringConstant str = javaJimple.newStringConstant("str");
+
+    Stmt strToA = JavaJimple.newAssignStmt(a, str, noStmtPositionInfo);
+    Stmt strToB = JavaJimple.newAssignStmt(b, str, noStmtPositionInfo);
+    Stmt ifStmt = Jimple.newIfStmt(Jimple.newEqExpr(a, b), noStmtPositionInfo);
+    Stmt retA = JavaJimple.newReturnStmt(a, noStmtPositionInfo);
+    Stmt retB = JavaJimple.newReturnStmt(b, noStmtPositionInfo);
+
+    Body.BodyBuilder builder = createBodyBuilder(a, b);
+    builder.setStartingStmt(strToA);
+    builder.addFlow(strToA, strToB);
+    builder.addFlow(strToB, ifStmt);
+    builder.addFlow(ifStmt, retA);
+    builder.addFlow(ifStmt, retB);
+
+    new SparseConditionalConstantPropagator().interceptBody(builder, null);
+    assertEquals(
+        Arrays.asList("a = \"str\"", "b = \"str\"", "goto label1", "label1:", "return \"str\""),
+        Utils.bodyStmtsAsStrings(builder.build()));
+  }
+
+  /**
+   * Only the values of executable definitions are merged, i.e. i1 is constant as the assignment in
+   * the never executed branch is ignored:
+   *
+   * <p>i1 = 1; if(i1 != 1) i1 = 2; i2 = i1 + 1; return;
+   */
+  @Test
+  public void testConditionalConstant() {
+    Stmt i1Is1 = JavaJimple.newAssignStmt(i1, IntConstant.getInstance(1), noStmtPositionInfo);
+    Stmt ifStmt =
+        Jimple.newIfStmt(Jimple.newEqExpr(i1, IntConstant.getInstance(1)), noStmtPositionInfo);
+    Stmt i1Is2 = JavaJimple.newAssignStmt(i1, IntConstant.getInstance(2), noStmtPositionInfo);
+    Stmt add =
+        JavaJimple.newAssignStmt(
+            i2, Jimple.newAddExpr(i1, IntConstant.getInstance(1)), noStmtPositionInfo);
+    Stmt ret = JavaJimple.newReturnVoidStmt(noStmtPositionInfo);
+
+    Body.BodyBuilder builder = createBodyBuilder(i1, i2);
+    builder.setStartingStmt(i1Is1);
+    builder.addFlow(i1Is1, ifStmt);
+    builder.addFlow(ifStmt, i1Is2);
+    builder.addFlow(ifStmt, add);
+    builder.addFlow(i1Is2, add);
+    builder.addFlow(add, ret);
+
+    new SparseConditionalConstantPropagator().interceptBody(builder, null);
+    assertEquals(
+        Arrays.asList("i1 = 1", "goto label1", "label1:", "i2 = 2", "return"),
+        Utils.bodyStmtsAsStrings(builder.build()));
+  }
+
+  /**
+   * Constants are propagated into a loop, the induction variable is not constant:
+   *
+   * <p>i1 = 5; i2 = 0; label1: if i2 > i1 goto label2; i3 = i1 + 1; i2 = i2 + 1; goto label1;
+   * label2: return;
+   */
+  @Test
+  public void testLoop() {
+    Stmt i1Is5 = JavaJimple.newAssignStmt(i1, IntConstant.getInstance(5), noStmtPositionInfo);
+    Stmt i2Is0 = JavaJimple.newAssignStmt(i2, IntConstant.getInstance(0), noStmtPositionInfo);
+    Stmt ifStmt = Jimple.newIfStmt(Jimple.newGtExpr(i2, i1), noStmtPositionInfo);
+    Stmt i3Def =
+        JavaJimple.newAssignStmt(
+            i3, Jimple.newAddExpr(i1, IntConstant.getInstance(1)), noStmtPositionInfo);
+    Stmt i2Inc =
+        JavaJimple.newAssignStmt(
+            i2, Jimple.newAddExpr(i2, IntConstant.getInstance(1)), noStmtPositionInfo);
+    Stmt gotoStmt = JavaJimple.newGotoStmt(noStmtPositionInfo);
+    Stmt ret = JavaJimple.newReturnVoidStmt(noStmtPositionInfo);
+
+    Body.BodyBuilder builder = createBodyBuilder(i1, i2, i3);
+    builder.setStartingStmt(i1Is5);
+    builder.addFlow(i1Is5, i2Is0);
+    builder.addFlow(i2Is0, ifStmt);
+    builder.addFlow(ifStmt, i3Def);
+    builder.addFlow(ifStmt, ret);
+    builder.addFlow(i3Def, i2Inc);
+    builder.addFlow(i2Inc, gotoStmt);
+    builder.addFlow(gotoStmt, ifStmt);
+
+    new SparseConditionalConstantPropagator().interceptBody(builder, null);
+    assertEquals(
+        Arrays.asList(
+            "i1 = 5",
+            "i2 = 0",
+            "label1:",
+            "if i2 > 5 goto label2",
+            "i3 = 6",
+            "i2 = i2 + 1",
+            "goto label1",
+            "label2:",
+            "return"),
+        Utils.bodyStmtsAsStrings(builder.build()));
+  }
+
+  /**
+   * Chains of copies are propagated as long as the source is not redefined before the use:
+   *
+   * <p>r0 := @this; r1 = new ref; r2 = r1; r3 = r2; r1 = new ref; r3.m(); r2.m(); return;
+   */
+  @Test
+  public void testCopies() {
+    MethodSignature m =
+        new MethodSignature(refType, "m", Collections.emptyList(), VoidType.getInstance());
+    Stmt identity =
+        JavaJimple.newIdentityStmt(r0, JavaJimple.newThisRef(classType), noStmtPositionInfo);
+    Stmt newR1 = JavaJimple.newAssignStmt(r1, JavaJimple.newNewExpr(refType), noStmtPositionInfo);
+    Stmt r2IsR1 = JavaJimple.newAssignStmt(r2, r1, noStmtPositionInfo);
+    Stmt r3IsR2 = JavaJimple.newAssignStmt(r3, r2, noStmtPositionInfo);
+    Stmt anotherNewR1 =
+        JavaJimple.newAssignStmt(r1, JavaJimple.newNewExpr(refType), noStmtPositionInfo);
+    Stmt invokeR3 =
+        JavaJimple.newInvokeStmt(JavaJimple.newVirtualInvokeExpr(r3, m), noStmtPositionInfo);
+    Stmt invokeR2 =
+        JavaJimple.newInvokeStmt(JavaJimple.newVirtualInvokeExpr(r2, m), noStmtPositionInfo);
+    Stmt ret = JavaJimple.newReturnVoidStmt(noStmtPositionInfo);
+
+    Body.BodyBuilder builder = createBodyBuilder(r0, r1, r2, r3);
+    builder.setStartingStmt(identity);
+    List<Stmt> stmts =
+        Arrays.asList(identity, newR1, r2IsR1, r3IsR2, anotherNewR1, invokeR3, invokeR2, ret);
+    for (int i = 0; i < stmts.size() - 1; i++) {
+      builder.addFlow(stmts.get(i), stmts.get(i + 1));
+    }
+
+    new SparseConditionalConstantPropagator().interceptBody(builder, null);
+    assertEquals(
+        Arrays.asList(
+            "r0 := @this: Test",
+            "r1 = new ref",
+            "r2 = r1",
+            "r3 = r1",
+            "r1 = new ref",
+            "virtualinvoke r2.<ref: void m()>()",
+            "virtualinvoke r2.<ref: void m()>()",
+            "return"),
+        Utils.bodyStmtsAsStrings(builder.build()));
+  }
+
+  private Body.BodyBuilder createBodyBuilder(Local... locals) {
+    Body.BodyBuilder builder = Body.builder();
+    builder.setLocals(new LinkedHashSet<>(Arrays.asList(locals)));
+    builder.setMethodSignature(methodSignature);
+    return builder;
+  }
+}
@@ -9,6 +9,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import sootup.core.graph.MutableBlockStmtGraph;
 import sootup.core.graph.MutableStmtGraph;
+import sootup.core.graph.throwanalysis.UnitThrowAnalysis;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.NoPositionInformation;
 import sootup.core.jimple.basic.StmtPositionInfo;
@@ -204,4 +205,32 @@ public class UnreachableCodeEliminatorTest {
 
     assertEquals(inputGraph, builder.getStmtGraph());
   }
+
+  @Test
+  public void testTrappedBodyWithThrowAnalysis() {
+    // the handler is reachable via the graph, but none of the trapped stmts can throw the exception
+    ClassType arithmeticException = factory.getClassType("java.lang.ArithmeticException");
+
+    MutableStmtGraph graph = new MutableBlockStmtGraph();
+    Body.BodyBuilder builder = Body.builder(graph);
+    builder.setMethodSignature(methodSignature);
+    builder.setLocals(ImmutableUtils.immutableSet(l0, l1, l3, l4, stack0));
+
+    graph.addBlock(
+        Arrays.asList(startingStmt, stmt1, ret1),
+        Collections.singletonMap(arithmeticException, handlerStmt));
+    graph.addBlock(Arrays.asList(handlerStmt, jump));
+    graph.putEdge(jump, ret1);
+    graph.setStartingStmt(startingStmt);
+
+    MutableStmtGraph inputGraph = new MutableBlockStmtGraph(builder.getStmtGraph());
+    new UnreachableCodeEliminator().interceptBody(builder, null);
+    assertEquals(inputGraph, builder.getStmtGraph());
+
+    new UnreachableCodeEliminator(new UnitThrowAnalysis(factory)).interceptBody(builder, null);
+
+    assertEquals(0, builder.getStmtGraph().getTraps().size());
+    AssertUtils.assertSetsEquiv(
+        ImmutableUtils.immutableSet(startingStmt, stmt1, ret1), builder.getStmtGraph().getNodes());
+  }
 }
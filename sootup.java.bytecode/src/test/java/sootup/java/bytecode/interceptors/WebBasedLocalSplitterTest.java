@@ -0,0 +1,309 @@
+package sootup.java.bytecode.interceptors;
+
+import static org.junit.Assert.assertEquals;
+
+import categories.Java8Test;
+import java.util.*;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import sootup.core.graph.MutableBlockStmtGraph;
+import sootup.core.graph.MutableStmtGraph;
+import sootup.core.jimple.basic.Local;
+import sootup.core.jimple.basic.NoPositionInformation;
+import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.common.constant.IntConstant;
+import sootup.core.jimple.common.ref.IdentityRef;
+import sootup.core.jimple.common.stmt.Stmt;
+import sootup.core.model.Body;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.types.VoidType;
+import sootup.core.util.ImmutableUtils;
+import sootup.java.core.JavaIdentifierFactory;
+import sootup.java.core.language.JavaJimple;
+import sootup.java.core.types.JavaClassType;
+
+@Category(Java8Test.class)
+public class WebBasedLocalSplitterTest {
+
+  JavaIdentifierFactory factory = JavaIdentifierFactory.getInstance();
+  StmtPositionInfo noStmtPositionInfo = StmtPositionInfo.createNoStmtPositionInfo();
+
+  JavaClassType intType = factory.getClassType("int");
+  JavaClassType classType = factory.getClassType("Test");
+  MethodSignature methodSignature =
+      new MethodSignature(classType, "test", Collections.emptyList(), VoidType.getInstance());
+  IdentityRef identityRef = JavaJimple.newThisRef(classType);
+  ClassType exception = factory.getClassType("Exception");
+
+  Local l0 = JavaJimple.newLocal("l0", intType);
+  Local l1 = JavaJimple.newLocal("l1", intType);
+  Local l2 = JavaJimple.newLocal("l2", intType);
+  Local l3 = JavaJimple.newLocal("l3", intType);
+  Local stack3 = JavaJimple.newLocal("stack3", intType);
+  Local stack4 = JavaJimple.newLocal("stack4", intType);
+  Local l1hash1 = JavaJimple.newLocal("l1#1", intType);
+  Local l1hash2 = JavaJimple.newLocal("l1#2", intType);
+  Local l1hash3 = JavaJimple.newLocal("l1#3", intType);
+
+  /**
+   *
+   *
+   * <pre>
+   *    l0 := @this Test
+   *    l1 = 0
+   *    if l1 >= 0 goto label1
+   *    l1 = l1 + 1
+   *    goto label2
+   * label1:
+   *    l1 = l1 - 1
+   *    l1 = l1 + 2
+   * label2:
+   *    return l1
+   * </pre>
+   *
+   * to:
+   *
+   * <pre>
+   *    l0 := @this Test
+   *    l1#1 = 0
+   *    if l1#1 >= 0 goto label1
+   *    l1#2 = l1#1 + 1
+   *    goto label2
+   * label1:
+   *    l1#3 = l1#1 - 1
+   *    l1#2 = l1#3 + 2
+   * label2:
+   *    return l1#2
+   * </pre>
+   */
+  @Test
+  public void testBinaryBranches() {
+    Body.BodyBuilder builder = createBinaryBranchesBody(l1, l1, l1, l1);
+    new WebBasedLocalSplitter().interceptBody(builder, null);
+    Body expectedBody = createBinaryBranchesBody(l1hash1, l1hash2, l1hash3, l1hash2).build();
+
+    Body body = builder.build();
+    assertEquals(expectedBody.getLocals(), body.getLocals());
+    AssertUtils.assertStmtGraphEquiv(expectedBody, body);
+  }
+
+  /**
+   *
+   *
+   * <pre>
+   *    l0 := @this Test
+   *    l1 = 0
+   * label1:
+   *    $stack4 = l1
+   *    $stack3 = 10
+   *    if $stack4 >= $stack3 goto label2
+   *    l2 = l1 + 1
+   *    l1 = l2 + 1
+   *    l1 = l1 + 1
+   *    goto label1
+   * label2:
+   *    return
+   * </pre>
+   *
+   * to:
+   *
+   * <pre>
+   *    l0 := @this Test
+   *    l1#1 = 0
+   * label1:
+   *    $stack4 = l1#1
+   *    $stack3 = 10
+   *    if $stack4 >= $stack3 goto label2
+   *    l2 = l1#1 + 1
+   *    l1#2 = l2 + 1
+   *    l1#1 = l1#2 + 1
+   *    goto label1
+   * label2:
+   *    return
+   * </pre>
+   */
+  @Test
+  public void testLoop() {
+    Body.BodyBuilder builder = createLoopBody(l1, l1);
+    new WebBasedLocalSplitter().interceptBody(builder, null);
+    Body expectedBody = createLoopBody(l1hash1, l1hash2).build();
+
+    Body body = builder.build();
+    assertEquals(expectedBody.getLocals(), body.getLocals());
+    AssertUtils.assertStmtGraphEquiv(expectedBody, body);
+  }
+
+  /**
+   * An exception thrown in the trapped block can only observe the first definition of l1, as the
+   * second one is the last Stmt of the block.
+   *
+   * <pre>
+   *    l0 := @this Test
+   *    l1 = 0
+   *    l1 = 1
+   *    l2 = 2
+   *    return
+   *    $stack3 := @caughtexception
+   *    l3 = l1
+   *    goto return
+   * </pre>
+   *
+   * to:
+   *
+   * <pre>
+   *    l0 := @this Test
+   *    l1#1 = 0
+   *    l1#2 = 1
+   *    l2 = 2
+   *    return
+   *    $stack3 := @caughtexception
+   *    l3 = l1#1
+   *    goto return
+   * </pre>
+   */
+  @Test
+  public void testTraps() {
+    Body.BodyBuilder builder = createTrapBody(l1, l1, l1);
+    new WebBasedLocalSplitter().interceptBody(builder, null);
+    Body expectedBody = createTrapBody(l1hash1, l1hash2, l1hash1).build();
+
+    Body body = builder.build();
+    assertEquals(expectedBody.getLocals(), body.getLocals());
+    AssertUtils.assertStmtGraphEquiv(expectedBody, body);
+  }
+
+  /** Names of existing Locals are not reused and Locals with a single definition are kept. */
+  @Test
+  public void testNames() {
+    MutableStmtGraph graph = new MutableBlockStmtGraph();
+    Body.BodyBuilder builder = Body.builder(graph).setMethodSignature(methodSignature);
+    builder.setLocals(ImmutableUtils.immutableSet(l0, l1, l2, l3, l1hash1));
+    graph.addBlock(
+        Arrays.asList(
+            JavaJimple.newIdentityStmt(l0, identityRef, noStmtPositionInfo),
+            JavaJimple.newAssignStmt(l1, IntConstant.getInstance(0), noStmtPositionInfo),
+            JavaJimple.newAssignStmt(l1hash1, l1, noStmtPositionInfo),
+            JavaJimple.newAssignStmt(l2, IntConstant.getInstance(0), noStmtPositionInfo),
+            JavaJimple.newAssignStmt(l1, IntConstant.getInstance(1), noStmtPositionInfo),
+            JavaJimple.newAssignStmt(l3, JavaJimple.newAddExpr(l2, l1hash1), noStmtPositionInfo),
+            JavaJimple.newReturnStmt(l1, noStmtPositionInfo)),
+        Collections.emptyMap());
+    graph.setStartingStmt(graph.getStmts().get(0));
+
+    new WebBasedLocalSplitter().interceptBody(builder, null);
+
+    Local l1hash3 = JavaJimple.newLocal("l1#3", intType);
+    assertEquals(
+        ImmutableUtils.immutableSet(l0, l2, l3, l1hash1, l1hash2, l1hash3), builder.getLocals());
+    List<Stmt> stmts = builder.getStmts();
+    assertEquals("l1#2 = 0", stmts.get(1).toString());
+    assertEquals("l1#1 = l1#2", stmts.get(2).toString());
+    assertEquals("l1#3 = 1", stmts.get(4).toString());
+    assertEquals("l3 = l2 + l1#1", stmts.get(5).toString());
+    assertEquals("return l1#3", stmts.get(6).toString());
+  }
+
+  private Body.BodyBuilder createBinaryBranchesBody(
+      Local first, Local then, Local otherwise, Local joined) {
+    MutableStmtGraph graph = new MutableBlockStmtGraph();
+    Body.BodyBuilder builder = Body.builder(graph);
+    builder.setMethodSignature(methodSignature);
+    builder.setLocals(ImmutableUtils.immutableSet(l0, first, then, otherwise, joined));
+
+    Stmt startingStmt = JavaJimple.newIdentityStmt(l0, identityRef, noStmtPositionInfo);
+    Stmt stmt1 = JavaJimple.newAssignStmt(first, IntConstant.getInstance(0), noStmtPositionInfo);
+    Stmt stmt2 =
+        JavaJimple.newIfStmt(
+            JavaJimple.newGeExpr(first, IntConstant.getInstance(0)), noStmtPositionInfo);
+    Stmt stmt3 =
+        JavaJimple.newAssignStmt(
+            then, JavaJimple.newAddExpr(first, IntConstant.getInstance(1)), noStmtPositionInfo);
+    Stmt stmt4 = JavaJimple.newGotoStmt(noStmtPositionInfo);
+    Stmt stmt5 =
+        JavaJimple.newAssignStmt(
+            otherwise,
+            JavaJimple.newSubExpr(first, IntConstant.getInstance(1)),
+            noStmtPositionInfo);
+    Stmt stmt6 =
+        JavaJimple.newAssignStmt(
+            joined,
+            JavaJimple.newAddExpr(otherwise, IntConstant.getInstance(2)),
+            noStmtPositionInfo);
+    Stmt ret = JavaJimple.newReturnStmt(joined, noStmtPositionInfo);
+
+    graph.addBlock(Arrays.asList(startingStmt, stmt1, stmt2), Collections.emptyMap());
+    graph.setEdges(stmt2, Arrays.asList(stmt3, stmt5));
+    graph.addBlock(Arrays.asList(stmt3, stmt4), Collections.emptyMap());
+    graph.addBlock(Arrays.asList(stmt5, stmt6), Collections.emptyMap());
+    graph.putEdge(stmt4, ret);
+    graph.putEdge(stmt6, ret);
+    graph.setStartingStmt(startingStmt);
+
+    builder.setPosition(NoPositionInformation.getInstance());
+    return builder;
+  }
+
+  private Body.BodyBuilder createLoopBody(Local loopVar, Local tmpVar) {
+    MutableStmtGraph graph = new MutableBlockStmtGraph();
+    Body.BodyBuilder builder = Body.builder(graph);
+    builder.setMethodSignature(methodSignature);
+    builder.setLocals(ImmutableUtils.immutableSet(l0, l2, stack3, stack4, loopVar, tmpVar));
+
+    Stmt startingStmt = JavaJimple.newIdentityStmt(l0, identityRef, noStmtPositionInfo);
+    Stmt stmt1 = JavaJimple.newAssignStmt(loopVar, IntConstant.getInstance(0), noStmtPositionInfo);
+    Stmt stmt2 = JavaJimple.newAssignStmt(stack4, loopVar, noStmtPositionInfo);
+    Stmt stmt3 = JavaJimple.newAssignStmt(stack3, IntConstant.getInstance(10), noStmtPositionInfo);
+    Stmt stmt4 = JavaJimple.newIfStmt(JavaJimple.newGeExpr(stack4, stack3), noStmtPositionInfo);
+    Stmt stmt5 =
+        JavaJimple.newAssignStmt(
+            l2, JavaJimple.newAddExpr(loopVar, IntConstant.getInstance(1)), noStmtPositionInfo);
+    Stmt stmt6 =
+        JavaJimple.newAssignStmt(
+            tmpVar, JavaJimple.newAddExpr(l2, IntConstant.getInstance(1)), noStmtPositionInfo);
+    Stmt stmt7 =
+        JavaJimple.newAssignStmt(
+            loopVar, JavaJimple.newAddExpr(tmpVar, IntConstant.getInstance(1)), noStmtPositionInfo);
+    Stmt stmt8 = JavaJimple.newGotoStmt(noStmtPositionInfo);
+    Stmt ret = JavaJimple.newReturnVoidStmt(noStmtPositionInfo);
+
+    graph.addBlock(Arrays.asList(startingStmt, stmt1, stmt2, stmt3, stmt4), Collections.emptyMap());
+    graph.setEdges(stmt4, Arrays.asList(stmt5, ret));
+    graph.addBlock(Arrays.asList(stmt5, stmt6, stmt7, stmt8), Collections.emptyMap());
+    graph.putEdge(stmt8, stmt2);
+    graph.setStartingStmt(startingStmt);
+
+    builder.setPosition(NoPositionInformation.getInstance());
+    return builder;
+  }
+
+  private Body.BodyBuilder createTrapBody(Local first, Local second, Local caught) {
+    MutableStmtGraph graph = new MutableBlockStmtGraph();
+    Body.BodyBuilder builder = Body.builder(graph);
+    builder.setMethodSignature(methodSignature);
+    builder.setLocals(ImmutableUtils.immutableSet(l0, l2, l3, stack3, first, second));
+
+    Stmt startingStmt = JavaJimple.newIdentityStmt(l0, identityRef, noStmtPositionInfo);
+    Stmt stmt1 = JavaJimple.newAssignStmt(first, IntConstant.getInstance(0), noStmtPositionInfo);
+    Stmt stmt2 = JavaJimple.newAssignStmt(second, IntConstant.getInstance(1), noStmtPositionInfo);
+    Stmt stmt3 = JavaJimple.newAssignStmt(l2, IntConstant.getInstance(2), noStmtPositionInfo);
+    Stmt stmt4 =
+        JavaJimple.newIdentityStmt(
+            stack3, JavaJimple.getInstance().newCaughtExceptionRef(), noStmtPositionInfo);
+    Stmt stmt5 = JavaJimple.newAssignStmt(l3, caught, noStmtPositionInfo);
+    Stmt stmt6 = JavaJimple.newGotoStmt(noStmtPositionInfo);
+    Stmt ret = JavaJimple.newReturnVoidStmt(noStmtPositionInfo);
+
+    graph.addBlock(
+        Arrays.asList(startingStmt, stmt1, stmt2), Collections.singletonMap(exception, stmt4));
+    graph.addBlock(Arrays.asList(stmt4, stmt5, stmt6), Collections.emptyMap());
+    graph.addNode(stmt3);
+    graph.putEdge(stmt2, stmt3);
+    graph.putEdge(stmt3, ret);
+    graph.putEdge(stmt6, ret);
+    graph.setStartingStmt(startingStmt);
+
+    builder.setPosition(NoPositionInformation.getInstance());
+    return builder;
+  }
+}
@@ -8,7 +8,9 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
+import sootup.core.jimple.basic.Local;
 import sootup.core.model.Body;
+import sootup.core.types.PrimitiveType;
 import sootup.core.util.Utils;
 
 @Category(Java8Test.class)
@@ -74,4 +76,25 @@ public class TypeResolverTest extends TypeAssignerTestSuite {
             .collect(Collectors.toList()),
         actualStmts);
   }
+
+  @Test
+  public void testDeclaredTypes() {
+    final Body.BodyBuilder builder = createMethodsBuilder("invokeStmt", "void");
+    // e.g. from the LocalVariableTable: declared types are kept if they fit their assignments
+    for (Local local : new ArrayList<>(builder.getLocals())) {
+      if (local.getName().equals("l1")) {
+        builder.replaceLocal(local, local.withType(identifierFactory.getClassType("Super1")));
+      } else if (local.getName().equals("l2")) {
+        builder.replaceLocal(local, local.withType(PrimitiveType.getInt()));
+      }
+    }
+    TypeResolver resolver = new TypeResolver(view);
+    resolver.resolve(builder);
+    Body newbody = builder.build();
+
+    List<String> actualStmts = Utils.filterJimple(newbody.toString());
+    Assert.assertTrue(actualStmts.contains("Super1 l1"));
+    Assert.assertTrue(actualStmts.contains("int l2"));
+    Assert.assertTrue(actualStmts.contains("Sub1 $stack4"));
+  }
 }
@@ -0,0 +1,187 @@
+package sootup.java.core.views;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import javax.annotation.Nonnull;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.transform.BodyInterceptorMetrics.InterceptorStatistics;
+import sootup.core.types.ClassType;
+
+/**
+ * The result of {@link JavaView#materializeBodies(java.util.Collection, int)}: how many bodies were
+ * lifted, which methods failed and how much time the applied body interceptors took.
+ */
+public class BodyMaterializationReport {
+
+  private final long materializedBodies;
+  private final long stmtCount;
+  private final long wallTimeNanos;
+  @Nonnull private final Map<MethodSignature, Throwable> failures;
+  @Nonnull private final List<ClassType> unresolvedClasses;
+  @Nonnull private final List<MethodSignature> unresolvedMethods;
+  @Nonnull private final List<InterceptorStatistics> interceptorStatistics;
+
+  private BodyMaterializationReport(
+      long materializedBodies,
+      long stmtCount,
+      long wallTimeNanos,
+      @Nonnull Map<MethodSignature, Throwable> failures,
+      @Nonnull List<ClassType> unresolvedClasses,
+      @Nonnull List<MethodSignature> unresolvedMethods,
+      @Nonnull List<InterceptorStatistics> interceptorStatistics) {
+    this.materializedBodies = materializedBodies;
+    this.stmtCount = stmtCount;
+    this.wallTimeNanos = wallTimeNanos;
+    this.failures = Collections.unmodifiableMap(failures);
+    this.unresolvedClasses = Collections.unmodifiableList(unresolvedClasses);
+    this.unresolvedMethods = Collections.unmodifiableList(unresolvedMethods);
+    this.interceptorStatistics = Collections.unmodifiableList(interceptorStatistics);
+  }
+
+  /** @return the number of bodies that were lifted successfully */
+  public long getMaterializedBodies() {
+    return materializedBodies;
+  }
+
+  /** @return the summed up number of stmts of all successfully lifted bodies */
+  public long getStmtCount() {
+    return stmtCount;
+  }
+
+  public long getWallTimeNanos() {
+    return wallTimeNanos;
+  }
+
+  /** @return the methods whose body could not be lifted together with the cause */
+  @Nonnull
+  public Map<MethodSignature, Throwable> getFailures() {
+    return failures;
+  }
+
+  @Nonnull
+  public List<ClassType> getUnresolvedClasses() {
+    return unresolvedClasses;
+  }
+
+  @Nonnull
+  public List<MethodSignature> getUnresolvedMethods() {
+    return unresolvedMethods;
+  }
+
+  /**
+   * @return the statistics of the body interceptors that ran during the materialization, sorted by
+   *     descending total run time
+   */
+  @Nonnull
+  public List<InterceptorStatistics> getInterceptorStatistics() {
+    return interceptorStatistics;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("materialized ")
+        .append(materializedBodies)
+        .append(" bodies (")
+        .append(stmtCount)
+        .append(" stmts) in ")
+        .append(wallTimeNanos / 1_000_000)
+        .append(" ms, ")
+        .append(failures.size())
+        .append(" failures, ")
+        .append(unresolvedClasses.size() + unresolvedMethods.size())
+        .append(" unresolved");
+    for (InterceptorStatistics statistics : interceptorStatistics) {
+      sb.append("\n  ").append(statistics);
+    }
+    return sb.toString();
+  }
+
+  /** Thread-safe collector of the results that builds the final report. */
+  static class Builder {
+    private final LongAdder materializedBodies = new LongAdder();
+    private final LongAdder stmtCount = new LongAdder();
+    private final Map<MethodSignature, Throwable> failures = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<ClassType> unresolvedClasses =
+        new ConcurrentLinkedQueue<>();
+    private final ConcurrentLinkedQueue<MethodSignature> unresolvedMethods =
+        new ConcurrentLinkedQueue<>();
+
+    void addMaterializedBody(int stmts) {
+      materializedBodies.increment();
+      stmtCount.add(stmts);
+    }
+
+    void addFailure(@Nonnull MethodSignature method, @Nonnull Throwable cause) {
+      failures.put(method, cause);
+    }
+
+    void addUnresolvedClass(@Nonnull ClassType type) {
+      unresolvedClasses.add(type);
+    }
+
+    void addUnresolvedMethod(@Nonnull MethodSignature method) {
+      unresolvedMethods.add(method);
+    }
+
+    /**
+     * @param statisticsBefore the interceptor statistics before the materialization started
+     * @param statisticsAfter the interceptor statistics after the materialization finished
+     */
+    @Nonnull
+    BodyMaterializationReport build(
+        long wallTimeNanos,
+        @Nonnull List<InterceptorStatistics> statisticsBefore,
+        @Nonnull List<InterceptorStatistics> statisticsAfter) {
+      Map<String, InterceptorStatistics> before = new HashMap<>();
+      statisticsBefore.forEach(s -> before.put(s.getInterceptorName(), s));
+      List<InterceptorStatistics> delta = new ArrayList<>(statisticsAfter.size());
+      for (InterceptorStatistics after : statisticsAfter) {
+        InterceptorStatistics earlier = before.get(after.getInterceptorName());
+        InterceptorStatistics statistics = earlier == null ? after : after.minus(earlier);
+        if (statistics.getInvocations() > 0) {
+          delta.add(statistics);
+        }
+      }
+      delta.sort(Comparator.comparingLong(InterceptorStatistics::getTotalNanos).reversed());
+
+      return new BodyMaterializationReport(
+          materializedBodies.sum(),
+          stmtCount.sum(),
+          wallTimeNanos,
+          new HashMap<>(failures),
+          new ArrayList<>(unresolvedClasses),
+          new ArrayList<>(unresolvedMethods),
+          delta);
+    }
+  }
+}
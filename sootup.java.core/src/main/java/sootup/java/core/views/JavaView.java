@@ -23,12 +23,17 @@ package sootup.java.core.views;
  */
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import sootup.core.Project;
+import sootup.core.cache.BodyCache;
 import sootup.core.cache.ClassCache;
 import sootup.core.cache.FullCache;
 import sootup.core.cache.provider.ClassCacheProvider;
@@ -37,8 +42,14 @@ import sootup.core.frontend.AbstractClassSource;
 import sootup.core.inputlocation.AnalysisInputLocation;
 import sootup.core.inputlocation.ClassLoadingOptions;
 import sootup.core.inputlocation.EmptyClassLoadingOptions;
+import sootup.core.model.SootMethod;
+import sootup.core.signatures.MethodSignature;
 import sootup.core.transform.BodyInterceptor;
+import sootup.core.transform.BodyInterceptorMetrics;
+import sootup.core.transform.BodyInterceptorMetrics.InterceptorStatistics;
+import sootup.core.transform.RunTimeBodyInterceptor;
 import sootup.core.types.ClassType;
+import sootup.core.util.ExecutorUtils;
 import sootup.core.views.AbstractView;
 import sootup.java.core.AnnotationUsage;
 import sootup.java.core.JavaAnnotationSootClass;
@@ -62,6 +73,14 @@ public class JavaView extends AbstractView<JavaSootClass> {
   protected Function<AnalysisInputLocation<? extends JavaSootClass>, ClassLoadingOptions>
       classLoadingOptionsSpecifier;
 
+  @Nonnull
+  protected final BodyInterceptorMetrics bodyInterceptorMetrics = new BodyInterceptorMetrics();
+
+  /** the wrappers of the body interceptors, keyed by the interceptors of the options */
+  @Nonnull
+  private final Map<List<BodyInterceptor>, List<BodyInterceptor>> measuredBodyInterceptors =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
   public JavaView(@Nonnull Project<JavaSootClass, ? extends JavaView> project) {
     this(project, new FullCacheProvider<>());
   }
@@ -99,10 +118,121 @@ public class JavaView extends AbstractView<JavaSootClass> {
     this.cache = cacheProvider.createCache();
   }
 
+  /**
+   * Returns the body interceptors of the options of the input location, wrapped to be measured
+   * while the {@link #getBodyInterceptorMetrics() metrics} are recording. The interceptors are
+   * wrapped once, as the method sources keep them from the resolution of their class on; while the
+   * metrics are not recording, the wrappers delegate without any measurement.
+   */
   @Nonnull
   @Override
   public List<BodyInterceptor> getBodyInterceptors(AnalysisInputLocation clazz) {
-    return this.classLoadingOptionsSpecifier.apply(clazz).getBodyInterceptors();
+    return measuredBodyInterceptors.computeIfAbsent(
+        this.classLoadingOptionsSpecifier.apply(clazz).getBodyInterceptors(),
+        interceptors ->
+            Collections.unmodifiableList(
+                RunTimeBodyInterceptor.wrap(interceptors, bodyInterceptorMetrics)));
+  }
+
+  @Nonnull
+  @Override
+  public Optional<BodyCache> getBodyCache(AnalysisInputLocation inputLocation) {
+    return this.classLoadingOptionsSpecifier.apply(inputLocation).getBodyCache();
+  }
+
+  /**
+   * Returns the metrics of the body interceptors of this view. The metrics are only collected while
+   * a recording is active e.g. during {@link #materializeBodies(Collection, int)}.
+   */
+  @Nonnull
+  public BodyInterceptorMetrics getBodyInterceptorMetrics() {
+    return bodyInterceptorMetrics;
+  }
+
+  /**
+   * Lifts the bodies of all concrete methods of the given classes in parallel, so that following
+   * calls of {@link SootMethod#getBody()} are served from the already built bodies.
+   *
+   * @param classTypes the classes whose method bodies are lifted
+   * @param parallelism the number of threads that lift the bodies
+   * @return the report containing the failures and the time spent in each body interceptor
+   */
+  @Nonnull
+  public BodyMaterializationReport materializeBodies(
+      @Nonnull Collection<? extends ClassType> classTypes, int parallelism) {
+    return materialize(
+        classTypes,
+        parallelism,
+        (classType, report) -> {
+          Optional<JavaSootClass> clazz = getClass(classType);
+          if (!clazz.isPresent()) {
+            report.addUnresolvedClass(classType);
+            return;
+          }
+          for (SootMethod method : clazz.get().getMethods()) {
+            materializeBody(method, report);
+          }
+        });
+  }
+
+  /**
+   * Lifts the bodies of the given methods in parallel.
+   *
+   * @see #materializeBodies(Collection, int)
+   */
+  @Nonnull
+  public BodyMaterializationReport materializeMethodBodies(
+      @Nonnull Collection<? extends MethodSignature> methodSignatures, int parallelism) {
+    return materialize(
+        methodSignatures,
+        parallelism,
+        (methodSignature, report) -> {
+          Optional<? extends SootMethod> method = getMethod(methodSignature);
+          if (!method.isPresent()) {
+            report.addUnresolvedMethod(methodSignature);
+            return;
+          }
+          materializeBody(method.get(), report);
+        });
+  }
+
+  private static void materializeBody(
+      @Nonnull SootMethod method, @Nonnull BodyMaterializationReport.Builder report) {
+    if (!method.hasBody()) {
+      return;
+    }
+    try {
+      report.addMaterializedBody(method.getBody().getStmtGraph().getNodes().size());
+    } catch (Exception e) {
+      report.addFailure(method.getSignature(), e);
+    }
+  }
+
+  /**
+   * Runs the given task for each item on a fixed number of threads. The work queue is bounded: if
+   * all threads are busy and the queue is full, the submitting thread runs the task itself, so that
+   * at most <code>3 * parallelism</code> tasks are in flight at any time.
+   */
+  @Nonnull
+  private <T> BodyMaterializationReport materialize(
+      @Nonnull Collection<? extends T> items,
+      int parallelism,
+      @Nonnull BiConsumer<T, BodyMaterializationReport.Builder> task) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be at least 1 but is " + parallelism);
+    }
+
+    final BodyMaterializationReport.Builder report = new BodyMaterializationReport.Builder();
+    final List<InterceptorStatistics> statisticsBefore = bodyInterceptorMetrics.getStatistics();
+    final long start = System.nanoTime();
+    bodyInterceptorMetrics.startRecording();
+    try {
+      ExecutorUtils.forEach(items, parallelism, item -> task.accept(item, report));
+    } finally {
+      bodyInterceptorMetrics.stopRecording();
+    }
+    final long wallTimeNanos = System.nanoTime() - start;
+    return report.build(wallTimeNanos, statisticsBefore, bodyInterceptorMetrics.getStatistics());
   }
 
   public void configBodyInterceptors(
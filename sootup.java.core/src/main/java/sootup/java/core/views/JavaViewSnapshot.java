@@ -0,0 +1,801 @@
+package sootup.java.core.views;
+
+/*-
+ * #%L
+ * Soot - a J*va Optimization Framework
+ * %%
+ * Copyright (C) 2024 SootUp contributors
+ * %%
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation, either version 2.1 of the
+ * License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU General Lesser Public
+ * License along with this program.  If not, see
+ * <http://www.gnu.org/licenses/lgpl-2.1.html>.
+ * #L%
+ */
+
+import com.google.common.base.Suppliers;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import sootup.core.Project;
+import sootup.core.cache.FullCache;
+import sootup.core.frontend.AbstractClassSource;
+import sootup.core.frontend.BodySource;
+import sootup.core.frontend.ResolveException;
+import sootup.core.inputlocation.AnalysisInputLocation;
+import sootup.core.inputlocation.ClassLoadingOptions;
+import sootup.core.inputlocation.EmptyClassLoadingOptions;
+import sootup.core.jimple.basic.NoPositionInformation;
+import sootup.core.model.Body;
+import sootup.core.model.FullPosition;
+import sootup.core.model.Modifier;
+import sootup.core.model.Position;
+import sootup.core.model.SootField;
+import sootup.core.model.SootMethod;
+import sootup.core.model.SourceType;
+import sootup.core.signatures.FieldSignature;
+import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
+import sootup.core.types.Type;
+import sootup.java.core.*;
+
+/**
+ * Stores the resolved classes of a {@link JavaView} i.e. their modifiers, supertypes, fields,
+ * method signatures and positions in a compact binary file, so that short-lived analyses can skip
+ * scanning and parsing all classes of the input locations, e.g. of the JDK, on startup.
+ *
+ * <p>A restored view memory-maps the file and decodes a class only when it is requested. The type
+ * hierarchy is built from the stored supertypes without touching the input locations. Method bodies
+ * and annotations are not part of the snapshot: they are resolved from the original input location
+ * on demand, so the input locations have to stay available.
+ *
+ * <p>The snapshot stores the {@link AnalysisInputLocation#getFingerprint() fingerprints} of the
+ * input locations; if one of them has changed, the snapshot is outdated and is not restored.
+ *
+ * <pre>
+ * <code>
+ * JavaView view = JavaViewSnapshot.restoreOrCreate(project, Paths.get("view.snapshot"));
+ * </code>
+ * </pre>
+ *
+ * The file must not be larger than 2 GB.
+ */
+public final class JavaViewSnapshot {
+
+  private static final Logger logger = LoggerFactory.getLogger(JavaViewSnapshot.class);
+
+  private static final int MAGIC = 0x53555653; // "SUVS"
+  private static final int VERSION = 2;
+  private static final int HEADER_INTS = 7;
+  /** first line, first column, last line and last column */
+  private static final int POSITION_INTS = 4;
+  /** name, type and modifiers followed by the position */
+  private static final int FIELD_INTS = 3 + POSITION_INTS;
+
+  private static final Modifier[] MODIFIERS = Modifier.values();
+  private static final SourceType[] SOURCE_TYPES = SourceType.values();
+
+  // layout of a class record in the class data; the fields and methods follow the interfaces
+  private static final int CLASS_NAME = 0;
+  private static final int CLASS_LOCATION = 1;
+  private static final int CLASS_SOURCE_TYPE = 2;
+  private static final int CLASS_SOURCE_PATH = 3;
+  private static final int CLASS_MODIFIERS = 4;
+  private static final int CLASS_SUPERCLASS = 5;
+  private static final int CLASS_OUTER_CLASS = 6;
+  private static final int CLASS_POSITION = 7;
+  private static final int CLASS_INTERFACES = CLASS_POSITION + POSITION_INTS;
+
+  @Nonnull private final ByteBuffer strings;
+  @Nonnull private final IntBuffer stringOffsets;
+  @Nonnull private final IntBuffer fingerprints;
+  @Nonnull private final IntBuffer classDataOffsets;
+  @Nonnull private final IntBuffer classData;
+  private final int stringCount;
+  private final int classCount;
+
+  private JavaViewSnapshot(@Nonnull ByteBuffer buffer) {
+    stringCount = buffer.getInt(8);
+    final int locationCount = buffer.getInt(12);
+    classCount = buffer.getInt(16);
+    final int classDataLength = buffer.getInt(20);
+    final int stringBlobLength = buffer.getInt(24);
+
+    int pos = HEADER_INTS * 4;
+    fingerprints = intSection(buffer, pos, locationCount);
+    pos += locationCount * 4;
+    stringOffsets = intSection(buffer, pos, stringCount + 1);
+    pos += (stringCount + 1) * 4;
+    classDataOffsets = intSection(buffer, pos, classCount + 1);
+    pos += (classCount + 1) * 4;
+    classData = intSection(buffer, pos, classDataLength);
+    pos += classDataLength * 4;
+    strings = section(buffer, pos, stringBlobLength);
+  }
+
+  @Nonnull
+  private static ByteBuffer section(@Nonnull ByteBuffer buffer, int pos, int length) {
+    final ByteBuffer duplicate = buffer.duplicate();
+    duplicate.position(pos);
+    duplicate.limit(pos + length);
+    return duplicate.slice();
+  }
+
+  @Nonnull
+  private static IntBuffer intSection(@Nonnull ByteBuffer buffer, int pos, int length) {
+    return section(buffer, pos, length * 4).asIntBuffer();
+  }
+
+  /** @see #restore(Project, Path, Function) */
+  @Nonnull
+  public static Optional<JavaView> restore(
+      @Nonnull Project<JavaSootClass, ? extends JavaView> project, @Nonnull Path file)
+      throws IOException {
+    return restore(project, file, analysisInputLocation -> EmptyClassLoadingOptions.Default);
+  }
+
+  /**
+   * Restores a read-only view of the given project from the snapshot in the given file.
+   *
+   * @return the restored view or an empty Optional if there is no snapshot in the file, it was
+   *     written by an incompatible version or one of the input locations has changed since
+   */
+  @Nonnull
+  public static Optional<JavaView> restore(
+      @Nonnull Project<JavaSootClass, ? extends JavaView> project,
+      @Nonnull Path file,
+      @Nonnull
+          Function<AnalysisInputLocation<? extends JavaSootClass>, ClassLoadingOptions>
+              classLoadingOptionsSpecifier)
+      throws IOException {
+    if (!Files.isRegularFile(file)) {
+      return Optional.empty();
+    }
+    final MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_INTS * 4) {
+        logger.debug("Ignoring the truncated snapshot " + file);
+        return Optional.empty();
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+    if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+      logger.debug("Ignoring the snapshot " + file + " of an unsupported version.");
+      return Optional.empty();
+    }
+
+    final JavaViewSnapshot snapshot = new JavaViewSnapshot(buffer);
+    final List<AnalysisInputLocation<? extends JavaSootClass>> inputLocations =
+        project.getInputLocations();
+    if (snapshot.fingerprints.limit() != inputLocations.size()) {
+      logger.debug("Ignoring the snapshot " + file + " of different input locations.");
+      return Optional.empty();
+    }
+    for (int i = 0; i < inputLocations.size(); i++) {
+      final Optional<String> fingerprint = inputLocations.get(i).getFingerprint();
+      if (!fingerprint.isPresent()
+          || !fingerprint.get().equals(snapshot.stringOf(snapshot.fingerprints.get(i)))) {
+        logger.debug(
+            "Ignoring the outdated snapshot " + file + ": " + inputLocations.get(i) + " changed.");
+        return Optional.empty();
+      }
+    }
+    return Optional.of(new SnapshotView(project, classLoadingOptionsSpecifier, snapshot));
+  }
+
+  /** @see #restoreOrCreate(Project, Path, Function) */
+  @Nonnull
+  public static JavaView restoreOrCreate(
+      @Nonnull Project<JavaSootClass, ? extends JavaView> project, @Nonnull Path file)
+      throws IOException {
+    return restoreOrCreate(
+        project, file, analysisInputLocation -> EmptyClassLoadingOptions.Default);
+  }
+
+  /**
+   * Restores the view of the given project from the snapshot in the given file. If the snapshot
+   * does not exist or is outdated, a new view is created, all its classes are resolved and the
+   * snapshot is (re)written.
+   */
+  @Nonnull
+  public static JavaView restoreOrCreate(
+      @Nonnull Project<JavaSootClass, ? extends JavaView> project,
+      @Nonnull Path file,
+      @Nonnull
+          Function<AnalysisInputLocation<? extends JavaSootClass>, ClassLoadingOptions>
+              classLoadingOptionsSpecifier)
+      throws IOException {
+    final Optional<JavaView> restoredView = restore(project, file, classLoadingOptionsSpecifier);
+    if (restoredView.isPresent()) {
+      return restoredView.get();
+    }
+    final JavaView view = new JavaView(project, classLoadingOptionsSpecifier);
+    write(view, file);
+    return view;
+  }
+
+  /**
+   * Resolves all classes of the given view and writes the snapshot of them to the given file. The
+   * file is replaced atomically, so concurrently restored views still read a complete snapshot.
+   *
+   * @throws IllegalArgumentException if an input location of the view has no fingerprint
+   */
+  public static void write(@Nonnull JavaView view, @Nonnull Path file) throws IOException {
+    final List<? extends AnalysisInputLocation<? extends JavaSootClass>> inputLocations =
+        view.getProject().getInputLocations();
+    final List<String> locationFingerprints = new ArrayList<>(inputLocations.size());
+    for (AnalysisInputLocation<? extends JavaSootClass> inputLocation : inputLocations) {
+      locationFingerprints.add(
+          inputLocation
+              .getFingerprint()
+              .orElseThrow(
+                  () ->
+                      new IllegalArgumentException(
+                          inputLocation
+                              + " has no fingerprint, so a snapshot of it can not be validated.")));
+    }
+
+    // like the view: if multiple input locations contain a class, the first one is used
+    final Map<ClassType, Integer> locationOfClass = new HashMap<>();
+    final Map<ClassType, SourceType> sourceTypeOfClass = new HashMap<>();
+    final Map<ClassType, Path> sourcePathOfClass = new HashMap<>();
+    final List<JavaSootClass> classes = new ArrayList<>();
+    for (int i = 0; i < inputLocations.size(); i++) {
+      for (AbstractClassSource<? extends JavaSootClass> classSource :
+          inputLocations.get(i).getClassSources(view)) {
+        final ClassType classType = classSource.getClassType();
+        if (locationOfClass.containsKey(classType)) {
+          continue;
+        }
+        final Optional<JavaSootClass> clazz = view.buildClassFrom(classSource);
+        if (!clazz.isPresent()) {
+          continue;
+        }
+        locationOfClass.put(classType, i);
+        sourceTypeOfClass.put(
+            classType, view.getProject().getSourceTypeSpecifier().sourceTypeFor(classSource));
+        sourcePathOfClass.put(classType, classSource.getSourcePath());
+        classes.add(clazz.get());
+      }
+    }
+
+    // the string table is sorted, so the class names can be found by a binary search
+    final TreeSet<String> stringSet = new TreeSet<>(locationFingerprints);
+    for (JavaSootClass clazz : classes) {
+      stringSet.add(clazz.getType().getFullyQualifiedName());
+      stringSet.add(sourcePathOfClass.get(clazz.getType()).toString());
+      clazz.getSuperclass().ifPresent(type -> stringSet.add(type.getFullyQualifiedName()));
+      clazz.getOuterClass().ifPresent(type -> stringSet.add(type.getFullyQualifiedName()));
+      for (ClassType interfaceType : clazz.getInterfaces()) {
+        stringSet.add(interfaceType.getFullyQualifiedName());
+      }
+      for (SootField field : clazz.getFields()) {
+        stringSet.add(field.getName());
+        stringSet.add(field.getType().toString());
+      }
+      for (SootMethod method : clazz.getMethods()) {
+        stringSet.add(method.getName());
+        stringSet.add(method.getReturnType().toString());
+        for (Type parameterType : method.getParameterTypes()) {
+          stringSet.add(parameterType.toString());
+        }
+        for (ClassType exception : method.getExceptionSignatures()) {
+          stringSet.add(exception.getFullyQualifiedName());
+        }
+      }
+    }
+    final Map<String, Integer> stringIds = new HashMap<>(stringSet.size() * 2);
+    final ByteArrayOutputStream stringBlob = new ByteArrayOutputStream();
+    final int[] stringOffsets = new int[stringSet.size() + 1];
+    for (String str : stringSet) {
+      final int id = stringIds.size();
+      stringIds.put(str, id);
+      final byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+      stringBlob.write(bytes, 0, bytes.length);
+      stringOffsets[id + 1] = stringBlob.size();
+    }
+
+    classes.sort(Comparator.comparing(clazz -> clazz.getType().getFullyQualifiedName()));
+    final ByteArrayOutputStream classDataBytes = new ByteArrayOutputStream();
+    final DataOutputStream classData = new DataOutputStream(classDataBytes);
+    final int[] classDataOffsets = new int[classes.size() + 1];
+    for (int i = 0; i < classes.size(); i++) {
+      final JavaSootClass clazz = classes.get(i);
+      final ClassType classType = clazz.getType();
+      classData.writeInt(stringIds.get(classType.getFullyQualifiedName()));
+      classData.writeInt(locationOfClass.get(classType));
+      classData.writeInt(sourceTypeOfClass.get(classType).ordinal());
+      classData.writeInt(stringIds.get(sourcePathOfClass.get(classType).toString()));
+      classData.writeInt(modifierBits(clazz.getModifiers()));
+      classData.writeInt(
+          clazz
+              .getSuperclass()
+              .map(type -> stringIds.get(type.getFullyQualifiedName()))
+              .orElse(-1));
+      classData.writeInt(
+          clazz
+              .getOuterClass()
+              .map(type -> stringIds.get(type.getFullyQualifiedName()))
+              .orElse(-1));
+      writePosition(classData, clazz.getPosition());
+      classData.writeInt(clazz.getInterfaces().size());
+      for (ClassType interfaceType : clazz.getInterfaces()) {
+        classData.writeInt(stringIds.get(interfaceType.getFullyQualifiedName()));
+      }
+      classData.writeInt(clazz.getFields().size());
+      for (SootField field : clazz.getFields()) {
+        classData.writeInt(stringIds.get(field.getName()));
+        classData.writeInt(stringIds.get(field.getType().toString()));
+        classData.writeInt(modifierBits(field.getModifiers()));
+        writePosition(classData, field.getPosition());
+      }
+      classData.writeInt(clazz.getMethods().size());
+      for (SootMethod method : clazz.getMethods()) {
+        classData.writeInt(stringIds.get(method.getName()));
+        classData.writeInt(stringIds.get(method.getReturnType().toString()));
+        classData.writeInt(modifierBits(method.getModifiers()));
+        writePosition(classData, method.getPosition());
+        classData.writeInt(method.getParameterCount());
+        for (Type parameterType : method.getParameterTypes()) {
+          classData.writeInt(stringIds.get(parameterType.toString()));
+        }
+        classData.writeInt(method.getExceptionSignatures().size());
+        for (ClassType exception : method.getExceptionSignatures()) {
+          classData.writeInt(stringIds.get(exception.getFullyQualifiedName()));
+        }
+      }
+      classDataOffsets[i + 1] = classData.size() / 4;
+    }
+    classData.flush();
+
+    final Path tempFile =
+        Files.createTempFile(
+            file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+    try {
+      try (DataOutputStream out =
+          new DataOutputStream(
+              new BufferedOutputStream(Files.newOutputStream(tempFile), 1 << 16))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(stringSet.size());
+        out.writeInt(inputLocations.size());
+        out.writeInt(classes.size());
+        out.writeInt(classData.size() / 4);
+        out.writeInt(stringBlob.size());
+        for (String fingerprint : locationFingerprints) {
+          out.writeInt(stringIds.get(fingerprint));
+        }
+        for (int offset : stringOffsets) {
+          out.writeInt(offset);
+        }
+        for (int offset : classDataOffsets) {
+          out.writeInt(offset);
+        }
+        classDataBytes.writeTo(out);
+        stringBlob.writeTo(out);
+      }
+      Files.move(
+          tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  private static void writePosition(@Nonnull DataOutputStream out, @Nonnull Position position)
+      throws IOException {
+    out.writeInt(position.getFirstLine());
+    out.writeInt(position.getFirstCol());
+    out.writeInt(position.getLastLine());
+    out.writeInt(position.getLastCol());
+  }
+
+  /**
+   * @return the position that starts at the given index of the class record; every stored position
+   *     is restored as a {@link FullPosition}
+   */
+  @Nonnull
+  private Position positionOf(int classId, int index) {
+    final int firstLine = classValue(classId, index);
+    final int firstCol = classValue(classId, index + 1);
+    final int lastLine = classValue(classId, index + 2);
+    final int lastCol = classValue(classId, index + 3);
+    if (firstLine == -1 && firstCol == -1 && lastLine == -1 && lastCol == -1) {
+      return NoPositionInformation.getInstance();
+    }
+    return new FullPosition(firstLine, firstCol, lastLine, lastCol);
+  }
+
+  private static int modifierBits(@Nonnull Set<Modifier> modifiers) {
+    int bits = 0;
+    for (Modifier modifier : modifiers) {
+      bits |= 1 << modifier.ordinal();
+    }
+    return bits;
+  }
+
+  @Nonnull
+  private static EnumSet<Modifier> modifiersOf(int bits) {
+    final EnumSet<Modifier> modifiers = EnumSet.noneOf(Modifier.class);
+    for (Modifier modifier : MODIFIERS) {
+      if ((bits & (1 << modifier.ordinal())) != 0) {
+        modifiers.add(modifier);
+      }
+    }
+    return modifiers;
+  }
+
+  @Nonnull
+  private String stringOf(int id) {
+    final int from = stringOffsets.get(id);
+    final byte[] bytes = new byte[stringOffsets.get(id + 1) - from];
+    final ByteBuffer buffer = strings.duplicate();
+    buffer.position(from);
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  /** @return the id of the string or -1 if it is not in the string table */
+  private int findString(@Nonnull String str) {
+    int low = 0;
+    int high = stringCount - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int cmp = stringOf(mid).compareTo(str);
+      if (cmp < 0) {
+        low = mid + 1;
+      } else if (cmp > 0) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  /** @return the id of the class or -1 if it is not in the snapshot */
+  private int findClass(@Nonnull ClassType classType) {
+    final int nameId = findString(classType.getFullyQualifiedName());
+    if (nameId < 0) {
+      return -1;
+    }
+    // the classes are sorted by their name
+    int low = 0;
+    int high = classCount - 1;
+    while (low <= high) {
+      final int mid = (low + high) >>> 1;
+      final int midNameId = classData.get(classDataOffsets.get(mid) + CLASS_NAME);
+      if (midNameId < nameId) {
+        low = mid + 1;
+      } else if (midNameId > nameId) {
+        high = mid - 1;
+      } else {
+        return mid;
+      }
+    }
+    return -1;
+  }
+
+  private int classValue(int classId, int index) {
+    return classData.get(classDataOffsets.get(classId) + index);
+  }
+
+  @Nonnull
+  private ClassType classTypeOf(int stringId) {
+    return JavaIdentifierFactory.getInstance().getClassType(stringOf(stringId));
+  }
+
+  @Nonnull
+  private Type typeOf(int stringId) {
+    return JavaIdentifierFactory.getInstance().getType(stringOf(stringId));
+  }
+
+  /** A read-only view that decodes its classes from a snapshot. */
+  private static final class SnapshotView extends JavaView {
+
+    @Nonnull private final JavaViewSnapshot snapshot;
+
+    private SnapshotView(
+        @Nonnull Project<JavaSootClass, ? extends JavaView> project,
+        @Nonnull
+            Function<AnalysisInputLocation<? extends JavaSootClass>, ClassLoadingOptions>
+                classLoadingOptionsSpecifier,
+        @Nonnull JavaViewSnapshot snapshot) {
+      super(project, classLoadingOptionsSpecifier);
+      this.snapshot = snapshot;
+    }
+
+    @Override
+    @Nonnull
+    public synchronized Optional<JavaSootClass> getClass(@Nonnull ClassType type) {
+      final JavaSootClass cachedClass = cache.getClass(type);
+      if (cachedClass != null) {
+        return Optional.of(cachedClass);
+      }
+      final int classId = snapshot.findClass(type);
+      if (classId < 0) {
+        return Optional.empty();
+      }
+      return Optional.of(buildClass(classId));
+    }
+
+    @Nonnull
+    private JavaSootClass buildClass(int classId) {
+      final ClassType classType = snapshot.classTypeOf(snapshot.classValue(classId, CLASS_NAME));
+      final AnalysisInputLocation<? extends JavaSootClass> inputLocation =
+          getProject().getInputLocations().get(snapshot.classValue(classId, CLASS_LOCATION));
+      final Path sourcePath =
+          Paths.get(snapshot.stringOf(snapshot.classValue(classId, CLASS_SOURCE_PATH)));
+
+      if (Modifier.isAnnotation(modifiersOf(snapshot.classValue(classId, CLASS_MODIFIERS)))) {
+        // the default values of annotations are only contained in the class file
+        final AbstractClassSource<? extends JavaSootClass> classSource =
+            inputLocation
+                .getClassSource(classType, this)
+                .orElseThrow(
+                    () ->
+                        new ResolveException(
+                            "Could not find " + classType + " in " + inputLocation, sourcePath));
+        return buildClassFrom(classSource).get();
+      }
+
+      final JavaSootClass clazz =
+          new JavaSootClass(
+              new SnapshotClassSource(
+                  snapshot, classId, inputLocation, classType, sourcePath, this),
+              SOURCE_TYPES[snapshot.classValue(classId, CLASS_SOURCE_TYPE)]);
+      cache.putClass(classType, clazz);
+      return clazz;
+    }
+
+    @Override
+    @Nonnull
+    protected synchronized Collection<JavaSootClass> resolveAll() {
+      if (isFullyResolved && cache instanceof FullCache) {
+        return cache.getClasses();
+      }
+      final List<JavaSootClass> classes = new ArrayList<>(snapshot.classCount);
+      for (int classId = 0; classId < snapshot.classCount; classId++) {
+        final JavaSootClass cachedClass =
+            cache.getClass(snapshot.classTypeOf(snapshot.classValue(classId, CLASS_NAME)));
+        classes.add(cachedClass != null ? cachedClass : buildClass(classId));
+      }
+      isFullyResolved = true;
+      return classes;
+    }
+  }
+
+  /**
+   * Decodes the class structure from the snapshot. Bodies and annotations are taken from the class
+   * source of the original input location, which is only resolved when they are requested.
+   */
+  private static final class SnapshotClassSource extends JavaSootClassSource {
+
+    @Nonnull private final JavaViewSnapshot snapshot;
+    private final int classId;
+    @Nonnull private final SnapshotView view;
+
+    @Nonnull
+    private final Supplier<JavaSootClass> originalClass =
+        Suppliers.memoize(this::resolveOriginalClass);
+
+    private SnapshotClassSource(
+        @Nonnull JavaViewSnapshot snapshot,
+        int classId,
+        @Nonnull AnalysisInputLocation<? extends JavaSootClass> inputLocation,
+        @Nonnull ClassType classType,
+        @Nonnull Path sourcePath,
+        @Nonnull SnapshotView view) {
+      super(inputLocation, classType, sourcePath);
+      this.snapshot = snapshot;
+      this.classId = classId;
+      this.view = view;
+    }
+
+    @Nonnull
+    private JavaSootClass resolveOriginalClass() {
+      final AbstractClassSource<? extends JavaSootClass> classSource =
+          ((AnalysisInputLocation<? extends JavaSootClass>) this.classSource)
+              .getClassSource(classSignature, view)
+              .orElseThrow(
+                  () ->
+                      new ResolveException(
+                          "Could not find " + classSignature + " in " + this.classSource,
+                          sourcePath));
+      return classSource.buildClass(SOURCE_TYPES[snapshot.classValue(classId, CLASS_SOURCE_TYPE)]);
+    }
+
+    @Nonnull
+    private Optional<JavaSootMethod> originalMethod(@Nonnull MethodSignature signature) {
+      return originalClass.get().getMethod(signature.getSubSignature());
+    }
+
+    private int interfaceCount() {
+      return snapshot.classValue(classId, CLASS_INTERFACES);
+    }
+
+    @Nonnull
+    @Override
+    public Collection<? extends SootField> resolveFields() throws ResolveException {
+      final JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+      int pos = CLASS_INTERFACES + 1 + interfaceCount();
+      final int fieldCount = snapshot.classValue(classId, pos++);
+      final List<JavaSootField> fields = new ArrayList<>(fieldCount);
+      for (int i = 0; i < fieldCount; i++) {
+        final String name = snapshot.stringOf(snapshot.classValue(classId, pos++));
+        final Type type = snapshot.typeOf(snapshot.classValue(classId, pos++));
+        final EnumSet<Modifier> modifiers = modifiersOf(snapshot.classValue(classId, pos++));
+        final Position position = snapshot.positionOf(classId, pos);
+        pos += POSITION_INTS;
+        final FieldSignature signature =
+            identifierFactory.getFieldSignature(name, classSignature, type);
+        final Iterable<AnnotationUsage> annotations =
+            () ->
+                originalClass
+                    .get()
+                    .getField(signature.getSubSignature())
+                    .map(field -> field.getAnnotations(Optional.empty()))
+                    .orElse(Collections.emptyList())
+                    .iterator();
+        fields.add(new JavaSootField(signature, modifiers, annotations, position));
+      }
+      return fields;
+    }
+
+    @Nonnull
+    @Override
+    public Collection<? extends SootMethod> resolveMethods() throws ResolveException {
+      final JavaIdentifierFactory identifierFactory = JavaIdentifierFactory.getInstance();
+      int pos = CLASS_INTERFACES + 1 + interfaceCount();
+      pos += 1 + FIELD_INTS * snapshot.classValue(classId, pos);
+      final int methodCount = snapshot.classValue(classId, pos++);
+      final List<JavaSootMethod> methods = new ArrayList<>(methodCount);
+      for (int i = 0; i < methodCount; i++) {
+        final String name = snapshot.stringOf(snapshot.classValue(classId, pos++));
+        final Type returnType = snapshot.typeOf(snapshot.classValue(classId, pos++));
+        final EnumSet<Modifier> modifiers = modifiersOf(snapshot.classValue(classId, pos++));
+        final Position position = snapshot.positionOf(classId, pos);
+        pos += POSITION_INTS;
+        final int parameterCount = snapshot.classValue(classId, pos++);
+        final List<Type> parameterTypes = new ArrayList<>(parameterCount);
+        for (int j = 0; j < parameterCount; j++) {
+          parameterTypes.add(snapshot.typeOf(snapshot.classValue(classId, pos++)));
+        }
+        final int exceptionCount = snapshot.classValue(classId, pos++);
+        final List<ClassType> exceptions = new ArrayList<>(exceptionCount);
+        for (int j = 0; j < exceptionCount; j++) {
+          exceptions.add(snapshot.classTypeOf(snapshot.classValue(classId, pos++)));
+        }
+        final MethodSignature signature =
+            identifierFactory.getMethodSignature(classSignature, name, returnType, parameterTypes);
+        final Iterable<AnnotationUsage> annotations =
+            () ->
+                originalMethod(signature)
+                    .map(method -> method.getAnnotations(Optional.empty()))
+                    .orElse(Collections.emptyList())
+                    .iterator();
+        methods.add(
+            new JavaSootMethod(
+                new SnapshotBodySource(signature),
+                signature,
+                modifiers,
+                exceptions,
+                annotations,
+                position));
+      }
+      return methods;
+    }
+
+    @Nonnull
+    @Override
+    public Set<Modifier> resolveModifiers() {
+      return modifiersOf(snapshot.classValue(classId, CLASS_MODIFIERS));
+    }
+
+    @Nonnull
+    @Override
+    public Set<? extends ClassType> resolveInterfaces() {
+      final int interfaceCount = interfaceCount();
+      final Set<ClassType> interfaces = new HashSet<>(interfaceCount * 2);
+      for (int i = 0; i < interfaceCount; i++) {
+        interfaces.add(
+            snapshot.classTypeOf(snapshot.classValue(classId, CLASS_INTERFACES + 1 + i)));
+      }
+      return interfaces;
+    }
+
+    @Nonnull
+    @Override
+    public Optional<? extends ClassType> resolveSuperclass() {
+      return classTypeAt(CLASS_SUPERCLASS);
+    }
+
+    @Nonnull
+    @Override
+    public Optional<? extends ClassType> resolveOuterClass() {
+      return classTypeAt(CLASS_OUTER_CLASS);
+    }
+
+    @Nonnull
+    private Optional<ClassType> classTypeAt(int index) {
+      final int stringId = snapshot.classValue(classId, index);
+      return stringId < 0 ? Optional.empty() : Optional.of(snapshot.classTypeOf(stringId));
+    }
+
+    @Nonnull
+    @Override
+    public Position resolvePosition() {
+      return snapshot.positionOf(classId, CLASS_POSITION);
+    }
+
+    @Override
+    protected Iterable<AnnotationUsage> resolveAnnotations() {
+      return originalClass.get().getAnnotations(Optional.empty());
+    }
+
+    @Override
+    public String toString() {
+      return getSourcePath().toString();
+    }
+
+    /** Lifts the body from the original class source. */
+    private final class SnapshotBodySource implements BodySource {
+
+      @Nonnull private final MethodSignature signature;
+
+      private SnapshotBodySource(@Nonnull MethodSignature signature) {
+        this.signature = signature;
+      }
+
+      @Nonnull
+      @Override
+      public Body resolveBody(@Nonnull Iterable<Modifier> modifiers)
+          throws ResolveException, IOException {
+        final JavaSootMethod method =
+            originalMethod(signature)
+                .orElseThrow(
+                    () ->
+                        new ResolveException(
+                            "Could not find " + signature + " in " + classSource, sourcePath));
+        return method.getBodySource().resolveBody(modifiers);
+      }
+
+      @Nullable
+      @Override
+      public Object resolveAnnotationsDefaultValue() {
+        return originalMethod(signature)
+            .map(method -> method.getBodySource().resolveAnnotationsDefaultValue())
+            .orElse(null);
+      }
+
+      @Nonnull
+      @Override
+      public MethodSignature getSignature() {
+        return signature;
+      }
+    }
+  }
+}
@@ -23,7 +23,9 @@
 package sootup.java.core.jimple.common.stmt;
 
 import categories.Java8Test;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.List;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -32,6 +34,7 @@ import sootup.core.jimple.Jimple;
 import sootup.core.jimple.basic.Immediate;
 import sootup.core.jimple.basic.Local;
 import sootup.core.jimple.basic.StmtPositionInfo;
+import sootup.core.jimple.basic.Value;
 import sootup.core.jimple.common.constant.IntConstant;
 import sootup.core.jimple.common.constant.LongConstant;
 import sootup.core.jimple.common.expr.JAddExpr;
@@ -139,4 +142,34 @@ public class JAssignStmtTest {
         Jimple.newAssignStmt(someLocal, jArrayRef, StmtPositionInfo.createNoStmtPositionInfo());
     jAssignStmtArr.getArrayRef();
   }
+
+  @Test
+  public void testForEachUse() {
+    StmtPositionInfo nop = StmtPositionInfo.createNoStmtPositionInfo();
+    Local base =
+        new Local("r0", JavaIdentifierFactory.getInstance().getClassType("Abc.def.Alphabet"));
+    Local index = new Local("i1", PrimitiveType.getInt());
+    Local target = new Local("i2", PrimitiveType.getInt());
+
+    final JArrayRef arrayRef = JavaJimple.getInstance().newArrayRef(base, index);
+    Stmt addStmt = new JAssignStmt(target, new JAddExpr(index, IntConstant.getInstance(1)), nop);
+    Stmt storeStmt = new JAssignStmt(arrayRef, target, nop);
+
+    for (Stmt stmt : new Stmt[] {addStmt, storeStmt}) {
+      List<Value> uses = new ArrayList<>();
+      stmt.forEachUse(uses::add);
+      Assert.assertEquals(stmt.getUses(), uses);
+
+      List<Value> defs = new ArrayList<>();
+      stmt.forEachDef(defs::add);
+      Assert.assertEquals(stmt.getDefs(), defs);
+    }
+
+    List<Local> localUses = new ArrayList<>();
+    storeStmt.forEachLocalUse(localUses::add);
+    Assert.assertEquals(3, localUses.size());
+    Assert.assertTrue(localUses.contains(base));
+    Assert.assertTrue(localUses.contains(index));
+    Assert.assertTrue(localUses.contains(target));
+  }
 }
@@ -1,11 +1,17 @@
 package sootup.java.core.printer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
-import java.io.PrintWriter;
-import java.io.StringWriter;
+import categories.Java8Test;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import org.junit.Test;
+import org.junit.experimental.categories.Category;
 import sootup.core.Project;
 import sootup.core.frontend.OverridingBodySource;
 import sootup.core.frontend.OverridingClassSource;
@@ -13,15 +19,19 @@ import sootup.core.inputlocation.EagerInputLocation;
 import sootup.core.jimple.basic.NoPositionInformation;
 import sootup.core.jimple.basic.StmtPositionInfo;
 import sootup.core.jimple.common.stmt.JNopStmt;
+import sootup.core.jimple.common.stmt.JReturnStmt;
 import sootup.core.jimple.common.stmt.JReturnVoidStmt;
+import sootup.core.jimple.common.stmt.Stmt;
 import sootup.core.model.*;
 import sootup.core.signatures.MethodSignature;
+import sootup.core.types.ClassType;
 import sootup.core.types.PrimitiveType;
 import sootup.core.util.Utils;
 import sootup.core.util.printer.JimplePrinter;
 import sootup.core.views.View;
 import sootup.java.core.JavaIdentifierFactory;
 import sootup.java.core.JavaProject;
+import sootup.java.core.language.JavaJimple;
 import sootup.java.core.language.JavaLanguage;
 
 /**
@@ -54,13 +64,135 @@ public class JimplePrinterTest {
         Utils.filterJimple(writer.toString()));
   }
 
+  @Test
+  @Category(Java8Test.class)
+  public void testStreamedOutput() throws IOException {
+    JimplePrinter p = new JimplePrinter();
+    final StringWriter writer = new StringWriter();
+    final SootClass<?> clazz = buildClass();
+    p.printTo(clazz, writer);
+    final String expected = writer.toString();
+
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    p.printTo(clazz, Channels.newChannel(bytes));
+    assertEquals(expected, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+
+    final SootClass<?> otherClazz = buildClass("some.package.OtherClass");
+    final StringWriter otherWriter = new StringWriter();
+    p.printTo(otherClazz, otherWriter);
+
+    final Path outputDirectory = Files.createTempDirectory("jimpleDump");
+    try {
+      final Map<ClassType, Exception> failures =
+          p.printToDirectory(Arrays.<SootClass<?>>asList(clazz, otherClazz), outputDirectory, 2);
+      assertTrue(failures.isEmpty());
+      final Path file = outputDirectory.resolve("some.package.SomeClass.jimple");
+      assertEquals(expected, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+      Files.delete(file);
+      final Path otherFile = outputDirectory.resolve("some.package.OtherClass.jimple");
+      assertEquals(
+          otherWriter.toString(),
+          new String(Files.readAllBytes(otherFile), StandardCharsets.UTF_8));
+      Files.delete(otherFile);
+    } finally {
+      Files.delete(outputDirectory);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @Category(Java8Test.class)
+  public void testPrintToDirectoryRejectsSameFile() throws IOException {
+    final SootClass<?> clazz = buildClass();
+    final Path outputDirectory = Files.createTempDirectory("jimpleDump");
+    try {
+      new JimplePrinter()
+          .printToDirectory(Arrays.<SootClass<?>>asList(clazz, clazz), outputDirectory, 2);
+    } finally {
+      Files.delete(outputDirectory);
+    }
+  }
+
+  @Test
+  @Category(Java8Test.class)
+  public void testStreamingWritesInChunks() {
+    MethodSignature methodSignature =
+        JavaIdentifierFactory.getInstance()
+            .getMethodSignature("main", "some.package.SomeClass", "void", Collections.emptyList());
+    StmtPositionInfo noPosInfo = StmtPositionInfo.createNoStmtPositionInfo();
+    Body.BodyBuilder bodyBuilder = Body.builder().setMethodSignature(methodSignature);
+    Stmt previous = new JNopStmt(noPosInfo);
+    bodyBuilder.setStartingStmt(previous);
+    for (int i = 0; i < 5000; i++) {
+      final Stmt nop = new JNopStmt(noPosInfo);
+      bodyBuilder.addFlow(previous, nop);
+      previous = nop;
+    }
+    bodyBuilder.addFlow(previous, new JReturnVoidStmt(noPosInfo));
+    final Body body = bodyBuilder.build();
+
+    final List<Integer> writes = new ArrayList<>();
+    final StringWriter content = new StringWriter();
+    final Writer writer =
+        new Writer() {
+          @Override
+          public void write(char[] cbuf, int off, int len) {
+            writes.add(len);
+            content.write(cbuf, off, len);
+          }
+
+          @Override
+          public void flush() {}
+
+          @Override
+          public void close() {}
+        };
+    new JimplePrinter().printTo(body, writer);
+
+    assertTrue(writes.size() > 1);
+    // a chunk is written as soon as a line is completed and the buffer is full
+    for (Integer len : writes) {
+      assertTrue(len < 2 * JimplePrinter.DEFAULT_BUFFER_SIZE);
+    }
+    assertEquals(5002, Utils.bodyStmtsAsStrings(body).size());
+    assertEquals(body.toString(), content.toString());
+  }
+
+  @Test
+  @Category(Java8Test.class)
+  public void testEscapedStringConstant() {
+    MethodSignature methodSignature =
+        JavaIdentifierFactory.getInstance()
+            .getMethodSignature(
+                "name", "some.package.SomeClass", "java.lang.String", Collections.emptyList());
+    StmtPositionInfo noPosInfo = StmtPositionInfo.createNoStmtPositionInfo();
+    Stmt nop = new JNopStmt(noPosInfo);
+    Stmt returnStmt =
+        new JReturnStmt(
+            JavaJimple.getInstance().newStringConstant("\u0001single\u00e4"), noPosInfo);
+    Body body =
+        Body.builder()
+            .setMethodSignature(methodSignature)
+            .setStartingStmt(nop)
+            .addFlow(nop, returnStmt)
+            .build();
+
+    // the printer streams chunks of its output through the EscapedWriter of the body
+    String escapedStmt = "return \"\\u0001single\\u00e4\"";
+    assertEquals(Arrays.asList("nop", escapedStmt), Utils.bodyStmtsAsStrings(body));
+    assertTrue(body.toString().contains(escapedStmt));
+    assertTrue(body.getStmtGraph().toString().contains(escapedStmt));
+  }
+
   private SootClass buildClass() {
+    return buildClass("some.package.SomeClass");
+  }
+
+  private SootClass buildClass(String className) {
 
     Project project =
         JavaProject.builder(new JavaLanguage(8)).addInputLocation(new EagerInputLocation()).build();
     View view = project.createView();
 
-    String className = "some.package.SomeClass";
     MethodSignature methodSignatureOne =
         view.getIdentifierFactory()
             .getMethodSignature("main", className, "void", Collections.emptyList());